@@ -0,0 +1,27 @@
+package com.cv.aiml_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.restclient.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class AiClientConfig {
+
+    /**
+     * RestTemplate for the external AI service.
+     * Built from the Boot builder so {@code ai.api.timeout} bounds how long a caller
+     * (request thread or virtual thread) can be held by a slow AI service.
+     */
+    @Bean
+    public RestTemplate aiRestTemplate(RestTemplateBuilder builder,
+                                       @Value("${ai.api.timeout:30000}") long timeoutMillis) {
+        return builder
+                .connectTimeout(Duration.ofMillis(Math.min(timeoutMillis, 5000)))
+                .readTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+    }
+}
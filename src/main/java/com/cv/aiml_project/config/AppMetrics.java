@@ -0,0 +1,72 @@
+package com.cv.aiml_project.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Names and tag values of the application's own meters.
+ * All of them are exported through {@code /actuator/prometheus}.
+ */
+public final class AppMetrics {
+
+    // Matching and ranking
+    public static final String MATCH_SCORE = "aiml.matching.score";
+    public static final String MATCH_SCORER = "aiml.matching.scorer";
+    public static final String MATCH_SCORE_CACHE = "aiml.matching.score.cache";
+    public static final String SHADOW_SCORE_DELTA = "aiml.matching.shadow.delta";
+    public static final String SHADOW_SCORE_SKIPPED = "aiml.matching.shadow.skipped";
+    public static final String SKILL_MATCH_BATCH = "aiml.skillmatch.batch";
+    public static final String SKILL_MATCH_BATCH_CANDIDATES = "aiml.skillmatch.batch.candidates";
+    public static final String RANKING_RUN = "aiml.ranking.run";
+    public static final String RANKING_CANDIDATES = "aiml.ranking.candidates";
+    public static final String JOB_FEED_REQUESTS = "aiml.jobs.feed.requests";
+    public static final String HISTORY_ARCHIVED = "aiml.history.archived";
+    public static final String HISTORY_PURGED = "aiml.history.purged";
+
+    // External AI service
+    public static final String AI_CLIENT_REQUESTS = "aiml.ai.client.requests";
+
+    // Files and mail
+    public static final String UPLOAD_DURATION = "aiml.upload.duration";
+    public static final String UPLOAD_SIZE = "aiml.upload.size";
+    public static final String STORAGE_OPERATION = "aiml.storage.operation";
+    public static final String STORAGE_BYTES = "aiml.storage.bytes";
+    public static final String TEXT_EXTRACTION = "aiml.extraction.duration";
+    public static final String PREVIEW_GENERATION = "aiml.preview.duration";
+    public static final String PREVIEW_CACHE = "aiml.preview.cache";
+    public static final String STORED_TEXT_BYTES = "aiml.storedtext.bytes";
+    public static final String MAIL_SEND = "aiml.mail.send";
+
+    // Per-request database work
+    public static final String HTTP_SQL_STATEMENTS = "aiml.http.sql.statements";
+    public static final String HTTP_JDBC_TIME = "aiml.http.jdbc.time";
+
+    // Read replica
+    public static final String DB_REPLICA_LAG = "aiml.db.replica.lag";
+    public static final String DB_READ_ONLY_CONNECTIONS = "aiml.db.readonly.connections";
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_FAILURE = "FAILURE";
+
+    private AppMetrics() {}
+
+    /**
+     * Record latency and size of a stored upload
+     */
+    public static void recordUpload(MeterRegistry registry, String target, Timer.Sample sample, long bytes) {
+        sample.stop(Timer.builder(UPLOAD_DURATION)
+                .description("Time taken to store an uploaded file")
+                .tag("target", target)
+                .publishPercentileHistogram()
+                .register(registry));
+
+        DistributionSummary.builder(UPLOAD_SIZE)
+                .description("Size of uploaded files")
+                .baseUnit("bytes")
+                .tag("target", target)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(bytes);
+    }
+}
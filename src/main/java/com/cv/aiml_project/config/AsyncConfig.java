@@ -0,0 +1,42 @@
+package com.cv.aiml_project.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} on the auto-configured application task executor.
+ * With {@code spring.threads.virtual.enabled=true} that executor, Tomcat's request threads and
+ * scheduled tasks all run on virtual threads, but only when the JVM running the application is
+ * Java 21+: the build targets Java 17, where Spring Boot ignores the flag. Otherwise the bounded
+ * {@code spring.task.execution.pool.*} platform pool is used, and startup says so.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request handling, @Async and scheduled tasks run on virtual threads");
+        } else if (virtualThreadsRequested) {
+            log.warn("spring.threads.virtual.enabled is set but this JVM is Java {}; virtual threads need "
+                    + "Java 21+, so platform thread pools are used", Runtime.version().feature());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.service.BlobStore;
+import com.cv.aiml_project.service.LocalBlobStore;
+import com.cv.aiml_project.service.S3BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Chooses where uploaded files live: {@code app.storage.type=local} (sharded directory tree,
+ * the default) or {@code s3} (any S3-compatible object store).
+ */
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(@Value("${app.storage.type:local}") String type,
+                               @Value("${app.storage.local.root:./uploads/blobs}") String localRoot,
+                               @Value("${app.storage.s3.endpoint:http://localhost:9000}") String endpoint,
+                               @Value("${app.storage.s3.bucket:resumes}") String bucket,
+                               @Value("${app.storage.s3.region:us-east-1}") String region,
+                               @Value("${app.storage.s3.access-key:}") String accessKey,
+                               @Value("${app.storage.s3.secret-key:}") String secretKey) throws IOException {
+        return switch (type) {
+            case "local" -> new LocalBlobStore(Paths.get(localRoot));
+            case "s3" -> new S3BlobStore(endpoint, bucket, region, accessKey, secretKey);
+            default -> throw new IllegalStateException("Unknown app.storage.type: " + type);
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.cv.aiml_project.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate session listener that counts executed statements and JDBC time
+ * into the {@link RequestJdbcStats} of the calling thread.
+ * Registered for every session through {@code hibernate.session.events.auto}.
+ */
+public class JdbcStatementListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private void record(long start) {
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats != null && start > 0) {
+            stats.recordStatement(System.nanoTime() - start);
+        }
+    }
+}
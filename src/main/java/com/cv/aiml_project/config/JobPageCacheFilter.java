@@ -0,0 +1,35 @@
+package com.cv.aiml_project.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * Cache policy for the job browse and detail pages.
+ * They render per user (feed, applied state), so browsers may only keep a private copy and must
+ * revalidate it; the ETag is a hash of the rendered page, so an unchanged page goes back as a
+ * 304 without its body. Setting Cache-Control here also stops Spring Security's no-store default.
+ */
+@Component
+public class JobPageCacheFilter extends ShallowEtagHeaderFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !"GET".equals(request.getMethod())
+                || !(uri.equals("/jobs/browse") || uri.startsWith("/jobs/view/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        super.doFilterInternal(request, response, filterChain);
+    }
+}
@@ -0,0 +1,90 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.dto.CursorPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.ser.std.SimpleBeanPropertyFilter;
+import tools.jackson.databind.ser.std.SimpleFilterProvider;
+
+import java.lang.reflect.RecordComponent;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a page of row records straight to the response, one row at a time, instead of building
+ * the whole body in memory first. Rows are records annotated with {@code @JsonFilter(FIELD_FILTER)};
+ * a client can ask for a subset of their fields with {@code fields=a,b,c}.
+ */
+@Component
+public class JsonRowWriter {
+
+    public static final String FIELD_FILTER = "fields";
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    /**
+     * Parse a comma-separated field list against the row type; null or blank selects every field
+     */
+    public Set<String> parseFields(String fields, Class<? extends Record> rowType) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> known = new LinkedHashSet<>();
+        for (RecordComponent component : rowType.getRecordComponents()) {
+            known.add(component.getName());
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    /**
+     * {"success":true, <header...>, "<name>":[rows...], "nextCursor":...}
+     */
+    public StreamingResponseBody page(String name, CursorPage<?> page, Set<String> fields,
+                                      Map<String, String> header) {
+        SimpleBeanPropertyFilter filter = fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        ObjectWriter rowWriter = jsonMapper.writer(new SimpleFilterProvider().addFilter(FIELD_FILTER, filter));
+
+        return out -> {
+            try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeBooleanProperty("success", true);
+                header.forEach(generator::writeStringProperty);
+                generator.writeName(name);
+                generator.writeStartArray();
+                for (Object row : page.rows()) {
+                    rowWriter.writeValue(generator, row);
+                }
+                generator.writeEndArray();
+                if (page.nextCursor() != null) {
+                    generator.writeStringProperty("nextCursor", page.nextCursor());
+                } else {
+                    generator.writeNullProperty("nextCursor");
+                }
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    public StreamingResponseBody page(String name, CursorPage<?> page, Set<String> fields) {
+        return page(name, page, fields, Map.of());
+    }
+}
@@ -0,0 +1,29 @@
+package com.cv.aiml_project.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Attach the JDBC statement listener to every Hibernate session
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcStatementListenerCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                JdbcStatementListener.class.getName());
+    }
+
+    /**
+     * Use statistics that also attribute entity loads to the current request
+     */
+    @Bean
+    public HibernatePropertiesCustomizer requestProfilingStatisticsCustomizer() {
+        StatisticsFactory factory = RequestProfilingStatistics::new;
+        return properties -> properties.put(AvailableSettings.STATS_BUILDER, factory);
+    }
+}
@@ -0,0 +1,67 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.entity.ApplicationEvent;
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.PooledIds;
+import com.cv.aiml_project.entity.SkillMatchResult;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each pooled id row past the ids already in use before anything is written.
+ * Rankings and match results had IDENTITY ids before, and rows moved to the history tables
+ * keep theirs, so a fresh generator row would hand out ids that already exist. With the
+ * pooled optimizer the stored value is the top of the next block, hence max id + block size.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PooledIdSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledIdSeeder.class);
+
+    private record Generator(String name, int allocationSize, List<String> tables) {}
+
+    private static final List<Generator> GENERATORS = List.of(
+            new Generator("candidate_rankings", CandidateRanking.ID_ALLOCATION_SIZE,
+                    List.of("candidate_rankings", "candidate_ranking_history")),
+            new Generator("skill_match_results", SkillMatchResult.ID_ALLOCATION_SIZE,
+                    List.of("skill_match_results", "skill_match_result_history")),
+            new Generator("application_events", ApplicationEvent.ID_ALLOCATION_SIZE,
+                    List.of("application_events")));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seed() {
+        for (Generator generator : GENERATORS) {
+            long floor = maxId(generator.tables()) + generator.allocationSize();
+            int updated = jdbcTemplate.update("UPDATE " + PooledIds.TABLE + " SET " + PooledIds.VALUE_COLUMN +
+                            " = GREATEST(" + PooledIds.VALUE_COLUMN + ", ?) WHERE " + PooledIds.NAME_COLUMN + " = ?",
+                    floor, generator.name());
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO " + PooledIds.TABLE + " (" + PooledIds.NAME_COLUMN + ", " +
+                        PooledIds.VALUE_COLUMN + ") VALUES (?, ?)", generator.name(), floor);
+            }
+            log.debug("Pooled ids for {} start above {}", generator.name(), floor - generator.allocationSize());
+        }
+    }
+
+    private long maxId(List<String> tables) {
+        long max = 0;
+        for (String table : tables) {
+            Long tableMax = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (tableMax != null) {
+                max = Math.max(max, tableMax);
+            }
+        }
+        return max;
+    }
+}
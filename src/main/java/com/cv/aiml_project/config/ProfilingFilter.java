@@ -0,0 +1,213 @@
+package com.cv.aiml_project.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-request profiler for ops and development.
+ * Reports SQL statements, JDBC time, entities/collections loaded and bytes allocated
+ * by the request thread as response headers, and logs requests that cross a threshold.
+ * Headers are set just before the response body starts, so nothing is buffered: downloads,
+ * streamed and async responses pass through as they are. With open-in-view off no SQL runs
+ * while the view renders, so the headers still cover the request's database work.
+ * Enabled with {@code app.profiling.enabled=true}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true")
+public class ProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingFilter.class);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    @Value("${app.profiling.headers:true}")
+    private boolean addHeaders;
+
+    @Value("${app.profiling.threshold.statements:50}")
+    private long statementThreshold;
+
+    @Value("${app.profiling.threshold.jdbc-ms:500}")
+    private long jdbcMillisThreshold;
+
+    @Value("${app.profiling.threshold.allocated-mb:64}")
+    private long allocatedMbThreshold;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return request.getRequestURI().startsWith("/actuator")
+                || (accept != null && accept.contains("text/event-stream"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean ownsStats = RequestJdbcStats.current() == null;
+        RequestJdbcStats stats = ownsStats ? RequestJdbcStats.begin() : RequestJdbcStats.current();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+
+        HeadersBeforeBody wrapper = addHeaders
+                ? new HeadersBeforeBody(response, () -> addHeaders(response, stats,
+                        (System.nanoTime() - start) / 1_000_000,
+                        allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1))
+                : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            long allocated = allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1;
+
+            // Responses without a body, or sent by the container afterwards (sendfile)
+            if (wrapper != null) {
+                wrapper.addHeadersOnce();
+            }
+            logIfSlow(request, stats, elapsedMs, allocated);
+
+            if (ownsStats) {
+                RequestJdbcStats.end();
+            }
+        }
+    }
+
+    private void addHeaders(HttpServletResponse response, RequestJdbcStats stats, long elapsedMs, long allocated) {
+        double jdbcMs = stats.getJdbcNanos() / 1_000_000.0;
+        response.setHeader("X-Profile-Sql-Statements", String.valueOf(stats.getStatementCount()));
+        response.setHeader("X-Profile-Jdbc-Ms", String.format("%.1f", jdbcMs));
+        response.setHeader("X-Profile-Entities-Loaded", String.valueOf(stats.getEntitiesLoaded()));
+        response.setHeader("X-Profile-Collections-Loaded", String.valueOf(stats.getCollectionsLoaded()));
+        response.setHeader("X-Profile-Allocated-Bytes", String.valueOf(allocated));
+        response.setHeader("X-Profile-Duration-Ms", String.valueOf(elapsedMs));
+        // Also visible in the browser devtools timing tab
+        response.setHeader("Server-Timing", String.format("db;dur=%.1f;desc=\"%d statements\", total;dur=%d",
+                jdbcMs, stats.getStatementCount(), elapsedMs));
+    }
+
+    /**
+     * Adds the profile headers the first time the body, an error or a redirect is about to go out
+     */
+    static final class HeadersBeforeBody extends HttpServletResponseWrapper {
+
+        private final Runnable addHeaders;
+        private boolean added;
+
+        HeadersBeforeBody(HttpServletResponse response, Runnable addHeaders) {
+            super(response);
+            this.addHeaders = addHeaders;
+        }
+
+        void addHeadersOnce() {
+            if (!added) {
+                added = true;
+                if (!isCommitted()) {
+                    addHeaders.run();
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeadersOnce();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeadersOnce();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeadersOnce();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            addHeadersOnce();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            addHeadersOnce();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeadersOnce();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendRedirect(String location, int status) throws IOException {
+            addHeadersOnce();
+            super.sendRedirect(location, status);
+        }
+
+        @Override
+        public void sendRedirect(String location, boolean clearBuffer) throws IOException {
+            addHeadersOnce();
+            super.sendRedirect(location, clearBuffer);
+        }
+
+        @Override
+        public void sendRedirect(String location, int status, boolean clearBuffer) throws IOException {
+            addHeadersOnce();
+            super.sendRedirect(location, status, clearBuffer);
+        }
+    }
+
+    private void logIfSlow(HttpServletRequest request, RequestJdbcStats stats, long elapsedMs, long allocated) {
+        long jdbcMs = stats.getJdbcNanos() / 1_000_000;
+        boolean crossed = stats.getStatementCount() >= statementThreshold
+                || jdbcMs >= jdbcMillisThreshold
+                || allocated >= allocatedMbThreshold * 1024 * 1024;
+
+        if (crossed) {
+            log.warn("Expensive request {} {}: {} statements, {} ms JDBC, {} entities, {} collections, {} KB allocated, {} ms total",
+                    request.getMethod(), request.getRequestURI(), stats.getStatementCount(), jdbcMs,
+                    stats.getEntitiesLoaded(), stats.getCollectionsLoaded(),
+                    allocated >= 0 ? allocated / 1024 : -1, elapsedMs);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} {}: {} statements, {} ms JDBC, {} entities, {} KB allocated",
+                    request.getMethod(), request.getRequestURI(), stats.getStatementCount(), jdbcMs,
+                    stats.getEntitiesLoaded(), allocated >= 0 ? allocated / 1024 : -1);
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 when the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+}
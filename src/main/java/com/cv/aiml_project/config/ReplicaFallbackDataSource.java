@@ -0,0 +1,59 @@
+package com.cv.aiml_project.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connections for read-only transactions: from the replica inside {@link ReplicaRouting#fromReplica}
+ * while {@link ReplicaLagMonitor} considers it current, from the primary otherwise. A replica that refuses a connection is
+ * taken out until the next lag check finds it healthy again.
+ */
+class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor lagMonitor;
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor lagMonitor) {
+        this.replica = replica;
+        this.primary = primary;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection();
+                lagMonitor.routed(true);
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.connectionFailed(e);
+            }
+        }
+        lagMonitor.routed(false);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection connection = replica.getConnection(username, password);
+                lagMonitor.routed(true);
+                return connection;
+            } catch (SQLException e) {
+                lagMonitor.connectionFailed(e);
+            }
+        }
+        lagMonitor.routed(false);
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return ReplicaRouting.replicaAllowed() && lagMonitor.isReplicaUsable();
+    }
+}
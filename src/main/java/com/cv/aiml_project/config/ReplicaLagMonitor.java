@@ -0,0 +1,128 @@
+package com.cv.aiml_project.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Polls the read replica's replication lag and decides whether read-only transactions may use it.
+ * The replica is used only while its lag is known and within {@code max-lag-seconds}; a stopped
+ * replication thread, a failed check or a refused connection sends reads to the primary.
+ * An instance that is not replicating at all (no replica status) counts as current, so routing
+ * can be tried against a second local database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    private JdbcTemplate jdbcTemplate;
+    private Counter replicaReads;
+    private Counter primaryReads;
+
+    // Reads stay on the primary until the first check has passed
+    private volatile boolean replicaUsable;
+    private volatile double lagSeconds = Double.NaN;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        jdbcTemplate.setQueryTimeout(5);
+        Gauge.builder(AppMetrics.DB_REPLICA_LAG, this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica (NaN when unknown)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        replicaReads = readCounter("replica");
+        primaryReads = readCounter("primary");
+    }
+
+    @Scheduled(initialDelayString = "${app.datasource.replica.initial-delay-ms:0}",
+            fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void check() {
+        Long lag;
+        try {
+            lag = readLag();
+        } catch (DataAccessException e) {
+            log.debug("Replica lag check failed: {}", e.getMessage());
+            lag = null;
+        }
+        lagSeconds = lag != null ? lag : Double.NaN;
+        update(lag != null && lag <= maxLagSeconds,
+                lag == null ? "lag unknown" : "lag " + lag + "s (limit " + maxLagSeconds + "s)");
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    void connectionFailed(SQLException e) {
+        update(false, "connection failed: " + e.getMessage());
+    }
+
+    void routed(boolean toReplica) {
+        (toReplica ? replicaReads : primaryReads).increment();
+    }
+
+    // Seconds behind the source; null when replication is stopped or broken
+    private Long readLag() {
+        try {
+            return readLag("SHOW REPLICA STATUS", "Seconds_Behind_Source");
+        } catch (DataAccessException e) {
+            // MySQL before 8.0.22
+            return readLag("SHOW SLAVE STATUS", "Seconds_Behind_Master");
+        }
+    }
+
+    private Long readLag(String sql, String column) {
+        return jdbcTemplate.query(sql, rs -> {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        });
+    }
+
+    private void update(boolean usable, String reason) {
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Read replica in use: {}", reason);
+            } else {
+                log.warn("Read replica bypassed, reads go to the primary: {}", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    private Counter readCounter(String target) {
+        return Counter.builder(AppMetrics.DB_READ_ONLY_CONNECTIONS)
+                .description("Connections handed to read-only transactions, by database")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
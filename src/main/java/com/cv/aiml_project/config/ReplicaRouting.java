@@ -0,0 +1,63 @@
+package com.cv.aiml_project.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing for the read replica. Nothing goes there by default: only reporting and
+ * dashboard reads wrapped in {@link #fromReplica} do, and only their read-only transactions.
+ * <p>
+ * A replica read must get a connection of its own. When a transaction or EntityManager is
+ * already bound to the thread, the read joins it and stays on the primary; otherwise the
+ * replica connection would be held and reused by the writes that follow.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReplicaRouting() {}
+
+    /**
+     * Run a reporting read, whose read-only transactions may use the replica
+     */
+    public static <T> T fromReplica(Supplier<T> read) {
+        if (REPLICA_ALLOWED.get() != null || holdsConnection()) {
+            return read.get();
+        }
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            REPLICA_ALLOWED.remove();
+        }
+    }
+
+    /**
+     * Run a read against the primary, even inside {@link #fromReplica}.
+     * Responses cached under a {@link com.cv.aiml_project.service.DataVersionService} ETag need
+     * this: the version is bumped on commit to the primary, so a lagging replica would hand out
+     * old rows under the new tag and clients would keep them until the next change.
+     */
+    public static <T> T fromPrimary(Supplier<T> read) {
+        boolean outer = PRIMARY_REQUIRED.get() == null;
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer) {
+                PRIMARY_REQUIRED.remove();
+            }
+        }
+    }
+
+    static boolean replicaAllowed() {
+        return REPLICA_ALLOWED.get() != null && PRIMARY_REQUIRED.get() == null;
+    }
+
+    private static boolean holdsConnection() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.getResourceMap().isEmpty();
+    }
+}
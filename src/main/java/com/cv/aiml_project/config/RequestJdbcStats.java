@@ -0,0 +1,62 @@
+package com.cv.aiml_project.config;
+
+/**
+ * Per-thread JDBC counters for the request currently being served.
+ * Filled by {@link JdbcStatementListener} and {@link RequestProfilingStatistics},
+ * read by {@link RequestMetricsFilter} and {@link ProfilingFilter}.
+ */
+public final class RequestJdbcStats {
+
+    private static final ThreadLocal<RequestJdbcStats> CURRENT = new ThreadLocal<>();
+
+    private long statementCount;
+    private long jdbcNanos;
+    private long entitiesLoaded;
+    private long collectionsLoaded;
+
+    private RequestJdbcStats() {}
+
+    /**
+     * Start collecting for the current thread
+     */
+    public static RequestJdbcStats begin() {
+        RequestJdbcStats stats = new RequestJdbcStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stop collecting for the current thread
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stats for the current thread, or null when no request is being tracked
+     */
+    public static RequestJdbcStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(long elapsedNanos) {
+        statementCount++;
+        jdbcNanos += elapsedNanos;
+    }
+
+    void recordEntityLoad() {
+        entitiesLoaded++;
+    }
+
+    void recordCollectionLoad() {
+        collectionsLoaded++;
+    }
+
+    public long getStatementCount() { return statementCount; }
+
+    public long getJdbcNanos() { return jdbcNanos; }
+
+    public long getEntitiesLoaded() { return entitiesLoaded; }
+
+    public long getCollectionsLoaded() { return collectionsLoaded; }
+}
@@ -0,0 +1,54 @@
+package com.cv.aiml_project.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Hibernate statistics that additionally attribute entity and collection loads
+ * to the {@link RequestJdbcStats} of the calling thread.
+ * Global counters are unchanged, so the hibernate.* meters keep working.
+ * Installed through {@code hibernate.stats.factory}; only active while
+ * {@code hibernate.generate_statistics} is on.
+ */
+public class RequestProfilingStatistics extends StatisticsImpl {
+
+    public RequestProfilingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad();
+        }
+    }
+
+    @Override
+    public void loadCollection(String role) {
+        super.loadCollection(role);
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats != null) {
+            stats.recordCollectionLoad();
+        }
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        super.fetchCollection(role);
+        RequestJdbcStats stats = RequestJdbcStats.current();
+        if (stats != null) {
+            stats.recordCollectionLoad();
+        }
+    }
+}
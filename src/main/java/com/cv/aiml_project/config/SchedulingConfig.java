@@ -0,0 +1,13 @@
+package com.cv.aiml_project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background maintenance (history compaction and retention).
+ * Tasks run one at a time on Spring's auto-configured scheduler thread.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
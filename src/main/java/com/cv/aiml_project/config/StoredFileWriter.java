@@ -0,0 +1,193 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.dto.StoredFile;
+import com.cv.aiml_project.service.BlobStore;
+import com.cv.aiml_project.service.ResumeStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sends stored resumes and their thumbnails to the client without going through a
+ * {@code Resource} copy loop. Responses carry an ETag (the content hash) and Last-Modified, so
+ * a browser that already has the file gets a 304, and a single {@code Range} is answered with
+ * 206 so PDF viewers can fetch pages on demand. Local files are handed to Tomcat's sendfile
+ * where the connector supports it, otherwise copied with {@link FileChannel#transferTo}.
+ */
+@Component
+public class StoredFileWriter {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Value("${app.download.sendfile:true}")
+    private boolean sendfileEnabled;
+
+    /**
+     * Serve a stored resume inline (for the browser's viewer) or as an attachment
+     */
+    public void write(StoredFile file, boolean inline, CacheControl cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> local = storageService.localFile(file.key());
+        if (local.isPresent() && !Files.isReadable(local.get())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long size = local.isPresent() ? Files.size(local.get())
+                : file.size() != null ? file.size() : storageService.size(file.key());
+
+        String etag = BlobStore.isContentKey(file.key())
+                ? BlobStore.hashOf(file.key())
+                : size + "-" + (file.modified() != null ? file.modified().toString() : "0");
+        long lastModified = file.modified() != null
+                ? file.modified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        String contentType = inline
+                ? (file.contentType() != null ? file.contentType() : MediaType.APPLICATION_PDF_VALUE)
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        String disposition = ContentDisposition.builder(inline ? "inline" : "attachment")
+                .filename(file.fileName() != null ? file.fileName() : "resume", StandardCharsets.UTF_8)
+                .build().toString();
+
+        serve(local.orElse(null), file.key(), size, contentType, disposition, etag, lastModified,
+                cacheControl, request, response);
+    }
+
+    /**
+     * Serve a precomputed image such as a resume thumbnail
+     */
+    public void writeImage(Path image, String etag, CacheControl cacheControl,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(image, null, Files.size(image), MediaType.IMAGE_PNG_VALUE, null, etag,
+                Files.getLastModifiedTime(image).toMillis(), cacheControl, request, response);
+    }
+
+    private void serve(Path local, String key, long size, String contentType, String disposition,
+                       String etag, long lastModified, CacheControl cacheControl,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType);
+        if (disposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+
+        long start = 0;
+        long length = size;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null && size > 0) {
+            long end;
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                start = size;
+                end = -1;
+            }
+            if (start >= size || end < start) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            length = end - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        storageService.recordServed(length);
+        if (local != null) {
+            transfer(local, start, length, request, response);
+        } else {
+            try (InputStream in = storageService.openRange(key, start, length)) {
+                in.transferTo(response.getOutputStream());
+            }
+        }
+    }
+
+    /**
+     * The single byte range to send, or null for the whole file. Several ranges are answered
+     * with the whole file rather than a multipart body, and so is a stale If-Range.
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals("\"" + etag + "\"")) {
+            try {
+                if (request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 != lastModified / 1000) {
+                    return null;
+                }
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void transfer(Path file, long start, long length,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // A buffering wrapper (header profiling) would swallow a sendfile body
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+                && WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) == null) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
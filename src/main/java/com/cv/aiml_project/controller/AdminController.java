@@ -1,8 +1,11 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.ReplicaRouting;
 import com.cv.aiml_project.entity.Resume;
 import com.cv.aiml_project.entity.Role;
 import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.service.CandidateQueryService;
+import com.cv.aiml_project.service.MatchScorerRegistry;
 import com.cv.aiml_project.service.ResumeService;
 import com.cv.aiml_project.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,15 +33,22 @@ public class AdminController {
     @Autowired
     private ResumeService resumeService;  // Add this
 
+    @Autowired
+    private MatchScorerRegistry matchScorerRegistry;
+
+    @Autowired
+    private CandidateQueryService candidateQueryService;
+
     // Admin Dashboard
     @GetMapping("/dashboard")
     public String adminDashboard(Model model, HttpServletRequest request, HttpSession session) {
         model.addAttribute("currentPath", request.getRequestURI());
-        long totalUsers = userService.getTotalUsers();
-        long totalCandidates = userService.getTotalCandidates();
-        long totalHR = userService.getTotalHR();
-        long activeCandidates = userService.getActiveCandidates();
-        long mlProcessed = resumeService.getProcessedResumeCount();  // Use resumeService instead
+        // Dashboard counts are reporting reads: the replica may serve them
+        long totalUsers = ReplicaRouting.fromReplica(userService::getTotalUsers);
+        long totalCandidates = ReplicaRouting.fromReplica(userService::getTotalCandidates);
+        long totalHR = ReplicaRouting.fromReplica(userService::getTotalHR);
+        long activeCandidates = ReplicaRouting.fromReplica(userService::getActiveCandidates);
+        long mlProcessed = ReplicaRouting.fromReplica(resumeService::getProcessedResumeCount);
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         User user = userService.getUserByUsername(auth.getName()).orElse(null);
@@ -63,26 +73,19 @@ public class AdminController {
 
         List<User> users;
         if (search != null && !search.trim().isEmpty()) {
-            users = userService.searchUsers(search);
+            users = candidateQueryService.searchUsers(search);
             model.addAttribute("search", search);
         } else if (role != null && !role.trim().isEmpty()) {
             try {
-                users = userService.getUsersByRole(Role.valueOf(role.toUpperCase()));
+                users = candidateQueryService.getUsersByRole(Role.valueOf(role.toUpperCase()));
                 model.addAttribute("selectedRole", role);
             } catch (IllegalArgumentException e) {
-                users = userService.getAllUsers();
+                users = candidateQueryService.getAllUsers();
             }
         } else {
-            users = userService.getAllUsers();
+            users = candidateQueryService.getAllUsers();
         }
 
-        // Force load resumes to avoid LazyInitializationException in template
-        users.forEach(user -> {
-            if (user.getResumes() != null) {
-                user.getResumes().size();  // This loads the resumes
-            }
-        });
-
         model.addAttribute("users", users);
         return "admin/users";
     }
@@ -117,12 +120,8 @@ public class AdminController {
 
     @GetMapping("/users/{id}/edit")
     public String showEditUserForm(@PathVariable Long id, Model model) {
-        User user = userService.getUserById(id)
+        User user = candidateQueryService.getUser(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        // Load resumes
-        if (user.getResumes() != null) {
-            user.getResumes().size();
-        }
         model.addAttribute("user", user);
         return "admin/user-edit";
     }
@@ -193,14 +192,7 @@ public class AdminController {
     // AI/ML Management
     @GetMapping("/ai-management")
     public String aiManagement(Model model) {
-        List<User> allCandidates = userService.getCandidates();
-
-        // Load resumes for all candidates
-        allCandidates.forEach(candidate -> {
-            if (candidate.getResumes() != null) {
-                candidate.getResumes().size();
-            }
-        });
+        List<User> allCandidates = candidateQueryService.getCandidates();
 
         List<User> unprocessedCandidates = allCandidates.stream()
                 .filter(u -> u.getCurrentResume() == null || !u.getCurrentResume().isMlProcessed())
@@ -213,14 +205,55 @@ public class AdminController {
         model.addAttribute("unprocessedCandidates", unprocessedCandidates);
         model.addAttribute("processedCandidates", processedCandidates);
 
+        model.addAttribute("scoringVersions", matchScorerRegistry.getVersions());
+        model.addAttribute("activeScoringVersion", matchScorerRegistry.getActiveVersion());
+        model.addAttribute("shadowScoringVersion", matchScorerRegistry.getShadowVersion());
+
         return "admin/ai-management";
     }
 
+    @PostMapping("/ai/models/activate")
+    public String activateScoringModel(@RequestParam String version,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            matchScorerRegistry.activate(version);
+            redirectAttributes.addFlashAttribute("message", "Scoring model " + version + " is now active");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Failed to activate model: " + e.getMessage());
+        }
+        return "redirect:/admin/ai-management";
+    }
+
+    @PostMapping("/ai/models/shadow")
+    public String setShadowScoringModel(@RequestParam(required = false) String version,
+                                        RedirectAttributes redirectAttributes) {
+        try {
+            matchScorerRegistry.setShadow(version);
+            redirectAttributes.addFlashAttribute("message", version == null || version.isBlank()
+                    ? "Shadow scoring stopped"
+                    : "Scoring model " + version + " now scores in shadow");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Failed to set shadow model: " + e.getMessage());
+        }
+        return "redirect:/admin/ai-management";
+    }
+
+    @PostMapping("/ai/models/reload")
+    public String reloadScoringModels(RedirectAttributes redirectAttributes) {
+        try {
+            int loaded = matchScorerRegistry.reloadModels();
+            redirectAttributes.addFlashAttribute("message", "Loaded " + loaded + " model file(s)");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Failed to reload models: " + e.getMessage());
+        }
+        return "redirect:/admin/ai-management";
+    }
+
     @PostMapping("/ai/process/{userId}")
     public String processCandidateAI(@PathVariable Long userId,
                                      RedirectAttributes redirectAttributes) {
         try {
-            User user = userService.getUserById(userId)
+            User user = candidateQueryService.getUser(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
             // Check if user has a resume
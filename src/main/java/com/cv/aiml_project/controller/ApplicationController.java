@@ -1,44 +1,81 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.cv.aiml_project.config.ReplicaRouting;
+import com.cv.aiml_project.config.StoredFileWriter;
+import com.cv.aiml_project.dto.ApplicationEventRow;
 import com.cv.aiml_project.dto.ApplicationFilterDTO;
 import com.cv.aiml_project.dto.ApplicationStatusUpdateDTO;
+import com.cv.aiml_project.dto.ApplicationView;
+import com.cv.aiml_project.dto.CursorPage;
 import com.cv.aiml_project.dto.InterviewScheduleDTO;
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.ApplicationStatus;
 import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.service.ApplicationQueryService;
 import com.cv.aiml_project.service.ApplicationService;
+import com.cv.aiml_project.service.DataVersionService;
 import com.cv.aiml_project.service.JobService;
+import com.cv.aiml_project.service.LiveUpdateService;
+import com.cv.aiml_project.service.ResumeStorageService;
 import com.cv.aiml_project.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/applications")
 public class ApplicationController {
 
+    private static final int TIMELINE_PAGE_SIZE = 50;
+
     @Autowired
     private ApplicationService applicationService;
 
+    @Autowired
+    private ApplicationQueryService applicationQueryService;
+
     @Autowired
     private JobService jobService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredFileWriter fileWriter;
+
+    @Autowired
+    private JsonRowWriter jsonRowWriter;
+
     // ==================== MAIN VIEWS ====================
 
     /**
@@ -47,8 +84,8 @@ public class ApplicationController {
     @GetMapping("/dashboard")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     public String applicationsDashboard(Model model) {
-        model.addAttribute("jobWiseCounts", applicationService.getJobWiseApplicationCounts());
-        model.addAttribute("upcomingInterviews", applicationService.getUpcomingInterviews());
+        model.addAttribute("jobWiseCounts", ReplicaRouting.fromReplica(applicationService::getJobWiseApplicationCounts));
+        model.addAttribute("upcomingInterviews", applicationQueryService.getUpcomingInterviews());
         return "applications/dashboard";
     }
 
@@ -72,7 +109,7 @@ public class ApplicationController {
         filters.setStatus(status);
         filters.setSearchKeyword(search);
 
-        List<JobApplication> applications = applicationService.getApplicationsWithFilters(filters);
+        List<JobApplication> applications = applicationQueryService.getApplicationsWithFilters(filters);
         Map<String, Object> stats = applicationService.getApplicationStatistics(jobId);
 
         model.addAttribute("job", job);
@@ -91,23 +128,18 @@ public class ApplicationController {
     @GetMapping("/{applicationId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN', 'CANDIDATE')")
     public String viewApplicationDetails(@PathVariable Long applicationId, Model model) {
-        JobApplication application = applicationService.getApplicationById(applicationId)
+        ApplicationView view = applicationQueryService.getApplication(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found"));
 
         // Check permissions for candidate view
-        if (hasRole("CANDIDATE")) {
-            org.springframework.security.core.Authentication auth =
-                    org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-            var currentUser = userService.getUserByUsername(auth.getName()).orElse(null);
-            if (currentUser == null || !application.getCandidate().getId().equals(currentUser.getId())) {
-                throw new RuntimeException("Access denied");
-            }
-        }
+        checkCandidateAccess(view.application());
 
-        model.addAttribute("application", application);
-        model.addAttribute("candidate", application.getCandidate());
-        model.addAttribute("job", application.getJob());
+        model.addAttribute("application", view.application());
+        model.addAttribute("candidate", view.candidate());
+        model.addAttribute("job", view.job());
         model.addAttribute("statuses", ApplicationStatus.values());
+        model.addAttribute("timeline", applicationService.getTimeline(applicationId, null,
+                TIMELINE_PAGE_SIZE, !hasRole("CANDIDATE")));
 
         return "applications/application-details";
     }
@@ -123,7 +155,7 @@ public class ApplicationController {
         var currentUser = userService.getUserByUsername(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<JobApplication> applications = applicationService.getApplicationsByCandidate(currentUser.getId());
+        List<JobApplication> applications = applicationQueryService.getApplicationsByCandidate(currentUser.getId());
 
         model.addAttribute("applications", applications);
         return "applications/my-applications";
@@ -186,12 +218,12 @@ public class ApplicationController {
     @GetMapping("/{applicationId}/schedule-interview")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     public String showScheduleInterview(@PathVariable Long applicationId, Model model) {
-        JobApplication application = applicationService.getApplicationById(applicationId)
+        ApplicationView view = applicationQueryService.getApplication(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found"));
 
-        model.addAttribute("application", application);
-        model.addAttribute("candidate", application.getCandidate());
-        model.addAttribute("job", application.getJob());
+        model.addAttribute("application", view.application());
+        model.addAttribute("candidate", view.candidate());
+        model.addAttribute("job", view.job());
         model.addAttribute("interviewTypes", new String[]{"ONLINE", "PHONE", "IN_PERSON"});
 
         return "applications/schedule-interview";
@@ -280,7 +312,7 @@ public class ApplicationController {
         var job = jobService.getJobById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
-        List<JobApplication> shortlisted = applicationService.getShortlistedForJob(jobId);
+        List<JobApplication> shortlisted = applicationQueryService.getShortlistedForJob(jobId);
 
         model.addAttribute("job", job);
         model.addAttribute("shortlisted", shortlisted);
@@ -354,19 +386,9 @@ public class ApplicationController {
      */
     @GetMapping("/{applicationId}/resume/download")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN', 'CANDIDATE')")
-    public ResponseEntity<Resource> downloadResume(@PathVariable Long applicationId) {
-        try {
-            Resource resource = applicationService.getApplicationResumeFile(applicationId);
-            JobApplication application = applicationService.getApplicationById(applicationId).orElseThrow();
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + application.getResumeOriginalName() + "\"")
-                    .body(resource);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+    public void downloadResume(@PathVariable Long applicationId, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        writeResume(applicationId, false, request, response);
     }
 
     /**
@@ -374,18 +396,70 @@ public class ApplicationController {
      */
     @GetMapping("/{applicationId}/resume/view")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN', 'CANDIDATE')")
-    public ResponseEntity<Resource> viewResume(@PathVariable Long applicationId) {
+    public void viewResume(@PathVariable Long applicationId, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        writeResume(applicationId, true, request, response);
+    }
+
+    private void writeResume(Long applicationId, boolean inline, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = storageService.applicationResumeFile(applicationId);
+        // Candidates only see the resumes they sent
+        if (file.isEmpty() || (!request.isUserInRole("HR") && !request.isUserInRole("ADMIN")
+                && !file.get().ownerUsername().equals(request.getRemoteUser()))) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileWriter.write(file.get(), inline, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(),
+                request, response);
+    }
+
+    // ==================== ARCHIVAL API ====================
+
+    /**
+     * Start archiving applications closed more than {days} days ago (chunked, in the background;
+     * see ApplicationArchivalService). Progress is at /api/archive/status.
+     */
+    @PostMapping("/api/archive/{days}")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> archiveOldApplications(@PathVariable int days) {
         try {
-            Resource resource = applicationService.getApplicationResumeFile(applicationId);
-            JobApplication application = applicationService.getApplicationById(applicationId).orElseThrow();
+            return ResponseEntity.accepted().body(applicationService.archiveOldApplications(days, false));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + application.getResumeOriginalName() + "\"")
-                    .body(resource);
+    /**
+     * The latest archival run, in progress or finished
+     */
+    @GetMapping("/api/archive/status")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> archivalStatus() {
+        return applicationService.getArchivalStatus()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Dry run: how many applications an archive run would archive and move, without changing them
+     */
+    @GetMapping("/api/archive/{days}/dry-run")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> previewArchival(@PathVariable int days) {
+        try {
+            return ResponseEntity.ok(applicationService.archiveOldApplications(days, true));
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
         }
     }
 
@@ -397,15 +471,65 @@ public class ApplicationController {
     @GetMapping("/api/statistics/job/{jobId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     @ResponseBody
-    public ResponseEntity<Map<String, Object>> getApplicationStatistics(@PathVariable Long jobId) {
+    public ResponseEntity<Map<String, Object>> getApplicationStatistics(@PathVariable Long jobId,
+                                                                        WebRequest webRequest) {
+        // Answer unchanged polls with 304 after one version lookup, before loading any data
+        String etag = dataVersionService.etag(DataVersionService.Channel.APPLICATIONS, jobId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            Map<String, Object> stats = applicationService.getApplicationStatistics(jobId);
-            return ResponseEntity.ok(stats);
+            // Served under the version ETag, so read what the primary has committed
+            Map<String, Object> stats = ReplicaRouting.fromPrimary(
+                    () -> applicationService.getApplicationStatistics(jobId));
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(stats);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Stream new applications and status changes for a job as server-sent events
+     */
+    @GetMapping(value = "/api/job/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public SseEmitter streamApplicationUpdates(@PathVariable Long jobId) {
+        return liveUpdateService.subscribe(LiveUpdateService.Channel.APPLICATIONS, jobId);
+    }
+
+    /**
+     * Page through an application's timeline (JSON), newest first
+     */
+    @GetMapping("/api/{applicationId}/timeline")
+    @ResponseBody
+    public ResponseEntity<?> getTimeline(@PathVariable Long applicationId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int limit,
+                                         @RequestParam(required = false) String fields) {
+        try {
+            JobApplication application = applicationService.getApplicationById(applicationId)
+                    .orElseThrow(() -> new IllegalArgumentException("Application not found"));
+            checkCandidateAccess(application);
+
+            Set<String> selected = jsonRowWriter.parseFields(fields, ApplicationEventRow.class);
+            CursorPage<ApplicationEventRow> page = applicationService.getTimeline(applicationId, cursor, limit,
+                    !hasRole("CANDIDATE"));
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonRowWriter.page("events", page, selected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Get application trends (JSON)
      */
@@ -415,7 +539,8 @@ public class ApplicationController {
     public ResponseEntity<Map<String, Long>> getApplicationTrends(@PathVariable Long jobId,
                                                                   @RequestParam(defaultValue = "30") int days) {
         try {
-            Map<String, Long> trends = applicationService.getApplicationTrends(jobId, days);
+            Map<String, Long> trends = ReplicaRouting.fromReplica(
+                    () -> applicationService.getApplicationTrends(jobId, days));
             return ResponseEntity.ok(trends);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -424,6 +549,17 @@ public class ApplicationController {
 
     // ==================== HELPER METHODS ====================
 
+    private void checkCandidateAccess(JobApplication application) {
+        if (hasRole("CANDIDATE")) {
+            org.springframework.security.core.Authentication auth =
+                    org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+            var currentUser = userService.getUserByUsername(auth.getName()).orElse(null);
+            if (currentUser == null || !application.getCandidate().getId().equals(currentUser.getId())) {
+                throw new RuntimeException("Access denied");
+            }
+        }
+    }
+
     private boolean hasRole(String role) {
         org.springframework.security.core.Authentication auth =
                 org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
@@ -457,7 +593,7 @@ public class ApplicationController {
     @GetMapping("/upcoming-interviews")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     public String upcomingInterviews(Model model) {
-        List<JobApplication> interviews = applicationService.getUpcomingInterviews();
+        List<JobApplication> interviews = applicationQueryService.getUpcomingInterviews();
         model.addAttribute("interviews", interviews);
         return "applications/upcoming-interviews";
     }
@@ -478,7 +614,7 @@ public class ApplicationController {
             }
         }
 
-        List<JobApplication> applications = applicationService.getApplicationsWithFilters(filters);
+        List<JobApplication> applications = applicationQueryService.getApplicationsWithFilters(filters);
         model.addAttribute("applications", applications);
         model.addAttribute("currentStatus", status);
         return "applications/list";
@@ -493,7 +629,7 @@ public class ApplicationController {
                                                      @RequestParam(required = false) String status,
                                                      @RequestParam(required = false) String search) {
         // Implementation for CSV export
-        List<JobApplication> applications = applicationService.getApplicationsForJob(jobId);
+        List<JobApplication> applications = applicationQueryService.getApplicationsForJob(jobId);
 
         StringBuilder csv = new StringBuilder();
         csv.append("Candidate Name,Email,Phone,Applied Date,Status,Match Score,Skills Score,Experience Score,Education Score,Interview Scheduled\n");
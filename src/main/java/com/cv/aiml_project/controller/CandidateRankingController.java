@@ -1,25 +1,44 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.cv.aiml_project.config.ReplicaRouting;
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.RankingDetailsView;
+import com.cv.aiml_project.dto.RankingRow;
+import com.cv.aiml_project.dto.RankingRunStatus;
 import com.cv.aiml_project.dto.RankingWeightConfig;
 import com.cv.aiml_project.entity.CandidateRanking;
 import com.cv.aiml_project.entity.HiringStatus;
 import com.cv.aiml_project.entity.Job;
 import com.cv.aiml_project.service.CandidateRankingService;
+import com.cv.aiml_project.service.DataVersionService;
+import com.cv.aiml_project.service.JobQueryService;
+import com.cv.aiml_project.service.RankingQueryService;
+import com.cv.aiml_project.service.RankingRunService;
+import com.cv.aiml_project.service.RankingRunService.Operation;
 import com.cv.aiml_project.service.JobService;
+import com.cv.aiml_project.service.LiveUpdateService;
 import com.cv.aiml_project.service.SkillMatchResultService;
 import com.cv.aiml_project.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Controller
 @RequestMapping("/ranking")
@@ -37,6 +56,24 @@ public class CandidateRankingController {
     @Autowired
     private SkillMatchResultService skillMatchResultService;
 
+    @Autowired
+    private RankingRunService rankingRunService;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private JsonRowWriter jsonRowWriter;
+
+    @Autowired
+    private RankingQueryService rankingQueryService;
+
+    @Autowired
+    private JobQueryService jobQueryService;
+
     // ==================== MAIN VIEWS ====================
 
     /**
@@ -47,6 +84,7 @@ public class CandidateRankingController {
     public String rankingDashboard(Model model) {
         List<Job> activeJobs = jobService.getActiveJobs();
         model.addAttribute("activeJobs", activeJobs);
+        model.addAttribute("applicationCounts", jobQueryService.getApplicationCounts(activeJobs));
         return "ranking/dashboard";
     }
 
@@ -61,12 +99,9 @@ public class CandidateRankingController {
         Job job = jobService.getJobById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
-        List<CandidateRanking> rankings;
+        List<CandidateRanking> rankings = rankingQueryService.getRankingsForJob(jobId, search);
         if (search != null && !search.trim().isEmpty()) {
-            rankings = rankingService.searchRankings(jobId, search);
             model.addAttribute("search", search);
-        } else {
-            rankings = rankingService.getCurrentRankingsForJob(jobId);
         }
 
         Map<String, Object> stats = rankingService.getRankingStatistics(jobId);
@@ -77,6 +112,8 @@ public class CandidateRankingController {
         model.addAttribute("stats", stats);
         model.addAttribute("currentWeights", currentWeights);
         model.addAttribute("hiringStatuses", HiringStatus.values());
+        rankingRunService.getActiveRunForJob(jobId)
+                .ifPresent(run -> model.addAttribute("activeRun", run));
 
         return "ranking/job-rankings";
     }
@@ -87,18 +124,16 @@ public class CandidateRankingController {
     @GetMapping("/details/{rankingId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN', 'CANDIDATE')")
     public String viewRankingDetails(@PathVariable Long rankingId, Model model) {
-        CandidateRanking ranking = rankingService.getRankingById(rankingId)
+        RankingDetailsView details = rankingQueryService.getRankingDetails(rankingId)
                 .orElseThrow(() -> new IllegalArgumentException("Ranking not found"));
 
-        model.addAttribute("ranking", ranking);
-        model.addAttribute("job", ranking.getJob());
-        model.addAttribute("candidate", ranking.getCandidate());
+        model.addAttribute("ranking", details.ranking());
+        model.addAttribute("job", details.job());
+        model.addAttribute("candidate", details.candidate());
         model.addAttribute("hiringStatuses", HiringStatus.values());
 
-        // Get ranking history for this candidate on this job
-        List<CandidateRanking> history = rankingService.getRankingHistoryForCandidate(
-                ranking.getJob().getId(), ranking.getCandidate().getId());
-        model.addAttribute("history", history);
+        // Ranking history for this candidate on this job
+        model.addAttribute("history", details.history());
 
         return "ranking/ranking-details";
     }
@@ -115,8 +150,8 @@ public class CandidateRankingController {
         com.cv.aiml_project.entity.User currentUser = userService.getUserByUsername(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get all rankings for this candidate
-        List<CandidateRanking> rankings = rankingService.getRankingHistoryForCandidate(null, currentUser.getId());
+        // Get the current ranking on each job for this candidate
+        List<CandidateRanking> rankings = rankingQueryService.getRankingsForCandidate(currentUser.getId());
 
         model.addAttribute("rankings", rankings);
         return "ranking/my-rankings";
@@ -140,7 +175,7 @@ public class CandidateRankingController {
     }
 
     /**
-     * Generate rankings for a job
+     * Generate rankings for a job (runs in the background)
      */
     @PostMapping("/job/{jobId}/generate")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
@@ -148,9 +183,8 @@ public class CandidateRankingController {
                                    @ModelAttribute RankingWeightConfig weightConfig,
                                    RedirectAttributes redirectAttributes) {
         try {
-            List<CandidateRanking> rankings = rankingService.generateRankingForJob(jobId, weightConfig);
-            redirectAttributes.addFlashAttribute("message",
-                    "Rankings generated successfully for " + rankings.size() + " candidates");
+            RankingRunStatus run = rankingRunService.submit(jobId, Operation.GENERATE, weightConfig, currentUsername());
+            redirectAttributes.addFlashAttribute("message", runMessage(jobId, run, "generated", "generation"));
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Failed to generate rankings: " + e.getMessage());
         }
@@ -173,7 +207,7 @@ public class CandidateRankingController {
     }
 
     /**
-     * Recalculate rankings with new weights (rerun)
+     * Recalculate rankings with new weights (rerun, in the background)
      */
     @PostMapping("/job/{jobId}/recalculate")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
@@ -181,15 +215,27 @@ public class CandidateRankingController {
                                       @ModelAttribute RankingWeightConfig weightConfig,
                                       RedirectAttributes redirectAttributes) {
         try {
-            List<CandidateRanking> rankings = rankingService.recalculateRankingWithWeights(jobId, weightConfig);
-            redirectAttributes.addFlashAttribute("message",
-                    "Rankings recalculated successfully for " + rankings.size() + " candidates");
+            RankingRunStatus run = rankingRunService.submit(jobId, Operation.RECALCULATE, weightConfig, currentUsername());
+            redirectAttributes.addFlashAttribute("message", runMessage(jobId, run, "recalculated", "recalculation"));
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Failed to recalculate rankings: " + e.getMessage());
         }
         return "redirect:/ranking/job/" + jobId;
     }
 
+    // Joined an identical run, waiting behind a different one, or started
+    private String runMessage(Long jobId, RankingRunStatus run, String done, String operation) {
+        if (run.isCoalesced()) {
+            return "Rankings with these weights are already being " + done + " for this job";
+        }
+        boolean waiting = rankingRunService.getActiveRunForJob(jobId)
+                .filter(active -> !active.getRunId().equals(run.getRunId()))
+                .isPresent();
+        return waiting
+                ? "Ranking " + operation + " queued; it starts when the current run for this job finishes"
+                : "Ranking " + operation + " started";
+    }
+
     // ==================== UPDATE OPERATIONS ====================
 
     /**
@@ -311,13 +357,50 @@ public class CandidateRankingController {
     @GetMapping("/api/job/{jobId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     @ResponseBody
-    public ResponseEntity<?> getRankingsApi(@PathVariable Long jobId) {
+    public ResponseEntity<?> getRankingsApi(@PathVariable Long jobId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "100") int limit,
+                                            @RequestParam(required = false) String fields,
+                                            WebRequest webRequest) {
+        // Answer unchanged polls with 304 after one version lookup, before loading any data
+        String etag = dataVersionService.etag(DataVersionService.Channel.RANKINGS, jobId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            List<CandidateRanking> rankings = rankingService.getCurrentRankingsForJob(jobId);
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "rankings", rankings
+            Set<String> selected = jsonRowWriter.parseFields(fields, RankingRow.class);
+            // Served under the version ETag, so read what the primary has committed
+            CursorPage<RankingRow> page = ReplicaRouting.fromPrimary(
+                    () -> rankingService.getCurrentRankingsPage(jobId, cursor, limit));
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonRowWriter.page("rankings", page, selected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
             ));
+        }
+    }
+
+    /**
+     * Start a ranking run for a job and return its status for polling
+     */
+    @PostMapping("/api/job/{jobId}/{operation:generate|recalculate}")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> startRankingRunApi(@PathVariable Long jobId,
+                                                @PathVariable String operation,
+                                                @RequestBody(required = false) RankingWeightConfig weights) {
+        try {
+            if (weights == null && operation.equals("recalculate")) {
+                weights = rankingService.getCurrentWeightConfig();
+            }
+            RankingRunStatus run = rankingRunService.submit(jobId,
+                    Operation.valueOf(operation.toUpperCase()), weights, currentUsername());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -326,6 +409,41 @@ public class CandidateRankingController {
         }
     }
 
+    /**
+     * Poll the status of a ranking run
+     */
+    @GetMapping("/api/runs/{runId}")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> getRankingRunApi(@PathVariable String runId) {
+        return rankingRunService.getStatus(runId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "success", false,
+                        "error", "Ranking run not found"
+                )));
+    }
+
+    /**
+     * Stream progress of a ranking run as server-sent events
+     */
+    @GetMapping(value = "/api/runs/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public SseEmitter streamRankingRun(@PathVariable String runId) {
+        return rankingRunService.subscribe(runId);
+    }
+
+    /**
+     * Stream ranking changes for a job as server-sent events
+     */
+    @GetMapping(value = "/api/job/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public SseEmitter streamRankingUpdates(@PathVariable Long jobId) {
+        return liveUpdateService.subscribe(LiveUpdateService.Channel.RANKINGS, jobId);
+    }
+
     /**
      * Validate weight configuration
      */
@@ -350,7 +468,7 @@ public class CandidateRankingController {
     @ResponseBody
     public ResponseEntity<String> exportRankings(@PathVariable Long jobId) {
         try {
-            List<CandidateRanking> rankings = rankingService.getCurrentRankingsForJob(jobId);
+            List<CandidateRanking> rankings = rankingQueryService.getRankingsForJob(jobId, null);
             Job job = jobService.getJobById(jobId).orElseThrow();
 
             StringBuilder csv = new StringBuilder();
@@ -382,4 +500,9 @@ public class CandidateRankingController {
             return ResponseEntity.badRequest().body("Error exporting data: " + e.getMessage());
         }
     }
+
+    private String currentUsername() {
+        org.springframework.security.core.Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
+    }
 }
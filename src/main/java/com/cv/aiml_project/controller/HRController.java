@@ -1,13 +1,27 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.ReplicaRouting;
+import com.cv.aiml_project.config.StoredFileWriter;
+import com.cv.aiml_project.dto.ApplicationView;
+import com.cv.aiml_project.dto.CandidateDetailsView;
+import com.cv.aiml_project.dto.HrDashboardView;
+import com.cv.aiml_project.dto.ResumePreview;
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.service.ApplicationQueryService;
+import com.cv.aiml_project.service.BlobStore;
+import com.cv.aiml_project.service.CandidateQueryService;
 import com.cv.aiml_project.service.JobService;
+import com.cv.aiml_project.service.ResumePreviewService;
 import com.cv.aiml_project.service.ResumeService;
+import com.cv.aiml_project.service.ResumeStorageService;
 import com.cv.aiml_project.service.UserService;
 import com.cv.aiml_project.service.AIMLIntegrationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,9 +34,14 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Controller
@@ -39,9 +58,24 @@ public class HRController {
     @Autowired
     private ResumeService resumeService;
 
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredFileWriter fileWriter;
+
+    @Autowired
+    private ResumePreviewService previewService;
+
     @Autowired
     private AIMLIntegrationService aiMlIntegrationService;
 
+    @Autowired
+    private CandidateQueryService candidateQueryService;
+
+    @Autowired
+    private ApplicationQueryService applicationQueryService;
+
     /**
      * Get the currently logged-in HR user
      */
@@ -61,45 +95,15 @@ public class HRController {
         User currentUser = getCurrentUser();
         session.setAttribute("user", currentUser);
 
-        // Get statistics
-        long totalCandidates = userService.getTotalCandidates();
-        long activeCandidates = userService.getActiveCandidates();
-        long mlProcessed = resumeService.getProcessedResumeCount();
-        long resumesCount = resumeService.getTotalResumeCount();
-
-        // Get recent candidates (last 10)
-        List<User> recentCandidates = userService.getCandidates().stream()
-                .sorted(Comparator.comparing(User::getCreatedAt).reversed())
-                .limit(10)
-                .collect(Collectors.toList());
-
-        // Get top 5 candidates based on resume AI scores
-        List<User> topCandidates = userService.getCandidates().stream()
-                .filter(user -> {
-                    Resume resume = user.getCurrentResume();
-                    return resume != null && resume.isMlProcessed();
-                })
-                .sorted((u1, u2) -> {
-                    Double score1 = u1.getCurrentResume().getMlScore();
-                    Double score2 = u2.getCurrentResume().getMlScore();
-                    if (score1 == null && score2 == null) return 0;
-                    if (score1 == null) return 1;
-                    if (score2 == null) return -1;
-                    return score2.compareTo(score1);
-                })
-                .limit(5)
-                .collect(Collectors.toList());
-
-        // Get job statistics
-        Map<String, Object> jobStats = jobService.getJobStatistics();
+        HrDashboardView dashboard = ReplicaRouting.fromReplica(candidateQueryService::getHrDashboard);
 
-        model.addAttribute("totalCandidates", totalCandidates);
-        model.addAttribute("activeCandidates", activeCandidates);
-        model.addAttribute("mlProcessed", mlProcessed);
-        model.addAttribute("resumesCount", resumesCount);
-        model.addAttribute("recentCandidates", recentCandidates);
-        model.addAttribute("topCandidates", topCandidates);
-        model.addAttribute("jobStats", jobStats);
+        model.addAttribute("totalCandidates", dashboard.totalCandidates());
+        model.addAttribute("activeCandidates", dashboard.activeCandidates());
+        model.addAttribute("mlProcessed", dashboard.mlProcessed());
+        model.addAttribute("resumesCount", dashboard.resumesCount());
+        model.addAttribute("recentCandidates", dashboard.recentCandidates());
+        model.addAttribute("topCandidates", dashboard.topCandidates());
+        model.addAttribute("jobStats", dashboard.jobStats());
 
         return "hr/dashboard";
     }
@@ -115,19 +119,24 @@ public class HRController {
                                  @RequestParam(required = false) Boolean mlProcessed,
                                  @RequestParam(required = false) String sortBy) {
 
-        List<User> candidates = userService.getCandidates();
+        List<User> candidates = candidateQueryService.getCandidates();
 
         // Apply search filter
         if (search != null && !search.trim().isEmpty()) {
             String searchLower = search.toLowerCase();
+            Map<Long, String> resumeTexts = resumeService.getExtractedTexts(candidates.stream()
+                    .map(User::getCurrentResume)
+                    .filter(Objects::nonNull)
+                    .map(Resume::getId)
+                    .toList());
             candidates = candidates.stream()
                     .filter(u ->
                             u.getFullName().toLowerCase().contains(searchLower) ||
                                     (u.getEmail() != null && u.getEmail().toLowerCase().contains(searchLower)) ||
                                     (u.getSkills() != null && u.getSkills().toLowerCase().contains(searchLower)) ||
                                     (u.getCurrentResume() != null &&
-                                            u.getCurrentResume().getExtractedText() != null &&
-                                            u.getCurrentResume().getExtractedText().toLowerCase().contains(searchLower))
+                                            resumeTexts.get(u.getCurrentResume().getId()) != null &&
+                                            resumeTexts.get(u.getCurrentResume().getId()).toLowerCase().contains(searchLower))
                     )
                     .collect(Collectors.toList());
             model.addAttribute("search", search);
@@ -173,6 +182,7 @@ public class HRController {
                 .count();
 
         model.addAttribute("candidates", candidates);
+        model.addAttribute("previews", previewsOf(candidates));
         model.addAttribute("processedCount", processedCount);
         model.addAttribute("totalCount", candidates.size());
 
@@ -184,37 +194,14 @@ public class HRController {
      */
     @GetMapping("/candidates/{id}")
     public String viewCandidateDetails(@PathVariable Long id, Model model) {
-        User candidate = userService.getUserById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
-
-        if (!candidate.isCandidate()) {
-            throw new IllegalArgumentException("User is not a candidate");
-        }
-
-        // Get candidate's resumes (all versions)
-        List<Resume> allResumes = resumeService.getAllUserResumes(id);
-        Resume currentResume = candidate.getCurrentResume();
-
-        // Get candidate's job applications
-        List<JobApplication> candidateApplications = jobService.getApplicationsByCandidate(id);
+        CandidateDetailsView details = candidateQueryService.getCandidateDetails(id);
 
-        // Get application statistics
-        Map<ApplicationStatus, Long> applicationStats = candidateApplications.stream()
-                .collect(Collectors.groupingBy(JobApplication::getStatus, Collectors.counting()));
-
-        // Calculate average match score across applications
-        double avgMatchScore = candidateApplications.stream()
-                .filter(app -> app.getMatchScore() != null)
-                .mapToDouble(JobApplication::getMatchScore)
-                .average()
-                .orElse(0.0);
-
-        model.addAttribute("candidate", candidate);
-        model.addAttribute("currentResume", currentResume);
-        model.addAttribute("allResumes", allResumes);
-        model.addAttribute("candidateApplications", candidateApplications);
-        model.addAttribute("applicationStats", applicationStats);
-        model.addAttribute("avgMatchScore", avgMatchScore);
+        model.addAttribute("candidate", details.candidate());
+        model.addAttribute("currentResume", details.currentResume());
+        model.addAttribute("allResumes", details.allResumes());
+        model.addAttribute("candidateApplications", details.applications());
+        model.addAttribute("applicationStats", details.applicationStats());
+        model.addAttribute("avgMatchScore", details.avgMatchScore());
 
         return "hr/candidate-details";
     }
@@ -225,7 +212,7 @@ public class HRController {
     @GetMapping("/candidates/{id}/export")
     @ResponseBody
     public CandidateExportDTO exportCandidateData(@PathVariable Long id) {
-        User candidate = userService.getUserById(id)
+        User candidate = candidateQueryService.getUser(id)
                 .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
 
         Resume currentResume = candidate.getCurrentResume();
@@ -246,7 +233,7 @@ public class HRController {
             dto.setMlProcessed(currentResume.isMlProcessed());
             dto.setMlScore(currentResume.getMlScore());
             dto.setMlConfidence(currentResume.getMlConfidence());
-            dto.setExtractedText(currentResume.getExtractedText());
+            dto.setExtractedText(resumeService.getExtractedText(currentResume.getId()).orElse(null));
         }
 
         return dto;
@@ -306,72 +293,66 @@ public class HRController {
      * View candidate's current resume in browser
      */
     @GetMapping("/candidates/{id}/resume/view")
-    public ResponseEntity<Resource> viewCandidateResume(@PathVariable Long id) throws IOException {
-        User candidate = userService.getUserById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
-
-        Resume currentResume = candidate.getCurrentResume();
-        if (currentResume == null) {
-            return ResponseEntity.notFound().build();
+    public void viewCandidateResume(@PathVariable Long id, HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = storageService.currentResumeId(id).flatMap(storageService::resumeFile);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
-
-        Resource resource = resumeService.getResumeFile(currentResume.getId());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + currentResume.getOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file.get(), true, CacheControl.noCache().cachePrivate(), request, response);
     }
 
     /**
      * View specific version of candidate's resume
      */
     @GetMapping("/candidates/{candidateId}/resume/view/{resumeId}")
-    public ResponseEntity<Resource> viewCandidateResumeVersion(
+    public void viewCandidateResumeVersion(
             @PathVariable Long candidateId,
-            @PathVariable Long resumeId) throws IOException {
-
-        User candidate = userService.getUserById(candidateId)
-                .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
+            @PathVariable Long resumeId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
-        Resume resume = resumeService.getResumeById(resumeId)
+        StoredFile file = storageService.resumeFile(resumeId)
                 .orElseThrow(() -> new IllegalArgumentException("Resume not found"));
 
         // Verify that the resume belongs to the candidate
-        if (!resume.getUser().getId().equals(candidateId)) {
-            return ResponseEntity.status(403).build();
+        if (!file.ownerId().equals(candidateId)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
 
-        Resource resource = resumeService.getResumeFile(resumeId);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + resume.getOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file, true, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request, response);
     }
 
     /**
      * Download candidate's current resume
      */
     @GetMapping("/candidates/{id}/resume/download")
-    public ResponseEntity<Resource> downloadCandidateResume(@PathVariable Long id) throws IOException {
-        User candidate = userService.getUserById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
-
-        Resume currentResume = candidate.getCurrentResume();
-        if (currentResume == null) {
-            return ResponseEntity.notFound().build();
+    public void downloadCandidateResume(@PathVariable Long id, HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = storageService.currentResumeId(id).flatMap(storageService::resumeFile);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        fileWriter.write(file.get(), false, CacheControl.noCache().cachePrivate(), request, response);
+    }
 
-        Resource resource = resumeService.getResumeFile(currentResume.getId());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + currentResume.getOriginalName() + "\"")
-                .body(resource);
+    /**
+     * First-page thumbnail of candidate's current resume, when one has been rendered
+     */
+    @GetMapping("/candidates/{id}/resume/thumbnail")
+    public void candidateResumeThumbnail(@PathVariable Long id, HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = storageService.currentResumeId(id).flatMap(storageService::resumeFile);
+        Optional<Path> thumbnail = file.flatMap(found -> previewService.image(found.key()));
+        if (thumbnail.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileWriter.writeImage(thumbnail.get(), BlobStore.hashOf(file.get().key()) + "-thumb",
+                CacheControl.noCache().cachePrivate(), request, response);
     }
 
     /**
@@ -379,7 +360,7 @@ public class HRController {
      */
     @GetMapping("/candidates/{id}/resume/text")
     public String viewCandidateResumeText(@PathVariable Long id, Model model) {
-        User candidate = userService.getUserById(id)
+        User candidate = candidateQueryService.getUser(id)
                 .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
 
         if (!candidate.isCandidate()) {
@@ -391,12 +372,15 @@ public class HRController {
         model.addAttribute("candidate", candidate);
         model.addAttribute("resume", currentResume);
 
+        String resumeText = currentResume != null
+                ? resumeService.getExtractedText(currentResume.getId()).orElse(null)
+                : null;
         if (currentResume == null) {
             model.addAttribute("error", "No resume found for this candidate");
-        } else if (currentResume.getExtractedText() == null) {
+        } else if (resumeText == null) {
             model.addAttribute("error", "No extracted text available for this resume");
         } else {
-            model.addAttribute("resumeText", currentResume.getExtractedText());
+            model.addAttribute("resumeText", resumeText);
         }
 
         return "hr/resume-text";
@@ -425,10 +409,11 @@ public class HRController {
         model.addAttribute("candidate", candidate);
         model.addAttribute("resume", resume);
 
-        if (resume.getExtractedText() == null) {
+        Optional<String> resumeText = resumeService.getExtractedText(resumeId);
+        if (resumeText.isEmpty()) {
             model.addAttribute("error", "No extracted text available for this resume");
         } else {
-            model.addAttribute("resumeText", resume.getExtractedText());
+            model.addAttribute("resumeText", resumeText.get());
         }
 
         return "hr/resume-text";
@@ -444,7 +429,7 @@ public class HRController {
                                      @RequestParam(defaultValue = "false") boolean forceReprocess,
                                      RedirectAttributes redirectAttributes) {
         try {
-            User candidate = userService.getUserById(id)
+            User candidate = candidateQueryService.getUser(id)
                     .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
 
             Resume currentResume = candidate.getCurrentResume();
@@ -464,12 +449,12 @@ public class HRController {
 
             // In a real application, you would call the AI service here
             // For now, simulate AI processing
-            simulateAIProcessing(currentResume);
+            Resume processedResume = simulateAIProcessing(currentResume, candidate);
 
             redirectAttributes.addFlashAttribute("message",
                     "AI analysis completed for " + candidate.getFullName() +
-                            ". Score: " + String.format("%.1f", currentResume.getMlScore()) +
-                            ", Confidence: " + String.format("%.1f%%", currentResume.getMlConfidence()));
+                            ". Score: " + String.format("%.1f", processedResume.getMlScore()) +
+                            ", Confidence: " + String.format("%.1f%%", processedResume.getMlConfidence()));
 
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "AI processing failed: " + e.getMessage());
@@ -488,7 +473,7 @@ public class HRController {
 
         for (Resume resume : unprocessedResumes) {
             try {
-                simulateAIProcessing(resume);
+                simulateAIProcessing(resume, resume.getUser());
                 processed++;
             } catch (Exception e) {
                 // Log error but continue processing others
@@ -508,13 +493,12 @@ public class HRController {
      * Simulate AI processing (for demonstration)
      * In production, this would call the actual AI/ML API
      */
-    private void simulateAIProcessing(Resume resume) {
+    private Resume simulateAIProcessing(Resume resume, User candidate) {
         // Generate random scores for demo
         Double mlScore = 70.0 + (Math.random() * 30); // 70-100
         Double mlConfidence = 85.0 + (Math.random() * 15); // 85-100
 
         // Extract skills from user profile or use placeholder
-        User candidate = resume.getUser();
         String extractedText = "Resume analysis for " + candidate.getFullName() + "\n\n";
 
         if (candidate.getSkills() != null) {
@@ -528,7 +512,7 @@ public class HRController {
         }
 
         // Update resume with AI results
-        resumeService.updateAIResults(
+        return resumeService.updateAIResults(
                 resume.getId(),
                 mlScore,
                 mlConfidence,
@@ -542,7 +526,7 @@ public class HRController {
      */
     @GetMapping("/candidates/{id}/ai-analysis")
     public String viewAIAnalysis(@PathVariable Long id, Model model) {
-        User candidate = userService.getUserById(id)
+        User candidate = candidateQueryService.getUser(id)
                 .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
 
         Resume currentResume = candidate.getCurrentResume();
@@ -555,11 +539,11 @@ public class HRController {
             model.addAttribute("resume", currentResume);
 
             // Get skill breakdown if available
-            if (currentResume.getExtractedText() != null) {
+            resumeService.getExtractedText(currentResume.getId()).ifPresent(text -> {
                 // Parse skills from extracted text (simplified for demo)
-                String[] words = currentResume.getExtractedText().split("\\s+");
+                String[] words = text.split("\\s+");
                 model.addAttribute("wordCount", words.length);
-            }
+            });
         }
 
         model.addAttribute("candidate", candidate);
@@ -574,10 +558,7 @@ public class HRController {
                                     @RequestParam(required = false) Long jobId,
                                     Model model) {
 
-        List<User> candidates = ids.stream()
-                .map(id -> userService.getUserById(id).orElse(null))
-                .filter(u -> u != null && u.isCandidate())
-                .collect(Collectors.toList());
+        List<User> candidates = candidateQueryService.getCandidates(ids);
 
         Job job = null;
         if (jobId != null) {
@@ -600,10 +581,27 @@ public class HRController {
         }
 
         model.addAttribute("candidates", candidates);
+        model.addAttribute("previews", previewsOf(candidates));
         model.addAttribute("job", job);
         return "hr/compare-candidates";
     }
 
+    /**
+     * Cached first-page previews of the candidates' current resumes, by candidate id.
+     * Missing ones are queued for rendering and simply not shown this time.
+     */
+    private Map<Long, ResumePreview> previewsOf(List<User> candidates) {
+        Map<Long, ResumePreview> previews = new HashMap<>();
+        for (User candidate : candidates) {
+            Resume resume = candidate.getCurrentResume();
+            if (resume != null) {
+                previewService.preview(resume.getFilePath(), resume.getContentType(), resume.getOriginalName())
+                        .ifPresent(preview -> previews.put(candidate.getId(), preview));
+            }
+        }
+        return previews;
+    }
+
     // ==================== JOB APPLICATION MANAGEMENT ====================
 
     /**
@@ -614,7 +612,7 @@ public class HRController {
         Job job = jobService.getJobById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
-        List<JobApplication> applications = jobService.getApplicationsForJobRanked(jobId);
+        List<JobApplication> applications = applicationQueryService.getApplicationsForJob(jobId);
         Map<String, Object> stats = jobService.getApplicationStatsForJob(jobId);
 
         model.addAttribute("job", job);
@@ -630,17 +628,17 @@ public class HRController {
      */
     @GetMapping("/applications/{applicationId}")
     public String viewApplicationDetails(@PathVariable Long applicationId, Model model) {
-        JobApplication application = jobService.getApplicationById(applicationId)
+        ApplicationView view = applicationQueryService.getApplication(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found"));
 
-        User candidate = application.getCandidate();
+        JobApplication application = view.application();
         Resume resumeUsed = application.getResumeId() != null ?
                 resumeService.getResumeById(application.getResumeId()).orElse(null) :
-                candidate.getCurrentResume();
+                resumeService.getCurrentResume(view.candidate().getId()).orElse(null);
 
         model.addAttribute("application", application);
-        model.addAttribute("candidate", candidate);
-        model.addAttribute("job", application.getJob());
+        model.addAttribute("candidate", view.candidate());
+        model.addAttribute("job", view.job());
         model.addAttribute("resume", resumeUsed);
         model.addAttribute("statuses", ApplicationStatus.values());
 
@@ -679,7 +677,8 @@ public class HRController {
             if (application.getResumeId() != null) {
                 Resume resume = resumeService.getResumeById(application.getResumeId()).orElse(null);
                 if (resume != null && !resume.isMlProcessed()) {
-                    simulateAIProcessing(resume);
+                    userService.getUserById(resume.getUser().getId())
+                            .ifPresent(candidate -> simulateAIProcessing(resume, candidate));
                 }
             }
 
@@ -695,31 +694,22 @@ public class HRController {
      * Download resume attached to an application
      */
     @GetMapping("/applications/{applicationId}/resume/download")
-    public ResponseEntity<Resource> downloadApplicationResume(@PathVariable Long applicationId) throws IOException {
+    public void downloadApplicationResume(@PathVariable Long applicationId, HttpServletRequest request,
+                                          HttpServletResponse response) throws IOException {
         JobApplication application = jobService.getApplicationById(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found"));
 
         Long resumeId = application.getResumeId();
         if (resumeId == null) {
             // Fall back to candidate's current resume
-            User candidate = application.getCandidate();
-            Resume currentResume = candidate.getCurrentResume();
-            if (currentResume == null) {
-                throw new IllegalArgumentException("No resume found for this application");
-            }
-            resumeId = currentResume.getId();
+            resumeId = storageService.currentResumeId(application.getCandidate().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("No resume found for this application"));
         }
 
-        Resume resume = resumeService.getResumeById(resumeId)
+        StoredFile file = storageService.resumeFile(resumeId)
                 .orElseThrow(() -> new IllegalArgumentException("Resume not found"));
 
-        Resource resource = resumeService.getResumeFile(resumeId);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + resume.getOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file, false, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request, response);
     }
 
     // ==================== REPORTS AND ANALYTICS ====================
@@ -729,7 +719,7 @@ public class HRController {
      */
     @GetMapping("/reports/candidates")
     public String candidateReports(Model model) {
-        List<User> allCandidates = userService.getCandidates();
+        List<User> allCandidates = ReplicaRouting.fromReplica(candidateQueryService::getCandidates);
 
         // Calculate statistics
         long totalCandidates = allCandidates.size();
@@ -781,7 +771,7 @@ public class HRController {
      */
     @GetMapping("/reports/candidates/export")
     public ResponseEntity<String> exportCandidatesReport() {
-        List<User> candidates = userService.getCandidates();
+        List<User> candidates = ReplicaRouting.fromReplica(candidateQueryService::getCandidates);
 
         StringBuilder csv = new StringBuilder();
         csv.append("ID,Name,Email,Phone,Experience,Skills,Education,Has Resume,AI Score,AI Confidence\n");
@@ -1,13 +1,21 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.StoredFileWriter;
+import com.cv.aiml_project.dto.ApplicationView;
+import com.cv.aiml_project.dto.JobRecommendation;
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.service.ApplicationQueryService;
+import com.cv.aiml_project.service.JobFeedService;
+import com.cv.aiml_project.service.JobQueryService;
 import com.cv.aiml_project.service.JobService;
+import com.cv.aiml_project.service.ResumeStorageService;
 import com.cv.aiml_project.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,6 +26,7 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -33,6 +42,23 @@ public class JobController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredFileWriter fileWriter;
+
+    @Autowired
+    private JobQueryService jobQueryService;
+
+    @Autowired
+    private ApplicationQueryService applicationQueryService;
+
+    private static final int FEED_PAGE_SIZE = 5;
+
     // ==================== PUBLIC JOB VIEWING (All Users) ====================
 
     /**
@@ -42,7 +68,8 @@ public class JobController {
     public String browseJobs(Model model,
                              @RequestParam(required = false) String search,
                              @RequestParam(required = false) String department,
-                             @RequestParam(required = false) JobType jobType) {
+                             @RequestParam(required = false) JobType jobType,
+                             @RequestParam(defaultValue = "0") int feedPage) {
 
         List<Job> jobs;
 
@@ -57,6 +84,13 @@ public class JobController {
             model.addAttribute("jobType", jobType);
         } else {
             jobs = jobService.getActiveJobs();
+
+            // Personalised "jobs for you" section for candidates on the unfiltered listing
+            User currentUser = currentUserOrNull();
+            if (currentUser != null && currentUser.isCandidate()) {
+                model.addAttribute("recommendedJobs",
+                        jobFeedService.getFeed(currentUser.getId(), Math.max(feedPage, 0), FEED_PAGE_SIZE));
+            }
         }
 
         // Get statistics for display
@@ -74,10 +108,11 @@ public class JobController {
      */
     @GetMapping("/view/{id}")
     public String viewJobDetails(@PathVariable Long id, Model model) {
-        Job job = jobService.getJobById(id)
+        Job job = jobQueryService.getJob(id)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
         model.addAttribute("job", job);
+        model.addAttribute("counts", jobQueryService.getApplicationCounts(List.of(job)).get(job.getId()));
 
         // Check if current user is authenticated and is a candidate
         try {
@@ -102,6 +137,21 @@ public class JobController {
 
     // ==================== CANDIDATE JOB OPERATIONS ====================
 
+    /**
+     * Jobs for you feed (JSON), paged
+     */
+    @GetMapping("/api/for-you")
+    @PreAuthorize("hasRole('CANDIDATE')")
+    @ResponseBody
+    public Page<JobRecommendation> getJobsForYou(@RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "10") int size) {
+        User candidate = currentUserOrNull();
+        if (candidate == null) {
+            throw new RuntimeException("User not found");
+        }
+        return jobFeedService.getFeed(candidate.getId(), Math.max(page, 0), Math.min(Math.max(size, 1), 50));
+    }
+
     /**
      * Show job application form with resume upload
      */
@@ -202,7 +252,7 @@ public class JobController {
         User candidate = userService.getUserByUsername(auth.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<JobApplication> applications = jobService.getApplicationsByCandidate(candidate.getId());
+        List<JobApplication> applications = applicationQueryService.getApplicationsByCandidate(candidate.getId());
 
         model.addAttribute("applications", applications);
         return "jobs/my-applications";
@@ -258,6 +308,7 @@ public class JobController {
         }
 
         model.addAttribute("jobs", jobs);
+        model.addAttribute("applicationCounts", jobQueryService.getApplicationCounts(jobs));
         model.addAttribute("jobTypes", JobType.values());
 
         return "jobs/manage";
@@ -402,7 +453,7 @@ public class JobController {
         Job job = jobService.getJobById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
-        List<JobApplication> applications = jobService.getApplicationsForJob(jobId);
+        List<JobApplication> applications = applicationQueryService.getApplicationsForJob(jobId);
         Map<String, Object> stats = jobService.getApplicationStatsForJob(jobId);
 
         model.addAttribute("job", job);
@@ -419,12 +470,12 @@ public class JobController {
     @GetMapping("/applications/{applicationId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     public String viewApplicationDetails(@PathVariable Long applicationId, Model model) {
-        JobApplication application = jobService.getApplicationById(applicationId)
+        ApplicationView view = applicationQueryService.getApplication(applicationId)
                 .orElseThrow(() -> new IllegalArgumentException("Application not found"));
 
-        model.addAttribute("application", application);
-        model.addAttribute("candidate", application.getCandidate());
-        model.addAttribute("job", application.getJob());
+        model.addAttribute("application", view.application());
+        model.addAttribute("candidate", view.candidate());
+        model.addAttribute("job", view.job());
         model.addAttribute("statuses", ApplicationStatus.values());
 
         return "jobs/application-details";
@@ -455,21 +506,12 @@ public class JobController {
      */
     @GetMapping("/applications/{applicationId}/resume/download")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
-    public ResponseEntity<Resource> downloadApplicationResume(@PathVariable Long applicationId) throws IOException {
-        JobApplication application = jobService.getApplicationById(applicationId)
-                .orElseThrow(() -> new IllegalArgumentException("Application not found"));
-
-        if (application.getResumePath() == null) {
-            throw new IllegalArgumentException("No resume found for this application");
-        }
-
-        Resource resource = jobService.getApplicationResumeFile(applicationId);
+    public void downloadApplicationResume(@PathVariable Long applicationId, HttpServletRequest request,
+                                          HttpServletResponse response) throws IOException {
+        StoredFile file = storageService.applicationResumeFile(applicationId)
+                .orElseThrow(() -> new IllegalArgumentException("No resume found for this application"));
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + application.getResumeOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file, false, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request, response);
     }
 
     /**
@@ -509,4 +551,14 @@ public class JobController {
             return "redirect:/jobs/applications/" + applicationId;
         }
     }
+
+    // ==================== HELPER METHODS ====================
+
+    private User currentUserOrNull() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || "anonymousUser".equals(auth.getName())) {
+            return null;
+        }
+        return userService.getUserByUsername(auth.getName()).orElse(null);
+    }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.StoredFileWriter;
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.Resume;
 import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.service.BlobStore;
+import com.cv.aiml_project.service.CandidateQueryService;
+import com.cv.aiml_project.service.ResumePreviewService;
 import com.cv.aiml_project.service.ResumeService;
+import com.cv.aiml_project.service.ResumeStorageService;
 import com.cv.aiml_project.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -18,8 +23,11 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/candidate/resume")
@@ -31,6 +39,18 @@ public class ResumeController {
     @Autowired
     private ResumeService resumeService;
 
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredFileWriter fileWriter;
+
+    @Autowired
+    private ResumePreviewService previewService;
+
+    @Autowired
+    private CandidateQueryService candidateQueryService;
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
@@ -38,10 +58,16 @@ public class ResumeController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // The current user with resumes, for pages showing the current resume
+    private User getCurrentUserWithResumes() {
+        return candidateQueryService.getUser(currentUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
     // Resume Management Page
     @GetMapping("")
     public String resumeManagement(Model model) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         Resume currentResume = user.getCurrentResume();
         List<Resume> allResumes = resumeService.getAllUserResumes(user.getId());
 
@@ -108,61 +134,63 @@ public class ResumeController {
 
     // View Current Resume
     @GetMapping("/view")
-    public ResponseEntity<Resource> viewCurrentResume() throws IOException {
-        User user = getCurrentUser();
-        Resume currentResume = user.getCurrentResume();
-
-        if (currentResume == null) {
-            return ResponseEntity.notFound().build();
+    public void viewCurrentResume(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = currentResumeFile();
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
-
-        Resource resource = resumeService.getResumeFile(currentResume.getId());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + currentResume.getOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file.get(), true, CacheControl.noCache().cachePrivate(), request, response);
     }
 
     // View Specific Resume Version
     @GetMapping("/view/{resumeId}")
-    public ResponseEntity<Resource> viewResumeVersion(@PathVariable Long resumeId) throws IOException {
-        User user = getCurrentUser();
-        Resume resume = resumeService.getResumeById(resumeId)
+    public void viewResumeVersion(@PathVariable Long resumeId, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        StoredFile file = storageService.resumeFile(resumeId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
 
         // Verify ownership
-        if (!resume.getUser().getId().equals(user.getId())) {
-            return ResponseEntity.status(403).build();
+        if (!file.ownerUsername().equals(currentUsername())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
 
-        Resource resource = resumeService.getResumeFile(resumeId);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "inline; filename=\"" + resume.getOriginalName() + "\"")
-                .body(resource);
+        fileWriter.write(file, true, CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request, response);
     }
 
     // Download Current Resume
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadCurrentResume() throws IOException {
-        User user = getCurrentUser();
-        Resume currentResume = user.getCurrentResume();
+    public void downloadCurrentResume(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = currentResumeFile();
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileWriter.write(file.get(), false, CacheControl.noCache().cachePrivate(), request, response);
+    }
 
-        if (currentResume == null) {
-            return ResponseEntity.notFound().build();
+    // First-page thumbnail of a resume version, when one has been rendered
+    @GetMapping("/thumbnail/{resumeId}")
+    public void resumeThumbnail(@PathVariable Long resumeId, HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        Optional<StoredFile> file = storageService.resumeFile(resumeId)
+                .filter(found -> found.ownerUsername().equals(currentUsername()));
+        Optional<Path> thumbnail = file.flatMap(found -> previewService.image(found.key()));
+        if (thumbnail.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        fileWriter.writeImage(thumbnail.get(), BlobStore.hashOf(file.get().key()) + "-thumb",
+                CacheControl.maxAge(Duration.ofHours(1)).cachePrivate(), request, response);
+    }
 
-        Resource resource = resumeService.getResumeFile(currentResume.getId());
+    private Optional<StoredFile> currentResumeFile() {
+        return storageService.currentResumeId(currentUsername()).flatMap(storageService::resumeFile);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + currentResume.getOriginalName() + "\"")
-                .body(resource);
+    private String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
     // Delete Current Resume
@@ -170,10 +198,10 @@ public class ResumeController {
     public String deleteCurrentResume(RedirectAttributes redirectAttributes) {
         try {
             User user = getCurrentUser();
-            Resume currentResume = user.getCurrentResume();
+            Optional<Resume> currentResume = resumeService.getCurrentResume(user.getId());
 
-            if (currentResume != null) {
-                resumeService.deleteResume(currentResume.getId());
+            if (currentResume.isPresent()) {
+                resumeService.deleteResume(currentResume.get().getId());
             }
 
             redirectAttributes.addFlashAttribute("message", "Resume deleted successfully");
@@ -254,14 +282,14 @@ public class ResumeController {
     // View Resume Text (Extracted content)
     @GetMapping("/text")
     public String viewResumeText(Model model) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         Resume currentResume = user.getCurrentResume();
 
         if (currentResume == null) {
             model.addAttribute("error", "No resume found. Please upload a resume first.");
         } else {
             model.addAttribute("resume", currentResume);
-            model.addAttribute("resumeText", currentResume.getExtractedText());
+            model.addAttribute("resumeText", resumeService.getExtractedText(currentResume.getId()).orElse(null));
         }
 
         model.addAttribute("user", user);
@@ -271,7 +299,7 @@ public class ResumeController {
     // View Specific Resume Version Text
     @GetMapping("/text/{resumeId}")
     public String viewResumeVersionText(@PathVariable Long resumeId, Model model) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         Resume resume = resumeService.getResumeById(resumeId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
 
@@ -281,7 +309,7 @@ public class ResumeController {
         }
 
         model.addAttribute("resume", resume);
-        model.addAttribute("resumeText", resume.getExtractedText());
+        model.addAttribute("resumeText", resumeService.getExtractedText(resumeId).orElse(null));
         model.addAttribute("user", user);
         return "candidate/resume-text";
     }
@@ -1,22 +1,35 @@
 package com.cv.aiml_project.controller;
 
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.cv.aiml_project.config.ReplicaRouting;
+import com.cv.aiml_project.dto.CandidateRecommendation;
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.MatchResultRow;
+import com.cv.aiml_project.dto.MatchResultView;
 import com.cv.aiml_project.entity.Job;
 import com.cv.aiml_project.entity.SkillMatchResult;
 import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.service.CandidateRecommendationService;
+import com.cv.aiml_project.service.DataVersionService;
 import com.cv.aiml_project.service.JobService;
+import com.cv.aiml_project.service.MatchResultQueryService;
 import com.cv.aiml_project.service.SkillMatchResultService;
 import com.cv.aiml_project.service.UserService;
-import jakarta.transaction.Transactional;
+import com.cv.aiml_project.service.VectorIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Controller
@@ -32,31 +45,33 @@ public class SkillMatchResultController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CandidateRecommendationService recommendationService;
+
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private JsonRowWriter jsonRowWriter;
+
+    @Autowired
+    private MatchResultQueryService matchResultQueryService;
+
     // ==================== ADMIN/HR ENDPOINTS ====================
 
     /**
      * View skill match results for a job
      */
-    // In SkillMatchResultController.java
-
     @GetMapping("/job/{jobId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
-    @Transactional // Add this
     public String viewJobMatchResults(@PathVariable Long jobId, Model model) {
         Job job = jobService.getJobById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("Job not found"));
 
-        List<SkillMatchResult> results = skillMatchResultService.getLatestMatchResultsForJob(jobId);
-
-        // Force initialization of candidate data
-        for (SkillMatchResult result : results) {
-            if (result.getCandidate() != null) {
-                // This forces Hibernate to load the candidate data
-                result.getCandidate().getId();
-                result.getCandidate().getFullName();
-                result.getCandidate().getEmail();
-            }
-        }
+        List<SkillMatchResult> results = matchResultQueryService.getLatestResultsForJob(jobId);
 
         Map<String, Object> stats = skillMatchResultService.getMatchStatisticsForJob(jobId);
 
@@ -73,12 +88,10 @@ public class SkillMatchResultController {
     @GetMapping("/result/{resultId}")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN', 'CANDIDATE')")
     public String viewMatchResultDetails(@PathVariable Long resultId, Model model) {
-        SkillMatchResult result = skillMatchResultService.getMatchResultById(resultId)
+        MatchResultView view = matchResultQueryService.getResult(resultId)
                 .orElseThrow(() -> new IllegalArgumentException("Match result not found"));
 
-        model.addAttribute("result", result);
-        model.addAttribute("job", result.getJob());
-        model.addAttribute("candidate", result.getCandidate());
+        addResultAttributes(model, view);
 
         return "skill-match/result-details";
     }
@@ -199,12 +212,13 @@ public class SkillMatchResultController {
     public ResponseEntity<?> updateRanking(@PathVariable Long jobId) {
         try {
             skillMatchResultService.updateRankingForJob(jobId);
-            List<Map<String, Object>> rankedList = skillMatchResultService.getRankedCandidatesForJob(jobId);
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "message", "Ranking updated successfully",
-                    "rankings", rankedList
-            ));
+            // First page only; later pages come from the rankings API with the returned cursor
+            CursorPage<MatchResultRow> page = ReplicaRouting.fromPrimary(
+                    () -> skillMatchResultService.getRankedCandidatesPage(jobId, null, 100));
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonRowWriter.page("rankings", page, null,
+                            Map.of("message", "Ranking updated successfully")));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "success", false,
@@ -219,12 +233,48 @@ public class SkillMatchResultController {
     @GetMapping("/api/job/{jobId}/rankings")
     @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
     @ResponseBody
-    public ResponseEntity<?> getRankedCandidates(@PathVariable Long jobId) {
+    public ResponseEntity<?> getRankedCandidates(@PathVariable Long jobId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "100") int limit,
+                                                 @RequestParam(required = false) String fields,
+                                                 WebRequest webRequest) {
+        // Answer unchanged polls with 304 after one version lookup, before loading any data
+        String etag = dataVersionService.etag(DataVersionService.Channel.MATCH_RESULTS, jobId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            Set<String> selected = jsonRowWriter.parseFields(fields, MatchResultRow.class);
+            // Served under the version ETag, so read what the primary has committed
+            CursorPage<MatchResultRow> page = ReplicaRouting.fromPrimary(
+                    () -> skillMatchResultService.getRankedCandidatesPage(jobId, cursor, limit));
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonRowWriter.page("rankings", page, selected));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Recommend top candidates for a job (vector shortlist, then full scoring)
+     */
+    @GetMapping("/api/job/{jobId}/recommendations")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> recommendCandidates(@PathVariable Long jobId,
+                                                 @RequestParam(defaultValue = "10") int limit) {
         try {
-            List<Map<String, Object>> rankings = skillMatchResultService.getRankedCandidatesForJob(jobId);
+            List<CandidateRecommendation> recommendations =
+                    recommendationService.recommendCandidatesForJob(jobId, Math.max(1, Math.min(limit, 100)));
             return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "rankings", rankings
+                    "recommendations", recommendations
             ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -234,6 +284,20 @@ public class SkillMatchResultController {
         }
     }
 
+    /**
+     * Rebuild the candidate vector index from the database
+     */
+    @PostMapping("/api/vector-index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseBody
+    public ResponseEntity<?> rebuildVectorIndex() {
+        vectorIndexService.rebuild();
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "indexedResumes", vectorIndexService.getIndexedResumeCount()
+        ));
+    }
+
     // ==================== CANDIDATE ENDPOINTS ====================
 
     /**
@@ -244,7 +308,7 @@ public class SkillMatchResultController {
     public String viewMyMatchResults(Model model) {
         // Get current candidate
         User currentUser = getCurrentCandidate();
-        List<SkillMatchResult> results = skillMatchResultService.getMatchResultsForCandidate(currentUser.getId());
+        List<SkillMatchResult> results = matchResultQueryService.getResultsForCandidate(currentUser.getId());
 
         // Group by match level
         List<SkillMatchResult> excellentMatches = results.stream()
@@ -275,7 +339,7 @@ public class SkillMatchResultController {
         User candidate = userService.getUserById(candidateId)
                 .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
 
-        List<SkillMatchResult> results = skillMatchResultService.getMatchResultsForCandidate(candidateId);
+        List<SkillMatchResult> results = matchResultQueryService.getResultsForCandidate(candidateId);
 
         model.addAttribute("candidate", candidate);
         model.addAttribute("results", results);
@@ -291,16 +355,21 @@ public class SkillMatchResultController {
     public String getMatchResultByJobAndCandidate(@RequestParam Long jobId,
                                                   @RequestParam Long candidateId,
                                                   Model model) {
-        SkillMatchResult result = skillMatchResultService.getLatestMatchForJobAndCandidate(jobId, candidateId)
+        MatchResultView view = matchResultQueryService.getResult(jobId, candidateId)
                 .orElseThrow(() -> new IllegalArgumentException("Match result not found"));
 
-        model.addAttribute("result", result);
-        model.addAttribute("job", result.getJob());
-        model.addAttribute("candidate", result.getCandidate());
+        addResultAttributes(model, view);
 
         return "skill-match/result-details";
     }
 
+    private void addResultAttributes(Model model, MatchResultView view) {
+        model.addAttribute("result", view.result());
+        model.addAttribute("job", view.job());
+        model.addAttribute("candidate", view.candidate());
+        model.addAttribute("rawExtractedData", view.rawExtractedData());
+    }
+
     /**
      * Get current candidate from security context
      */
@@ -323,7 +392,8 @@ public class SkillMatchResultController {
         Map<Long, Map<String, Object>> jobStats = activeJobs.stream()
                 .collect(Collectors.toMap(
                         Job::getId,
-                        job -> skillMatchResultService.getMatchStatisticsForJob(job.getId())
+                        job -> ReplicaRouting.fromReplica(
+                                () -> skillMatchResultService.getMatchStatisticsForJob(job.getId()))
                 ));
 
         model.addAttribute("activeJobs", activeJobs);
@@ -340,7 +410,7 @@ public class SkillMatchResultController {
     @ResponseBody
     public ResponseEntity<String> exportMatchResults(@PathVariable Long jobId) {
         try {
-            List<SkillMatchResult> results = skillMatchResultService.getLatestMatchResultsForJob(jobId);
+            List<SkillMatchResult> results = matchResultQueryService.getLatestResultsForJob(jobId);
             Job job = jobService.getJobById(jobId).orElseThrow();
 
             StringBuilder csv = new StringBuilder();
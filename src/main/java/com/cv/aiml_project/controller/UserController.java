@@ -2,6 +2,8 @@ package com.cv.aiml_project.controller;
 
 import com.cv.aiml_project.entity.Resume;
 import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.service.CandidateQueryService;
+import com.cv.aiml_project.service.JobFeedService;
 import com.cv.aiml_project.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +23,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private CandidateQueryService candidateQueryService;
+
     private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
@@ -28,14 +36,22 @@ public class UserController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // The current user with resumes, for pages showing the current resume
+    private User getCurrentUserWithResumes() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return candidateQueryService.getUser(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
     @GetMapping("/dashboard")
     public String candidateDashboard(Model model, HttpSession session) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         Resume currentResume = user.getCurrentResume();
 
         model.addAttribute("user", user);
         model.addAttribute("currentResume", currentResume);
         model.addAttribute("mlProcessed", currentResume != null ? currentResume.isMlProcessed() : false);
+        model.addAttribute("recommendedJobs", jobFeedService.getFeed(user.getId(), 0, 5));
 
         return "candidate/dashboard";
     }
@@ -43,7 +59,7 @@ public class UserController {
     // Profile Management
     @GetMapping("/profile")
     public String showProfile(Model model) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         model.addAttribute("user", user);
         return "candidate/profile";
     }
@@ -164,7 +180,7 @@ public class UserController {
 
     @GetMapping("/ai-analysis")
     public String viewAIAnalysis(Model model) {
-        User user = getCurrentUser();
+        User user = getCurrentUserWithResumes();
         Resume currentResume = user.getCurrentResume();
 
         if (currentResume == null) {
@@ -0,0 +1,17 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.cv.aiml_project.entity.ApplicationEvent;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One application timeline entry, projected straight from the query
+ */
+@JsonFilter(JsonRowWriter.FIELD_FILTER)
+public record ApplicationEventRow(Long eventId, ApplicationEvent.Type type, ApplicationStatus fromStatus,
+                                  ApplicationStatus toStatus, String noteType, boolean privateNote,
+                                  String message, String actor, LocalDateTime createdAt) {
+}
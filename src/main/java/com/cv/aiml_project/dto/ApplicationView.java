@@ -0,0 +1,11 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.entity.User;
+
+/**
+ * One application with its candidate and job loaded
+ */
+public record ApplicationView(JobApplication application, User candidate, Job job) {
+}
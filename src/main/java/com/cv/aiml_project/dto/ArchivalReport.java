@@ -0,0 +1,74 @@
+package com.cv.aiml_project.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of an application archival run, or what a dry run would do. A background run fills
+ * in its counts as it goes and is read by the status API meanwhile.
+ */
+public class ArchivalReport {
+
+    private boolean dryRun;
+    private int daysClosed;
+    private LocalDateTime archiveThreshold; // closed before this -> archived
+    private LocalDateTime moveThreshold;    // archived before this -> moved to the archive table
+    private Map<String, Long> archivableByStatus = new LinkedHashMap<>();
+    private long archivable;
+    private long movable;
+    private volatile int archived;
+    private volatile int moved;
+    private volatile int chunks;
+    private volatile boolean complete = true; // false when the run stopped at its chunk limit and will resume
+    private volatile boolean finished;
+    private volatile String error;
+    private volatile long durationMs;
+    private LocalDateTime startedAt = LocalDateTime.now();
+
+    // Getters and Setters
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+
+    public int getDaysClosed() { return daysClosed; }
+    public void setDaysClosed(int daysClosed) { this.daysClosed = daysClosed; }
+
+    public LocalDateTime getArchiveThreshold() { return archiveThreshold; }
+    public void setArchiveThreshold(LocalDateTime archiveThreshold) { this.archiveThreshold = archiveThreshold; }
+
+    public LocalDateTime getMoveThreshold() { return moveThreshold; }
+    public void setMoveThreshold(LocalDateTime moveThreshold) { this.moveThreshold = moveThreshold; }
+
+    public Map<String, Long> getArchivableByStatus() { return archivableByStatus; }
+    public void setArchivableByStatus(Map<String, Long> archivableByStatus) { this.archivableByStatus = archivableByStatus; }
+
+    public long getArchivable() { return archivable; }
+    public void setArchivable(long archivable) { this.archivable = archivable; }
+
+    public long getMovable() { return movable; }
+    public void setMovable(long movable) { this.movable = movable; }
+
+    public int getArchived() { return archived; }
+    public void setArchived(int archived) { this.archived = archived; }
+
+    public int getMoved() { return moved; }
+    public void setMoved(int moved) { this.moved = moved; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+
+    public boolean isFinished() { return finished; }
+    public void setFinished(boolean finished) { this.finished = finished; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+}
@@ -0,0 +1,17 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.entity.Resume;
+import com.cv.aiml_project.entity.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A candidate with all resume versions and their applications (each with its job)
+ */
+public record CandidateDetailsView(User candidate, Resume currentResume, List<Resume> allResumes,
+                                   List<JobApplication> applications,
+                                   Map<ApplicationStatus, Long> applicationStats, double avgMatchScore) {
+}
@@ -0,0 +1,46 @@
+package com.cv.aiml_project.dto;
+
+/**
+ * A candidate suggested for a job: vector similarity from retrieval plus the full match score
+ */
+public class CandidateRecommendation {
+
+    private Long candidateId;
+    private String candidateName;
+    private String candidateEmail;
+    private Long resumeId;
+    private Double similarity;
+    private Double matchScore;
+
+    public CandidateRecommendation() {
+    }
+
+    public CandidateRecommendation(Long candidateId, String candidateName, String candidateEmail,
+                                   Long resumeId, Double similarity, Double matchScore) {
+        this.candidateId = candidateId;
+        this.candidateName = candidateName;
+        this.candidateEmail = candidateEmail;
+        this.resumeId = resumeId;
+        this.similarity = similarity;
+        this.matchScore = matchScore;
+    }
+
+    // Getters and Setters
+    public Long getCandidateId() { return candidateId; }
+    public void setCandidateId(Long candidateId) { this.candidateId = candidateId; }
+
+    public String getCandidateName() { return candidateName; }
+    public void setCandidateName(String candidateName) { this.candidateName = candidateName; }
+
+    public String getCandidateEmail() { return candidateEmail; }
+    public void setCandidateEmail(String candidateEmail) { this.candidateEmail = candidateEmail; }
+
+    public Long getResumeId() { return resumeId; }
+    public void setResumeId(Long resumeId) { this.resumeId = resumeId; }
+
+    public Double getSimilarity() { return similarity; }
+    public void setSimilarity(Double similarity) { this.similarity = similarity; }
+
+    public Double getMatchScore() { return matchScore; }
+    public void setMatchScore(Double matchScore) { this.matchScore = matchScore; }
+}
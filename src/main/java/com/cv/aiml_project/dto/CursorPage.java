@@ -0,0 +1,9 @@
+package com.cv.aiml_project.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of rows; nextCursor is null on the last page
+ */
+public record CursorPage<T>(List<T> rows, String nextCursor) {
+}
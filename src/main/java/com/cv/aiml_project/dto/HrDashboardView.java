@@ -0,0 +1,14 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the HR dashboard shows; candidates come with their resumes
+ */
+public record HrDashboardView(long totalCandidates, long activeCandidates, long mlProcessed, long resumesCount,
+                              List<User> recentCandidates, List<User> topCandidates,
+                              Map<String, Object> jobStats) {
+}
@@ -0,0 +1,9 @@
+package com.cv.aiml_project.dto;
+
+/**
+ * How many applications a job has, and how many of them are still pending
+ */
+public record JobApplicationCounts(long total, long pending) {
+
+    public static final JobApplicationCounts NONE = new JobApplicationCounts(0, 0);
+}
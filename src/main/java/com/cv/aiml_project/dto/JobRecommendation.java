@@ -0,0 +1,71 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.JobType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An active job suggested to a candidate, with the skills that put it in their feed
+ */
+public class JobRecommendation {
+
+    private Long jobId;
+    private String title;
+    private String department;
+    private String location;
+    private JobType jobType;
+    private LocalDateTime postedDate;
+    private LocalDateTime expiryDate;
+    private Double matchScore;
+    private List<String> matchedSkills;
+
+    public JobRecommendation() {
+    }
+
+    public JobRecommendation(Long jobId, String title, String department, String location, JobType jobType,
+                             LocalDateTime postedDate, LocalDateTime expiryDate,
+                             Double matchScore, List<String> matchedSkills) {
+        this.jobId = jobId;
+        this.title = title;
+        this.department = department;
+        this.location = location;
+        this.jobType = jobType;
+        this.postedDate = postedDate;
+        this.expiryDate = expiryDate;
+        this.matchScore = matchScore;
+        this.matchedSkills = matchedSkills;
+    }
+
+    public boolean isExpired() {
+        return expiryDate != null && expiryDate.isBefore(LocalDateTime.now());
+    }
+
+    // Getters and Setters
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public JobType getJobType() { return jobType; }
+    public void setJobType(JobType jobType) { this.jobType = jobType; }
+
+    public LocalDateTime getPostedDate() { return postedDate; }
+    public void setPostedDate(LocalDateTime postedDate) { this.postedDate = postedDate; }
+
+    public LocalDateTime getExpiryDate() { return expiryDate; }
+    public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
+
+    public Double getMatchScore() { return matchScore; }
+    public void setMatchScore(Double matchScore) { this.matchScore = matchScore; }
+
+    public List<String> getMatchedSkills() { return matchedSkills; }
+    public void setMatchedSkills(List<String> matchedSkills) { this.matchedSkills = matchedSkills; }
+}
@@ -0,0 +1,123 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.JobApplication;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact row delta pushed to HR views of a job over server-sent events
+ */
+public class LiveUpdate {
+
+    public enum Type {
+        APPLICATION_ADDED, APPLICATION_CHANGED, APPLICATION_REMOVED,
+        RANKING_ADDED, RANKING_CHANGED, RANKING_REMOVED,
+        // Same rank and score, re-inserted under a new id by a ranking run
+        RANKING_RENUMBERED
+    }
+
+    private Type type;
+    private Long jobId;
+    private Long id; // application or ranking id
+    private Long previousId; // ranking id the row had before a run
+    private Long candidateId;
+    private String candidateName;
+    private String candidateEmail;
+    private String status;
+    private String statusDisplay;
+    private String statusBadgeClass;
+    private Double score;
+    private Integer rank;
+    private Integer previousRank;
+    private LocalDateTime timestamp;
+
+    public LiveUpdate() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    public static LiveUpdate application(Type type, JobApplication application) {
+        LiveUpdate update = new LiveUpdate();
+        update.setType(type);
+        update.setJobId(application.getJob().getId());
+        update.setId(application.getId());
+        update.setCandidateId(application.getCandidate().getId());
+        update.setScore(application.getMatchScore());
+
+        if (type == Type.APPLICATION_ADDED) {
+            update.setCandidateName(application.getCandidate().getFullName());
+            update.setCandidateEmail(application.getCandidate().getEmail());
+        }
+        if (application.getStatus() != null) {
+            update.setStatus(application.getStatus().name());
+            update.setStatusDisplay(application.getStatus().getDisplayName());
+            update.setStatusBadgeClass(application.getStatusBadgeClass());
+        }
+        return update;
+    }
+
+    public static LiveUpdate ranking(Type type, CandidateRanking ranking, Integer previousRank) {
+        LiveUpdate update = new LiveUpdate();
+        update.setType(type);
+        update.setJobId(ranking.getJob().getId());
+        update.setId(ranking.getId());
+        update.setCandidateId(ranking.getCandidate().getId());
+        update.setScore(ranking.getRankingScore());
+        update.setRank(ranking.getRankPosition());
+        update.setPreviousRank(previousRank);
+        return update;
+    }
+
+    public static LiveUpdate renumbered(CandidateRanking ranking, Long previousId) {
+        LiveUpdate update = new LiveUpdate();
+        update.setType(Type.RANKING_RENUMBERED);
+        update.setJobId(ranking.getJob().getId());
+        update.setId(ranking.getId());
+        update.setPreviousId(previousId);
+        update.setCandidateId(ranking.getCandidate().getId());
+        return update;
+    }
+
+    // Getters and Setters
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getPreviousId() { return previousId; }
+    public void setPreviousId(Long previousId) { this.previousId = previousId; }
+
+    public Long getCandidateId() { return candidateId; }
+    public void setCandidateId(Long candidateId) { this.candidateId = candidateId; }
+
+    public String getCandidateName() { return candidateName; }
+    public void setCandidateName(String candidateName) { this.candidateName = candidateName; }
+
+    public String getCandidateEmail() { return candidateEmail; }
+    public void setCandidateEmail(String candidateEmail) { this.candidateEmail = candidateEmail; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getStatusDisplay() { return statusDisplay; }
+    public void setStatusDisplay(String statusDisplay) { this.statusDisplay = statusDisplay; }
+
+    public String getStatusBadgeClass() { return statusBadgeClass; }
+    public void setStatusBadgeClass(String statusBadgeClass) { this.statusBadgeClass = statusBadgeClass; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public Integer getRank() { return rank; }
+    public void setRank(Integer rank) { this.rank = rank; }
+
+    public Integer getPreviousRank() { return previousRank; }
+    public void setPreviousRank(Integer previousRank) { this.previousRank = previousRank; }
+
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+}
@@ -0,0 +1,37 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/**
+ * One candidate's latest match result for a job, as served by the ranked-candidates API
+ */
+@JsonFilter(JsonRowWriter.FIELD_FILTER)
+public record MatchResultRow(Long resultId, int rank, Long candidateId, String candidateName, String candidateEmail,
+                             Double overallScore, Double skillsScore, Double experienceScore, Double educationScore,
+                             String matchedSkills, String missingSkills, String matchLevel, Double percentile) {
+
+    /**
+     * Query projection; the rank is assigned by position once the page is read
+     */
+    public MatchResultRow(Long resultId, Long candidateId, String candidateName, String candidateEmail,
+                          Double overallScore, Double skillsScore, Double experienceScore, Double educationScore,
+                          String matchedSkills, String missingSkills, Double percentile) {
+        this(resultId, 0, candidateId, candidateName, candidateEmail, overallScore, skillsScore, experienceScore,
+                educationScore, matchedSkills, missingSkills, matchLevel(overallScore), percentile);
+    }
+
+    public MatchResultRow withRank(int rank) {
+        return new MatchResultRow(resultId, rank, candidateId, candidateName, candidateEmail, overallScore,
+                skillsScore, experienceScore, educationScore, matchedSkills, missingSkills, matchLevel, percentile);
+    }
+
+    // Same bands as SkillMatchResult.getMatchLevel()
+    private static String matchLevel(Double overallScore) {
+        if (overallScore == null) return "Not Analyzed";
+        if (overallScore >= 80) return "Excellent Match";
+        if (overallScore >= 60) return "Good Match";
+        if (overallScore >= 40) return "Average Match";
+        return "Poor Match";
+    }
+}
@@ -0,0 +1,11 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.SkillMatchResult;
+import com.cv.aiml_project.entity.User;
+
+/**
+ * One match result with its job and candidate loaded, and the resume excerpt saved with it
+ */
+public record MatchResultView(SkillMatchResult result, Job job, User candidate, String rawExtractedData) {
+}
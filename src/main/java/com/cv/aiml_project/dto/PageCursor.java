@@ -0,0 +1,31 @@
+package com.cv.aiml_project.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position after the last row of a page: the row's sort key, its id (tie-breaker) and
+ * its rank. Handed to clients as an opaque URL-safe token.
+ */
+public record PageCursor(double sortKey, long id, int rank) {
+
+    public String encode() {
+        String raw = sortKey + ":" + id + ":" + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token from {@link #encode()}; null or blank means the first page
+     */
+    public static PageCursor decode(String token, PageCursor first) {
+        if (token == null || token.isBlank()) {
+            return first;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            return new PageCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
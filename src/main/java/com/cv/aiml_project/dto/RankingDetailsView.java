@@ -0,0 +1,15 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.CandidateRankingHistory;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.User;
+
+import java.util.List;
+
+/**
+ * One ranking with its job, candidate and match result loaded, and the candidate's earlier rankings for the job
+ */
+public record RankingDetailsView(CandidateRanking ranking, Job job, User candidate,
+                                 List<CandidateRankingHistory> history) {
+}
@@ -0,0 +1,16 @@
+package com.cv.aiml_project.dto;
+
+import com.cv.aiml_project.config.JsonRowWriter;
+import com.cv.aiml_project.entity.HiringStatus;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/**
+ * One current ranking as served by the rankings API, projected straight from the query
+ */
+@JsonFilter(JsonRowWriter.FIELD_FILTER)
+public record RankingRow(Long rankingId, Integer rank, Long candidateId, String candidateName, String candidateEmail,
+                         Double rankingScore, Integer rankChange, Double percentile,
+                         Double weightedSkillsScore, Double weightedExperienceScore, Double weightedEducationScore,
+                         Double weightedPersonalityScore, Double weightedCulturalFitScore,
+                         boolean shortlisted, HiringStatus hiringStatus) {
+}
@@ -0,0 +1,70 @@
+package com.cv.aiml_project.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of a background ranking run, returned by the polling and SSE endpoints
+ */
+public class RankingRunStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String runId;
+    private Long jobId;
+    private String operation; // GENERATE, RECALCULATE
+    private State state;
+    private int processed;
+    private int total;
+    private Long etaSeconds;
+    private String message;
+    private String requestedBy;
+    private boolean coalesced;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public int getPercent() {
+        if (total <= 0) return isFinished() ? 100 : 0;
+        return (int) Math.min(100, (processed * 100L) / total);
+    }
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public State getState() { return state; }
+    public void setState(State state) { this.state = state; }
+
+    public int getProcessed() { return processed; }
+    public void setProcessed(int processed) { this.processed = processed; }
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public Long getEtaSeconds() { return etaSeconds; }
+    public void setEtaSeconds(Long etaSeconds) { this.etaSeconds = etaSeconds; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getRequestedBy() { return requestedBy; }
+    public void setRequestedBy(String requestedBy) { this.requestedBy = requestedBy; }
+
+    public boolean isCoalesced() { return coalesced; }
+    public void setCoalesced(boolean coalesced) { this.coalesced = coalesced; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
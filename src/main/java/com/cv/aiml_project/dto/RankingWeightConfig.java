@@ -4,6 +4,8 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.Objects;
+
 public class RankingWeightConfig {
 
     @NotNull
@@ -49,6 +51,16 @@ public class RankingWeightConfig {
         return Math.abs(total - 100.0) < 0.01; // Allow small floating point error
     }
 
+    // Same weights, whatever the configuration is called
+    public boolean hasSameWeights(RankingWeightConfig other) {
+        return other != null
+                && Objects.equals(skillsWeight, other.skillsWeight)
+                && Objects.equals(experienceWeight, other.experienceWeight)
+                && Objects.equals(educationWeight, other.educationWeight)
+                && Objects.equals(personalityWeight, other.personalityWeight)
+                && Objects.equals(culturalFitWeight, other.culturalFitWeight);
+    }
+
     public String getValidationMessage() {
         double total = skillsWeight + experienceWeight + educationWeight +
                 (personalityWeight != null ? personalityWeight : 0) +
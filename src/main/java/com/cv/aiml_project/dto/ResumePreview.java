@@ -0,0 +1,18 @@
+package com.cv.aiml_project.dto;
+
+/**
+ * Cached first-page preview of a stored resume: a short text snippet and, for PDFs, a thumbnail
+ */
+public class ResumePreview {
+
+    private final String snippet;
+    private final boolean hasImage;
+
+    public ResumePreview(String snippet, boolean hasImage) {
+        this.snippet = snippet;
+        this.hasImage = hasImage;
+    }
+
+    public String getSnippet() { return snippet; }
+    public boolean isHasImage() { return hasImage; }
+}
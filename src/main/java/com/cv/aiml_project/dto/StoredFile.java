@@ -0,0 +1,11 @@
+package com.cv.aiml_project.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * What is needed to serve a stored resume: its storage key, download metadata and owner.
+ * Loaded with a projection so a download never pulls the resume's text columns.
+ */
+public record StoredFile(String key, String fileName, String contentType, Long size,
+                         LocalDateTime modified, Long ownerId, String ownerUsername) {
+}
@@ -0,0 +1,114 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One entry in an application's timeline: a note, a status transition or an interview change.
+ * Rows are only ever inserted. Ids come from a pooled table generator rather than IDENTITY, so
+ * several events written in one transaction go out as a single JDBC batch.
+ */
+@Entity
+@Table(name = "application_events", indexes = {
+        @Index(name = "idx_application_event_timeline", columnList = "application_id, created_at, id")
+})
+public class ApplicationEvent {
+
+    public enum Type {
+        NOTE,
+        STATUS_CHANGED,
+        INTERVIEW_SCHEDULED,
+        INTERVIEW_RESCHEDULED,
+        INTERVIEW_CANCELLED,
+        INTERVIEW_FEEDBACK
+    }
+
+    public static final int ID_ALLOCATION_SIZE = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "application_event_ids")
+    @TableGenerator(name = "application_event_ids", table = PooledIds.TABLE, pkColumnName = PooledIds.NAME_COLUMN,
+            valueColumnName = PooledIds.VALUE_COLUMN, pkColumnValue = "application_events",
+            allocationSize = ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(name = "application_id", nullable = false, updatable = false)
+    private Long applicationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 32)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", updatable = false, length = 32)
+    private ApplicationStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", updatable = false, length = 32)
+    private ApplicationStatus toStatus;
+
+    // GENERAL, HR, INTERVIEW, FEEDBACK, SYSTEM for notes
+    @Column(name = "note_type", updatable = false, length = 32)
+    private String noteType;
+
+    @Column(name = "private_note", nullable = false, updatable = false)
+    private boolean privateNote;
+
+    @Column(name = "message", updatable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "actor", updatable = false, length = 100)
+    private String actor;
+
+    // Microsecond precision, as stored, so keyset cursors compare equal after a round trip
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+
+    public ApplicationEvent() {}
+
+    public ApplicationEvent(Long applicationId, Type type, String message, String actor) {
+        this.applicationId = applicationId;
+        this.type = type;
+        this.message = message;
+        this.actor = actor;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getApplicationId() { return applicationId; }
+    public void setApplicationId(Long applicationId) { this.applicationId = applicationId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public ApplicationStatus getFromStatus() { return fromStatus; }
+    public void setFromStatus(ApplicationStatus fromStatus) { this.fromStatus = fromStatus; }
+
+    public ApplicationStatus getToStatus() { return toStatus; }
+    public void setToStatus(ApplicationStatus toStatus) { this.toStatus = toStatus; }
+
+    public String getNoteType() { return noteType; }
+    public void setNoteType(String noteType) { this.noteType = noteType; }
+
+    public boolean isPrivateNote() { return privateNote; }
+    public void setPrivateNote(boolean privateNote) { this.privateNote = privateNote; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getActor() { return actor; }
+    public void setActor(String actor) { this.actor = actor; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,39 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far a chunked housekeeping step got: the last id it processed. Saved with each chunk,
+ * so an interrupted pass resumes there; reset to 0 once a pass reaches the end.
+ */
+@Entity
+@Table(name = "archival_checkpoints")
+public class ArchivalCheckpoint {
+
+    @Id
+    @Column(name = "step", length = 64)
+    private String step;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public ArchivalCheckpoint() {}
+
+    public ArchivalCheckpoint(String step) {
+        this.step = step;
+    }
+
+    // Getters and Setters
+    public String getStep() { return step; }
+    public void setStep(String step) { this.step = step; }
+
+    public long getLastId() { return lastId; }
+    public void setLastId(long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
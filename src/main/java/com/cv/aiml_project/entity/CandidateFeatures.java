@@ -0,0 +1,83 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A candidate's profile and current resume parsed once into primitives for scoring.
+ * Keyed by plain candidate id (no foreign key): this is derived data, rebuilt whenever
+ * the profile or current resume changes.
+ */
+@Entity
+@Table(name = "candidate_features")
+public class CandidateFeatures {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "candidate_id", nullable = false, unique = true)
+    private Long candidateId;
+
+    // Resume the features were parsed from, if any
+    @Column(name = "resume_id")
+    private Long resumeId;
+
+    // Hash of the profile fields and resume text these features were parsed from
+    @Column(name = "source_hash", nullable = false)
+    private long sourceHash;
+
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "skill_ids", columnDefinition = "VARBINARY(4000)")
+    private int[] skillIds = new int[0];
+
+    // Highest skill term id the resume text has been matched against
+    @Column(name = "skill_scan", nullable = false)
+    private int skillScan;
+
+    @Column(name = "experience_years")
+    private Integer experienceYears;
+
+    // Highest level found; null when none is known
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "education_level")
+    private EducationLevel educationLevel;
+
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "certification_ids", columnDefinition = "VARBINARY(500)")
+    private int[] certificationIds = new int[0];
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCandidateId() { return candidateId; }
+    public void setCandidateId(Long candidateId) { this.candidateId = candidateId; }
+
+    public Long getResumeId() { return resumeId; }
+    public void setResumeId(Long resumeId) { this.resumeId = resumeId; }
+
+    public long getSourceHash() { return sourceHash; }
+    public void setSourceHash(long sourceHash) { this.sourceHash = sourceHash; }
+
+    public int[] getSkillIds() { return skillIds; }
+    public void setSkillIds(int[] skillIds) { this.skillIds = skillIds; }
+
+    public int getSkillScan() { return skillScan; }
+    public void setSkillScan(int skillScan) { this.skillScan = skillScan; }
+
+    public Integer getExperienceYears() { return experienceYears; }
+    public void setExperienceYears(Integer experienceYears) { this.experienceYears = experienceYears; }
+
+    public EducationLevel getEducationLevel() { return educationLevel; }
+    public void setEducationLevel(EducationLevel educationLevel) { this.educationLevel = educationLevel; }
+
+    public int[] getCertificationIds() { return certificationIds; }
+    public void setCertificationIds(int[] certificationIds) { this.certificationIds = certificationIds; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
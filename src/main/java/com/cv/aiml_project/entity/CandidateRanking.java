@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "candidate_rankings")
 public class CandidateRanking {
 
+    // Ids handed out in blocks, so a whole ranking run is inserted as JDBC batches
+    public static final int ID_ALLOCATION_SIZE = 1000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "candidate_ranking_ids")
+    @TableGenerator(name = "candidate_ranking_ids", table = PooledIds.TABLE, pkColumnName = PooledIds.NAME_COLUMN,
+            valueColumnName = PooledIds.VALUE_COLUMN, pkColumnValue = "candidate_rankings",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -270,19 +277,7 @@ public class CandidateRanking {
     }
 
     public String getHiringStatusBadgeClass() {
-        if (hiringStatus == null) return "bg-secondary";
-        switch (hiringStatus) {
-            case NOT_REVIEWED: return "bg-secondary";
-            case UNDER_REVIEW: return "bg-info";
-            case SHORTLISTED: return "bg-success";
-            case INTERVIEWED: return "bg-primary";
-            case OFFER_EXTENDED: return "bg-warning";
-            case OFFER_ACCEPTED: return "bg-success";
-            case OFFER_DECLINED: return "bg-danger";
-            case REJECTED: return "bg-danger";
-            case HIRED: return "bg-success";
-            default: return "bg-secondary";
-        }
+        return HiringStatus.badgeClass(hiringStatus);
     }
 
     public boolean isTopRanked() {
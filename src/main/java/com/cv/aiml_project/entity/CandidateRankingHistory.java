@@ -0,0 +1,139 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A superseded ranking, moved out of candidate_rankings by the history compactor.
+ * Append-only and keyed by the original ranking id; job, candidate and match result are
+ * plain ids (no foreign keys) so archived rows never hold up changes to the hot tables.
+ */
+@Entity
+@Table(name = "candidate_ranking_history", indexes = {
+        @Index(name = "idx_ranking_history_job_candidate", columnList = "job_id, candidate_id, ranking_date"),
+        @Index(name = "idx_ranking_history_candidate", columnList = "candidate_id"),
+        @Index(name = "idx_ranking_history_archived", columnList = "archived_at")
+})
+public class CandidateRankingHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(name = "skill_match_result_id")
+    private Long skillMatchResultId;
+
+    @Column(name = "rank_position")
+    private Integer rankPosition;
+
+    @Column(name = "previous_rank_position")
+    private Integer previousRankPosition;
+
+    @Column(name = "rank_change")
+    private Integer rankChange;
+
+    @Column(name = "total_candidates_ranked")
+    private Integer totalCandidatesRanked;
+
+    @Column(name = "percentile")
+    private Double percentile;
+
+    @Column(name = "ranking_score")
+    private Double rankingScore;
+
+    @Column(name = "weighted_skills_score")
+    private Double weightedSkillsScore;
+
+    @Column(name = "weighted_experience_score")
+    private Double weightedExperienceScore;
+
+    @Column(name = "weighted_education_score")
+    private Double weightedEducationScore;
+
+    @Column(name = "weighted_personality_score")
+    private Double weightedPersonalityScore;
+
+    @Column(name = "weighted_cultural_fit_score")
+    private Double weightedCulturalFitScore;
+
+    @Column(name = "ranking_date")
+    private LocalDateTime rankingDate;
+
+    @Column(name = "ranking_criteria_version")
+    private String rankingCriteriaVersion;
+
+    @Column(name = "is_shortlisted")
+    private boolean isShortlisted;
+
+    @Column(name = "hiring_status")
+    @Enumerated(EnumType.STRING)
+    private HiringStatus hiringStatus;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    public CandidateRankingHistory() {}
+
+    /**
+     * Unsaved view of a ranking still in the hot table, so history pages can merge both tiers
+     */
+    public static CandidateRankingHistory of(CandidateRanking ranking) {
+        CandidateRankingHistory history = new CandidateRankingHistory();
+        history.id = ranking.getId();
+        history.jobId = ranking.getJob().getId();
+        history.candidateId = ranking.getCandidate().getId();
+        history.skillMatchResultId = ranking.getSkillMatchResult() != null ? ranking.getSkillMatchResult().getId() : null;
+        history.rankPosition = ranking.getRankPosition();
+        history.previousRankPosition = ranking.getPreviousRankPosition();
+        history.rankChange = ranking.getRankChange();
+        history.totalCandidatesRanked = ranking.getTotalCandidatesRanked();
+        history.percentile = ranking.getPercentile();
+        history.rankingScore = ranking.getRankingScore();
+        history.weightedSkillsScore = ranking.getWeightedSkillsScore();
+        history.weightedExperienceScore = ranking.getWeightedExperienceScore();
+        history.weightedEducationScore = ranking.getWeightedEducationScore();
+        history.weightedPersonalityScore = ranking.getWeightedPersonalityScore();
+        history.weightedCulturalFitScore = ranking.getWeightedCulturalFitScore();
+        history.rankingDate = ranking.getRankingDate();
+        history.rankingCriteriaVersion = ranking.getRankingCriteriaVersion();
+        history.isShortlisted = ranking.isShortlisted();
+        history.hiringStatus = ranking.getHiringStatus();
+        history.createdAt = ranking.getCreatedAt();
+        return history;
+    }
+
+    // Getters (rows are never edited once archived)
+    public Long getId() { return id; }
+    public Long getJobId() { return jobId; }
+    public Long getCandidateId() { return candidateId; }
+    public Long getSkillMatchResultId() { return skillMatchResultId; }
+    public Integer getRankPosition() { return rankPosition; }
+    public Integer getPreviousRankPosition() { return previousRankPosition; }
+    public Integer getRankChange() { return rankChange; }
+    public Integer getTotalCandidatesRanked() { return totalCandidatesRanked; }
+    public Double getPercentile() { return percentile; }
+    public Double getRankingScore() { return rankingScore; }
+    public Double getWeightedSkillsScore() { return weightedSkillsScore; }
+    public Double getWeightedExperienceScore() { return weightedExperienceScore; }
+    public Double getWeightedEducationScore() { return weightedEducationScore; }
+    public Double getWeightedPersonalityScore() { return weightedPersonalityScore; }
+    public Double getWeightedCulturalFitScore() { return weightedCulturalFitScore; }
+    public LocalDateTime getRankingDate() { return rankingDate; }
+    public String getRankingCriteriaVersion() { return rankingCriteriaVersion; }
+    public boolean isShortlisted() { return isShortlisted; }
+    public HiringStatus getHiringStatus() { return hiringStatus; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+
+    public String getHiringStatusBadgeClass() {
+        return HiringStatus.badgeClass(hiringStatus);
+    }
+}
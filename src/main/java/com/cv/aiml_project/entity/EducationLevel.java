@@ -0,0 +1,48 @@
+package com.cv.aiml_project.entity;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Education levels in increasing order. Feature records store the ordinal and scorers
+ * compare it numerically, so new levels must be inserted in order and existing records rebuilt.
+ */
+public enum EducationLevel {
+    HIGH_SCHOOL("High School", "\\b(high school|secondary school|ged)\\b"),
+    DIPLOMA("Diploma", "\\bdiploma\\b"),
+    ASSOCIATE("Associate Degree", "\\bassociate'?s? (degree|of)\\b"),
+    BACHELOR("Bachelor's Degree", "\\b(bachelor'?s?\\b|(b\\.? ?sc|b\\.? ?tech|b\\.? ?eng)\\b|b\\.a\\.|b\\.s\\.|undergraduate degree)"),
+    MASTER("Master's Degree", "\\b(master'?s?( degree| in| of)|master's\\b|masters\\b|(m\\.? ?sc|mba|m\\.? ?tech|m\\.? ?eng)\\b|m\\.a\\.|m\\.s\\.)"),
+    PHD("PhD", "\\b(ph\\.? ?d|doctorate|doctoral)\\b");
+
+    private final String displayName;
+    private final Pattern pattern;
+
+    EducationLevel(String displayName, String regex) {
+        this.displayName = displayName;
+        this.pattern = Pattern.compile(regex);
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Every level mentioned in free text such as "Bachelor's or Master's in CS"
+     */
+    public static Set<EducationLevel> mentionedIn(String text) {
+        Set<EducationLevel> levels = EnumSet.noneOf(EducationLevel.class);
+        if (text == null || text.isBlank()) {
+            return levels;
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('’', '\'');
+        for (EducationLevel level : values()) {
+            if (level.pattern.matcher(lower).find()) {
+                levels.add(level);
+            }
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary entry giving a canonical skill or certification name a compact integer id
+ */
+@Entity
+@Table(name = "feature_terms", uniqueConstraints = @UniqueConstraint(columnNames = {"kind", "name"}))
+public class FeatureTerm {
+
+    public enum Kind { SKILL, CERTIFICATION }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false, length = 200)
+    private String name;
+
+    public FeatureTerm() {
+    }
+
+    public FeatureTerm(Kind kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
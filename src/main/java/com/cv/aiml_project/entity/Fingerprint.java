@@ -0,0 +1,26 @@
+package com.cv.aiml_project.entity;
+
+/**
+ * 64-bit FNV-1a content fingerprints for change detection.
+ * Not cryptographic: good enough to tell whether a handful of fields changed.
+ */
+public final class Fingerprint {
+
+    private Fingerprint() {}
+
+    /**
+     * Fingerprint of the parts in order; a separator keeps ("ab", "c") and ("a", "bc") apart
+     */
+    public static long of(String... parts) {
+        long hash = 0xcbf29ce484222325L;
+        for (String part : parts) {
+            if (part != null) {
+                for (int i = 0; i < part.length(); i++) {
+                    hash = (hash ^ part.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
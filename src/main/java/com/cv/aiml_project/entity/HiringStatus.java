@@ -20,4 +20,23 @@ public enum HiringStatus {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * Bootstrap badge class for a status; null reads as not reviewed
+     */
+    public static String badgeClass(HiringStatus status) {
+        if (status == null) return "bg-secondary";
+        switch (status) {
+            case NOT_REVIEWED: return "bg-secondary";
+            case UNDER_REVIEW: return "bg-info";
+            case SHORTLISTED: return "bg-success";
+            case INTERVIEWED: return "bg-primary";
+            case OFFER_EXTENDED: return "bg-warning";
+            case OFFER_ACCEPTED: return "bg-success";
+            case OFFER_DECLINED: return "bg-danger";
+            case REJECTED: return "bg-danger";
+            case HIRED: return "bg-success";
+            default: return "bg-secondary";
+        }
+    }
 }
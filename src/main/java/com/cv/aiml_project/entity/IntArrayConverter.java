@@ -0,0 +1,60 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Stores a set of small non-negative ids as sorted, delta-encoded varints:
+ * a typical skill list takes one or two bytes per id.
+ */
+@Converter
+public class IntArrayConverter implements AttributeConverter<int[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(int[] values) {
+        if (values == null) {
+            return null;
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2);
+        int previous = 0;
+        for (int value : sorted) {
+            int delta = value - previous;
+            while ((delta & ~0x7F) != 0) {
+                out.write((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out.write(delta);
+            previous = value;
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return new int[0];
+        }
+        int[] values = new int[bytes.length];
+        int count = 0;
+        int previous = 0;
+        int delta = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            delta |= (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+            } else {
+                previous += delta;
+                values[count++] = previous;
+                delta = 0;
+                shift = 0;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+}
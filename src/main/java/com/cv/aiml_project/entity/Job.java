@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "jobs")
 public class Job {
 
@@ -71,6 +72,13 @@ public class Job {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Bumped only when a field matching reads changes; use it for cache keys and ETags
+    @Column(name = "match_version", nullable = false)
+    private long matchVersion;
+
+    @Column(name = "match_fingerprint")
+    private Long matchFingerprint;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -78,11 +86,25 @@ public class Job {
         if (postedDate == null) {
             postedDate = LocalDateTime.now();
         }
+        updateMatchVersion();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateMatchVersion();
+    }
+
+    /**
+     * Bump the match version if skills, experience, education or description changed
+     */
+    private void updateMatchVersion() {
+        long fingerprint = Fingerprint.of(requiredSkills, preferredSkills, experienceRequired,
+                educationRequirement, description);
+        if (matchFingerprint == null || matchFingerprint != fingerprint) {
+            matchFingerprint = fingerprint;
+            matchVersion++;
+        }
     }
 
     // Constructors
@@ -170,6 +192,10 @@ public class Job {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public long getMatchVersion() { return matchVersion; }
+
+    public Long getMatchFingerprint() { return matchFingerprint; }
+
     // Helper methods
     public String getSalaryRange() {
         if (minSalary == null && maxSalary == null) return "Not disclosed";
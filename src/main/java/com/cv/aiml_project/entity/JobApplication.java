@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "job_applications")
 public class JobApplication {
 
@@ -46,8 +47,7 @@ public class JobApplication {
     @Column(name = "resume_upload_date")
     private LocalDateTime resumeUploadDate;
 
-    @Column(name = "resume_text_content", columnDefinition = "TEXT")
-    private String resumeTextContent;
+    // Text of the uploaded resume is in stored_texts (StoredTextService)
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "resume_id")
@@ -248,9 +248,6 @@ public class JobApplication {
     public LocalDateTime getResumeUploadDate() { return resumeUploadDate; }
     public void setResumeUploadDate(LocalDateTime resumeUploadDate) { this.resumeUploadDate = resumeUploadDate; }
 
-    public String getResumeTextContent() { return resumeTextContent; }
-    public void setResumeTextContent(String resumeTextContent) { this.resumeTextContent = resumeTextContent; }
-
     public Resume getResume() { return resume; }
     public void setResume(Resume resume) { this.resume = resume; }
 
@@ -0,0 +1,156 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A closed application moved out of job_applications by the archival job, long after it
+ * was archived. Keyed by the original application id, with plain ids instead of foreign keys;
+ * the extracted resume text is not carried over (the resume file path is).
+ */
+@Entity
+@Table(name = "job_application_archive", indexes = {
+        @Index(name = "idx_application_archive_job", columnList = "job_id"),
+        @Index(name = "idx_application_archive_candidate", columnList = "candidate_id")
+})
+public class JobApplicationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(name = "resume_id")
+    private Long resumeId;
+
+    @Column(name = "applied_date")
+    private LocalDateTime appliedDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private ApplicationStatus status;
+
+    @Column(name = "status_updated_date")
+    private LocalDateTime statusUpdatedDate;
+
+    @Column(name = "hr_notes", length = 5000)
+    private String hrNotes;
+
+    // Resume file as stored for the application
+    @Column(name = "resume_path")
+    private String resumePath;
+
+    @Column(name = "resume_original_name")
+    private String resumeOriginalName;
+
+    @Column(name = "resume_content_type")
+    private String resumeContentType;
+
+    @Column(name = "resume_file_size")
+    private Long resumeFileSize;
+
+    // AI Matching scores
+    @Column(name = "match_score")
+    private Double matchScore;
+
+    @Column(name = "skills_match_score")
+    private Double skillsMatchScore;
+
+    @Column(name = "experience_match_score")
+    private Double experienceMatchScore;
+
+    @Column(name = "education_match_score")
+    private Double educationMatchScore;
+
+    // Interview, review and decision
+    @Column(name = "interview_date")
+    private LocalDateTime interviewDate;
+
+    @Column(name = "interview_feedback", length = 5000)
+    private String interviewFeedback;
+
+    @Column(name = "interview_rating")
+    private Integer interviewRating;
+
+    @Column(name = "shortlisted_date")
+    private LocalDateTime shortlistedDate;
+
+    @Column(name = "reviewed_date")
+    private LocalDateTime reviewedDate;
+
+    @Column(name = "review_rating")
+    private Integer reviewRating;
+
+    @Column(name = "cover_letter")
+    private String coverLetter;
+
+    @Column(name = "hiring_decision_date")
+    private LocalDateTime hiringDecisionDate;
+
+    @Column(name = "hiring_decision_by")
+    private String hiringDecisionBy;
+
+    @Column(name = "offer_amount")
+    private Double offerAmount;
+
+    @Column(name = "joining_date")
+    private LocalDateTime joiningDate;
+
+    @Column(name = "rejection_reason", length = 1000)
+    private String rejectionReason;
+
+    @Column(name = "withdrawal_reason", length = 1000)
+    private String withdrawalReason;
+
+    // Audit fields
+    @Column(name = "archive_date")
+    private LocalDateTime archiveDate;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+
+    // Getters (rows are never edited once moved)
+    public Long getId() { return id; }
+    public Long getJobId() { return jobId; }
+    public Long getCandidateId() { return candidateId; }
+    public Long getResumeId() { return resumeId; }
+    public LocalDateTime getAppliedDate() { return appliedDate; }
+    public ApplicationStatus getStatus() { return status; }
+    public LocalDateTime getStatusUpdatedDate() { return statusUpdatedDate; }
+    public String getHrNotes() { return hrNotes; }
+    public String getResumePath() { return resumePath; }
+    public String getResumeOriginalName() { return resumeOriginalName; }
+    public String getResumeContentType() { return resumeContentType; }
+    public Long getResumeFileSize() { return resumeFileSize; }
+    public Double getMatchScore() { return matchScore; }
+    public Double getSkillsMatchScore() { return skillsMatchScore; }
+    public Double getExperienceMatchScore() { return experienceMatchScore; }
+    public Double getEducationMatchScore() { return educationMatchScore; }
+    public LocalDateTime getInterviewDate() { return interviewDate; }
+    public String getInterviewFeedback() { return interviewFeedback; }
+    public Integer getInterviewRating() { return interviewRating; }
+    public LocalDateTime getShortlistedDate() { return shortlistedDate; }
+    public LocalDateTime getReviewedDate() { return reviewedDate; }
+    public Integer getReviewRating() { return reviewRating; }
+    public String getCoverLetter() { return coverLetter; }
+    public LocalDateTime getHiringDecisionDate() { return hiringDecisionDate; }
+    public String getHiringDecisionBy() { return hiringDecisionBy; }
+    public Double getOfferAmount() { return offerAmount; }
+    public LocalDateTime getJoiningDate() { return joiningDate; }
+    public String getRejectionReason() { return rejectionReason; }
+    public String getWithdrawalReason() { return withdrawalReason; }
+    public LocalDateTime getArchiveDate() { return archiveDate; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public LocalDateTime getMovedAt() { return movedAt; }
+}
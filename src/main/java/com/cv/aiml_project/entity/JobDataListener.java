@@ -0,0 +1,42 @@
+package com.cv.aiml_project.entity;
+
+import com.cv.aiml_project.service.DataVersionService;
+import com.cv.aiml_project.service.DataVersionService.Channel;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Bumps {@link DataVersionService} versions on every JPA write to the entities that make up
+ * the polled job payloads. Bulk JPQL updates bypass it and bump explicitly.
+ * Created by Hibernate through Spring's bean container, so it can be autowired.
+ */
+public class JobDataListener {
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof JobApplication application) {
+            dataVersionService.jobDataChanged(Channel.APPLICATIONS, jobId(application.getJob()));
+        } else if (entity instanceof CandidateRanking ranking) {
+            dataVersionService.jobDataChanged(Channel.RANKINGS, jobId(ranking.getJob()));
+        } else if (entity instanceof SkillMatchResult result) {
+            dataVersionService.jobDataChanged(Channel.MATCH_RESULTS, jobId(result.getJob()));
+        } else if (entity instanceof Job job) {
+            dataVersionService.jobChanged(job.getId());
+        } else if (entity instanceof User user) {
+            dataVersionService.personChanged(user.getId());
+        } else if (entity instanceof Resume resume && resume.getUser() != null) {
+            dataVersionService.personChanged(resume.getUser().getId());
+        }
+    }
+
+    private static Long jobId(Job job) {
+        return job != null ? job.getId() : null;
+    }
+}
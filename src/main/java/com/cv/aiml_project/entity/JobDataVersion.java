@@ -0,0 +1,40 @@
+package com.cv.aiml_project.entity;
+
+import com.cv.aiml_project.service.DataVersionService.Channel;
+import jakarta.persistence.*;
+
+/**
+ * Version of one channel of a job's polled data, bumped inside every transaction that writes it,
+ * so all instances hand out the same ETags
+ */
+@Entity
+@Table(name = "job_data_versions", uniqueConstraints = @UniqueConstraint(columnNames = {"job_id", "channel"}))
+public class JobDataVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, length = 20)
+    private Channel channel;
+
+    @Column(name = "data_version", nullable = false)
+    private long version;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public Channel getChannel() { return channel; }
+    public void setChannel(Channel channel) { this.channel = channel; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
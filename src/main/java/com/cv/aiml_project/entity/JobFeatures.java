@@ -0,0 +1,83 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A job's requirements parsed once into primitives for scoring.
+ * Keyed by plain job id (no foreign key): this is derived data, rebuilt whenever
+ * the job's requirements change.
+ */
+@Entity
+@Table(name = "job_features")
+public class JobFeatures {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, unique = true)
+    private Long jobId;
+
+    // Hash of the job fields these features were parsed from
+    @Column(name = "source_hash", nullable = false)
+    private long sourceHash;
+
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "required_skill_ids", columnDefinition = "VARBINARY(2000)")
+    private int[] requiredSkillIds = new int[0];
+
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "preferred_skill_ids", columnDefinition = "VARBINARY(2000)")
+    private int[] preferredSkillIds = new int[0];
+
+    // Null when the job states no experience requirement
+    @Column(name = "min_experience")
+    private Integer minExperience;
+
+    @Column(name = "max_experience")
+    private Integer maxExperience;
+
+    // Lowest level the job accepts; null when none is stated
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "education_level")
+    private EducationLevel educationLevel;
+
+    @Convert(converter = IntArrayConverter.class)
+    @Column(name = "certification_ids", columnDefinition = "VARBINARY(500)")
+    private int[] certificationIds = new int[0];
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public long getSourceHash() { return sourceHash; }
+    public void setSourceHash(long sourceHash) { this.sourceHash = sourceHash; }
+
+    public int[] getRequiredSkillIds() { return requiredSkillIds; }
+    public void setRequiredSkillIds(int[] requiredSkillIds) { this.requiredSkillIds = requiredSkillIds; }
+
+    public int[] getPreferredSkillIds() { return preferredSkillIds; }
+    public void setPreferredSkillIds(int[] preferredSkillIds) { this.preferredSkillIds = preferredSkillIds; }
+
+    public Integer getMinExperience() { return minExperience; }
+    public void setMinExperience(Integer minExperience) { this.minExperience = minExperience; }
+
+    public Integer getMaxExperience() { return maxExperience; }
+    public void setMaxExperience(Integer maxExperience) { this.maxExperience = maxExperience; }
+
+    public EducationLevel getEducationLevel() { return educationLevel; }
+    public void setEducationLevel(EducationLevel educationLevel) { this.educationLevel = educationLevel; }
+
+    public int[] getCertificationIds() { return certificationIds; }
+    public void setCertificationIds(int[] certificationIds) { this.certificationIds = certificationIds; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
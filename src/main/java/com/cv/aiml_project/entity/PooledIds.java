@@ -0,0 +1,16 @@
+package com.cv.aiml_project.entity;
+
+/**
+ * The id_generators table behind the {@code @TableGenerator}s of entities written in bulk.
+ * IDENTITY ids make Hibernate insert every row on its own to learn its id; ids taken from here
+ * in blocks are known up front, so inserts wait for the flush and go out as JDBC batches.
+ * Each entity has one row, keyed by its table name, holding the next block to hand out.
+ */
+public final class PooledIds {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    private PooledIds() {}
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "resumes")
 public class Resume {
 
@@ -34,9 +35,11 @@ public class Resume {
     @Column(name = "upload_date", nullable = false)
     private LocalDateTime uploadDate;
 
-    // Extracted text from PDF
-    @Column(name = "extracted_text", columnDefinition = "LONGTEXT")
-    private String extractedText;
+    // Extracted text and the raw AI response are in stored_texts (StoredTextService)
+
+    // Start offset of each page in the extracted text, comma-separated
+    @Column(name = "extracted_page_offsets", columnDefinition = "TEXT")
+    private String extractedPageOffsets;
 
     // AI/ML processed data
     @Column(name = "ml_processed")
@@ -51,9 +54,6 @@ public class Resume {
     @Column(name = "ml_processed_date")
     private LocalDateTime mlProcessedDate;
 
-    @Column(name = "ml_raw_response", columnDefinition = "TEXT")
-    private String mlRawResponse;
-
     // Version tracking
     @Column(name = "version")
     private Integer version = 1;
@@ -121,8 +121,8 @@ public class Resume {
     public LocalDateTime getUploadDate() { return uploadDate; }
     public void setUploadDate(LocalDateTime uploadDate) { this.uploadDate = uploadDate; }
 
-    public String getExtractedText() { return extractedText; }
-    public void setExtractedText(String extractedText) { this.extractedText = extractedText; }
+    public String getExtractedPageOffsets() { return extractedPageOffsets; }
+    public void setExtractedPageOffsets(String extractedPageOffsets) { this.extractedPageOffsets = extractedPageOffsets; }
 
     public boolean isMlProcessed() { return mlProcessed; }
     public void setMlProcessed(boolean mlProcessed) { this.mlProcessed = mlProcessed; }
@@ -136,9 +136,6 @@ public class Resume {
     public LocalDateTime getMlProcessedDate() { return mlProcessedDate; }
     public void setMlProcessedDate(LocalDateTime mlProcessedDate) { this.mlProcessedDate = mlProcessedDate; }
 
-    public String getMlRawResponse() { return mlRawResponse; }
-    public void setMlRawResponse(String mlRawResponse) { this.mlRawResponse = mlRawResponse; }
-
     public Integer getVersion() { return version; }
     public void setVersion(Integer version) { this.version = version; }
 
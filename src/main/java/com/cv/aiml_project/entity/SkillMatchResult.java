@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "skill_match_results")
 public class SkillMatchResult {
 
+    // Ids handed out in blocks, so results written together are inserted as JDBC batches
+    public static final int ID_ALLOCATION_SIZE = 500;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "skill_match_result_ids")
+    @TableGenerator(name = "skill_match_result_ids", table = PooledIds.TABLE, pkColumnName = PooledIds.NAME_COLUMN,
+            valueColumnName = PooledIds.VALUE_COLUMN, pkColumnValue = "skill_match_results",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -64,8 +71,7 @@ public class SkillMatchResult {
     @Column(name = "extracted_projects", length = 2000)
     private String extractedProjects;
 
-    @Column(name = "raw_extracted_data", columnDefinition = "LONGTEXT")
-    private String rawExtractedData;
+    // Raw extracted data is in stored_texts (StoredTextService)
 
     // Skill matching details
     @Column(name = "matched_skills", length = 2000)
@@ -198,9 +204,6 @@ public class SkillMatchResult {
     public String getExtractedProjects() { return extractedProjects; }
     public void setExtractedProjects(String extractedProjects) { this.extractedProjects = extractedProjects; }
 
-    public String getRawExtractedData() { return rawExtractedData; }
-    public void setRawExtractedData(String rawExtractedData) { this.rawExtractedData = rawExtractedData; }
-
     public String getMatchedSkills() { return matchedSkills; }
     public void setMatchedSkills(String matchedSkills) { this.matchedSkills = matchedSkills; }
 
@@ -0,0 +1,101 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A superseded match result, moved out of skill_match_results by the history compactor.
+ * Keeps the scores and skill lists; the extracted resume data and raw AI responses are not
+ * carried over. Append-only, keyed by the original result id, with plain ids instead of
+ * foreign keys.
+ */
+@Entity
+@Table(name = "skill_match_result_history", indexes = {
+        @Index(name = "idx_match_history_job_candidate", columnList = "job_id, candidate_id, match_date"),
+        @Index(name = "idx_match_history_candidate", columnList = "candidate_id"),
+        @Index(name = "idx_match_history_archived", columnList = "archived_at")
+})
+public class SkillMatchResultHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "candidate_id", nullable = false)
+    private Long candidateId;
+
+    @Column(name = "resume_id")
+    private Long resumeId;
+
+    @Column(name = "match_date")
+    private LocalDateTime matchDate;
+
+    @Column(name = "overall_score")
+    private Double overallScore;
+
+    @Column(name = "skills_score")
+    private Double skillsScore;
+
+    @Column(name = "experience_score")
+    private Double experienceScore;
+
+    @Column(name = "education_score")
+    private Double educationScore;
+
+    @Column(name = "personality_score")
+    private Double personalityScore;
+
+    @Column(name = "cultural_fit_score")
+    private Double culturalFitScore;
+
+    @Column(name = "matched_skills", length = 2000)
+    private String matchedSkills;
+
+    @Column(name = "missing_skills", length = 2000)
+    private String missingSkills;
+
+    @Column(name = "ai_model_version")
+    private String aiModelVersion;
+
+    @Column(name = "ai_confidence")
+    private Double aiConfidence;
+
+    @Column(name = "rank_position")
+    private Integer rankPosition;
+
+    @Column(name = "percentile")
+    private Double percentile;
+
+    @Column(name = "recalculation_count")
+    private Integer recalculationCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters (rows are never edited once archived)
+    public Long getId() { return id; }
+    public Long getJobId() { return jobId; }
+    public Long getCandidateId() { return candidateId; }
+    public Long getResumeId() { return resumeId; }
+    public LocalDateTime getMatchDate() { return matchDate; }
+    public Double getOverallScore() { return overallScore; }
+    public Double getSkillsScore() { return skillsScore; }
+    public Double getExperienceScore() { return experienceScore; }
+    public Double getEducationScore() { return educationScore; }
+    public Double getPersonalityScore() { return personalityScore; }
+    public Double getCulturalFitScore() { return culturalFitScore; }
+    public String getMatchedSkills() { return matchedSkills; }
+    public String getMissingSkills() { return missingSkills; }
+    public String getAiModelVersion() { return aiModelVersion; }
+    public Double getAiConfidence() { return aiConfidence; }
+    public Integer getRankPosition() { return rankPosition; }
+    public Double getPercentile() { return percentile; }
+    public Integer getRecalculationCount() { return recalculationCount; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
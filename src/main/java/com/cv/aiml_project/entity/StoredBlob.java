@@ -0,0 +1,37 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One stored resume file, keyed by its blob key (or legacy path). Uploads lock the row in their
+ * transaction and deletes are queued on it, so every instance sharing the store agrees on when
+ * a file may go.
+ */
+@Entity
+@Table(name = "stored_blobs", indexes = @Index(name = "idx_stored_blob_delete_after", columnList = "delete_after"))
+public class StoredBlob {
+
+    @Id
+    @Column(name = "blob_key", length = 500)
+    private String key;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    // When the file may be deleted if nothing references it by then; null while it is wanted
+    @Column(name = "delete_after")
+    private LocalDateTime deleteAfter;
+
+    public StoredBlob() {}
+
+    // Getters and Setters
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public LocalDateTime getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(LocalDateTime claimedAt) { this.claimedAt = claimedAt; }
+
+    public LocalDateTime getDeleteAfter() { return deleteAfter; }
+    public void setDeleteAfter(LocalDateTime deleteAfter) { this.deleteAfter = deleteAfter; }
+}
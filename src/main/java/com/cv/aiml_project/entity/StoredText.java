@@ -0,0 +1,84 @@
+package com.cv.aiml_project.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Large text that belongs to another row (extracted resume text, raw AI responses), kept out of
+ * the owning table so loading a resume or application never drags it along. The content is
+ * deflate-compressed unless that would not make it smaller.
+ */
+@Entity
+@Table(name = "stored_texts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stored_text_owner", columnNames = {"kind", "owner_id"}))
+public class StoredText {
+
+    /**
+     * Which column of which owner the text replaces; the owner id is that row's id
+     */
+    public enum Kind {
+        RESUME_TEXT,
+        RESUME_AI_RESPONSE,
+        APPLICATION_RESUME_TEXT,
+        MATCH_RAW_DATA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 32)
+    private Kind kind;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "compressed", nullable = false)
+    private boolean compressed;
+
+    // Characters in the text and Fingerprint.of(text), both readable without the content
+    @Column(name = "text_length", nullable = false)
+    private int textLength;
+
+    @Column(name = "fingerprint", nullable = false)
+    private long fingerprint;
+
+    @Column(name = "content", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] content;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public StoredText() {}
+
+    public StoredText(Kind kind, Long ownerId) {
+        this.kind = kind;
+        this.ownerId = ownerId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+
+    public boolean isCompressed() { return compressed; }
+    public void setCompressed(boolean compressed) { this.compressed = compressed; }
+
+    public int getTextLength() { return textLength; }
+    public void setTextLength(int textLength) { this.textLength = textLength; }
+
+    public long getFingerprint() { return fingerprint; }
+    public void setFingerprint(long fingerprint) { this.fingerprint = fingerprint; }
+
+    public byte[] getContent() { return content; }
+    public void setContent(byte[] content) { this.content = content; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
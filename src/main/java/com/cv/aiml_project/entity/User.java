@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(JobDataListener.class)
 @Table(name = "users")
 public class User {
 
@@ -60,15 +61,38 @@ public class User {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Bumped only when skills, experience, education or the current resume change;
+    // use it for cache keys and ETags
+    @Column(name = "profile_version", nullable = false)
+    private long profileVersion;
+
+    @Column(name = "profile_fingerprint")
+    private Long profileFingerprint;
+
+    // Fingerprint of the current resume, kept up to date by the resume write paths
+    @Column(name = "resume_fingerprint")
+    private Long resumeFingerprint;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        updateProfileVersion();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateProfileVersion();
+    }
+
+    private void updateProfileVersion() {
+        long fingerprint = Fingerprint.of(skills, String.valueOf(experienceYears), education,
+                String.valueOf(resumeFingerprint));
+        if (profileFingerprint == null || profileFingerprint != fingerprint) {
+            profileFingerprint = fingerprint;
+            profileVersion++;
+        }
     }
 
     // Constructors
@@ -132,6 +156,10 @@ public class User {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public long getProfileVersion() { return profileVersion; }
+
+    public Long getProfileFingerprint() { return profileFingerprint; }
+
     // Helper methods
     public String getFullName() {
         return firstName + " " + lastName;
@@ -157,6 +185,15 @@ public class User {
                 .orElse(null);
     }
 
+    /**
+     * Record which resume (and text) is now current, so the profile version moves with it
+     */
+    public void currentResumeChanged(Resume current, String extractedText) {
+        resumeFingerprint = current != null
+                ? Fingerprint.of(String.valueOf(current.getId()), extractedText)
+                : null;
+    }
+
     public boolean hasResume() {
         return getCurrentResume() != null;
     }
@@ -0,0 +1,34 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.dto.ApplicationEventRow;
+import com.cv.aiml_project.entity.ApplicationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApplicationEventRepository extends JpaRepository<ApplicationEvent, Long> {
+
+    // Newest first; (createdAt, id) after the cursor, served from idx_application_event_timeline
+    @Query("SELECT new com.cv.aiml_project.dto.ApplicationEventRow(e.id, e.type, e.fromStatus, e.toStatus, " +
+            "e.noteType, e.privateNote, e.message, e.actor, e.createdAt) FROM ApplicationEvent e " +
+            "WHERE e.applicationId = :applicationId AND (e.privateNote = false OR :includePrivate = true) " +
+            "AND (e.createdAt < :before OR (e.createdAt = :before AND e.id < :beforeId)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ApplicationEventRow> findTimelineBefore(@Param("applicationId") Long applicationId,
+                                                 @Param("includePrivate") boolean includePrivate,
+                                                 @Param("before") LocalDateTime before,
+                                                 @Param("beforeId") long beforeId,
+                                                 Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ApplicationEvent e WHERE e.applicationId IN :applicationIds")
+    int deleteByApplicationIds(@Param("applicationIds") Collection<Long> applicationIds);
+}
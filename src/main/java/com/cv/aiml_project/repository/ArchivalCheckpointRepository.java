@@ -0,0 +1,9 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.ArchivalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivalCheckpointRepository extends JpaRepository<ArchivalCheckpoint, String> {
+}
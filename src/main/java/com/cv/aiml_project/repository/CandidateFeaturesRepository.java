@@ -0,0 +1,28 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CandidateFeaturesRepository extends JpaRepository<CandidateFeatures, Long> {
+
+    Optional<CandidateFeatures> findByCandidateId(Long candidateId);
+
+    // Records with resume text that was not yet matched against every skill up to the given id
+    @Query("SELECT f FROM CandidateFeatures f WHERE f.resumeId IS NOT NULL AND f.skillScan < :through " +
+            "AND f.id > :afterId ORDER BY f.id")
+    List<CandidateFeatures> findScannedBefore(@Param("through") int through, @Param("afterId") long afterId,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM CandidateFeatures f WHERE f.candidateId = :candidateId")
+    void deleteByCandidateId(@Param("candidateId") Long candidateId);
+}
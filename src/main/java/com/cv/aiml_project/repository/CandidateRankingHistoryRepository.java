@@ -0,0 +1,45 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.CandidateRankingHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CandidateRankingHistoryRepository extends JpaRepository<CandidateRankingHistory, Long> {
+
+    List<CandidateRankingHistory> findByJobIdAndCandidateIdOrderByRankingDateDesc(Long jobId, Long candidateId);
+
+    // Copy hot rows into history in one statement; the caller deletes them in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO candidate_ranking_history (id, job_id, candidate_id, skill_match_result_id, " +
+            "rank_position, previous_rank_position, rank_change, total_candidates_ranked, percentile, ranking_score, " +
+            "weighted_skills_score, weighted_experience_score, weighted_education_score, weighted_personality_score, " +
+            "weighted_cultural_fit_score, ranking_date, ranking_criteria_version, is_shortlisted, hiring_status, " +
+            "created_at, archived_at) " +
+            "SELECT id, job_id, candidate_id, skill_match_result_id, " +
+            "rank_position, previous_rank_position, rank_change, total_candidates_ranked, percentile, ranking_score, " +
+            "weighted_skills_score, weighted_experience_score, weighted_education_score, weighted_personality_score, " +
+            "weighted_cultural_fit_score, ranking_date, ranking_criteria_version, is_shortlisted, hiring_status, " +
+            "created_at, :archivedAt FROM candidate_rankings WHERE id IN (:ids)", nativeQuery = true)
+    int archive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Retention
+    @Modifying
+    @Query("DELETE FROM CandidateRankingHistory h WHERE h.archivedAt < :cutoff")
+    int deleteArchivedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Delete operations
+    @Modifying
+    @Query("DELETE FROM CandidateRankingHistory h WHERE h.jobId = :jobId")
+    void deleteByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("DELETE FROM CandidateRankingHistory h WHERE h.candidateId = :candidateId")
+    void deleteByCandidateId(@Param("candidateId") Long candidateId);
+}
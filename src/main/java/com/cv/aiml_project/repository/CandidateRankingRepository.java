@@ -1,15 +1,18 @@
 package com.cv.aiml_project.repository;
 
+import com.cv.aiml_project.dto.RankingRow;
 import com.cv.aiml_project.entity.CandidateRanking;
 import com.cv.aiml_project.entity.HiringStatus;
 import com.cv.aiml_project.entity.Job;
 import com.cv.aiml_project.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +25,17 @@ public interface CandidateRankingRepository extends JpaRepository<CandidateRanki
     @Query("SELECT cr FROM CandidateRanking cr WHERE cr.job.id = :jobId AND cr.isCurrentRanking = true ORDER BY cr.rankPosition")
     List<CandidateRanking> findCurrentRankingsByJob(@Param("jobId") Long jobId);
 
+    // Keyset page of current rankings after (rank, id), projected without loading entities
+    @Query("SELECT new com.cv.aiml_project.dto.RankingRow(cr.id, cr.rankPosition, c.id, CONCAT(c.firstName, ' ', c.lastName), c.email, " +
+            "cr.rankingScore, cr.rankChange, cr.percentile, cr.weightedSkillsScore, cr.weightedExperienceScore, " +
+            "cr.weightedEducationScore, cr.weightedPersonalityScore, cr.weightedCulturalFitScore, cr.isShortlisted, cr.hiringStatus) " +
+            "FROM CandidateRanking cr JOIN cr.candidate c " +
+            "WHERE cr.job.id = :jobId AND cr.isCurrentRanking = true " +
+            "AND (cr.rankPosition > :rank OR (cr.rankPosition = :rank AND cr.id > :id)) " +
+            "ORDER BY cr.rankPosition, cr.id")
+    List<RankingRow> findCurrentRankingRowsAfter(@Param("jobId") Long jobId, @Param("rank") int rank,
+                                                 @Param("id") long id, Pageable pageable);
+
     @Query("SELECT cr FROM CandidateRanking cr WHERE cr.job.id = :jobId ORDER BY cr.rankingScore DESC")
     List<CandidateRanking> findByJobOrderByRankingScoreDesc(@Param("jobId") Long jobId);
 
@@ -31,6 +45,11 @@ public interface CandidateRankingRepository extends JpaRepository<CandidateRanki
     // Find specific ranking
     Optional<CandidateRanking> findByJobAndCandidateAndIsCurrentRankingTrue(Job job, User candidate);
 
+    @Query("SELECT cr FROM CandidateRanking cr JOIN FETCH cr.job JOIN FETCH cr.candidate " +
+            "LEFT JOIN FETCH cr.skillMatchResult " +
+            "WHERE cr.job.id = :jobId AND cr.candidate.id = :candidateId AND cr.isCurrentRanking = true")
+    Optional<CandidateRanking> findCurrentByJobIdAndCandidateId(@Param("jobId") Long jobId, @Param("candidateId") Long candidateId);
+
     List<CandidateRanking> findByJobAndCandidateOrderByRankingDateDesc(Job job, User candidate);
 
     // Find top ranked candidates
@@ -58,6 +77,12 @@ public interface CandidateRankingRepository extends JpaRepository<CandidateRanki
     @Query("SELECT cr FROM CandidateRanking cr WHERE cr.candidate.id = :candidateId AND cr.job.id = :jobId ORDER BY cr.rankingDate DESC")
     List<CandidateRanking> findRankingHistoryForCandidate(@Param("candidateId") Long candidateId, @Param("jobId") Long jobId);
 
+    // Superseded rows waiting to move to candidate_ranking_history
+    @Query("SELECT cr.id FROM CandidateRanking cr WHERE cr.isCurrentRanking = false ORDER BY cr.id")
+    List<Long> findSupersededIds(Pageable pageable);
+
+    List<CandidateRanking> findByCandidateIdAndIsCurrentRankingTrueOrderByRankingDateDesc(Long candidateId);
+
     // Update operations
     @Modifying
     @Query("UPDATE CandidateRanking cr SET cr.isCurrentRanking = false WHERE cr.job.id = :jobId")
@@ -67,6 +92,11 @@ public interface CandidateRankingRepository extends JpaRepository<CandidateRanki
     @Query("UPDATE CandidateRanking cr SET cr.isCurrentRanking = false WHERE cr.job.id = :jobId AND cr.candidate.id = :candidateId")
     void setRankingsNotCurrentForCandidate(@Param("jobId") Long jobId, @Param("candidateId") Long candidateId);
 
+    // Applications moved to the archive table must not be referenced any more
+    @Modifying
+    @Query("UPDATE CandidateRanking cr SET cr.jobApplication = null WHERE cr.jobApplication.id IN :applicationIds")
+    int detachApplications(@Param("applicationIds") Collection<Long> applicationIds);
+
     // Delete operations
     @Modifying
     @Query("DELETE FROM CandidateRanking cr WHERE cr.job.id = :jobId")
@@ -82,4 +112,9 @@ public interface CandidateRankingRepository extends JpaRepository<CandidateRanki
             "LOWER(cr.candidate.lastName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(cr.candidate.email) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<CandidateRanking> searchRankings(@Param("jobId") Long jobId, @Param("keyword") String keyword);
+
+    // One ranking with everything its detail page and confirmations show
+    @Query("SELECT cr FROM CandidateRanking cr JOIN FETCH cr.job JOIN FETCH cr.candidate " +
+            "LEFT JOIN FETCH cr.skillMatchResult WHERE cr.id = :id")
+    Optional<CandidateRanking> findWithDetailsById(@Param("id") Long id);
 }
@@ -0,0 +1,33 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.FeatureTerm;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FeatureTermRepository extends JpaRepository<FeatureTerm, Integer> {
+
+    Optional<FeatureTerm> findByKindAndName(FeatureTerm.Kind kind, String name);
+
+    List<FeatureTerm> findByKind(FeatureTerm.Kind kind);
+
+    long countByKind(FeatureTerm.Kind kind);
+
+    // Adds a term unless it exists; a concurrent insert of the same term waits instead of failing the transaction
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feature_terms (kind, name) VALUES (:kind, :name)", nativeQuery = true)
+    int insertIfAbsent(@Param("kind") String kind, @Param("name") String name);
+
+    // Locking read, so a term committed by another transaction after this one started is still seen
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t FROM FeatureTerm t WHERE t.kind = :kind AND t.name = :name")
+    Optional<FeatureTerm> findCurrent(@Param("kind") FeatureTerm.Kind kind, @Param("name") String name);
+}
@@ -0,0 +1,49 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.JobApplicationArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobApplicationArchiveRepository extends JpaRepository<JobApplicationArchive, Long> {
+
+    // Copy applications into the archive in one statement; the caller deletes them in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO job_application_archive (id, job_id, candidate_id, resume_id, applied_date, status, " +
+            "status_updated_date, hr_notes, resume_path, resume_original_name, resume_content_type, resume_file_size, " +
+            "match_score, skills_match_score, experience_match_score, education_match_score, interview_date, " +
+            "interview_feedback, interview_rating, shortlisted_date, reviewed_date, review_rating, cover_letter, " +
+            "hiring_decision_date, hiring_decision_by, offer_amount, joining_date, rejection_reason, withdrawal_reason, " +
+            "archive_date, created_at, updated_at, moved_at) " +
+            "SELECT id, job_id, candidate_id, resume_id, applied_date, status, " +
+            "status_updated_date, hr_notes, resume_path, resume_original_name, resume_content_type, resume_file_size, " +
+            "match_score, skills_match_score, experience_match_score, education_match_score, interview_date, " +
+            "interview_feedback, interview_rating, shortlisted_date, reviewed_date, review_rating, cover_letter, " +
+            "hiring_decision_date, hiring_decision_by, offer_amount, joining_date, rejection_reason, withdrawal_reason, " +
+            "archive_date, created_at, updated_at, :movedAt FROM job_applications WHERE id IN (:ids)", nativeQuery = true)
+    int copyFrom(@Param("ids") List<Long> ids, @Param("movedAt") LocalDateTime movedAt);
+
+    long countByResumePath(String resumePath);
+
+    // Moved applications still count as applied: a candidate must not apply to the same job twice
+    boolean existsByJobIdAndCandidateId(Long jobId, Long candidateId);
+
+    @Query("SELECT a.jobId FROM JobApplicationArchive a WHERE a.candidateId = :candidateId")
+    List<Long> findJobIdsByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("SELECT a.resumePath FROM JobApplicationArchive a WHERE a.candidateId = :candidateId AND a.resumePath IS NOT NULL")
+    List<String> findResumePathsByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Query("SELECT a.id FROM JobApplicationArchive a WHERE a.candidateId = :candidateId")
+    List<Long> findIdsByCandidateId(@Param("candidateId") Long candidateId);
+
+    @Modifying
+    @Query("DELETE FROM JobApplicationArchive a WHERE a.candidateId = :candidateId")
+    void deleteByCandidateId(@Param("candidateId") Long candidateId);
+}
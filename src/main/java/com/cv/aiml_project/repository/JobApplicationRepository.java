@@ -1,14 +1,19 @@
 package com.cv.aiml_project.repository;
 
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.ApplicationStatus;
 import com.cv.aiml_project.entity.Job;
 import com.cv.aiml_project.entity.JobApplication;
 import com.cv.aiml_project.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,12 +38,22 @@ public interface JobApplicationRepository extends JpaRepository<JobApplication,
             "ORDER BY ja.appliedDate DESC")
     List<JobApplication> findByCandidateOrderByAppliedDateDesc(@Param("candidateId") Long candidateId);
 
+    @Query("SELECT ja.job.id FROM JobApplication ja WHERE ja.candidate.id = :candidateId")
+    List<Long> findJobIdsByCandidateId(@Param("candidateId") Long candidateId);
+
     @Query("SELECT COUNT(ja) FROM JobApplication ja WHERE ja.job.id = :jobId")
     long countByJobId(@Param("jobId") Long jobId);
 
     @Query("SELECT COUNT(ja) FROM JobApplication ja WHERE ja.job.id = :jobId AND ja.status = :status")
     long countByJobIdAndStatus(@Param("jobId") Long jobId, @Param("status") ApplicationStatus status);
 
+    long countByResumePath(String resumePath);
+
+    @Query("SELECT new com.cv.aiml_project.dto.StoredFile(ja.resumePath, ja.resumeOriginalName, ja.resumeContentType, " +
+            "ja.resumeFileSize, ja.resumeUploadDate, ja.candidate.id, ja.candidate.username) FROM JobApplication ja " +
+            "WHERE ja.id = :id AND ja.resumePath IS NOT NULL")
+    Optional<StoredFile> findStoredResumeById(@Param("id") Long id);
+
     @Query("SELECT ja FROM JobApplication ja WHERE ja.candidate = :candidate AND ja.isActive = true")
     List<JobApplication> findActiveApplicationsByCandidate(@Param("candidate") User candidate);
 
@@ -50,4 +65,50 @@ public interface JobApplicationRepository extends JpaRepository<JobApplication,
     List<JobApplication> findByJobAndStatusOrderByMatchScoreDesc(@Param("jobId") Long jobId, @Param("status") ApplicationStatus status);
 
     boolean existsByJobAndCandidate(Job job, User candidate);
+
+    // Housekeeping: keyset chunks of ids, then set-based writes (no entities loaded)
+    @Query("SELECT ja.id FROM JobApplication ja WHERE ja.id > :afterId " +
+            "AND (ja.isArchived = false OR ja.isArchived IS NULL) AND ja.status IN :statuses " +
+            "AND COALESCE(ja.hiringDecisionDate, ja.statusUpdatedDate, ja.updatedAt) < :threshold ORDER BY ja.id")
+    List<Long> findArchivableIds(@Param("afterId") long afterId, @Param("statuses") Collection<ApplicationStatus> statuses,
+                                 @Param("threshold") LocalDateTime threshold, Pageable pageable);
+
+    @Query("SELECT ja.status, COUNT(ja) FROM JobApplication ja " +
+            "WHERE (ja.isArchived = false OR ja.isArchived IS NULL) AND ja.status IN :statuses " +
+            "AND COALESCE(ja.hiringDecisionDate, ja.statusUpdatedDate, ja.updatedAt) < :threshold GROUP BY ja.status")
+    List<Object[]> countArchivableByStatus(@Param("statuses") Collection<ApplicationStatus> statuses,
+                                           @Param("threshold") LocalDateTime threshold);
+
+    @Query("SELECT ja.id FROM JobApplication ja WHERE ja.id > :afterId " +
+            "AND ja.isArchived = true AND ja.archiveDate < :threshold ORDER BY ja.id")
+    List<Long> findMovableIds(@Param("afterId") long afterId, @Param("threshold") LocalDateTime threshold, Pageable pageable);
+
+    @Query("SELECT COUNT(ja) FROM JobApplication ja WHERE ja.isArchived = true AND ja.archiveDate < :threshold")
+    long countMovable(@Param("threshold") LocalDateTime threshold);
+
+    @Query("SELECT DISTINCT ja.job.id FROM JobApplication ja WHERE ja.id IN :ids")
+    List<Long> findJobIdsByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE JobApplication ja SET ja.isArchived = true, ja.archiveDate = :now, ja.updatedAt = :now WHERE ja.id IN :ids")
+    int archiveByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Rejected applications still listed for a job, with the candidate for live updates
+    @Query("SELECT ja FROM JobApplication ja JOIN FETCH ja.candidate " +
+            "WHERE ja.job.id = :jobId AND ja.status = 'REJECTED' AND (ja.isActive = true OR ja.isActive IS NULL)")
+    List<JobApplication> findActiveRejectedForJob(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("UPDATE JobApplication ja SET ja.isActive = false, ja.isArchived = true, ja.archiveDate = :now, ja.updatedAt = :now " +
+            "WHERE ja.id IN :ids")
+    int removeByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // One application with the candidate and job that its pages and notifications show
+    @Query("SELECT ja FROM JobApplication ja JOIN FETCH ja.candidate JOIN FETCH ja.job WHERE ja.id = :id")
+    Optional<JobApplication> findWithCandidateAndJobById(@Param("id") Long id);
+
+    // [jobId, applications, pending applications] for each job that has any
+    @Query("SELECT ja.job.id, COUNT(ja), SUM(CASE WHEN ja.status = 'PENDING' THEN 1 ELSE 0 END) " +
+            "FROM JobApplication ja WHERE ja.job.id IN :jobIds GROUP BY ja.job.id")
+    List<Object[]> countByJobIds(@Param("jobIds") Collection<Long> jobIds);
 }
@@ -0,0 +1,17 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.JobDataVersion;
+import com.cv.aiml_project.service.DataVersionService.Channel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobDataVersionRepository extends JpaRepository<JobDataVersion, Long> {
+
+    @Query("SELECT v.version FROM JobDataVersion v WHERE v.jobId = :jobId AND v.channel = :channel")
+    Optional<Long> findVersion(@Param("jobId") Long jobId, @Param("channel") Channel channel);
+}
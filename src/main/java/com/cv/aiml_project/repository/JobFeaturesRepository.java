@@ -0,0 +1,13 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.JobFeatures;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobFeaturesRepository extends JpaRepository<JobFeatures, Long> {
+
+    Optional<JobFeatures> findByJobId(Long jobId);
+}
@@ -54,4 +54,7 @@ public interface JobRepository extends JpaRepository<Job, Long> {
 
     @Query("SELECT j FROM Job j ORDER BY j.postedDate DESC")
     Page<Job> findRecentJobs(Pageable pageable);
+
+    @Query("SELECT j.id FROM Job j")
+    List<Long> findAllIds();
 }
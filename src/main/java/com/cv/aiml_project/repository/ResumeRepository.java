@@ -1,13 +1,17 @@
 package com.cv.aiml_project.repository;
 
+import com.cv.aiml_project.dto.StoredFile;
 import com.cv.aiml_project.entity.Resume;
 import com.cv.aiml_project.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,7 +30,7 @@ public interface ResumeRepository extends JpaRepository<Resume, Long> {
     @Query("SELECT r FROM Resume r WHERE r.user.id = :userId ORDER BY r.uploadDate DESC")
     List<Resume> findAllByUserIdOrderByUploadDateDesc(@Param("userId") Long userId);
 
-    @Query("SELECT r FROM Resume r WHERE r.mlProcessed = :processed")
+    @Query("SELECT r FROM Resume r JOIN FETCH r.user WHERE r.mlProcessed = :processed")
     List<Resume> findByMlProcessed(@Param("processed") boolean processed);
 
     @Query("SELECT COUNT(r) FROM Resume r WHERE r.mlProcessed = true")
@@ -41,4 +45,26 @@ public interface ResumeRepository extends JpaRepository<Resume, Long> {
     void setAllResumesNotCurrent(@Param("userId") Long userId);
 
     boolean existsByUserAndIsCurrentTrue(User user);
+
+    long countByFilePath(String filePath);
+
+    @Query("SELECT new com.cv.aiml_project.dto.StoredFile(r.filePath, r.originalName, r.contentType, r.fileSize, " +
+            "r.uploadDate, r.user.id, r.user.username) FROM Resume r WHERE r.id = :id")
+    Optional<StoredFile> findStoredFileById(@Param("id") Long id);
+
+    @Query("SELECT r.id FROM Resume r WHERE r.user.id = :userId AND r.isCurrent = true ORDER BY r.uploadDate DESC")
+    List<Long> findCurrentResumeIds(@Param("userId") Long userId);
+
+    @Query("SELECT r.id FROM Resume r WHERE r.user.username = :username AND r.isCurrent = true ORDER BY r.uploadDate DESC")
+    List<Long> findCurrentResumeIdsByUsername(@Param("username") String username);
+
+    @Query(value = "SELECT r FROM Resume r JOIN FETCH r.user WHERE r.isCurrent = true ORDER BY r.id",
+            countQuery = "SELECT COUNT(r) FROM Resume r WHERE r.isCurrent = true")
+    Page<Resume> findCurrentResumesWithUser(Pageable pageable);
+
+    @Query("SELECT r.id FROM Resume r WHERE r.isCurrent = true")
+    List<Long> findAllCurrentResumeIds();
+
+    @Query("SELECT r FROM Resume r JOIN FETCH r.user WHERE r.id IN :ids")
+    List<Resume> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
 }
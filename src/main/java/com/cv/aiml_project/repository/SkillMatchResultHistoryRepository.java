@@ -0,0 +1,43 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.SkillMatchResultHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SkillMatchResultHistoryRepository extends JpaRepository<SkillMatchResultHistory, Long> {
+
+    List<SkillMatchResultHistory> findByJobIdAndCandidateIdOrderByMatchDateDesc(Long jobId, Long candidateId);
+
+    // Copy hot rows into history in one statement; the caller deletes them in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO skill_match_result_history (id, job_id, candidate_id, resume_id, match_date, " +
+            "overall_score, skills_score, experience_score, education_score, personality_score, cultural_fit_score, " +
+            "matched_skills, missing_skills, ai_model_version, ai_confidence, rank_position, percentile, " +
+            "recalculation_count, created_at, archived_at) " +
+            "SELECT id, job_id, candidate_id, resume_id, match_date, " +
+            "overall_score, skills_score, experience_score, education_score, personality_score, cultural_fit_score, " +
+            "matched_skills, missing_skills, ai_model_version, ai_confidence, rank_position, percentile, " +
+            "recalculation_count, created_at, :archivedAt FROM skill_match_results WHERE id IN (:ids)", nativeQuery = true)
+    int archive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Retention
+    @Modifying
+    @Query("DELETE FROM SkillMatchResultHistory h WHERE h.archivedAt < :cutoff")
+    int deleteArchivedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Delete operations
+    @Modifying
+    @Query("DELETE FROM SkillMatchResultHistory h WHERE h.jobId = :jobId")
+    void deleteByJobId(@Param("jobId") Long jobId);
+
+    @Modifying
+    @Query("DELETE FROM SkillMatchResultHistory h WHERE h.candidateId = :candidateId")
+    void deleteByCandidateId(@Param("candidateId") Long candidateId);
+}
@@ -1,8 +1,10 @@
 package com.cv.aiml_project.repository;
 
 import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.dto.MatchResultRow;
 import com.cv.aiml_project.entity.SkillMatchResult;
 import com.cv.aiml_project.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -23,6 +25,16 @@ public interface SkillMatchResultRepository extends JpaRepository<SkillMatchResu
     @Query("SELECT smr FROM SkillMatchResult smr WHERE smr.job.id = :jobId AND smr.isLatest = true ORDER BY smr.overallScore DESC")
     List<SkillMatchResult> findLatestByJobOrderByScoreDesc(@Param("jobId") Long jobId);
 
+    // Keyset page of latest results after (score, id), best first; unscored results sort as -1
+    @Query("SELECT new com.cv.aiml_project.dto.MatchResultRow(smr.id, c.id, CONCAT(c.firstName, ' ', c.lastName), c.email, " +
+            "smr.overallScore, smr.skillsScore, smr.experienceScore, smr.educationScore, smr.matchedSkills, smr.missingSkills, smr.percentile) " +
+            "FROM SkillMatchResult smr JOIN smr.candidate c " +
+            "WHERE smr.job.id = :jobId AND smr.isLatest = true " +
+            "AND (COALESCE(smr.overallScore, -1.0) < :score OR (COALESCE(smr.overallScore, -1.0) = :score AND smr.id > :id)) " +
+            "ORDER BY COALESCE(smr.overallScore, -1.0) DESC, smr.id")
+    List<MatchResultRow> findLatestResultRowsAfter(@Param("jobId") Long jobId, @Param("score") double score,
+                                                   @Param("id") long id, Pageable pageable);
+
     // Find results by candidate
     List<SkillMatchResult> findByCandidate(User candidate);
 
@@ -61,6 +73,11 @@ public interface SkillMatchResultRepository extends JpaRepository<SkillMatchResu
     @Query("SELECT smr FROM SkillMatchResult smr WHERE smr.job.id = :jobId AND smr.aiProcessed = false")
     List<SkillMatchResult> findUnprocessedForJob(@Param("jobId") Long jobId);
 
+    // Superseded rows waiting to move to skill_match_result_history; rows a ranking still points at stay
+    @Query("SELECT smr.id FROM SkillMatchResult smr WHERE smr.isLatest = false " +
+            "AND NOT EXISTS (SELECT cr.id FROM CandidateRanking cr WHERE cr.skillMatchResult = smr) ORDER BY smr.id")
+    List<Long> findSupersededIds(Pageable pageable);
+
     // Delete operations
     @Modifying
     @Query("UPDATE SkillMatchResult smr SET smr.isActive = false WHERE smr.job.id = :jobId")
@@ -77,4 +94,7 @@ public interface SkillMatchResultRepository extends JpaRepository<SkillMatchResu
     @Modifying
     @Query("UPDATE SkillMatchResult smr SET smr.isLatest = false WHERE smr.job.id = :jobId AND smr.candidate.id = :candidateId")
     void setNotLatestForJobAndCandidate(@Param("jobId") Long jobId, @Param("candidateId") Long candidateId);
+
+    @Query("SELECT smr FROM SkillMatchResult smr JOIN FETCH smr.job JOIN FETCH smr.candidate WHERE smr.id = :id")
+    Optional<SkillMatchResult> findWithJobAndCandidateById(@Param("id") Long id);
 }
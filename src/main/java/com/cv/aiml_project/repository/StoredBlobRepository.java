@@ -0,0 +1,43 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Records an upload of the key and cancels a queued delete; the row stays locked until the caller's transaction ends
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (blob_key, claimed_at, delete_after) VALUES (:key, :now, NULL) " +
+            "ON DUPLICATE KEY UPDATE claimed_at = :now, delete_after = NULL", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // Queues a delete unless one is already queued; files stored before this table existed get a row here
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (blob_key, claimed_at, delete_after) VALUES (:key, :now, :deleteAfter) " +
+            "ON DUPLICATE KEY UPDATE delete_after = COALESCE(delete_after, :deleteAfter)", nativeQuery = true)
+    int queueDelete(@Param("key") String key, @Param("now") LocalDateTime now,
+                    @Param("deleteAfter") LocalDateTime deleteAfter);
+
+    @Query("SELECT b.key FROM StoredBlob b WHERE b.deleteAfter <= :now ORDER BY b.deleteAfter")
+    List<String> findDueForDelete(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Waits for an upload of the same key to commit or roll back
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.key = :key")
+    Optional<StoredBlob> findLocked(@Param("key") String key);
+}
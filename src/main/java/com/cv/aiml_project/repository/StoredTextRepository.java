@@ -0,0 +1,74 @@
+package com.cv.aiml_project.repository;
+
+import com.cv.aiml_project.entity.StoredText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredTextRepository extends JpaRepository<StoredText, Long> {
+
+    Optional<StoredText> findByKindAndOwnerId(StoredText.Kind kind, Long ownerId);
+
+    List<StoredText> findByKindAndOwnerIdIn(StoredText.Kind kind, Collection<Long> ownerIds);
+
+    @Query("SELECT t.fingerprint FROM StoredText t WHERE t.kind = :kind AND t.ownerId = :ownerId")
+    Optional<Long> findFingerprint(@Param("kind") StoredText.Kind kind, @Param("ownerId") Long ownerId);
+
+    @Query("SELECT t.ownerId FROM StoredText t WHERE t.kind = :kind AND t.ownerId IN :ownerIds")
+    List<Long> findOwnerIds(@Param("kind") StoredText.Kind kind, @Param("ownerIds") Collection<Long> ownerIds);
+
+    @Modifying
+    @Query("DELETE FROM StoredText t WHERE t.kind = :kind AND t.ownerId IN :ownerIds")
+    int deleteByOwnerIds(@Param("kind") StoredText.Kind kind, @Param("ownerIds") Collection<Long> ownerIds);
+
+    // Texts whose owner row is gone, e.g. after a bulk delete by job or candidate
+    @Modifying
+    @Query(value = "DELETE FROM stored_texts WHERE kind IN ('RESUME_TEXT', 'RESUME_AI_RESPONSE') " +
+            "AND NOT EXISTS (SELECT 1 FROM resumes r WHERE r.id = owner_id) LIMIT :limit", nativeQuery = true)
+    int deleteOrphanedResumeTexts(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM stored_texts WHERE kind = 'APPLICATION_RESUME_TEXT' " +
+            "AND NOT EXISTS (SELECT 1 FROM job_applications a WHERE a.id = owner_id) LIMIT :limit", nativeQuery = true)
+    int deleteOrphanedApplicationTexts(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM stored_texts WHERE kind = 'MATCH_RAW_DATA' " +
+            "AND NOT EXISTS (SELECT 1 FROM skill_match_results m WHERE m.id = owner_id) LIMIT :limit", nativeQuery = true)
+    int deleteOrphanedMatchTexts(@Param("limit") int limit);
+
+    // ==================== LEGACY COLUMNS ====================
+    // The owning tables used to hold the text inline; these columns are no longer mapped and are
+    // emptied as their content moves here. On a schema created without them the queries fail.
+
+    @Query(value = "SELECT id, extracted_text, ml_raw_response FROM resumes " +
+            "WHERE extracted_text IS NOT NULL OR ml_raw_response IS NOT NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findLegacyResumeTexts(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE resumes SET extracted_text = NULL, ml_raw_response = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int clearLegacyResumeTexts(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id, resume_text_content FROM job_applications " +
+            "WHERE resume_text_content IS NOT NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findLegacyApplicationTexts(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE job_applications SET resume_text_content = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int clearLegacyApplicationTexts(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id, raw_extracted_data FROM skill_match_results " +
+            "WHERE raw_extracted_data IS NOT NULL ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findLegacyMatchTexts(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE skill_match_results SET raw_extracted_data = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int clearLegacyMatchTexts(@Param("ids") Collection<Long> ids);
+}
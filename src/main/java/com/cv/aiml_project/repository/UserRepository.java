@@ -3,9 +3,12 @@ package com.cv.aiml_project.repository;
 import com.cv.aiml_project.entity.Role;
 import com.cv.aiml_project.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +40,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "LOWER(u.skills) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<User> searchUsers(String keyword);
 
+    // Users with their resumes in the same query, for pages that show the current resume
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.resumes WHERE u.role = :role ORDER BY u.id")
+    List<User> findByRoleWithResumes(@Param("role") Role role);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.resumes WHERE u.id IN :ids")
+    List<User> findWithResumesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.resumes WHERE u.id = :id")
+    Optional<User> findWithResumesById(@Param("id") Long id);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.resumes WHERE u.username = :username")
+    Optional<User> findWithResumesByUsername(@Param("username") String username);
+
+    // Parsed features changed without a profile edit, e.g. a new skill was found in the resume text
+    @Modifying
+    @Query("UPDATE User u SET u.profileVersion = u.profileVersion + 1 WHERE u.id IN :ids")
+    int incrementProfileVersions(@Param("ids") Collection<Long> ids);
+
     // AI/ML specific queries
     //List<User> findByMlProcessed(boolean mlProcessed);
    // List<User> findByRoleAndMlProcessed(Role role, boolean mlProcessed);
@@ -1,14 +1,22 @@
 package com.cv.aiml_project.service;
 
+import com.cv.aiml_project.config.AppMetrics;
 import com.cv.aiml_project.entity.Resume;
+import com.cv.aiml_project.entity.StoredText;
 import com.cv.aiml_project.repository.ResumeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -31,7 +39,33 @@ public class AIMLIntegrationService {
     @Autowired
     private ResumeRepository resumeRepository;  // Use repository directly instead of service
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private MatchFeatureService matchFeatureService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Process a resume with the AI/ML API
@@ -56,13 +90,7 @@ public class AIMLIntegrationService {
             HttpEntity<MultiValueMap<String, Object>> requestEntity = new HttpEntity<>(body, headers);
 
             // Call AI API
-            String apiUrl = aiApiUrl + "/analyze-resume";
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    apiUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    Map.class
-            );
+            ResponseEntity<Map> response = callAiService("/analyze-resume", requestEntity);
 
             // Process response
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
@@ -87,10 +115,17 @@ public class AIMLIntegrationService {
     }
 
     /**
-     * Update resume with AI results directly
+     * Update resume with AI results directly, in a transaction of its own so the candidate's
+     * profile version moves with a new resume text
      */
     private void updateResumeWithAIResults(Long resumeId, Double score, Double confidence,
                                            String extractedText, String rawResponse) {
+        transactionTemplate.executeWithoutResult(status ->
+                applyAIResults(resumeId, score, confidence, extractedText, rawResponse));
+    }
+
+    private void applyAIResults(Long resumeId, Double score, Double confidence,
+                                String extractedText, String rawResponse) {
         Resume resume = resumeRepository.findById(resumeId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
 
@@ -100,14 +135,22 @@ public class AIMLIntegrationService {
         resume.setMlProcessedDate(LocalDateTime.now());
 
         if (extractedText != null) {
-            resume.setExtractedText(extractedText);
+            storedTextService.put(StoredText.Kind.RESUME_TEXT, resumeId, extractedText);
+            resume.setExtractedPageOffsets(null);
         }
 
         if (rawResponse != null) {
-            resume.setMlRawResponse(rawResponse);
+            storedTextService.put(StoredText.Kind.RESUME_AI_RESPONSE, resumeId, rawResponse);
         }
 
         resumeRepository.save(resume);
+
+        if (extractedText != null && resume.isCurrent()) {
+            resume.getUser().currentResumeChanged(resume, extractedText);
+            vectorIndexService.indexResume(resume);
+            jobFeedService.evictCandidate(resume.getUser().getId());
+            matchFeatureService.refreshCandidate(resume.getUser().getId());
+        }
     }
 
     /**
@@ -115,8 +158,10 @@ public class AIMLIntegrationService {
      */
     public Map<String, Object> matchResumeWithJob(Long resumeId, Long jobId, String jobDescription) {
         try {
-            Resume resume = resumeRepository.findById(resumeId)
-                    .orElseThrow(() -> new RuntimeException("Resume not found"));
+            if (!resumeRepository.existsById(resumeId)) {
+                throw new RuntimeException("Resume not found");
+            }
+            String resumeText = storedTextService.get(StoredText.Kind.RESUME_TEXT, resumeId).orElse(null);
 
             // Prepare request
             HttpHeaders headers = new HttpHeaders();
@@ -127,20 +172,14 @@ public class AIMLIntegrationService {
             }
 
             Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("resume_text", resume.getExtractedText());
+            requestBody.put("resume_text", resumeText);
             requestBody.put("job_description", jobDescription);
             requestBody.put("job_id", jobId);
 
             HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
 
             // Call API
-            String apiUrl = aiApiUrl + "/match";
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    apiUrl,
-                    HttpMethod.POST,
-                    requestEntity,
-                    Map.class
-            );
+            ResponseEntity<Map> response = callAiService("/match", requestEntity);
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -154,6 +193,34 @@ public class AIMLIntegrationService {
         }
     }
 
+    /**
+     * POST to an AI service endpoint, timing the call by endpoint and outcome
+     */
+    private ResponseEntity<Map> callAiService(String endpoint, HttpEntity<?> requestEntity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "ERROR";
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    aiApiUrl + endpoint,
+                    HttpMethod.POST,
+                    requestEntity,
+                    Map.class
+            );
+            outcome = response.getStatusCode().is2xxSuccessful() ? AppMetrics.OUTCOME_SUCCESS : "HTTP_" + response.getStatusCode().value();
+            return response;
+        } catch (RestClientResponseException e) {
+            outcome = e.getStatusCode().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(AppMetrics.AI_CLIENT_REQUESTS)
+                    .description("Calls to the external AI service")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
     /**
      * Process all unprocessed resumes
      */
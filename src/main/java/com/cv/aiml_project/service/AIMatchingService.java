@@ -1,175 +1,65 @@
 package com.cv.aiml_project.service;
 
+import com.cv.aiml_project.config.AppMetrics;
 import com.cv.aiml_project.entity.Job;
 import com.cv.aiml_project.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
+/**
+ * Entry point for job/candidate scoring: parses both sides into feature records and
+ * hands them to whichever model {@link MatchScorerRegistry} has active.
+ */
 @Service
 public class AIMatchingService {
 
-    /**
-     * Calculate overall job match score for a candidate
-     * This is a mock implementation - will be replaced with actual AI/ML model
-     */
-    public Double calculateJobMatchScore(Job job, User candidate) {
-        double totalScore = 0.0;
-        int weightCount = 0;
-
-        // Skills match (50% weight)
-        if (job.getRequiredSkills() != null && candidate.getSkills() != null) {
-            double skillsScore = calculateSkillsMatchScore(job.getRequiredSkills(), candidate.getSkills());
-            totalScore += skillsScore * 50;
-            weightCount += 50;
-        }
-
-        // Experience match (30% weight)
-        if (job.getExperienceRequired() != null && candidate.getExperienceYears() != null) {
-            double experienceScore = calculateExperienceMatchScore(job.getExperienceRequired(), candidate.getExperienceYears());
-            totalScore += experienceScore * 30;
-            weightCount += 30;
-        }
-
-        // Education match (20% weight)
-        if (job.getEducationRequirement() != null && candidate.getEducation() != null) {
-            double educationScore = calculateEducationMatchScore(job.getEducationRequirement(), candidate.getEducation());
-            totalScore += educationScore * 20;
-            weightCount += 20;
-        }
-
-        if (weightCount == 0) return 0.0;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        // Normalize score
-        double normalizedScore = totalScore / weightCount;
+    @Autowired
+    private MatchFeatureService matchFeatureService;
 
-        // Add some randomness for demo purposes
-        double randomFactor = 0.9 + (Math.random() * 0.2); // 0.9 to 1.1
-
-        return Math.min(100.0, Math.max(0.0, normalizedScore * randomFactor));
-    }
+    @Autowired
+    private MatchScorerRegistry matchScorerRegistry;
 
     /**
-     * Calculate individual component scores
+     * Overall score, component scores and model version from a single scoring call
      */
-    public Map<String, Double> calculateComponentScores(Job job, User candidate) {
-        Map<String, Double> scores = new HashMap<>();
-
-        // Skills score
-        if (job.getRequiredSkills() != null && candidate.getSkills() != null) {
-            scores.put("skills", calculateSkillsMatchScore(job.getRequiredSkills(), candidate.getSkills()));
-        } else {
-            scores.put("skills", 50.0); // Default score
-        }
-
-        // Experience score
-        if (job.getExperienceRequired() != null && candidate.getExperienceYears() != null) {
-            scores.put("experience", calculateExperienceMatchScore(job.getExperienceRequired(), candidate.getExperienceYears()));
-        } else {
-            scores.put("experience", 50.0);
-        }
-
-        // Education score
-        if (job.getEducationRequirement() != null && candidate.getEducation() != null) {
-            scores.put("education", calculateEducationMatchScore(job.getEducationRequirement(), candidate.getEducation()));
-        } else {
-            scores.put("education", 50.0);
-        }
-
-        return scores;
+    public MatchScorer.Score score(Job job, User candidate) {
+        return scoreTimer("full").record(() -> computeScore(job, candidate));
     }
 
     /**
-     * Calculate skills match percentage
+     * Calculate overall job match score for a candidate
      */
-    private double calculateSkillsMatchScore(String requiredSkills, String candidateSkills) {
-        Set<String> required = Arrays.stream(requiredSkills.split(","))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        Set<String> candidate = Arrays.stream(candidateSkills.split(","))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        if (required.isEmpty()) return 100.0;
-
-        long matched = required.stream()
-                .filter(candidate::contains)
-                .count();
-
-        return (matched * 100.0) / required.size();
+    public Double calculateJobMatchScore(Job job, User candidate) {
+        return scoreTimer("overall").record(() -> computeScore(job, candidate).overall());
     }
 
     /**
-     * Calculate experience match score
+     * Calculate individual component scores
      */
-    private double calculateExperienceMatchScore(String requiredExp, int candidateYears) {
-        // Parse required experience (e.g., "3-5 years", "2+ years", "5 years")
-        int requiredMin = 0;
-        int requiredMax = 10;
-
-        try {
-            String expStr = requiredExp.toLowerCase().replaceAll("[^0-9\\-\\+]", "");
-            if (expStr.contains("-")) {
-                String[] parts = expStr.split("-");
-                requiredMin = Integer.parseInt(parts[0].trim());
-                requiredMax = Integer.parseInt(parts[1].trim());
-            } else if (expStr.contains("+")) {
-                requiredMin = Integer.parseInt(expStr.replace("+", ""));
-                requiredMax = 20;
-            } else {
-                requiredMin = Integer.parseInt(expStr);
-                requiredMax = requiredMin + 2;
-            }
-        } catch (Exception e) {
-            // Default values if parsing fails
-            requiredMin = 0;
-            requiredMax = 10;
-        }
+    public Map<String, Double> calculateComponentScores(Job job, User candidate) {
+        return scoreTimer("components").record(() -> computeScore(job, candidate).components());
+    }
 
-        if (candidateYears < requiredMin) {
-            // Less than minimum: (candidateYears / requiredMin) * 70
-            return (candidateYears * 70.0) / requiredMin;
-        } else if (candidateYears <= requiredMax) {
-            // Within range: 100
-            return 100.0;
-        } else {
-            // More than required: 100 - (excess * 10) but not less than 70
-            int excess = candidateYears - requiredMax;
-            return Math.max(70, 100 - (excess * 10));
-        }
+    private MatchScorer.Score computeScore(Job job, User candidate) {
+        return matchScorerRegistry.score(new MatchScorer.Input(job, candidate,
+                matchFeatureService.getJobFeatures(job), matchFeatureService.getCandidateFeatures(candidate)));
     }
 
     /**
-     * Calculate education match score
+     * Timer for one kind of scoring call
      */
-    private double calculateEducationMatchScore(String requiredEdu, String candidateEdu) {
-        String required = requiredEdu.toLowerCase();
-        String candidate = candidateEdu.toLowerCase();
-
-        // Simple keyword matching
-        if (candidate.contains(required)) {
-            return 100.0;
-        }
-
-        if (required.contains("bachelor") && candidate.contains("master")) {
-            return 90.0;
-        }
-
-        if (required.contains("master") && candidate.contains("bachelor")) {
-            return 70.0;
-        }
-
-        if (required.contains("phd") && candidate.contains("master")) {
-            return 80.0;
-        }
-
-        return 50.0;
+    private Timer scoreTimer(String kind) {
+        return Timer.builder(AppMetrics.MATCH_SCORE)
+                .description("Time spent scoring a candidate against a job")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 }
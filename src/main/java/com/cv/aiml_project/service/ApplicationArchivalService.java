@@ -0,0 +1,321 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.ArchivalReport;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.entity.ArchivalCheckpoint;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.repository.ArchivalCheckpointRepository;
+import com.cv.aiml_project.repository.CandidateRankingRepository;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly housekeeping for job applications, done in bounded chunks of ids so nothing is
+ * scanned into the heap and no transaction holds many row locks:
+ * <ol>
+ *   <li>archive: closed applications (rejected, withdrawn, hired) idle for archive-after-days
+ *       are flagged archived with one UPDATE per chunk;</li>
+ *   <li>move: applications archived for move-after-days are copied to job_application_archive
+ *       with INSERT ... SELECT and deleted from job_applications.</li>
+ * </ol>
+ * Each chunk commits together with a checkpoint, so a run stopped by its chunk limit or a
+ * restart carries on from there; the run pauses between chunks to leave room for user traffic.
+ * Checkpoints are kept per threshold in days, so a manual run with its own threshold neither
+ * skips nor resets the nightly pass. Manual runs execute in the background, one at a time.
+ */
+@Service
+public class ApplicationArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationArchivalService.class);
+
+    static final String ARCHIVE_STEP = "applications.archive";
+    static final String MOVE_STEP = "applications.move";
+
+    private static final List<ApplicationStatus> CLOSED_STATUSES =
+            List.of(ApplicationStatus.REJECTED, ApplicationStatus.WITHDRAWN, ApplicationStatus.HIRED);
+
+    @Autowired
+    private JobApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobApplicationArchiveRepository archiveRepository;
+
+    @Autowired
+    private CandidateRankingRepository rankingRepository;
+
+    @Autowired
+    private ArchivalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.archival.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archival.archive-after-days:30}")
+    private int archiveAfterDays;
+
+    @Value("${app.archival.move-after-days:180}")
+    private int moveAfterDays;
+
+    @Value("${app.archival.chunk-size:500}")
+    private int chunkSize;
+
+    // Chunks per step and run; whatever is left is picked up from the checkpoint next time
+    @Value("${app.archival.max-chunks:200}")
+    private int maxChunks;
+
+    @Value("${app.archival.pause-ms:200}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService manualRuns = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "application-archival");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // The latest run, in progress or finished, for the status API
+    private volatile ArchivalReport lastReport;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        manualRuns.shutdownNow();
+    }
+
+    /**
+     * Ids of the next chunk after a checkpoint, and the set-based write for them
+     */
+    private interface Step {
+        List<Long> nextChunk(long afterId, PageRequest page);
+
+        void apply(List<Long> ids, LocalDateTime now);
+    }
+
+    // ==================== RUNS ====================
+
+    @Scheduled(cron = "${app.archival.cron:0 30 2 * * *}")
+    public void nightly() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ArchivalReport report = run(archiveAfterDays, false);
+            log.info("Application archival: archived {}, moved {} in {} chunks ({} ms){}",
+                    report.getArchived(), report.getMoved(), report.getChunks(), report.getDurationMs(),
+                    report.isComplete() ? "" : ", resuming next run");
+        } catch (Exception e) {
+            log.warn("Application archival failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archive applications closed more than the given number of days ago, then move long-archived
+     * ones out of the live table. A dry run only counts what would be touched.
+     */
+    public ArchivalReport run(int daysClosed, boolean dryRun) {
+        ArchivalReport report = newReport(daysClosed, dryRun);
+        if (dryRun) {
+            return preview(report);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Application archival is already running");
+        }
+        try {
+            return archive(daysClosed, report);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Start a run on the archival thread and return its report right away; it fills in as
+     * chunks commit and can be followed through {@link #getLastReport()}.
+     */
+    public ArchivalReport start(int daysClosed) {
+        ArchivalReport report = newReport(daysClosed, false);
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Application archival is already running");
+        }
+        try {
+            manualRuns.execute(() -> {
+                try {
+                    archive(daysClosed, report);
+                    log.info("Manual application archival ({} days): archived {}, moved {} in {} chunks",
+                            daysClosed, report.getArchived(), report.getMoved(), report.getChunks());
+                } catch (Exception e) {
+                    report.setError(e.getMessage());
+                    log.warn("Manual application archival failed: {}", e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return report;
+    }
+
+    public Optional<ArchivalReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private ArchivalReport newReport(int daysClosed, boolean dryRun) {
+        if (daysClosed < 0) {
+            throw new RuntimeException("Days must not be negative");
+        }
+        ArchivalReport report = new ArchivalReport();
+        report.setDryRun(dryRun);
+        report.setDaysClosed(daysClosed);
+        report.setArchiveThreshold(report.getStartedAt().minusDays(daysClosed));
+        report.setMoveThreshold(report.getStartedAt().minusDays(moveAfterDays));
+        return report;
+    }
+
+    private ArchivalReport preview(ArchivalReport report) {
+        for (Object[] row : applicationRepository.countArchivableByStatus(CLOSED_STATUSES, report.getArchiveThreshold())) {
+            report.getArchivableByStatus().put(row[0].toString(), (Long) row[1]);
+            report.setArchivable(report.getArchivable() + (Long) row[1]);
+        }
+        report.setMovable(applicationRepository.countMovable(report.getMoveThreshold()));
+        report.setDurationMs(Duration.between(report.getStartedAt(), LocalDateTime.now()).toMillis());
+        return report;
+    }
+
+    // Caller holds the running flag
+    private ArchivalReport archive(int daysClosed, ArchivalReport report) {
+        lastReport = report;
+        LocalDateTime archiveThreshold = report.getArchiveThreshold();
+        LocalDateTime moveThreshold = report.getMoveThreshold();
+
+        report.setArchived(runStep(checkpointKey(ARCHIVE_STEP, daysClosed), new Step() {
+            @Override
+            public List<Long> nextChunk(long afterId, PageRequest page) {
+                return applicationRepository.findArchivableIds(afterId, CLOSED_STATUSES, archiveThreshold, page);
+            }
+
+            @Override
+            public void apply(List<Long> ids, LocalDateTime at) {
+                List<Long> jobIds = applicationRepository.findJobIdsByIds(ids);
+                applicationRepository.archiveByIds(ids, at);
+                jobIds.forEach(jobId -> dataVersionService.jobDataChanged(DataVersionService.Channel.APPLICATIONS, jobId));
+            }
+        }, report));
+
+        report.setMoved(runStep(checkpointKey(MOVE_STEP, moveAfterDays), new Step() {
+            @Override
+            public List<Long> nextChunk(long afterId, PageRequest page) {
+                return applicationRepository.findMovableIds(afterId, moveThreshold, page);
+            }
+
+            @Override
+            public void apply(List<Long> ids, LocalDateTime at) {
+                List<Long> jobIds = applicationRepository.findJobIdsByIds(ids);
+                archiveRepository.copyFrom(ids, at);
+                rankingRepository.detachApplications(ids);
+                applicationRepository.deleteAllByIdInBatch(ids);
+                ids.forEach(storageService::evictApplication);
+                storedTextService.deleteAll(StoredText.Kind.APPLICATION_RESUME_TEXT, ids);
+                jobIds.forEach(jobId -> dataVersionService.jobDataChanged(DataVersionService.Channel.APPLICATIONS, jobId));
+            }
+        }, report));
+
+        report.setDurationMs(Duration.between(report.getStartedAt(), LocalDateTime.now()).toMillis());
+        report.setFinished(true);
+        return report;
+    }
+
+    /**
+     * Checkpoint id of a step for one threshold: ids past another threshold's checkpoint may still
+     * be due under this one, so the two must not share a position
+     */
+    static String checkpointKey(String step, int days) {
+        return step + "." + days + "d";
+    }
+
+    /**
+     * Work through one step chunk by chunk from its checkpoint; returns the rows processed
+     */
+    private int runStep(String name, Step step, ArchivalReport report) {
+        int processed = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer count = transaction.execute(status -> {
+                ArchivalCheckpoint checkpoint = checkpointRepository.findById(name)
+                        .orElseGet(() -> new ArchivalCheckpoint(name));
+                List<Long> ids = step.nextChunk(checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    step.apply(ids, LocalDateTime.now());
+                }
+                // A short chunk means this pass reached the end; the next one starts over
+                checkpoint.setLastId(ids.size() < chunkSize ? 0 : ids.get(ids.size() - 1));
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                return ids.size();
+            });
+            report.setChunks(report.getChunks() + 1);
+            processed += count;
+            if (count < chunkSize) {
+                return processed;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        report.setComplete(false);
+        return processed;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.ApplicationEventRow;
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.PageCursor;
+import com.cv.aiml_project.entity.ApplicationEvent;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.repository.ApplicationEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only timeline of an application: notes, status transitions and interview changes.
+ * Writing an event is a small insert that joins the caller's transaction; events written together
+ * (bulk status updates, a job being withdrawn) are flushed as one JDBC batch. Timelines are read
+ * newest first in keyset pages.
+ */
+@Service
+public class ApplicationEventService {
+
+    // Upper bound for the first page's keyset, later than any stored event
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private ApplicationEventRepository eventRepository;
+
+    @Value("${app.api.page.max-limit:1000}")
+    private int maxPageSize;
+
+    // ==================== WRITE ====================
+
+    public ApplicationEvent note(Long applicationId, String noteType, String note, boolean isPrivate) {
+        ApplicationEvent event = new ApplicationEvent(applicationId, ApplicationEvent.Type.NOTE, note, currentActor());
+        event.setNoteType(noteType);
+        event.setPrivateNote(isPrivate);
+        return eventRepository.save(event);
+    }
+
+    public ApplicationEvent statusChanged(Long applicationId, ApplicationStatus from, ApplicationStatus to, String note) {
+        return eventRepository.save(statusEvent(applicationId, from, to, note, currentActor()));
+    }
+
+    public ApplicationEvent interview(Long applicationId, ApplicationEvent.Type type, String message) {
+        return eventRepository.save(new ApplicationEvent(applicationId, type, message, currentActor()));
+    }
+
+    /**
+     * The same note on many applications, written as one batch
+     */
+    public void noteAll(Collection<Long> applicationIds, String noteType, String note) {
+        String actor = currentActor();
+        List<ApplicationEvent> events = new ArrayList<>(applicationIds.size());
+        for (Long applicationId : applicationIds) {
+            ApplicationEvent event = new ApplicationEvent(applicationId, ApplicationEvent.Type.NOTE, note, actor);
+            event.setNoteType(noteType);
+            events.add(event);
+        }
+        eventRepository.saveAll(events);
+    }
+
+    public void deleteForApplications(Collection<Long> applicationIds) {
+        if (!applicationIds.isEmpty()) {
+            eventRepository.deleteByApplicationIds(applicationIds);
+        }
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * One page of an application's timeline, newest first; private notes only for HR views
+     */
+    public CursorPage<ApplicationEventRow> timeline(Long applicationId, String cursor, int limit,
+                                                    boolean includePrivate) {
+        PageCursor after = PageCursor.decode(cursor, null);
+        LocalDateTime before = after != null ? fromMicros((long) after.sortKey()) : END_OF_TIME;
+        long beforeId = after != null ? after.id() : Long.MAX_VALUE;
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+
+        // One extra row tells whether another page follows
+        List<ApplicationEventRow> rows = eventRepository.findTimelineBefore(
+                applicationId, includePrivate, before, beforeId, PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<ApplicationEventRow> page = rows.subList(0, size);
+        ApplicationEventRow last = page.get(size - 1);
+        return new CursorPage<>(List.copyOf(page),
+                new PageCursor(toMicros(last.createdAt()), last.eventId(), 0).encode());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static ApplicationEvent statusEvent(Long applicationId, ApplicationStatus from, ApplicationStatus to,
+                                                String note, String actor) {
+        ApplicationEvent event = new ApplicationEvent(applicationId, ApplicationEvent.Type.STATUS_CHANGED, note, actor);
+        event.setFromStatus(from);
+        event.setToStatus(to);
+        return event;
+    }
+
+    private static String currentActor() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "System";
+    }
+
+    // Epoch microseconds fit a double exactly (under 2^53 until the year 2255)
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.ApplicationFilterDTO;
+import com.cv.aiml_project.dto.ApplicationView;
+import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read models for the application pages. Each list comes with the candidates or jobs its page
+ * shows, loaded in the same read-only transaction, so views render without a connection.
+ * Served from the primary, so a details page reached right after a status change shows the new status.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ApplicationQueryService {
+
+    @Autowired
+    private JobApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    public Optional<ApplicationView> getApplication(Long applicationId) {
+        return applicationRepository.findWithCandidateAndJobById(applicationId)
+                .map(application -> new ApplicationView(application, application.getCandidate(), application.getJob()));
+    }
+
+    /**
+     * A job's applications, best match first, with candidates
+     */
+    public List<JobApplication> getApplicationsForJob(Long jobId) {
+        return withCandidates(applicationService.getApplicationsForJob(jobId));
+    }
+
+    public List<JobApplication> getApplicationsWithFilters(ApplicationFilterDTO filters) {
+        return withCandidates(applicationService.getApplicationsWithFilters(filters));
+    }
+
+    public List<JobApplication> getShortlistedForJob(Long jobId) {
+        return withCandidates(applicationService.getShortlistedForJob(jobId));
+    }
+
+    /**
+     * A candidate's applications, newest first, with jobs
+     */
+    public List<JobApplication> getApplicationsByCandidate(Long candidateId) {
+        return withJobs(applicationService.getApplicationsByCandidate(candidateId));
+    }
+
+    public List<JobApplication> getUpcomingInterviews() {
+        return withJobs(withCandidates(applicationService.getUpcomingInterviews()));
+    }
+
+    private List<JobApplication> withCandidates(List<JobApplication> applications) {
+        applications.forEach(application -> Hibernate.initialize(application.getCandidate()));
+        return applications;
+    }
+
+    private List<JobApplication> withJobs(List<JobApplication> applications) {
+        applications.forEach(application -> Hibernate.initialize(application.getJob()));
+        return applications;
+    }
+}
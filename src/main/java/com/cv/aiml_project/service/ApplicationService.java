@@ -1,16 +1,20 @@
 package com.cv.aiml_project.service;
 
+import com.cv.aiml_project.dto.ApplicationEventRow;
 import com.cv.aiml_project.dto.ApplicationFilterDTO;
+import com.cv.aiml_project.dto.ArchivalReport;
+import com.cv.aiml_project.dto.CursorPage;
 import com.cv.aiml_project.dto.ApplicationStatusUpdateDTO;
 import com.cv.aiml_project.dto.InterviewScheduleDTO;
+import com.cv.aiml_project.dto.LiveUpdate;
 import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
 import com.cv.aiml_project.repository.JobApplicationRepository; // Change this import
 import com.cv.aiml_project.repository.JobRepository;
 import com.cv.aiml_project.repository.UserRepository;
+import com.cv.aiml_project.service.LiveUpdateService.Channel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,11 +26,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -38,6 +37,9 @@ public class ApplicationService {
     @Autowired
     private JobApplicationRepository applicationRepository; // Changed to JobApplicationRepository
 
+    @Autowired
+    private JobApplicationArchiveRepository archiveRepository;
+
     @Autowired
     private JobRepository jobRepository;
 
@@ -47,8 +49,32 @@ public class ApplicationService {
     @Autowired(required = false) // Make optional to avoid errors if not configured
     private JavaMailSender mailSender;
 
-    @Value("${file.upload.application-dir:./uploads/applications}")
-    private String uploadDir;
+    @Autowired
+    private MailDispatcher mailDispatcher;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private ApplicationArchivalService archivalService;
+
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private TextExtractionService textExtractionService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private ApplicationEventService eventService;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
@@ -70,8 +96,9 @@ public class ApplicationService {
         User candidate = userRepository.findById(candidateId)
                 .orElseThrow(() -> new RuntimeException("Candidate not found with id: " + candidateId));
 
-        // Check if already applied - using existsByJobAndCandidate
-        if (applicationRepository.existsByJobAndCandidate(job, candidate)) {
+        // Check if already applied - live or moved to the archive table
+        if (applicationRepository.existsByJobAndCandidate(job, candidate)
+                || archiveRepository.existsByJobIdAndCandidateId(jobId, candidateId)) {
             throw new RuntimeException("You have already applied for this job");
         }
 
@@ -90,7 +117,7 @@ public class ApplicationService {
 
         // Save resume
         if (resumeFile != null && !resumeFile.isEmpty()) {
-            String resumePath = saveResumeFile(resumeFile, jobId, candidateId);
+            String resumePath = storageService.store(resumeFile, "application");
             application.setResumePath(resumePath);
             application.setResumeOriginalName(resumeFile.getOriginalFilename());
             application.setResumeContentType(resumeFile.getContentType());
@@ -98,34 +125,29 @@ public class ApplicationService {
             application.setResumeUploadDate(LocalDateTime.now());
         }
 
-        return applicationRepository.save(application);
+        application = applicationRepository.save(application);
+        publishApplicationUpdate(LiveUpdate.Type.APPLICATION_ADDED, application);
+        jobFeedService.evictCandidate(candidateId);
+
+        extractResumeTextAfterCommit(application);
+        return application;
     }
 
     /**
-     * Save resume file
+     * Have the extraction pool fill in the text of an application's resume once the application
+     * is committed; also used by JobService for applications made with a resume upload
      */
-    private String saveResumeFile(MultipartFile file, Long jobId, Long candidateId) throws IOException {
-        // Create directory structure: uploads/applications/job_{jobId}/candidate_{candidateId}/
-        Path uploadPath = Paths.get(uploadDir, "job_" + jobId, "candidate_" + candidateId);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename - Fixed null pointer issue
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        } else {
-            fileExtension = ".pdf"; // Default extension
+    public void extractResumeTextAfterCommit(JobApplication application) {
+        if (application.getResumePath() == null) {
+            return;
         }
-        String fileName = "resume_" + System.currentTimeMillis() + fileExtension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return filePath.toString();
+        Long applicationId = application.getId();
+        textExtractionService.extractAfterCommit(application.getResumePath(),
+                application.getResumeContentType(), application.getResumeOriginalName(), result -> {
+                    if (applicationRepository.existsById(applicationId)) {
+                        storedTextService.put(StoredText.Kind.APPLICATION_RESUME_TEXT, applicationId, result.text());
+                    }
+                });
     }
 
     /**
@@ -138,6 +160,7 @@ public class ApplicationService {
     /**
      * Get applications with filters - Custom implementation since the repository method doesn't exist
      */
+    @Transactional(readOnly = true)
     public List<JobApplication> getApplicationsWithFilters(ApplicationFilterDTO filters) {
         // Start with all applications for the job
         List<JobApplication> applications = applicationRepository.findByJobOrderByMatchScoreDesc(filters.getJobId());
@@ -165,6 +188,7 @@ public class ApplicationService {
     /**
      * Get paginated applications - Simplified version
      */
+    @Transactional(readOnly = true)
     public Page<JobApplication> getApplicationsPaginated(Long jobId, ApplicationStatus status,
                                                          int page, int size, String sortBy, String direction) {
         Sort sort = direction.equalsIgnoreCase("desc") ?
@@ -193,6 +217,7 @@ public class ApplicationService {
     /**
      * Get applications for job
      */
+    @Transactional(readOnly = true)
     public List<JobApplication> getApplicationsForJob(Long jobId) {
         return applicationRepository.findByJobOrderByMatchScoreDesc(jobId);
     }
@@ -213,13 +238,7 @@ public class ApplicationService {
         application.setStatus(newStatus);
         application.setStatusUpdatedDate(LocalDateTime.now());
 
-        if (updateDTO.getNotes() != null) {
-            // Append to existing notes rather than replace
-            String existingNotes = application.getHrNotes();
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-            String newNote = String.format("[%s] Status changed to %s: %s", timestamp, newStatus.getDisplayName(), updateDTO.getNotes());
-            application.setHrNotes(existingNotes != null ? existingNotes + "\n" + newNote : newNote);
-        }
+        eventService.statusChanged(application.getId(), oldStatus, newStatus, updateDTO.getNotes());
 
         // Handle special status transitions
         if (newStatus == ApplicationStatus.SHORTLISTED) {
@@ -239,7 +258,9 @@ public class ApplicationService {
             sendStatusChangeNotification(application, oldStatus, newStatus);
         }
 
-        return applicationRepository.save(application);
+        application = applicationRepository.save(application);
+        publishApplicationUpdate(LiveUpdate.Type.APPLICATION_CHANGED, application);
+        return application;
     }
 
     /**
@@ -253,21 +274,19 @@ public class ApplicationService {
             try {
                 JobApplication app = applicationRepository.findById(id).orElse(null);
                 if (app != null) {
+                    ApplicationStatus oldStatus = app.getStatus();
+                    // Events are queued and go out as one batch when the transaction flushes
+                    eventService.statusChanged(app.getId(), oldStatus, status,
+                            notes != null && !notes.isEmpty() ? notes : null);
                     app.setStatus(status);
                     app.setStatusUpdatedDate(LocalDateTime.now());
 
-                    if (notes != null && !notes.isEmpty()) {
-                        String existingNotes = app.getHrNotes();
-                        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-                        String newNote = String.format("[%s] Bulk update to %s: %s", timestamp, status.getDisplayName(), notes);
-                        app.setHrNotes(existingNotes != null ? existingNotes + "\n" + newNote : newNote);
-                    }
-
                     applicationRepository.save(app);
+                    publishApplicationUpdate(LiveUpdate.Type.APPLICATION_CHANGED, app);
                     updated++;
 
                     // Send notification
-                    sendStatusChangeNotification(app, app.getStatus(), status);
+                    sendStatusChangeNotification(app, oldStatus, status);
                 }
             } catch (Exception e) {
                 System.err.println("Failed to update application " + id + ": " + e.getMessage());
@@ -284,7 +303,7 @@ public class ApplicationService {
      */
     @Transactional
     public JobApplication scheduleInterview(InterviewScheduleDTO scheduleDTO) {
-        JobApplication application = applicationRepository.findById(scheduleDTO.getApplicationId())
+        JobApplication application = applicationRepository.findWithCandidateAndJobById(scheduleDTO.getApplicationId())
                 .orElseThrow(() -> new RuntimeException("Application not found with id: " + scheduleDTO.getApplicationId()));
 
         application.setInterviewScheduled(true);
@@ -294,27 +313,26 @@ public class ApplicationService {
         application.setInterviewLink(scheduleDTO.getInterviewLink());
         application.setInterviewerName(scheduleDTO.getInterviewerName());
         application.setInterviewerEmail(scheduleDTO.getInterviewerEmail());
+        recordStatusChange(application, ApplicationStatus.INTERVIEW_SCHEDULED);
         application.setStatus(ApplicationStatus.INTERVIEW_SCHEDULED);
         application.setStatusUpdatedDate(LocalDateTime.now());
 
-        // Save interview instructions in notes
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
+        // Keep the interview instructions on the timeline
         String interviewNotes = String.format(
-                "[%s] Interview scheduled for %s\nType: %s\n%s\nInstructions: %s",
-                timestamp,
+                "Interview scheduled for %s\nType: %s\n%s\nInstructions: %s",
                 scheduleDTO.getInterviewDateTime().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm")),
                 scheduleDTO.getInterviewType(),
                 scheduleDTO.getInterviewLocation() != null ? "Location: " + scheduleDTO.getInterviewLocation() : "Link: " + scheduleDTO.getInterviewLink(),
                 scheduleDTO.getInstructions() != null ? scheduleDTO.getInstructions() : "None"
         );
-
-        String existingNotes = application.getHrNotes();
-        application.setHrNotes(existingNotes != null ? existingNotes + "\n" + interviewNotes : interviewNotes);
+        eventService.interview(application.getId(), ApplicationEvent.Type.INTERVIEW_SCHEDULED, interviewNotes);
 
         // Send interview invitation
         sendInterviewInvitation(application, scheduleDTO);
 
-        return applicationRepository.save(application);
+        application = applicationRepository.save(application);
+        publishApplicationUpdate(LiveUpdate.Type.APPLICATION_CHANGED, application);
+        return application;
     }
 
     /**
@@ -328,17 +346,14 @@ public class ApplicationService {
         LocalDateTime oldDate = application.getInterviewDate();
         application.setInterviewDate(newDateTime);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
         String rescheduleNote = String.format(
-                "[%s] Interview rescheduled from %s to %s. Reason: %s",
-                timestamp,
+                "Interview rescheduled from %s to %s. Reason: %s",
                 oldDate != null ? oldDate.format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm")) : "unknown",
                 newDateTime.format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm")),
                 reason
         );
 
-        String existingNotes = application.getHrNotes();
-        application.setHrNotes(existingNotes != null ? existingNotes + "\n" + rescheduleNote : rescheduleNote);
+        eventService.interview(applicationId, ApplicationEvent.Type.INTERVIEW_RESCHEDULED, rescheduleNote);
 
         // Send reschedule notification
         sendInterviewRescheduleNotification(application, oldDate, newDateTime, reason);
@@ -356,18 +371,18 @@ public class ApplicationService {
 
         application.setInterviewScheduled(false);
         application.setInterviewDate(null);
+        recordStatusChange(application, ApplicationStatus.SHORTLISTED);
         application.setStatus(ApplicationStatus.SHORTLISTED);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-        String cancelNote = String.format("[%s] Interview cancelled. Reason: %s", timestamp, reason);
-
-        String existingNotes = application.getHrNotes();
-        application.setHrNotes(existingNotes != null ? existingNotes + "\n" + cancelNote : cancelNote);
+        eventService.interview(applicationId, ApplicationEvent.Type.INTERVIEW_CANCELLED,
+                String.format("Interview cancelled. Reason: %s", reason));
 
         // Send cancellation notification
         sendInterviewCancellationNotification(application, reason);
 
-        return applicationRepository.save(application);
+        application = applicationRepository.save(application);
+        publishApplicationUpdate(LiveUpdate.Type.APPLICATION_CHANGED, application);
+        return application;
     }
 
     /**
@@ -381,11 +396,8 @@ public class ApplicationService {
         application.setInterviewFeedback(feedback);
         application.setInterviewRating(rating);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-        String feedbackNote = String.format("[%s] Interview feedback added. Rating: %d/5", timestamp, rating != null ? rating : 0);
-
-        String existingNotes = application.getHrNotes();
-        application.setHrNotes(existingNotes != null ? existingNotes + "\n" + feedbackNote : feedbackNote);
+        eventService.interview(applicationId, ApplicationEvent.Type.INTERVIEW_FEEDBACK,
+                String.format("Interview feedback added. Rating: %d/5", rating != null ? rating : 0));
 
         return applicationRepository.save(application);
     }
@@ -393,6 +405,7 @@ public class ApplicationService {
     /**
      * Get upcoming interviews - Custom implementation
      */
+    @Transactional(readOnly = true)
     public List<JobApplication> getUpcomingInterviews() {
         // Get all applications and filter manually
         List<JobApplication> allApps = applicationRepository.findAll();
@@ -408,6 +421,7 @@ public class ApplicationService {
     /**
      * Get interviews by date range - Custom implementation
      */
+    @Transactional(readOnly = true)
     public List<JobApplication> getInterviewsInDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         List<JobApplication> allApps = applicationRepository.findAll();
 
@@ -437,17 +451,13 @@ public class ApplicationService {
 
             if (appOpt.isPresent()) {
                 JobApplication app = appOpt.get();
+                eventService.statusChanged(app.getId(), app.getStatus(), ApplicationStatus.SHORTLISTED, notes);
                 app.setStatus(ApplicationStatus.SHORTLISTED);
                 app.setShortlistedDate(LocalDateTime.now());
                 app.setShortlistedBy(getCurrentUser());
 
-                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-                String shortlistNote = String.format("[%s] Shortlisted. Notes: %s", timestamp, notes != null ? notes : "None");
-
-                String existingNotes = app.getHrNotes();
-                app.setHrNotes(existingNotes != null ? existingNotes + "\n" + shortlistNote : shortlistNote);
-
                 shortlisted.add(applicationRepository.save(app));
+                publishApplicationUpdate(LiveUpdate.Type.APPLICATION_CHANGED, app);
 
                 // Send notification
                 sendShortlistNotification(app);
@@ -460,6 +470,7 @@ public class ApplicationService {
     /**
      * Get shortlisted candidates for job - Custom implementation
      */
+    @Transactional(readOnly = true)
     public List<JobApplication> getShortlistedForJob(Long jobId) {
         List<JobApplication> allApps = applicationRepository.findByJobOrderByMatchScoreDesc(jobId);
 
@@ -480,67 +491,54 @@ public class ApplicationService {
      */
     @Transactional
     public int removeRejectedApplications(Long jobId) {
-        List<JobApplication> allApps = applicationRepository.findByJobOrderByMatchScoreDesc(jobId);
-        int removed = 0;
-
-        for (JobApplication app : allApps) {
-            if (app.getStatus() == ApplicationStatus.REJECTED) {
-                app.setActive(false);
-                app.setArchived(true);
-                app.setArchiveDate(LocalDateTime.now());
-                applicationRepository.save(app);
-                removed++;
-            }
+        List<JobApplication> rejected = applicationRepository.findActiveRejectedForJob(jobId);
+        if (rejected.isEmpty()) {
+            return 0;
         }
 
+        int removed = applicationRepository.removeByIds(
+                rejected.stream().map(JobApplication::getId).toList(), LocalDateTime.now());
+        dataVersionService.jobDataChanged(DataVersionService.Channel.APPLICATIONS, jobId);
+        rejected.forEach(app -> publishApplicationUpdate(LiveUpdate.Type.APPLICATION_REMOVED, app));
         return removed;
     }
 
     /**
-     * Archive old applications
+     * Archive applications closed more than daysOld days ago (see ApplicationArchivalService).
+     * A real run is started in the background and its report fills in as it goes; a dry run
+     * only counts and returns at once.
      */
-    @Transactional
-    public int archiveOldApplications(int daysOld) {
-        LocalDateTime thresholdDate = LocalDateTime.now().minusDays(daysOld);
-        List<JobApplication> allApps = applicationRepository.findAll();
-        int archived = 0;
-
-        for (JobApplication app : allApps) {
-            if (app.getStatus() == ApplicationStatus.REJECTED ||
-                    app.getStatus() == ApplicationStatus.WITHDRAWN ||
-                    (app.getStatus() == ApplicationStatus.HIRED && app.getHiringDecisionDate() != null &&
-                            app.getHiringDecisionDate().isBefore(thresholdDate))) {
-
-                if (!app.isArchived()) {
-                    app.setArchived(true);
-                    app.setArchiveDate(LocalDateTime.now());
-                    applicationRepository.save(app);
-                    archived++;
-                }
-            }
-        }
+    public ArchivalReport archiveOldApplications(int daysOld, boolean dryRun) {
+        return dryRun ? archivalService.run(daysOld, true) : archivalService.start(daysOld);
+    }
 
-        return archived;
+    /**
+     * The latest archival run, in progress or finished
+     */
+    public Optional<ArchivalReport> getArchivalStatus() {
+        return archivalService.getLastReport();
     }
 
     // ==================== NOTES MANAGEMENT ====================
 
     /**
-     * Add note to application
+     * Add note to application: one insert into its timeline, the application row is not touched
      */
     @Transactional
-    public JobApplication addNote(Long applicationId, String note, String noteType, boolean isPrivate) {
-        JobApplication application = applicationRepository.findById(applicationId)
-                .orElseThrow(() -> new RuntimeException("Application not found with id: " + applicationId));
-
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
-        String privacy = isPrivate ? "[PRIVATE] " : "";
-        String formattedNote = String.format("%s[%s] %s: %s", privacy, timestamp, noteType, note);
-
-        String existingNotes = application.getHrNotes();
-        application.setHrNotes(existingNotes != null ? existingNotes + "\n" + formattedNote : formattedNote);
+    public ApplicationEvent addNote(Long applicationId, String note, String noteType, boolean isPrivate) {
+        if (!applicationRepository.existsById(applicationId)) {
+            throw new RuntimeException("Application not found with id: " + applicationId);
+        }
+        return eventService.note(applicationId, noteType, note, isPrivate);
+    }
 
-        return applicationRepository.save(application);
+    /**
+     * A page of the application's notes, status changes and interview events, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationEventRow> getTimeline(Long applicationId, String cursor, int limit,
+                                                       boolean includePrivate) {
+        return eventService.timeline(applicationId, cursor, limit, includePrivate);
     }
 
     // ==================== STATISTICS AND ANALYTICS ====================
@@ -548,6 +546,7 @@ public class ApplicationService {
     /**
      * Get application statistics for a job
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getApplicationStatistics(Long jobId) {
         Map<String, Object> stats = new HashMap<>();
 
@@ -616,6 +615,7 @@ public class ApplicationService {
     /**
      * Get application trends
      */
+    @Transactional(readOnly = true)
     public Map<String, Long> getApplicationTrends(Long jobId, int days) {
         LocalDateTime endDate = LocalDateTime.now();
         LocalDateTime startDate = endDate.minusDays(days);
@@ -642,6 +642,7 @@ public class ApplicationService {
     /**
      * Get job-wise application counts
      */
+    @Transactional(readOnly = true)
     public Map<String, Long> getJobWiseApplicationCounts() {
         List<Job> allJobs = jobRepository.findAll();
         Map<String, Long> jobCountMap = new LinkedHashMap<>();
@@ -654,29 +655,6 @@ public class ApplicationService {
         return jobCountMap;
     }
 
-    // ==================== FILE OPERATIONS ====================
-
-    /**
-     * Get application resume file
-     */
-    public Resource getApplicationResumeFile(Long applicationId) throws MalformedURLException {
-        JobApplication application = applicationRepository.findById(applicationId)
-                .orElseThrow(() -> new RuntimeException("Application not found with id: " + applicationId));
-
-        if (application.getResumePath() == null) {
-            throw new RuntimeException("No resume found for this application");
-        }
-
-        Path filePath = Paths.get(application.getResumePath());
-        Resource resource = new UrlResource(filePath.toUri());
-
-        if (resource.exists() && resource.isReadable()) {
-            return resource;
-        } else {
-            throw new RuntimeException("Could not read the resume file at: " + application.getResumePath());
-        }
-    }
-
     // ==================== HELPER METHODS ====================
 
     /**
@@ -688,6 +666,22 @@ public class ApplicationService {
         return auth != null ? auth.getName() : "System";
     }
 
+    private void recordStatusChange(JobApplication application, ApplicationStatus newStatus) {
+        if (application.getStatus() != newStatus) {
+            eventService.statusChanged(application.getId(), application.getStatus(), newStatus, null);
+        }
+    }
+
+    /**
+     * Push a row delta to HR users watching this job's applications; the delta reads the
+     * candidate and job, so it is only built when someone is watching
+     */
+    private void publishApplicationUpdate(LiveUpdate.Type type, JobApplication application) {
+        if (liveUpdateService.hasSubscribers(Channel.APPLICATIONS, application.getJob().getId())) {
+            liveUpdateService.publish(Channel.APPLICATIONS, LiveUpdate.application(type, application));
+        }
+    }
+
     /**
      * Send status change notification email
      */
@@ -718,7 +712,7 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("status-change", message);
         } catch (Exception e) {
             System.err.println("Failed to send email: " + e.getMessage());
         }
@@ -769,7 +763,7 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("interview-invitation", message);
         } catch (Exception e) {
             System.err.println("Failed to send interview invitation: " + e.getMessage());
         }
@@ -807,7 +801,7 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("interview-reschedule", message);
         } catch (Exception e) {
             System.err.println("Failed to send reschedule notification: " + e.getMessage());
         }
@@ -836,7 +830,7 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("interview-cancellation", message);
         } catch (Exception e) {
             System.err.println("Failed to send cancellation notification: " + e.getMessage());
         }
@@ -863,7 +857,7 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("shortlist", message);
         } catch (Exception e) {
             System.err.println("Failed to send shortlist notification: " + e.getMessage());
         }
@@ -893,9 +887,9 @@ public class ApplicationService {
             );
 
             message.setText(body);
-            mailSender.send(message);
+            mailDispatcher.send("rejection", message);
         } catch (Exception e) {
             System.err.println("Failed to send rejection email: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.cv.aiml_project.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for uploaded files.
+ * A blob's key is derived from the SHA-256 of its bytes and fans out over two levels of
+ * hash-prefix directories ({@code ab/cd/abcd...ef.pdf}), so no directory grows past a few
+ * hundred entries and storing the same bytes twice yields the same key. Keys are what the
+ * database keeps; a missing blob is reported as {@link java.nio.file.NoSuchFileException}.
+ */
+public interface BlobStore {
+
+    Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}(\\.[a-z0-9]{1,10})?");
+
+    /**
+     * Short name for metrics and logs ("local", "s3")
+     */
+    String getName();
+
+    /**
+     * Store a stream under its content key and return the key; existing content is not rewritten
+     */
+    String put(InputStream content, String extension) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Read {@code length} bytes starting at {@code offset} (fewer if the blob ends first)
+     */
+    InputStream openRange(String key, long offset, long length) throws IOException;
+
+    long size(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Remove a blob; false if it was not there
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * The blob as a file on this machine, for stores that keep one
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    // ==================== KEYS ====================
+
+    static String contentKey(String sha256Hex, String extension) {
+        return sha256Hex.substring(0, 2) + "/" + sha256Hex.substring(2, 4) + "/" + sha256Hex + normalizeExtension(extension);
+    }
+
+    /**
+     * The SHA-256 part of a content key
+     */
+    static String hashOf(String key) {
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    static boolean isContentKey(String key) {
+        return key != null && CONTENT_KEY.matcher(key).matches();
+    }
+
+    /**
+     * ".PDF", "pdf" and null become ".pdf", ".pdf" and ""; anything unusual is dropped
+     */
+    static String normalizeExtension(String extension) {
+        if (extension == null || extension.isBlank()) {
+            return "";
+        }
+        String ext = extension.trim().toLowerCase(java.util.Locale.ROOT);
+        ext = ext.startsWith(".") ? ext : "." + ext;
+        return ext.matches("\\.[a-z0-9]{1,10}") ? ext : "";
+    }
+}
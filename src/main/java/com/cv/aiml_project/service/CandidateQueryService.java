@@ -0,0 +1,146 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.CandidateDetailsView;
+import com.cv.aiml_project.dto.HrDashboardView;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.entity.Role;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read models for the candidate and user pages. Users come with their resumes, so templates can
+ * show the current resume and AI score after the transaction has ended.
+ * <p>
+ * Reads the primary: profile and candidate pages are redirect targets after updates and must show
+ * them. Only the dashboard and reports are wrapped in {@code ReplicaRouting.fromReplica} by their
+ * controllers.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CandidateQueryService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ResumeService resumeService;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private ApplicationQueryService applicationQueryService;
+
+    // ==================== USERS ====================
+
+    public List<User> getCandidates() {
+        return userRepository.findByRoleWithResumes(Role.CANDIDATE);
+    }
+
+    /**
+     * The given candidates in the order asked for; unknown ids and non-candidates are left out
+     */
+    public List<User> getCandidates(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findWithResumesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(user -> user != null && user.isCandidate())
+                .collect(Collectors.toList());
+    }
+
+    public Optional<User> getUser(Long id) {
+        return userRepository.findWithResumesById(id);
+    }
+
+    public Optional<User> getUser(String username) {
+        return userRepository.findWithResumesByUsername(username);
+    }
+
+    public List<User> getAllUsers() {
+        return withResumes(userService.getAllUsers());
+    }
+
+    public List<User> getUsersByRole(Role role) {
+        return userRepository.findByRoleWithResumes(role);
+    }
+
+    public List<User> searchUsers(String keyword) {
+        return withResumes(userService.searchUsers(keyword));
+    }
+
+    // ==================== PAGES ====================
+
+    public HrDashboardView getHrDashboard() {
+        List<User> candidates = getCandidates();
+
+        List<User> recentCandidates = candidates.stream()
+                .sorted(Comparator.comparing(User::getCreatedAt).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+
+        List<User> topCandidates = candidates.stream()
+                .filter(User::isMlProcessed)
+                .sorted(Comparator.comparing(User::getCurrentMlScore,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(5)
+                .collect(Collectors.toList());
+
+        return new HrDashboardView(
+                userService.getTotalCandidates(),
+                userService.getActiveCandidates(),
+                resumeService.getProcessedResumeCount(),
+                resumeService.getTotalResumeCount(),
+                recentCandidates,
+                topCandidates,
+                jobService.getJobStatistics());
+    }
+
+    public CandidateDetailsView getCandidateDetails(Long candidateId) {
+        User candidate = getUser(candidateId)
+                .orElseThrow(() -> new IllegalArgumentException("Candidate not found"));
+
+        if (!candidate.isCandidate()) {
+            throw new IllegalArgumentException("User is not a candidate");
+        }
+
+        List<JobApplication> applications = applicationQueryService.getApplicationsByCandidate(candidateId);
+
+        Map<ApplicationStatus, Long> applicationStats = applications.stream()
+                .collect(Collectors.groupingBy(JobApplication::getStatus, Collectors.counting()));
+
+        double avgMatchScore = applications.stream()
+                .map(JobApplication::getMatchScore)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .average()
+                .orElse(0.0);
+
+        return new CandidateDetailsView(candidate, candidate.getCurrentResume(), candidate.getResumes(),
+                applications, applicationStats, avgMatchScore);
+    }
+
+    private List<User> withResumes(List<User> users) {
+        users.forEach(user -> Hibernate.initialize(user.getResumes()));
+        return users;
+    }
+}
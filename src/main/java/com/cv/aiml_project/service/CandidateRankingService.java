@@ -1,12 +1,24 @@
 package com.cv.aiml_project.service;
 
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.LiveUpdate;
+import com.cv.aiml_project.dto.PageCursor;
+import com.cv.aiml_project.dto.RankingRow;
 import com.cv.aiml_project.dto.RankingWeightConfig;
 import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.repository.CandidateRankingHistoryRepository;
 import com.cv.aiml_project.repository.CandidateRankingRepository;
 import com.cv.aiml_project.repository.JobRepository;
 import com.cv.aiml_project.repository.SkillMatchResultRepository;
 import com.cv.aiml_project.repository.UserRepository;
+import com.cv.aiml_project.service.LiveUpdateService.Channel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,9 +42,24 @@ public class CandidateRankingService {
     @Autowired
     private SkillMatchResultRepository skillMatchResultRepository;
 
+    @Autowired
+    private CandidateRankingHistoryRepository rankingHistoryRepository;
+
     @Autowired
     private SkillMatchResultService skillMatchResultService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Value("${app.api.page.max-limit:1000}")
+    private int maxPageSize;
+
     // Default weight configuration
     private static final RankingWeightConfig DEFAULT_WEIGHTS = new RankingWeightConfig();
 
@@ -43,6 +70,16 @@ public class CandidateRankingService {
      */
     @Transactional
     public List<CandidateRanking> generateRankingForJob(Long jobId, RankingWeightConfig weights) {
+        return generateRankingForJob(jobId, weights, RankingProgressListener.NONE);
+    }
+
+    /**
+     * Generate ranking scores for all candidates for a job, reporting progress per candidate
+     */
+    @Transactional
+    public List<CandidateRanking> generateRankingForJob(Long jobId, RankingWeightConfig weights,
+                                                        RankingProgressListener progress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
 
@@ -61,22 +98,28 @@ public class CandidateRankingService {
             throw new RuntimeException("No skill match results found for this job. Please run skill matching first.");
         }
 
+        // Remember what open ranking views currently show so only deltas are pushed
+        Map<Long, CandidateRanking> previousByCandidate = liveUpdateService.hasSubscribers(Channel.RANKINGS, jobId)
+                ? indexByCandidate(rankingRepository.findCurrentRankingsByJob(jobId))
+                : null;
+
         // Set all existing rankings as not current
         rankingRepository.setAllRankingsNotCurrent(jobId);
+        dataVersionService.jobDataChanged(DataVersionService.Channel.RANKINGS, jobId);
 
         List<CandidateRanking> rankings = new ArrayList<>();
 
         for (SkillMatchResult matchResult : matchResults) {
             CandidateRanking ranking = createRankingFromMatchResult(matchResult, weights);
             rankings.add(ranking);
+            progress.onProgress(rankings.size(), matchResults.size());
         }
 
-        // Save all rankings
-        rankings = rankingRepository.saveAll(rankings);
-
-        // Calculate rank positions
+        // Rank before saving, so each row is written once, by batched inserts
         rankings = calculateRankPositions(rankings, jobId);
+        publishRankingUpdates(jobId, previousByCandidate, rankings);
 
+        recordRankingRun("generate", sample, rankings.size());
         return rankings;
     }
 
@@ -164,7 +207,8 @@ public class CandidateRankingService {
     }
 
     /**
-     * Calculate and assign rank positions
+     * Calculate and assign rank positions, then save. New rankings are inserted with their final
+     * positions; existing ones are updated at flush as a JDBC batch.
      */
     @Transactional
     public List<CandidateRanking> calculateRankPositions(List<CandidateRanking> rankings, Long jobId) {
@@ -207,6 +251,17 @@ public class CandidateRankingService {
      */
     @Transactional
     public List<CandidateRanking> recalculateRankingWithWeights(Long jobId, RankingWeightConfig newWeights) {
+        return recalculateRankingWithWeights(jobId, newWeights, RankingProgressListener.NONE);
+    }
+
+    /**
+     * Recalculate ranking with new weights, reporting progress per candidate
+     */
+    @Transactional
+    public List<CandidateRanking> recalculateRankingWithWeights(Long jobId, RankingWeightConfig newWeights,
+                                                                RankingProgressListener progress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
         // Validate new weights
         if (newWeights == null || !newWeights.isValid()) {
             throw new RuntimeException("Invalid weight configuration");
@@ -228,6 +283,7 @@ public class CandidateRankingService {
 
         // Set all existing rankings as not current
         rankingRepository.setAllRankingsNotCurrent(jobId);
+        dataVersionService.jobDataChanged(DataVersionService.Channel.RANKINGS, jobId);
 
         // Create new rankings with new weights
         List<CandidateRanking> newRankings = new ArrayList<>();
@@ -239,25 +295,108 @@ public class CandidateRankingService {
             ranking.setPreviousRankPosition(previousRank);
 
             newRankings.add(ranking);
+            progress.onProgress(newRankings.size(), matchResults.size());
         }
 
-        newRankings = rankingRepository.saveAll(newRankings);
-
-        // Calculate new rank positions (this will also calculate rank changes)
+        // Calculate new rank positions (this will also calculate rank changes) and save in batches
         newRankings = calculateRankPositions(newRankings, jobId);
+        if (liveUpdateService.hasSubscribers(Channel.RANKINGS, jobId)) {
+            publishRankingUpdates(jobId, indexByCandidate(existingRankings), newRankings);
+        }
 
+        recordRankingRun("recalculate", sample, newRankings.size());
         return newRankings;
     }
 
+    /**
+     * Push new, moved or rescored, and dropped rows to HR users watching this job's rankings.
+     * Candidates with the same rank and score only get their new row id, so the actions on the
+     * page act on the current row.
+     */
+    private void publishRankingUpdates(Long jobId, Map<Long, CandidateRanking> previousByCandidate,
+                                       List<CandidateRanking> rankings) {
+        if (previousByCandidate == null || !liveUpdateService.hasSubscribers(Channel.RANKINGS, jobId)) {
+            return;
+        }
+
+        Map<Long, CandidateRanking> remaining = new HashMap<>(previousByCandidate);
+        List<LiveUpdate> updates = new ArrayList<>();
+        for (CandidateRanking ranking : rankings) {
+            CandidateRanking previous = remaining.remove(ranking.getCandidate().getId());
+            if (previous == null) {
+                updates.add(LiveUpdate.ranking(LiveUpdate.Type.RANKING_ADDED, ranking, null));
+            } else if (!Objects.equals(previous.getRankPosition(), ranking.getRankPosition())
+                    || !Objects.equals(previous.getRankingScore(), ranking.getRankingScore())) {
+                updates.add(LiveUpdate.ranking(LiveUpdate.Type.RANKING_CHANGED, ranking, previous.getRankPosition()));
+            } else if (!Objects.equals(previous.getId(), ranking.getId())) {
+                updates.add(LiveUpdate.renumbered(ranking, previous.getId()));
+            }
+        }
+        for (CandidateRanking dropped : remaining.values()) {
+            updates.add(LiveUpdate.ranking(LiveUpdate.Type.RANKING_REMOVED, dropped, dropped.getRankPosition()));
+        }
+
+        if (!updates.isEmpty()) {
+            liveUpdateService.publish(Channel.RANKINGS, jobId, updates);
+        }
+    }
+
+    private Map<Long, CandidateRanking> indexByCandidate(List<CandidateRanking> rankings) {
+        Map<Long, CandidateRanking> byCandidate = new HashMap<>();
+        for (CandidateRanking ranking : rankings) {
+            byCandidate.put(ranking.getCandidate().getId(), ranking);
+        }
+        return byCandidate;
+    }
+
+    /**
+     * Record duration and size of a completed ranking run
+     */
+    private void recordRankingRun(String operation, Timer.Sample sample, int candidates) {
+        sample.stop(Timer.builder(AppMetrics.RANKING_RUN)
+                .description("Duration of ranking generation and recalculation")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+
+        DistributionSummary.builder(AppMetrics.RANKING_CANDIDATES)
+                .description("Candidates ranked per ranking run")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(candidates);
+    }
+
     // ==================== READ OPERATIONS ====================
 
     /**
      * Get current rankings for a job
      */
+    @Transactional(readOnly = true)
     public List<CandidateRanking> getCurrentRankingsForJob(Long jobId) {
         return rankingRepository.findCurrentRankingsByJob(jobId);
     }
 
+    /**
+     * One keyset page of a job's current rankings by rank position. The cursor is the opaque
+     * token from the previous page (null for the first).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RankingRow> getCurrentRankingsPage(Long jobId, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor, new PageCursor(0, 0, 0));
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+
+        // One extra row tells whether another page follows
+        List<RankingRow> rows = rankingRepository.findCurrentRankingRowsAfter(
+                jobId, after.rank(), after.id(), PageRequest.of(0, size + 1));
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<RankingRow> page = rows.subList(0, size);
+        RankingRow last = page.get(size - 1);
+        return new CursorPage<>(List.copyOf(page), new PageCursor(last.rank(), last.rankingId(), last.rank()).encode());
+    }
+
     /**
      * Get ranking by ID
      */
@@ -277,20 +416,42 @@ public class CandidateRankingService {
     /**
      * Get top N ranked candidates for a job
      */
+    @Transactional(readOnly = true)
     public List<CandidateRanking> getTopRankedCandidates(Long jobId, int topN) {
         return rankingRepository.findTopRankedCandidates(jobId, topN);
     }
 
     /**
-     * Get ranking history for a candidate on a specific job
+     * Get ranking history for a candidate on a specific job, newest first: rows still in
+     * candidate_rankings plus those the compactor has moved to candidate_ranking_history
+     */
+    @Transactional(readOnly = true)
+    public List<CandidateRankingHistory> getRankingHistoryForCandidate(Long jobId, Long candidateId) {
+        // Hot table first: a row archived in between then still shows up from history
+        Map<Long, CandidateRankingHistory> history = new LinkedHashMap<>();
+        for (CandidateRanking ranking : rankingRepository.findRankingHistoryForCandidate(candidateId, jobId)) {
+            history.put(ranking.getId(), CandidateRankingHistory.of(ranking));
+        }
+        for (CandidateRankingHistory archived : rankingHistoryRepository.findByJobIdAndCandidateIdOrderByRankingDateDesc(jobId, candidateId)) {
+            history.putIfAbsent(archived.getId(), archived);
+        }
+        List<CandidateRankingHistory> merged = new ArrayList<>(history.values());
+        merged.sort(Comparator.comparing(CandidateRankingHistory::getRankingDate,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return merged;
+    }
+
+    /**
+     * Get a candidate's current rankings across all jobs
      */
-    public List<CandidateRanking> getRankingHistoryForCandidate(Long jobId, Long candidateId) {
-        return rankingRepository.findRankingHistoryForCandidate(candidateId, jobId);
+    public List<CandidateRanking> getCurrentRankingsForCandidate(Long candidateId) {
+        return rankingRepository.findByCandidateIdAndIsCurrentRankingTrueOrderByRankingDateDesc(candidateId);
     }
 
     /**
      * Get rankings by minimum score
      */
+    @Transactional(readOnly = true)
     public List<CandidateRanking> getRankingsByMinimumScore(Long jobId, Double minScore) {
         return rankingRepository.findByMinimumScore(jobId, minScore);
     }
@@ -298,6 +459,7 @@ public class CandidateRankingService {
     /**
      * Get shortlisted candidates
      */
+    @Transactional(readOnly = true)
     public List<CandidateRanking> getShortlistedCandidates(Long jobId) {
         return rankingRepository.findShortlistedForJob(jobId);
     }
@@ -305,6 +467,7 @@ public class CandidateRankingService {
     /**
      * Search rankings
      */
+    @Transactional(readOnly = true)
     public List<CandidateRanking> searchRankings(Long jobId, String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getCurrentRankingsForJob(jobId);
@@ -319,8 +482,7 @@ public class CandidateRankingService {
      */
     @Transactional
     public CandidateRanking updateShortlistStatus(Long rankingId, boolean shortlisted, String notes) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         ranking.setShortlisted(shortlisted);
         if (shortlisted) {
@@ -341,8 +503,7 @@ public class CandidateRankingService {
      */
     @Transactional
     public CandidateRanking updateHiringStatus(Long rankingId, HiringStatus status, String notes) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         ranking.setHiringStatus(status);
         ranking.setHiringDecisionDate(LocalDateTime.now());
@@ -363,8 +524,7 @@ public class CandidateRankingService {
      */
     @Transactional
     public CandidateRanking scheduleInterview(Long rankingId, LocalDateTime interviewDate, String notes) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         ranking.setInterviewScheduled(true);
         ranking.setInterviewDate(interviewDate);
@@ -379,8 +539,7 @@ public class CandidateRankingService {
      */
     @Transactional
     public CandidateRanking addInterviewFeedback(Long rankingId, String feedback) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         ranking.setInterviewFeedback(feedback);
 
@@ -392,14 +551,25 @@ public class CandidateRankingService {
      */
     @Transactional
     public CandidateRanking updateNotes(Long rankingId, String notes) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         ranking.setNotes(notes);
 
         return rankingRepository.save(ranking);
     }
 
+    /**
+     * The ranking row a page shows, as long as it is still the candidate's current ranking.
+     * A row replaced by a later run is never edited in its successor's place.
+     */
+    private CandidateRanking findForUpdate(Long rankingId) {
+        Optional<CandidateRanking> ranking = rankingRepository.findWithDetailsById(rankingId);
+        if (ranking.isPresent() ? !ranking.get().isCurrentRanking() : rankingHistoryRepository.existsById(rankingId)) {
+            throw new RuntimeException("This ranking was superseded by a newer ranking run; reload the rankings and try again");
+        }
+        return ranking.orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+    }
+
     // ==================== DELETE OPERATIONS ====================
 
     /**
@@ -407,8 +577,7 @@ public class CandidateRankingService {
      */
     @Transactional
     public void deleteRanking(Long rankingId) {
-        CandidateRanking ranking = rankingRepository.findById(rankingId)
-                .orElseThrow(() -> new RuntimeException("Ranking not found with id: " + rankingId));
+        CandidateRanking ranking = findForUpdate(rankingId);
 
         rankingRepository.delete(ranking);
     }
@@ -419,6 +588,8 @@ public class CandidateRankingService {
     @Transactional
     public void deleteAllRankingsForJob(Long jobId) {
         rankingRepository.deleteByJobId(jobId);
+        rankingHistoryRepository.deleteByJobId(jobId);
+        dataVersionService.jobDataChanged(DataVersionService.Channel.RANKINGS, jobId);
     }
 
     // ==================== STATISTICS AND ANALYTICS ====================
@@ -426,6 +597,7 @@ public class CandidateRankingService {
     /**
      * Get ranking statistics for a job
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getRankingStatistics(Long jobId) {
         Map<String, Object> stats = new HashMap<>();
 
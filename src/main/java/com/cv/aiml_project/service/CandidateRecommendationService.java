@@ -0,0 +1,69 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.CandidateRecommendation;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.JobRepository;
+import com.cv.aiml_project.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests candidates for a job without scoring every candidate:
+ * a vector search picks a shortlist, then only the shortlist gets the full AI match score.
+ */
+@Service
+public class CandidateRecommendationService {
+
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private AIMatchingService aiMatchingService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // How many more candidates to retrieve than requested, so re-scoring can reorder them
+    @Value("${app.vector.shortlist-factor:5}")
+    private int shortlistFactor;
+
+    /**
+     * Top candidates for a job, ordered by full match score
+     */
+    @Transactional(readOnly = true)
+    public List<CandidateRecommendation> recommendCandidatesForJob(Long jobId, int limit) {
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found with id: " + jobId));
+
+        List<IvfVectorIndex.Hit> hits = vectorIndexService.findSimilarCandidates(job, limit * shortlistFactor);
+        Map<Long, User> candidates = userRepository.findAllById(
+                        hits.stream().map(IvfVectorIndex.Hit::owner).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<CandidateRecommendation> recommendations = new ArrayList<>();
+        for (IvfVectorIndex.Hit hit : hits) {
+            User candidate = candidates.get(hit.owner());
+            if (candidate == null || !candidate.isCandidate() || !candidate.isActive()) {
+                continue;
+            }
+            Double matchScore = aiMatchingService.calculateJobMatchScore(job, candidate);
+            recommendations.add(new CandidateRecommendation(candidate.getId(), candidate.getFullName(),
+                    candidate.getEmail(), hit.key(), (double) hit.score(), matchScore));
+        }
+
+        recommendations.sort(Comparator.comparing(CandidateRecommendation::getMatchScore,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return recommendations.size() > limit ? recommendations.subList(0, limit) : recommendations;
+    }
+}
@@ -0,0 +1,188 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.repository.JobDataVersionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks.BeforeCompletionCallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Per-job data versions for conditional GETs on polled JSON endpoints.
+ * A version is bumped by any transaction that writes a job's applications, rankings or
+ * match results (see {@link com.cv.aiml_project.entity.JobDataListener}). A user or resume
+ * write bumps the channels of the jobs that person appears in. Versions are rows in
+ * {@code job_data_versions}, written by the changing transaction itself just before it commits,
+ * so every instance sees a new version exactly when it can see the new data. Changes are
+ * collected per transaction and each (channel, job) row is bumped once, however many rows
+ * were written.
+ */
+@Service
+public class DataVersionService {
+
+    public enum Channel { APPLICATIONS, RANKINGS, MATCH_RESULTS }
+
+    private static final String BUMP_JOB =
+            "INSERT INTO job_data_versions (job_id, channel, data_version) VALUES (?, ?, 1) "
+                    + "ON DUPLICATE KEY UPDATE data_version = data_version + 1";
+
+    // The jobs a person appears in, per channel; bumped with the same statement that finds them
+    private static final String BUMP_APPLICATIONS_OF =
+            "SELECT DISTINCT job_id, 'APPLICATIONS', 1 FROM job_applications WHERE candidate_id IN (%s)";
+    private static final String BUMP_RANKINGS_OF =
+            "SELECT DISTINCT job_id, 'RANKINGS', 1 FROM candidate_rankings WHERE candidate_id IN (%s) AND is_current_ranking = 1";
+    private static final String BUMP_MATCH_RESULTS_OF =
+            "SELECT DISTINCT job_id, 'MATCH_RESULTS', 1 FROM skill_match_results WHERE candidate_id IN (%s) AND is_latest = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JobDataVersionRepository versionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Strong ETag for one channel of a job. Read it before loading the data: a write that
+     * commits in between then only costs one extra full response.
+     */
+    public String etag(Channel channel, Long jobId) {
+        long version = versionRepository.findVersion(jobId, channel).orElse(0L);
+        return "\"" + channel.name().toLowerCase() + "-" + jobId + "-" + version + "\"";
+    }
+
+    /**
+     * One channel of a job changed; written with the current transaction, or on its own outside one
+     */
+    public void jobDataChanged(Channel channel, Long jobId) {
+        if (jobId == null) {
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending != null) {
+            pending.jobs.add(new ChannelJob(channel, jobId));
+        } else {
+            transaction.executeWithoutResult(status -> jobDataChanged(channel, jobId));
+        }
+    }
+
+    /**
+     * The job itself changed, which shows up in all of its channels
+     */
+    public void jobChanged(Long jobId) {
+        for (Channel channel : Channel.values()) {
+            jobDataChanged(channel, jobId);
+        }
+    }
+
+    /**
+     * A user or their resume changed: the jobs they applied to, are ranked or matched for
+     */
+    public void personChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        PendingChanges pending = pendingChanges();
+        if (pending != null) {
+            pending.people.add(userId);
+        } else {
+            transaction.executeWithoutResult(status -> personChanged(userId));
+        }
+    }
+
+    // ==================== PER-TRANSACTION CHANGES ====================
+
+    /**
+     * The current transaction's change set, registered with it on first use; null outside one
+     */
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        // Hibernate runs this after its commit flush, so changes reported by entity listeners
+        // during that flush are still written, on the same connection, before the commit
+        entityManager.unwrap(SessionImplementor.class).getTransactionCompletionCallbacks().registerCallback(pending);
+        return pending;
+    }
+
+    /**
+     * Jobs and people changed by one transaction; written once, as its last statements
+     */
+    private final class PendingChanges implements TransactionSynchronization, BeforeCompletionCallback {
+
+        // Sorted, so concurrent transactions lock shared rows in the same order
+        private final Set<ChannelJob> jobs = new TreeSet<>(
+                Comparator.comparing(ChannelJob::jobId).thenComparing(ChannelJob::channel));
+        private final Set<Long> people = new TreeSet<>();
+
+        DataVersionService owner() {
+            return DataVersionService.this;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SharedSessionContractImplementor session) {
+            session.doWork(this::write);
+        }
+
+        private void write(Connection connection) throws SQLException {
+            if (!jobs.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(BUMP_JOB)) {
+                    for (ChannelJob job : jobs) {
+                        statement.setLong(1, job.jobId());
+                        statement.setString(2, job.channel().name());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            if (!people.isEmpty()) {
+                String placeholders = String.join(", ", Collections.nCopies(people.size(), "?"));
+                for (String select : new String[] {BUMP_APPLICATIONS_OF, BUMP_RANKINGS_OF, BUMP_MATCH_RESULTS_OF}) {
+                    String sql = "INSERT INTO job_data_versions (job_id, channel, data_version) "
+                            + String.format(select, placeholders)
+                            + " ON DUPLICATE KEY UPDATE data_version = data_version + 1";
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        int index = 1;
+                        for (Long userId : people) {
+                            statement.setLong(index++, userId);
+                        }
+                        statement.executeUpdate();
+                    }
+                }
+            }
+        }
+    }
+
+    private record ChannelJob(Channel channel, Long jobId) {}
+}
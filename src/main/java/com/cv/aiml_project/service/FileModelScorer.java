@@ -0,0 +1,201 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.JobFeatures;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A scoring model trained offline and loaded from a {@code .model} properties file.
+ * Both model types read the same input signals, each scaled to 0-1:
+ * {@code skills}, {@code experience}, {@code education} (the heuristic component scores / 100),
+ * {@code preferred} (share of preferred skills held), {@code certifications} (share of the
+ * job's certifications held) and {@code years} (candidate years / 20, capped at 1).
+ * <pre>
+ * # linear: overall = 100 * (bias + sum of weight.x * x)
+ * version=linear-2026.10
+ * type=linear
+ * bias=0
+ * weight.skills=0.5
+ *
+ * # gbdt: overall = base + sum of tree outputs; trees are node lists, node 0 is the root,
+ * # "signal:threshold:left:right" goes left when signal &lt;= threshold, "leaf:value" ends
+ * version=gbdt-2026.10
+ * type=gbdt
+ * base=50
+ * trees=1
+ * tree.0=skills:0.6:1:2,leaf:-10,leaf:15
+ * </pre>
+ * The overall score is clamped to 0-100; component scores are the heuristic ones.
+ */
+public final class FileModelScorer implements MatchScorer {
+
+    static final List<String> SIGNALS = List.of("skills", "experience", "education", "preferred", "certifications", "years");
+
+    private static final int NOT_A_LEAF = -1;
+
+    private final String version;
+    private final double bias;
+    private final double[] weights;
+    // GBDT: one flat array per field, indexed by tree then node
+    private final int[][] signal;
+    private final double[][] threshold;
+    private final int[][] left;
+    private final int[][] right;
+    private final double[][] leafValue;
+
+    private FileModelScorer(String version, double bias, double[] weights,
+                            int[][] signal, double[][] threshold, int[][] left, int[][] right, double[][] leafValue) {
+        this.version = version;
+        this.bias = bias;
+        this.weights = weights;
+        this.signal = signal;
+        this.threshold = threshold;
+        this.left = left;
+        this.right = right;
+        this.leafValue = leafValue;
+    }
+
+    /**
+     * Load a model file; throws if it is malformed
+     */
+    public static FileModelScorer load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return parse(properties, file.getFileName().toString());
+    }
+
+    static FileModelScorer parse(Properties properties, String source) {
+        String version = required(properties, "version", source);
+        String type = required(properties, "type", source);
+        switch (type) {
+            case "linear" -> {
+                double[] weights = new double[SIGNALS.size()];
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = number(properties.getProperty("weight." + SIGNALS.get(i), "0"), source);
+                }
+                return new FileModelScorer(version, number(properties.getProperty("bias", "0"), source), weights,
+                        null, null, null, null, null);
+            }
+            case "gbdt" -> {
+                int trees = (int) number(required(properties, "trees", source), source);
+                int[][] signal = new int[trees][];
+                double[][] threshold = new double[trees][];
+                int[][] left = new int[trees][];
+                int[][] right = new int[trees][];
+                double[][] leafValue = new double[trees][];
+                for (int t = 0; t < trees; t++) {
+                    String[] nodes = required(properties, "tree." + t, source).split(",");
+                    signal[t] = new int[nodes.length];
+                    threshold[t] = new double[nodes.length];
+                    left[t] = new int[nodes.length];
+                    right[t] = new int[nodes.length];
+                    leafValue[t] = new double[nodes.length];
+                    for (int n = 0; n < nodes.length; n++) {
+                        String[] parts = nodes[n].trim().split(":");
+                        if (parts.length == 2 && parts[0].equals("leaf")) {
+                            signal[t][n] = NOT_A_LEAF;
+                            leafValue[t][n] = number(parts[1], source);
+                        } else if (parts.length == 4 && SIGNALS.contains(parts[0])) {
+                            signal[t][n] = SIGNALS.indexOf(parts[0]);
+                            threshold[t][n] = number(parts[1], source);
+                            left[t][n] = child(parts[2], n, nodes.length, source);
+                            right[t][n] = child(parts[3], n, nodes.length, source);
+                        } else {
+                            throw new IllegalArgumentException(source + ": bad node '" + nodes[n] + "' in tree." + t);
+                        }
+                    }
+                }
+                return new FileModelScorer(version, number(properties.getProperty("base", "0"), source), null,
+                        signal, threshold, left, right, leafValue);
+            }
+            default -> throw new IllegalArgumentException(source + ": unknown model type '" + type + "'");
+        }
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public Score score(Input input) {
+        double[] x = signals(input.jobFeatures(), input.candidateFeatures());
+        double overall = weights != null ? 100 * (bias + dot(weights, x)) : bias + sumOfTrees(x);
+        return new Score(version, Math.min(100.0, Math.max(0.0, overall)),
+                HeuristicMatchScorer.componentScores(input.jobFeatures(), input.candidateFeatures()));
+    }
+
+    static double[] signals(JobFeatures job, CandidateFeatures candidate) {
+        var components = HeuristicMatchScorer.componentScores(job, candidate);
+        Integer years = candidate.getExperienceYears();
+        return new double[]{
+                components.get("skills") / 100,
+                components.get("experience") / 100,
+                components.get("education") / 100,
+                share(job.getPreferredSkillIds(), candidate.getSkillIds()),
+                share(job.getCertificationIds(), candidate.getCertificationIds()),
+                years != null ? Math.min(1.0, years / 20.0) : 0.0
+        };
+    }
+
+    private double sumOfTrees(double[] x) {
+        double sum = 0;
+        for (int t = 0; t < signal.length; t++) {
+            int node = 0;
+            while (signal[t][node] != NOT_A_LEAF) {
+                node = x[signal[t][node]] <= threshold[t][node] ? left[t][node] : right[t][node];
+            }
+            sum += leafValue[t][node];
+        }
+        return sum;
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Share of the job's ids the candidate has; 0 when the job lists none
+     */
+    private static double share(int[] wanted, int[] held) {
+        return wanted.length == 0 ? 0.0 : (double) HeuristicMatchScorer.overlap(wanted, held) / wanted.length;
+    }
+
+    // Children must come after their parent, which also rules out cycles
+    private static int child(String value, int parent, int nodes, String source) {
+        int child = (int) number(value, source);
+        if (child <= parent || child >= nodes) {
+            throw new IllegalArgumentException(source + ": node " + parent + " has invalid child " + child);
+        }
+        return child;
+    }
+
+    private static String required(Properties properties, String key, String source) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(source + ": missing '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    private static double number(String value, String source) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(source + ": not a number '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cv.aiml_project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Default embedder: signed feature hashing of words and short skill phrases,
+ * with sub-linear term frequency. Skill aliases are resolved first so "JS" and
+ * "JavaScript" land in the same bucket. Needs no model or corpus statistics.
+ */
+@Component
+@ConditionalOnProperty(name = "app.vector.embedder", havingValue = "hashing", matchIfMissing = true)
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private static final Pattern SEGMENTS = Pattern.compile("[,;\\n|/]+");
+    private static final Pattern WORDS = Pattern.compile("[^a-z0-9+#.]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "or", "the", "a", "an", "of", "to", "in", "for", "with", "on", "at", "by",
+            "is", "are", "be", "as", "we", "you", "our", "your", "will", "from", "this", "that",
+            "years", "year", "experience", "skills", "knowledge", "strong", "good", "ability");
+
+    // Whole skill phrases carry more signal than the individual words inside them
+    private static final float PHRASE_WEIGHT = 2.0f;
+    private static final int MAX_PHRASE_WORDS = 4;
+
+    @Autowired
+    private SkillMatchingEngine skillMatchingEngine;
+
+    @Value("${app.vector.dimension:256}")
+    private int dimension;
+
+    @Override
+    public String name() {
+        return "hashing-v1";
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimension];
+        if (text == null || text.isBlank()) {
+            return vector;
+        }
+
+        Map<String, Float> features = new HashMap<>();
+        for (String segment : SEGMENTS.split(text.toLowerCase(Locale.ROOT))) {
+            String[] words = WORDS.split(segment.trim());
+            int wordCount = 0;
+            for (String word : words) {
+                String token = stripDots(word);
+                if (token.length() < 2 || STOP_WORDS.contains(token)) {
+                    continue;
+                }
+                features.merge(skillMatchingEngine.canonicalize(token), 1.0f, Float::sum);
+                wordCount++;
+            }
+            if (wordCount > 1 && wordCount <= MAX_PHRASE_WORDS) {
+                features.merge("phrase:" + skillMatchingEngine.canonicalize(segment), PHRASE_WEIGHT, Float::sum);
+            }
+        }
+
+        for (Map.Entry<String, Float> feature : features.entrySet()) {
+            int hash = mix(feature.getKey().hashCode());
+            int bucket = Math.floorMod(hash, dimension);
+            float sign = (hash & 0x80000000) == 0 ? 1f : -1f;
+            vector[bucket] += sign * (float) (1 + Math.log(feature.getValue()));
+        }
+        return normalize(vector);
+    }
+
+    /**
+     * Drop sentence punctuation but keep names like ".net" and "node.js"
+     */
+    private static String stripDots(String word) {
+        int end = word.length();
+        while (end > 0 && word.charAt(end - 1) == '.') end--;
+        int start = 0;
+        while (start < end - 1 && word.charAt(start) == '.' && !Character.isLetter(word.charAt(start + 1))) start++;
+        return word.substring(start, end);
+    }
+
+    /**
+     * Spread String.hashCode bits so buckets and signs are independent
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.EducationLevel;
+import com.cv.aiml_project.entity.JobFeatures;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The original rule-based scorer: skills 50%, experience 30%, education 20%,
+ * each weight only counted when both sides state it.
+ * The component rules are shared with the file-based models as their input signals.
+ */
+@Component
+public class HeuristicMatchScorer implements MatchScorer {
+
+    public static final String VERSION = "heuristic-1.0.0";
+
+    @Autowired
+    private ScoringJitter jitter;
+
+    @Override
+    public String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public Score score(Input input) {
+        JobFeatures job = input.jobFeatures();
+        CandidateFeatures candidate = input.candidateFeatures();
+
+        double totalScore = 0.0;
+        int weightCount = 0;
+
+        // Skills match (50% weight)
+        if (job.getRequiredSkillIds().length > 0 && candidate.getSkillIds().length > 0) {
+            totalScore += skillsMatchScore(job, candidate) * 50;
+            weightCount += 50;
+        }
+
+        // Experience match (30% weight)
+        if (job.getMinExperience() != null && candidate.getExperienceYears() != null) {
+            totalScore += experienceMatchScore(job, candidate.getExperienceYears()) * 30;
+            weightCount += 30;
+        }
+
+        // Education match (20% weight)
+        if (job.getEducationLevel() != null && candidate.getEducationLevel() != null) {
+            totalScore += educationMatchScore(job.getEducationLevel(), candidate.getEducationLevel()) * 20;
+            weightCount += 20;
+        }
+
+        double overall = 0.0;
+        if (weightCount > 0) {
+            // Normalize score
+            double normalizedScore = totalScore / weightCount;
+
+            // Seeded jitter for demos; 1.0 unless enabled
+            double jitterFactor = jitter.factor(job.getJobId(), candidate.getCandidateId());
+
+            overall = Math.min(100.0, Math.max(0.0, normalizedScore * jitterFactor));
+        }
+        return new Score(VERSION, overall, componentScores(job, candidate));
+    }
+
+    /**
+     * Component scores, 50 when either side does not state the requirement
+     */
+    static Map<String, Double> componentScores(JobFeatures job, CandidateFeatures candidate) {
+        Map<String, Double> scores = new HashMap<>();
+
+        // Skills score
+        if (job.getRequiredSkillIds().length > 0 && candidate.getSkillIds().length > 0) {
+            scores.put("skills", skillsMatchScore(job, candidate));
+        } else {
+            scores.put("skills", 50.0); // Default score
+        }
+
+        // Experience score
+        if (job.getMinExperience() != null && candidate.getExperienceYears() != null) {
+            scores.put("experience", experienceMatchScore(job, candidate.getExperienceYears()));
+        } else {
+            scores.put("experience", 50.0);
+        }
+
+        // Education score
+        if (job.getEducationLevel() != null && candidate.getEducationLevel() != null) {
+            scores.put("education", educationMatchScore(job.getEducationLevel(), candidate.getEducationLevel()));
+        } else {
+            scores.put("education", 50.0);
+        }
+
+        return scores;
+    }
+
+    /**
+     * Share of required skills the candidate has
+     */
+    static double skillsMatchScore(JobFeatures job, CandidateFeatures candidate) {
+        return overlap(job.getRequiredSkillIds(), candidate.getSkillIds()) * 100.0 / job.getRequiredSkillIds().length;
+    }
+
+    /**
+     * Number of ids two sorted arrays have in common, by merging them
+     */
+    static int overlap(int[] a, int[] b) {
+        int matched = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                matched++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Calculate experience match score
+     */
+    static double experienceMatchScore(JobFeatures job, int candidateYears) {
+        int requiredMin = job.getMinExperience();
+        int requiredMax = job.getMaxExperience();
+
+        if (candidateYears < requiredMin) {
+            // Less than minimum: (candidateYears / requiredMin) * 70
+            return (candidateYears * 70.0) / requiredMin;
+        } else if (candidateYears <= requiredMax) {
+            // Within range: 100
+            return 100.0;
+        } else {
+            // More than required: 100 - (excess * 10) but not less than 70
+            int excess = candidateYears - requiredMax;
+            return Math.max(70, 100 - (excess * 10));
+        }
+    }
+
+    /**
+     * Calculate education match score
+     */
+    static double educationMatchScore(EducationLevel required, EducationLevel candidate) {
+        int gap = candidate.ordinal() - required.ordinal();
+        if (gap == 0) {
+            return 100.0;
+        }
+        if (gap > 0) {
+            return 90.0;
+        }
+        if (gap == -1) {
+            return required == EducationLevel.PHD ? 80.0 : 70.0;
+        }
+        return 50.0;
+    }
+}
@@ -0,0 +1,388 @@
+package com.cv.aiml_project.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index (IVF-flat) over a {@link MappedVectorStore}.
+ * Vectors are clustered around k-means centroids; a query scans only the lists of its
+ * {@code nprobe} closest centroids, so a search touches roughly {@code nprobe / nlist}
+ * of the vectors instead of all of them. Below {@code minTrainSize} vectors, or before
+ * the first training, it falls back to an exact scan.
+ * Similarity is the dot product, which is cosine similarity for normalised vectors.
+ */
+final class IvfVectorIndex implements Closeable {
+
+    private static final int KMEANS_ITERATIONS = 10;
+    private static final int SAMPLE_PER_CENTROID = 40;
+
+    /**
+     * A search result: the stored key, its owner and the similarity to the query
+     */
+    record Hit(long key, long owner, float score) {
+    }
+
+    private final MappedVectorStore store;
+    private final int nprobe;
+    private final int minTrainSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotByKey = new HashMap<>();
+    private final Map<Long, Set<Long>> keysByOwner = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    // Inverted lists; a slot can linger in an old list after it moves or is deleted, so
+    // scans check assignment[] and the live flag, and lists are rebuilt on every training
+    private float[][] centroids;
+    private int[][] lists;
+    private int[] listSizes;
+    private int[] assignment = new int[0];
+    private int trainedSize;
+
+    IvfVectorIndex(Path file, String embedderName, int dimension, int nprobe, int minTrainSize) throws IOException {
+        this.store = new MappedVectorStore(file, embedderName, dimension, 1024);
+        this.nprobe = nprobe;
+        this.minTrainSize = minTrainSize;
+
+        for (int slot = 0; slot < store.slotCount(); slot++) {
+            if (store.isLive(slot)) {
+                track(store.key(slot), store.owner(slot), slot);
+            } else {
+                freeSlots.add(slot);
+            }
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace the vector for a key. With {@code replaceOwner}, other keys of the
+     * same owner are removed (one current resume per candidate).
+     */
+    void upsert(long key, long owner, float[] vector, boolean replaceOwner) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (replaceOwner) {
+                for (Long other : new ArrayList<>(keysByOwner.getOrDefault(owner, Set.of()))) {
+                    if (other != key) {
+                        removeLocked(other);
+                    }
+                }
+            }
+
+            Integer slot = slotByKey.get(key);
+            if (slot != null) {
+                untrack(key, store.owner(slot));
+                store.write(slot, key, owner, vector);
+            } else if (!freeSlots.isEmpty()) {
+                slot = freeSlots.poll();
+                store.write(slot, key, owner, vector);
+            } else {
+                slot = store.append(key, owner, vector);
+            }
+            track(key, owner, slot);
+            assign(slot, vector);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long key) {
+        Integer slot = slotByKey.get(key);
+        if (slot != null) {
+            untrack(key, store.owner(slot));
+            store.delete(slot);
+            freeSlots.add(slot);
+        }
+    }
+
+    /**
+     * Snapshot of the stored keys
+     */
+    Set<Long> keys() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(slotByKey.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Optional<float[]> get(long key) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByKey.get(key);
+            return slot != null ? Optional.of(store.read(slot)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            store.clear();
+            slotByKey.clear();
+            keysByOwner.clear();
+            freeSlots.clear();
+            centroids = null;
+            lists = null;
+            assignment = new int[0];
+            trainedSize = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code k} most similar vectors, best first
+     */
+    List<Hit> search(float[] query, int k) {
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            if (centroids == null) {
+                for (int slot : slotByKey.values()) {
+                    offer(best, slot, query, k);
+                }
+            } else {
+                BitSet seen = new BitSet(store.slotCount());
+                for (int list : nearestCentroids(query, Math.min(nprobe, centroids.length))) {
+                    for (int i = 0; i < listSizes[list]; i++) {
+                        int slot = lists[list][i];
+                        if (assignment[slot] == list && store.isLive(slot) && !seen.get(slot)) {
+                            seen.set(slot);
+                            offer(best, slot, query, k);
+                        }
+                    }
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void offer(PriorityQueue<Hit> best, int slot, float[] query, int k) {
+        float score = store.dot(slot, query);
+        if (best.size() < k) {
+            best.add(new Hit(store.key(slot), store.owner(slot), score));
+        } else if (score > best.peek().score()) {
+            best.poll();
+            best.add(new Hit(store.key(slot), store.owner(slot), score));
+        }
+    }
+
+    // ==================== TRAINING ====================
+
+    /**
+     * Whether the index has grown enough since the last training to be worth re-clustering
+     */
+    boolean needsTraining() {
+        lock.readLock().lock();
+        try {
+            int size = slotByKey.size();
+            return size >= minTrainSize && (centroids == null || size >= 2 * trainedSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cluster the current vectors with k-means (k = sqrt(n)) and rebuild the inverted lists
+     */
+    void train() {
+        List<Integer> slots;
+        lock.readLock().lock();
+        try {
+            slots = new ArrayList<>(slotByKey.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (slots.size() < minTrainSize) {
+            return;
+        }
+
+        int k = (int) Math.max(1, Math.round(Math.sqrt(slots.size())));
+        Collections.shuffle(slots, new Random(slots.size()));
+        List<float[]> sample = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot : slots.subList(0, Math.min(slots.size(), k * SAMPLE_PER_CENTROID))) {
+                if (store.isLive(slot)) {
+                    sample.add(store.read(slot));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (sample.isEmpty()) {
+            return;
+        }
+        float[][] trained = kMeans(sample, Math.min(k, sample.size()));
+
+        lock.writeLock().lock();
+        try {
+            centroids = trained;
+            lists = new int[trained.length][];
+            listSizes = new int[trained.length];
+            for (int i = 0; i < trained.length; i++) {
+                lists[i] = new int[16];
+            }
+            assignment = new int[Math.max(store.slotCount(), 16)];
+            Arrays.fill(assignment, -1);
+            for (int slot : slotByKey.values()) {
+                assign(slot, store.read(slot));
+            }
+            trainedSize = slotByKey.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void assign(int slot, float[] vector) {
+        if (centroids == null) {
+            return;
+        }
+        if (slot >= assignment.length) {
+            int oldLength = assignment.length;
+            assignment = Arrays.copyOf(assignment, Math.max(slot + 1, oldLength * 2));
+            Arrays.fill(assignment, oldLength, assignment.length, -1);
+        }
+        int list = nearestCentroids(vector, 1)[0];
+        if (assignment[slot] == list) {
+            return;
+        }
+        assignment[slot] = list;
+        if (listSizes[list] == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], lists[list].length * 2);
+        }
+        lists[list][listSizes[list]++] = slot;
+    }
+
+    private int[] nearestCentroids(float[] vector, int count) {
+        Integer[] order = new Integer[centroids.length];
+        float[] scores = new float[centroids.length];
+        for (int c = 0; c < centroids.length; c++) {
+            order[c] = c;
+            scores[c] = dot(centroids[c], vector);
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(scores[b], scores[a]));
+        int[] nearest = new int[count];
+        for (int i = 0; i < count; i++) {
+            nearest[i] = order[i];
+        }
+        return nearest;
+    }
+
+    /**
+     * Spherical k-means: centroids are re-normalised so dot products stay cosine similarities
+     */
+    private static float[][] kMeans(List<float[]> points, int k) {
+        int dimension = points.get(0).length;
+        float[][] centroids = new float[k][];
+        for (int c = 0; c < k; c++) {
+            centroids[c] = points.get(c * points.size() / k).clone();
+        }
+
+        int[] nearest = new int[points.size()];
+        for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+            for (int p = 0; p < points.size(); p++) {
+                float bestScore = Float.NEGATIVE_INFINITY;
+                for (int c = 0; c < k; c++) {
+                    float score = dot(centroids[c], points.get(p));
+                    if (score > bestScore) {
+                        bestScore = score;
+                        nearest[p] = c;
+                    }
+                }
+            }
+
+            float[][] sums = new float[k][dimension];
+            int[] counts = new int[k];
+            for (int p = 0; p < points.size(); p++) {
+                float[] point = points.get(p);
+                float[] sum = sums[nearest[p]];
+                for (int i = 0; i < dimension; i++) {
+                    sum[i] += point[i];
+                }
+                counts[nearest[p]]++;
+            }
+            for (int c = 0; c < k; c++) {
+                // Keep an empty cluster's previous centroid
+                if (counts[c] > 0) {
+                    centroids[c] = HashingTextEmbedder.normalize(sums[c]);
+                }
+            }
+        }
+        return centroids;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    // ==================== BOOKKEEPING ====================
+
+    private void track(long key, long owner, int slot) {
+        slotByKey.put(key, slot);
+        keysByOwner.computeIfAbsent(owner, o -> new HashSet<>()).add(key);
+    }
+
+    private void untrack(long key, long owner) {
+        slotByKey.remove(key);
+        Set<Long> keys = keysByOwner.get(owner);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByOwner.remove(owner);
+            }
+        }
+    }
+
+    void force() {
+        lock.readLock().lock();
+        try {
+            store.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            store.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.dto.JobRecommendation;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobType;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import com.cv.aiml_project.repository.JobRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import com.cv.aiml_project.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * "Jobs for you": active jobs that share skills with a candidate's profile or resume.
+ * An inverted index from canonical skill to active jobs means a feed only scores the jobs
+ * reachable from the candidate's own skills. Feeds are cached per candidate; a job change
+ * bumps the index generation (every cached feed goes stale), a profile, resume or
+ * application change evicts that candidate's feed.
+ */
+@Service
+public class JobFeedService {
+
+    private static final Pattern WORDS = Pattern.compile("[^a-z0-9+#.]+");
+
+    // Longest skill phrase looked up when scanning resume text ("spring boot", "google cloud platform")
+    private static final int MAX_SKILL_WORDS = 3;
+    private static final double PREFERRED_WEIGHT = 0.5;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JobApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobApplicationArchiveRepository archiveRepository;
+
+    @Autowired
+    private SkillMatchingEngine skillMatchingEngine;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jobs.feed.cache-size:2000}")
+    private int cacheSize;
+
+    @Value("${app.jobs.feed.max-size:200}")
+    private int maxFeedSize;
+
+    /**
+     * What the index keeps per active job; the feed never goes back to the database for it
+     */
+    private record IndexedJob(Long id, String title, String department, String location, JobType jobType,
+                              LocalDateTime postedDate, LocalDateTime expiryDate,
+                              Set<String> required, Set<String> preferred) {
+
+        boolean isExpired(LocalDateTime now) {
+            return expiryDate != null && expiryDate.isBefore(now);
+        }
+    }
+
+    private record Feed(long generation, List<JobRecommendation> items) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedJob> jobs = new HashMap<>();
+    private final Map<String, Set<Long>> jobsBySkill = new HashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile boolean loaded;
+
+    private Map<Long, Feed> feeds;
+
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    void init() {
+        feeds = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Feed> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        cacheHits = feedCounter("hit");
+        cacheMisses = feedCounter("miss");
+    }
+
+    private Counter feedCounter(String cache) {
+        return Counter.builder(AppMetrics.JOB_FEED_REQUESTS)
+                .description("Job feed requests by cache outcome")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void reload() {
+        List<Job> activeJobs = jobRepository.findActiveJobs(LocalDateTime.now());
+        lock.writeLock().lock();
+        try {
+            jobs.clear();
+            jobsBySkill.clear();
+            activeJobs.forEach(job -> putLocked(snapshot(job)));
+            generation.incrementAndGet();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== FEED ====================
+
+    /**
+     * One page of the candidate's feed, best match first; jobs they already applied to are left out
+     */
+    @Transactional(readOnly = true)
+    public Page<JobRecommendation> getFeed(Long candidateId, int page, int size) {
+        if (!loaded) {
+            reload();
+        }
+
+        long currentGeneration = generation.get();
+        Feed feed = feeds.get(candidateId);
+        if (feed != null && feed.generation() == currentGeneration) {
+            cacheHits.increment();
+        } else {
+            cacheMisses.increment();
+            feed = new Feed(currentGeneration, buildFeed(candidateId));
+            feeds.put(candidateId, feed);
+        }
+
+        // Jobs can pass their expiry date while a feed is cached
+        List<JobRecommendation> items = feed.items().stream()
+                .filter(item -> !item.isExpired())
+                .toList();
+        int from = Math.min(page * size, items.size());
+        int to = Math.min(from + size, items.size());
+        return new PageImpl<>(items.subList(from, to), PageRequest.of(page, size), items.size());
+    }
+
+    private List<JobRecommendation> buildFeed(Long candidateId) {
+        User candidate = userRepository.findById(candidateId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long resumeId = resumeRepository.findCurrentResumeIds(candidateId).stream().findFirst().orElse(null);
+        String resumeText = storedTextService.get(StoredText.Kind.RESUME_TEXT, resumeId).orElse(null);
+        Set<Long> appliedJobIds = new HashSet<>(applicationRepository.findJobIdsByCandidateId(candidateId));
+        appliedJobIds.addAll(archiveRepository.findJobIdsByCandidateId(candidateId));
+        LocalDateTime now = LocalDateTime.now();
+
+        List<JobRecommendation> items = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> skills = candidateSkills(candidate, resumeText);
+
+            // Intersect: only jobs sharing at least one skill are ever scored
+            Map<Long, List<String>> matchedByJob = new HashMap<>();
+            for (String skill : skills) {
+                for (Long jobId : jobsBySkill.getOrDefault(skill, Set.of())) {
+                    if (!appliedJobIds.contains(jobId)) {
+                        matchedByJob.computeIfAbsent(jobId, id -> new ArrayList<>()).add(skill);
+                    }
+                }
+            }
+
+            for (Map.Entry<Long, List<String>> entry : matchedByJob.entrySet()) {
+                IndexedJob job = jobs.get(entry.getKey());
+                if (job.isExpired(now)) {
+                    continue;
+                }
+                items.add(new JobRecommendation(job.id(), job.title(), job.department(), job.location(),
+                        job.jobType(), job.postedDate(), job.expiryDate(),
+                        score(job, entry.getValue()), entry.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        items.sort(Comparator.comparing(JobRecommendation::getMatchScore).reversed()
+                .thenComparing(JobRecommendation::getPostedDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        return items.size() > maxFeedSize ? List.copyOf(items.subList(0, maxFeedSize)) : List.copyOf(items);
+    }
+
+    /**
+     * Weighted share of the job's skills the candidate has; preferred skills count half
+     */
+    private static double score(IndexedJob job, List<String> matched) {
+        double earned = 0;
+        for (String skill : matched) {
+            earned += job.required().contains(skill) ? 1 : PREFERRED_WEIGHT;
+        }
+        double possible = job.required().size() + PREFERRED_WEIGHT * job.preferred().size();
+        return Math.round(earned / possible * 1000) / 10.0;
+    }
+
+    /**
+     * Canonical skills from the profile, plus indexed skills that appear in the resume text
+     */
+    private Set<String> candidateSkills(User candidate, String resumeText) {
+        Set<String> skills = new LinkedHashSet<>();
+        for (String skill : skillMatchingEngine.splitSkills(candidate.getSkills())) {
+            skills.add(skillMatchingEngine.canonicalize(skill));
+        }
+
+        if (resumeText != null) {
+            String[] words = WORDS.split(resumeText.toLowerCase(Locale.ROOT));
+            for (int i = 0; i < words.length; i++) {
+                StringBuilder phrase = new StringBuilder();
+                for (int n = 0; n < MAX_SKILL_WORDS && i + n < words.length; n++) {
+                    String word = stripTrailingDots(words[i + n]);
+                    if (word.isEmpty()) {
+                        break;
+                    }
+                    if (n > 0) {
+                        phrase.append(' ');
+                    }
+                    phrase.append(word);
+                    String skill = skillMatchingEngine.canonicalize(phrase.toString());
+                    if (jobsBySkill.containsKey(skill)) {
+                        skills.add(skill);
+                    }
+                }
+            }
+        }
+        return skills;
+    }
+
+    private static String stripTrailingDots(String word) {
+        int end = word.length();
+        while (end > 0 && word.charAt(end - 1) == '.') end--;
+        return word.substring(0, end);
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Reflect a created, edited, closed or deleted job once the surrounding transaction commits
+     */
+    public void jobChanged(Job job) {
+        IndexedJob snapshot = snapshot(job);
+        boolean listed = job.isActive() && !job.isExpired();
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeLocked(snapshot.id());
+                if (listed) {
+                    putLocked(snapshot);
+                }
+                generation.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Drop a candidate's cached feed after their skills, resume or applications change
+     */
+    public void evictCandidate(Long candidateId) {
+        TransactionHooks.afterCommit(() -> feeds.remove(candidateId));
+    }
+
+    // ==================== INDEX ====================
+
+    private IndexedJob snapshot(Job job) {
+        Set<String> required = canonicalSkills(job.getRequiredSkills());
+        Set<String> preferred = canonicalSkills(job.getPreferredSkills());
+        preferred.removeAll(required);
+        return new IndexedJob(job.getId(), job.getTitle(), job.getDepartment(), job.getLocation(),
+                job.getJobType(), job.getPostedDate(), job.getExpiryDate(), required, preferred);
+    }
+
+    private Set<String> canonicalSkills(String skills) {
+        Set<String> canonical = new LinkedHashSet<>();
+        for (String skill : skillMatchingEngine.splitSkills(skills)) {
+            canonical.add(skillMatchingEngine.canonicalize(skill));
+        }
+        return canonical;
+    }
+
+    private void putLocked(IndexedJob job) {
+        jobs.put(job.id(), job);
+        job.required().forEach(skill -> jobsBySkill.computeIfAbsent(skill, s -> new HashSet<>()).add(job.id()));
+        job.preferred().forEach(skill -> jobsBySkill.computeIfAbsent(skill, s -> new HashSet<>()).add(job.id()));
+    }
+
+    private void removeLocked(Long jobId) {
+        IndexedJob job = jobs.remove(jobId);
+        if (job == null) {
+            return;
+        }
+        for (Set<String> skills : List.of(job.required(), job.preferred())) {
+            for (String skill : skills) {
+                Set<Long> postings = jobsBySkill.get(skill);
+                if (postings != null) {
+                    postings.remove(jobId);
+                    if (postings.isEmpty()) {
+                        jobsBySkill.remove(skill);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.JobApplicationCounts;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import com.cv.aiml_project.repository.JobRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read models for the job pages. Listings get their application counts from one grouped query
+ * instead of loading every job's applications.
+ */
+@Service
+@Transactional(readOnly = true)
+public class JobQueryService {
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobApplicationRepository applicationRepository;
+
+    /**
+     * A job with the user who posted it
+     */
+    public Optional<Job> getJob(Long jobId) {
+        Optional<Job> job = jobRepository.findById(jobId);
+        job.ifPresent(found -> Hibernate.initialize(found.getPostedBy()));
+        return job;
+    }
+
+    /**
+     * Application counts by job id, for every given job
+     */
+    public Map<Long, JobApplicationCounts> getApplicationCounts(List<Job> jobs) {
+        Map<Long, JobApplicationCounts> counts = new HashMap<>();
+        if (jobs.isEmpty()) {
+            return counts;
+        }
+        jobs.forEach(job -> counts.put(job.getId(), JobApplicationCounts.NONE));
+        for (Object[] row : applicationRepository.countByJobIds(counts.keySet())) {
+            counts.put((Long) row[0], new JobApplicationCounts(((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue()));
+        }
+        return counts;
+    }
+}
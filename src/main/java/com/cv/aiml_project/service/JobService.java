@@ -1,13 +1,11 @@
 package com.cv.aiml_project.service;
 
 import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
 import com.cv.aiml_project.repository.JobApplicationRepository;
 import com.cv.aiml_project.repository.JobRepository;
 import com.cv.aiml_project.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -15,17 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -37,14 +30,35 @@ public class JobService {
     @Autowired
     private JobApplicationRepository applicationRepository;
 
+    @Autowired
+    private JobApplicationArchiveRepository archiveRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private AIMatchingService aiMatchingService;
 
-    @Value("${file.upload-dir:./uploads}")
-    private String uploadDir;
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private MatchFeatureService matchFeatureService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private ApplicationEventService eventService;
+
+    @Autowired
+    private ApplicationService applicationService;
 
     // ==================== JOB CRUD OPERATIONS ====================
 
@@ -63,7 +77,11 @@ public class JobService {
         job.setPostedDate(LocalDateTime.now());
         job.setActive(true);
 
-        return jobRepository.save(job);
+        Job savedJob = jobRepository.save(job);
+        vectorIndexService.indexJob(savedJob);
+        jobFeedService.jobChanged(savedJob);
+        matchFeatureService.refreshJob(savedJob.getId());
+        return savedJob;
     }
 
     /**
@@ -113,6 +131,7 @@ public class JobService {
     /**
      * Search Jobs
      */
+    @Transactional(readOnly = true)
     public List<Job> searchJobs(String keyword) {
         return jobRepository.searchJobs(keyword);
     }
@@ -140,7 +159,11 @@ public class JobService {
         existingJob.setVacancies(updatedJob.getVacancies());
         existingJob.setActive(updatedJob.isActive());
 
-        return jobRepository.save(existingJob);
+        Job savedJob = jobRepository.save(existingJob);
+        vectorIndexService.indexJob(savedJob);
+        jobFeedService.jobChanged(savedJob);
+        matchFeatureService.refreshJob(savedJob.getId());
+        return savedJob;
     }
 
     /**
@@ -150,6 +173,7 @@ public class JobService {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found"));
         job.setActive(isActive);
+        jobFeedService.jobChanged(job);
         return jobRepository.save(job);
     }
 
@@ -169,22 +193,15 @@ public class JobService {
         // job.setDeleted(true);
         // job.setDeletedDate(LocalDateTime.now());
 
-        // You might also want to update all applications to show the job is no longer available
-        List<JobApplication> applications = applicationRepository.findByJob(job);
-        for (JobApplication app : applications) {
-            // Optionally add a note to applications
-            String existingNotes = app.getHrNotes();
-            String note = "[System] The job \"" + job.getTitle() + "\" has been removed by HR.";
-            app.setHrNotes(existingNotes != null ? existingNotes + "\n" + note : note);
-        }
+        // Tell every application the job is no longer available, as one batch of timeline inserts
+        List<Long> applicationIds = applicationRepository.findByJob(job).stream()
+                .map(JobApplication::getId)
+                .toList();
+        eventService.noteAll(applicationIds, "SYSTEM", "The job \"" + job.getTitle() + "\" has been removed by HR.");
 
         // Save the job (now inactive)
         jobRepository.save(job);
-
-        // Save any updated applications
-        if (!applications.isEmpty()) {
-            applicationRepository.saveAll(applications);
-        }
+        jobFeedService.jobChanged(job);
     }
 
     // ==================== JOB APPLICATION OPERATIONS ====================
@@ -200,7 +217,7 @@ public class JobService {
                 .orElseThrow(() -> new RuntimeException("Candidate not found"));
 
         // Check if already applied
-        if (applicationRepository.existsByJobAndCandidate(job, candidate)) {
+        if (hasCandidateApplied(job, candidate)) {
             throw new RuntimeException("You have already applied for this job");
         }
 
@@ -213,7 +230,7 @@ public class JobService {
         JobApplication application = new JobApplication(job, candidate);
 
         // Save resume for this specific application
-        String resumePath = saveResumeForApplication(resumeFile, jobId, candidateId);
+        String resumePath = storageService.store(resumeFile, "application");
         application.setResumePath(resumePath);
         application.setResumeOriginalName(resumeFile.getOriginalFilename());
         application.setResumeContentType(resumeFile.getContentType());
@@ -225,51 +242,16 @@ public class JobService {
             application.setHrNotes(notes);
         }
 
-        // Extract text from resume
-        String extractedText = extractTextFromPdf(resumeFile);
-        application.setResumeTextContent(extractedText);
-
         // Calculate AI match scores
-        calculateMatchScores(application, job, candidate, extractedText);
+        calculateMatchScores(application, job, candidate, null);
 
-        return applicationRepository.save(application);
-    }
+        jobFeedService.evictCandidate(candidateId);
+        JobApplication savedApplication = applicationRepository.save(application);
 
-    /**
-     * Save resume file for application
-     */
-    private String saveResumeForApplication(MultipartFile file, Long jobId, Long candidateId) throws IOException {
-        // Create directory structure: uploads/applications/job_{jobId}/
-        Path uploadPath = Paths.get(uploadDir, "applications", "job_" + jobId);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        // Resume text is filled in by the extraction pool once the application is committed
+        applicationService.extractResumeTextAfterCommit(savedApplication);
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFileName = "candidate_" + candidateId + "_" +
-                System.currentTimeMillis() + fileExtension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return filePath.toString();
-    }
-
-    /**
-     * Extract text from PDF using PDFBox
-     */
-    private String extractTextFromPdf(MultipartFile file) {
-        try {
-            // You'll need to add PDFBox dependency
-            // For now, return a placeholder with extracted info
-            return "Extracted text from resume: " + file.getOriginalFilename();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "Could not extract text from PDF";
-        }
+        return savedApplication;
     }
 
     /**
@@ -279,14 +261,12 @@ public class JobService {
         // Parse resume text to extract skills, experience, education
         // This is where your AI/ML model would integrate
 
-        // Use the existing AIMatchingService for now
-        Double matchScore = aiMatchingService.calculateJobMatchScore(job, candidate);
-        application.setMatchScore(matchScore);
-
-        Map<String, Double> componentScores = aiMatchingService.calculateComponentScores(job, candidate);
-        application.setSkillsMatchScore(componentScores.get("skills"));
-        application.setExperienceMatchScore(componentScores.get("experience"));
-        application.setEducationMatchScore(componentScores.get("education"));
+        // Overall and component scores from the active scoring model
+        MatchScorer.Score score = aiMatchingService.score(job, candidate);
+        application.setMatchScore(score.overall());
+        application.setSkillsMatchScore(score.components().get("skills"));
+        application.setExperienceMatchScore(score.components().get("experience"));
+        application.setEducationMatchScore(score.components().get("education"));
     }
 
     /**
@@ -343,7 +323,13 @@ public class JobService {
                 .orElseThrow(() -> new RuntimeException("Job not found"));
         User candidate = userRepository.findById(candidateId)
                 .orElseThrow(() -> new RuntimeException("Candidate not found"));
-        return applicationRepository.existsByJobAndCandidate(job, candidate);
+        return hasCandidateApplied(job, candidate);
+    }
+
+    // Applications moved to job_application_archive still count
+    private boolean hasCandidateApplied(Job job, User candidate) {
+        return applicationRepository.existsByJobAndCandidate(job, candidate)
+                || archiveRepository.existsByJobIdAndCandidateId(job.getId(), candidate.getId());
     }
 
     /**
@@ -353,10 +339,9 @@ public class JobService {
         JobApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
+        eventService.statusChanged(applicationId, application.getStatus(), status,
+                notes != null && !notes.trim().isEmpty() ? notes : null);
         application.setStatus(status);
-        if (notes != null && !notes.trim().isEmpty()) {
-            application.setHrNotes(notes);
-        }
 
         return applicationRepository.save(application);
     }
@@ -373,13 +358,7 @@ public class JobService {
         User candidate = application.getCandidate();
 
         // Recalculate scores
-        Double matchScore = aiMatchingService.calculateJobMatchScore(job, candidate);
-        application.setMatchScore(matchScore);
-
-        Map<String, Double> componentScores = aiMatchingService.calculateComponentScores(job, candidate);
-        application.setSkillsMatchScore(componentScores.get("skills"));
-        application.setExperienceMatchScore(componentScores.get("experience"));
-        application.setEducationMatchScore(componentScores.get("education"));
+        calculateMatchScores(application, job, candidate, null);
 
         return applicationRepository.save(application);
     }
@@ -420,38 +399,14 @@ public class JobService {
         JobApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found"));
 
-        // Delete resume file if exists
-        if (application.getResumePath() != null) {
-            try {
-                Files.deleteIfExists(Paths.get(application.getResumePath()));
-            } catch (IOException e) {
-                // Log error but continue
-                e.printStackTrace();
-            }
-        }
+        // Delete resume file once no other row shares its content
+        storageService.deleteAfterCommit(application.getResumePath());
+        storageService.evictApplication(applicationId);
+        storedTextService.delete(StoredText.Kind.APPLICATION_RESUME_TEXT, applicationId);
+        eventService.deleteForApplications(List.of(applicationId));
 
         applicationRepository.delete(application);
-    }
-
-    /**
-     * Get Application Resume File
-     */
-    public Resource getApplicationResumeFile(Long applicationId) throws MalformedURLException {
-        JobApplication application = applicationRepository.findById(applicationId)
-                .orElseThrow(() -> new RuntimeException("Application not found"));
-
-        if (application.getResumePath() == null) {
-            throw new RuntimeException("No resume found for this application");
-        }
-
-        Path filePath = Paths.get(application.getResumePath());
-        Resource resource = new UrlResource(filePath.toUri());
-
-        if (resource.exists() && resource.isReadable()) {
-            return resource;
-        } else {
-            throw new RuntimeException("Could not read the file!");
-        }
+        jobFeedService.evictCandidate(application.getCandidate().getId());
     }
 
     // ==================== STATISTICS ====================
@@ -459,6 +414,7 @@ public class JobService {
     /**
      * Get Job Statistics
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getJobStatistics() {
         Map<String, Object> stats = new HashMap<>();
 
@@ -476,6 +432,7 @@ public class JobService {
     /**
      * Get Application Statistics for a Job
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getApplicationStatsForJob(Long jobId) {
         Map<String, Object> stats = new HashMap<>();
 
@@ -502,6 +459,7 @@ public class JobService {
     /**
      * Get Recent Jobs
      */
+    @Transactional(readOnly = true)
     public Page<Job> getRecentJobs(int page, int size) {
         return jobRepository.findRecentJobs(PageRequest.of(page, size));
     }
@@ -514,6 +472,7 @@ public class JobService {
         List<Job> expiredJobs = jobRepository.findByExpiryDateBeforeAndIsActive(LocalDateTime.now(), true);
         for (Job job : expiredJobs) {
             job.setActive(false);
+            jobFeedService.jobChanged(job);
         }
         jobRepository.saveAll(expiredJobs);
         return expiredJobs.size();
@@ -551,12 +510,14 @@ public class JobService {
         }
 
         job.setExpiryDate(newExpiryDate);
+        jobFeedService.jobChanged(job);
         return jobRepository.save(job);
     }
 
     /**
      * Count Applications by Status for a Job
      */
+    @Transactional(readOnly = true)
     public Map<ApplicationStatus, Long> countApplicationsByStatus(Long jobId) {
         Map<ApplicationStatus, Long> counts = new HashMap<>();
 
@@ -572,9 +533,11 @@ public class JobService {
      * Get Applications with Resume Text
      */
     public List<JobApplication> getApplicationsWithResumeText(Long jobId) {
-        return applicationRepository.findByJobOrderByMatchScoreDesc(jobId)
-                .stream()
-                .filter(a -> a.getResumeTextContent() != null)
+        List<JobApplication> applications = applicationRepository.findByJobOrderByMatchScoreDesc(jobId);
+        Set<Long> withText = storedTextService.ownersWithText(StoredText.Kind.APPLICATION_RESUME_TEXT,
+                applications.stream().map(JobApplication::getId).toList());
+        return applications.stream()
+                .filter(a -> withText.contains(a.getId()))
                 .toList();
     }
 
@@ -601,10 +564,9 @@ public class JobService {
                 JobApplication app = applicationRepository.findById(id)
                         .orElseThrow(() -> new RuntimeException("Application not found: " + id));
 
+                eventService.statusChanged(id, app.getStatus(), status,
+                        notes != null && !notes.trim().isEmpty() ? notes : null);
                 app.setStatus(status);
-                if (notes != null && !notes.trim().isEmpty()) {
-                    app.setHrNotes(notes);
-                }
 
                 applicationRepository.save(app);
                 updated++;
@@ -620,6 +582,7 @@ public class JobService {
     /**
      * Get Application Timeline
      */
+    @Transactional(readOnly = true)
     public Map<String, Long> getApplicationTimeline(Long jobId, int days) {
         Map<String, Long> timeline = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
@@ -0,0 +1,101 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.LiveUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes row deltas for a job's applications and rankings to open HR views.
+ * Deltas published inside a transaction are only sent once it commits.
+ */
+@Service
+public class LiveUpdateService {
+
+    public enum Channel { APPLICATIONS, RANKINGS }
+
+    @Value("${app.live-updates.sse-timeout-ms:1800000}")
+    private long sseTimeoutMillis;
+
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Open an event stream for a job's applications or rankings
+     */
+    public SseEmitter subscribe(Channel channel, Long jobId) {
+        String key = key(channel, jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(() -> unsubscribe(key, emitter));
+        emitter.onError(e -> unsubscribe(key, emitter));
+
+        subscribers.compute(key, (k, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+
+        try {
+            // Flush headers so the browser knows the stream is open
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            unsubscribe(key, emitter);
+        }
+        return emitter;
+    }
+
+    /**
+     * Whether anyone is watching a job's channel, so callers can skip building deltas
+     */
+    public boolean hasSubscribers(Channel channel, Long jobId) {
+        return subscribers.containsKey(key(channel, jobId));
+    }
+
+    /**
+     * Publish deltas for a job, after the current transaction commits if there is one
+     */
+    public void publish(Channel channel, Long jobId, List<LiveUpdate> updates) {
+        if (updates.isEmpty() || !hasSubscribers(channel, jobId)) {
+            return;
+        }
+
+        TransactionHooks.afterCommit(() -> send(channel, jobId, updates));
+    }
+
+    public void publish(Channel channel, LiveUpdate update) {
+        publish(channel, update.getJobId(), List.of(update));
+    }
+
+    private void send(Channel channel, Long jobId, List<LiveUpdate> updates) {
+        String key = key(channel, jobId);
+        List<SseEmitter> emitters = subscribers.get(key);
+        if (emitters == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(updates));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(key, emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(String key, SseEmitter emitter) {
+        subscribers.computeIfPresent(key, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static String key(Channel channel, Long jobId) {
+        return channel + ":" + jobId;
+    }
+}
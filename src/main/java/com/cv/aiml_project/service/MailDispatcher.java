@@ -0,0 +1,50 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sends notification mails off the request thread.
+ * Messages are fully built by the caller, so no entity is touched here.
+ */
+@Service
+public class MailDispatcher {
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Send a mail message, timing it by notification type and outcome
+     */
+    @Async
+    public void send(String type, SimpleMailMessage message) {
+        if (mailSender == null) {
+            System.err.println("Mail sender not configured. Skipping " + type + " email.");
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = AppMetrics.OUTCOME_FAILURE;
+        try {
+            mailSender.send(message);
+            outcome = AppMetrics.OUTCOME_SUCCESS;
+        } catch (Exception e) {
+            System.err.println("Failed to send " + type + " email: " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder(AppMetrics.MAIL_SEND)
+                    .description("Notification mails sent to candidates")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
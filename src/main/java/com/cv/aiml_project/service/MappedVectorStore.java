@@ -0,0 +1,176 @@
+package com.cv.aiml_project.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fixed-width vector records in a memory-mapped file, so vectors live off-heap and survive restarts.
+ * <pre>
+ * header (64 bytes): magic, dimension, slot count, embedder name
+ * record:            key (long), owner (long), live flag (int), dimension x float
+ * </pre>
+ * Not thread-safe for writes; {@link IvfVectorIndex} serialises access.
+ */
+final class MappedVectorStore implements Closeable {
+
+    private static final int MAGIC = 0x56454331; // "VEC1"
+    private static final int HEADER_BYTES = 64;
+    private static final int NAME_OFFSET = 16;
+    private static final int MAX_NAME_BYTES = HEADER_BYTES - NAME_OFFSET;
+    private static final int VECTOR_OFFSET = 20;
+
+    private final Path path;
+    private final int dimension;
+    private final int recordBytes;
+    private final FileChannel channel;
+
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int slotCount;
+
+    MappedVectorStore(Path path, String embedderName, int dimension, int initialCapacity) throws IOException {
+        this.path = path;
+        this.dimension = dimension;
+        this.recordBytes = VECTOR_OFFSET + 4 * dimension;
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        byte[] name = embedderName.getBytes(StandardCharsets.UTF_8);
+        name = Arrays.copyOf(name, Math.min(name.length, MAX_NAME_BYTES));
+
+        long existingSlots = (channel.size() - HEADER_BYTES) / recordBytes;
+        map(Math.max(initialCapacity, (int) Math.max(0, existingSlots)));
+
+        if (!isCompatible(name)) {
+            // New file, or written by a different embedder: start empty
+            channel.truncate(0);
+            map(initialCapacity);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, dimension);
+            buffer.putInt(8, 0);
+            buffer.putInt(12, name.length);
+            buffer.put(NAME_OFFSET, name);
+        }
+        this.slotCount = buffer.getInt(8);
+    }
+
+    private boolean isCompatible(byte[] name) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != dimension || buffer.getInt(12) != name.length) {
+            return false;
+        }
+        byte[] stored = new byte[name.length];
+        buffer.get(NAME_OFFSET, stored);
+        return Arrays.equals(stored, name);
+    }
+
+    private void map(int slots) throws IOException {
+        long bytes = HEADER_BYTES + (long) slots * recordBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Vector store " + path + " cannot grow beyond " + capacity + " vectors");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        capacity = slots;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Number of slots ever written, live or deleted
+     */
+    int slotCount() {
+        return slotCount;
+    }
+
+    /**
+     * Write a vector to a new slot at the end of the file
+     */
+    int append(long key, long owner, float[] vector) throws IOException {
+        if (slotCount == capacity) {
+            map(Math.max(16, capacity * 2));
+        }
+        int slot = slotCount++;
+        write(slot, key, owner, vector);
+        buffer.putInt(8, slotCount);
+        return slot;
+    }
+
+    void write(int slot, long key, long owner, float[] vector) {
+        int offset = offset(slot);
+        buffer.putLong(offset, key);
+        buffer.putLong(offset + 8, owner);
+        buffer.putInt(offset + 16, 1);
+        for (int i = 0; i < dimension; i++) {
+            buffer.putFloat(offset + VECTOR_OFFSET + 4 * i, vector[i]);
+        }
+    }
+
+    void delete(int slot) {
+        buffer.putInt(offset(slot) + 16, 0);
+    }
+
+    boolean isLive(int slot) {
+        return buffer.getInt(offset(slot) + 16) == 1;
+    }
+
+    long key(int slot) {
+        return buffer.getLong(offset(slot));
+    }
+
+    long owner(int slot) {
+        return buffer.getLong(offset(slot) + 8);
+    }
+
+    float[] read(int slot) {
+        float[] vector = new float[dimension];
+        int offset = offset(slot) + VECTOR_OFFSET;
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = buffer.getFloat(offset + 4 * i);
+        }
+        return vector;
+    }
+
+    /**
+     * Dot product with a query, read straight from the mapped file
+     */
+    float dot(int slot, float[] query) {
+        int offset = offset(slot) + VECTOR_OFFSET;
+        float sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += buffer.getFloat(offset + 4 * i) * query[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Drop every record
+     */
+    void clear() {
+        slotCount = 0;
+        buffer.putInt(8, 0);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private int offset(int slot) {
+        return HEADER_BYTES + slot * recordBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
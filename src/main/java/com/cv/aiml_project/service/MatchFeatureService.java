@@ -0,0 +1,640 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.*;
+import com.cv.aiml_project.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses jobs and candidates into compact feature records (skill ids, years of experience,
+ * education level, certification ids) so scorers work on primitives instead of re-parsing text.
+ * Records are persisted with a hash of their inputs, rebuilt after the job, profile or current
+ * resume changes, and cached in memory. Resume text is matched against the skills known at the
+ * time; when new skills enter the dictionary, stored resume texts are scanned for just those
+ * skills and only the records that mention one are updated.
+ * Records are written in the caller's transaction. Read-only callers get a record built in memory
+ * and the stored one is written afterwards by a background thread, which never holds a second
+ * connection on the caller's behalf.
+ */
+@Service
+public class MatchFeatureService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchFeatureService.class);
+
+    private static final Pattern WORDS = Pattern.compile("[^a-z0-9+#.]+");
+    private static final Pattern CERTIFICATION_SEPARATORS = Pattern.compile("[^a-z0-9+#-]+");
+    private static final Pattern YEARS_MENTIONED = Pattern.compile("(\\d{1,2})\\s*\\+?\\s*(?:years?|yrs?)\\b");
+    private static final Pattern EXPERIENCE_RANGE = Pattern.compile("(\\d{1,2})\\s*(?:-|–|to)\\s*(\\d{1,2})");
+    private static final Pattern EXPERIENCE_MIN = Pattern.compile("(\\d{1,2})\\s*\\+");
+    private static final Pattern EXPERIENCE_EXACT = Pattern.compile("(\\d{1,2})");
+
+    // Longest skill phrase looked up when scanning resume text
+    private static final int MAX_SKILL_WORDS = 3;
+    private static final int MAX_PLAUSIBLE_YEARS = 45;
+
+    @Autowired
+    private FeatureTermRepository featureTermRepository;
+
+    @Autowired
+    private JobFeaturesRepository jobFeaturesRepository;
+
+    @Autowired
+    private CandidateFeaturesRepository candidateFeaturesRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private SkillMatchingEngine skillMatchingEngine;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.features.certifications-file:classpath:certifications.txt}")
+    private Resource certificationsFile;
+
+    @Value("${app.features.cache-size:5000}")
+    private int cacheSize;
+
+    // Candidate records read per transaction when scanning resume texts for new skills
+    @Value("${app.features.scan-batch-size:200}")
+    private int scanBatchSize;
+
+    @Value("${app.features.rebuild-queue-capacity:1000}")
+    private int rebuildQueueCapacity;
+
+    // Used on the rebuild thread only, which never runs inside a caller's transaction
+    private TransactionTemplate transaction;
+    private ThreadPoolExecutor rebuilder;
+
+    // Rebuilds queued and not yet started, so repeated misses queue one rebuild
+    private final Set<String> pendingRebuilds = ConcurrentHashMap.newKeySet();
+
+    // Term dictionary: canonical name -> id per kind, and id -> name
+    private final Map<FeatureTerm.Kind, Map<String, Integer>> termIds = new EnumMap<>(FeatureTerm.Kind.class);
+    private final Map<Integer, String> termNames = new ConcurrentHashMap<>();
+    private volatile boolean termsLoaded;
+
+    // Highest skill term id in the in-memory dictionary
+    private final AtomicInteger maxSkillId = new AtomicInteger();
+
+    // Normalised certification alias -> canonical name
+    private final Map<String, String> certificationAliases = new LinkedHashMap<>();
+
+    // Cached records remember the entity version they were checked against: an edit made
+    // elsewhere (another instance, or before this one's refresh ran) shows up as a new version
+    private record Versioned<T>(long version, T features) {
+    }
+
+    private Map<Long, Versioned<JobFeatures>> jobCache;
+    private Map<Long, Versioned<CandidateFeatures>> candidateCache;
+
+    @PostConstruct
+    void init() throws IOException {
+        transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        rebuilder = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(rebuildQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "feature-rebuild-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        for (FeatureTerm.Kind kind : FeatureTerm.Kind.values()) {
+            termIds.put(kind, new ConcurrentHashMap<>());
+        }
+        if (certificationsFile.exists()) {
+            loadCertifications();
+        }
+        jobCache = lruCache();
+        candidateCache = lruCache();
+    }
+
+    /**
+     * Catch up on skills added while no instance was running, or whose scan was cut short
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scanOnStartup() {
+        scanLater();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private <V> Map<Long, V> lruCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    private void loadCertifications() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(certificationsFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int colon = line.indexOf(':');
+                if (line.isEmpty() || line.startsWith("#") || colon < 0) {
+                    continue;
+                }
+                String canonical = normalizeCertification(line.substring(0, colon));
+                certificationAliases.put(canonical, canonical);
+                for (String alias : line.substring(colon + 1).split(",")) {
+                    String normalized = normalizeCertification(alias);
+                    if (!normalized.isEmpty()) {
+                        certificationAliases.put(normalized, canonical);
+                    }
+                }
+            }
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * Parsed requirements for a job, built on first use and again when the job's match version moves
+     */
+    public JobFeatures getJobFeatures(Job job) {
+        Versioned<JobFeatures> cached = jobCache.get(job.getId());
+        if (cached != null && cached.version() == job.getMatchVersion()) {
+            return cached.features();
+        }
+        long hash = jobHash(job);
+        JobFeatures existing = jobFeaturesRepository.findByJobId(job.getId()).orElse(null);
+        if (existing != null && existing.getSourceHash() == hash) {
+            remember(jobCache, job.getId(), job.getMatchVersion(), existing);
+            return existing;
+        }
+        if (!canWrite()) {
+            rebuildLater("job:" + job.getId(), () -> jobRepository.findById(job.getId()).ifPresent(this::getJobFeatures));
+            return buildJobFeatures(job, hash, new JobFeatures(), false);
+        }
+        JobFeatures features = buildJobFeatures(job, hash, existing != null ? existing : new JobFeatures(), true);
+        remember(jobCache, job.getId(), job.getMatchVersion(), features);
+        return features;
+    }
+
+    /**
+     * Parsed profile and current resume for a candidate, built on first use and again when the
+     * candidate's profile version moves
+     */
+    public CandidateFeatures getCandidateFeatures(User candidate) {
+        Versioned<CandidateFeatures> cached = candidateCache.get(candidate.getId());
+        if (cached != null && cached.version() == candidate.getProfileVersion()) {
+            return cached.features();
+        }
+        Resume resume = resumeRepository.findCurrentResumeByUserId(candidate.getId()).orElse(null);
+        Long textFingerprint = resume != null
+                ? storedTextService.fingerprint(StoredText.Kind.RESUME_TEXT, resume.getId()).orElse(null)
+                : null;
+        long hash = candidateHash(candidate, resume, textFingerprint);
+        CandidateFeatures existing = candidateFeaturesRepository.findByCandidateId(candidate.getId()).orElse(null);
+        if (existing != null && existing.getSourceHash() == hash) {
+            remember(candidateCache, candidate.getId(), candidate.getProfileVersion(), existing);
+            return existing;
+        }
+        if (!canWrite()) {
+            rebuildLater("candidate:" + candidate.getId(), () -> userRepository.findById(candidate.getId())
+                    .filter(User::isCandidate)
+                    .ifPresent(this::getCandidateFeatures));
+            return buildCandidateFeatures(candidate, resume, hash, new CandidateFeatures(), false);
+        }
+        CandidateFeatures features = buildCandidateFeatures(candidate, resume, hash,
+                existing != null ? existing : new CandidateFeatures(), true);
+        remember(candidateCache, candidate.getId(), candidate.getProfileVersion(), features);
+        return features;
+    }
+
+    /**
+     * Display names for skill or certification ids
+     */
+    public List<String> termNames(int[] ids) {
+        ensureTermsLoaded();
+        List<String> names = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            String name = termNames.get(id);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Rebuild a job's features once the surrounding transaction commits
+     */
+    public void refreshJob(Long jobId) {
+        TransactionHooks.afterCommit(() -> {
+            jobCache.remove(jobId);
+            rebuildLater("job:" + jobId, () -> jobRepository.findById(jobId).ifPresent(this::getJobFeatures));
+        });
+    }
+
+    /**
+     * Rebuild a candidate's features once the surrounding transaction commits
+     */
+    public void refreshCandidate(Long candidateId) {
+        TransactionHooks.afterCommit(() -> {
+            candidateCache.remove(candidateId);
+            rebuildLater("candidate:" + candidateId, () -> userRepository.findById(candidateId)
+                    .filter(User::isCandidate)
+                    .ifPresent(this::getCandidateFeatures));
+        });
+    }
+
+    public void deleteCandidate(Long candidateId) {
+        candidateFeaturesRepository.deleteByCandidateId(candidateId);
+        TransactionHooks.afterCommit(() -> candidateCache.remove(candidateId));
+    }
+
+    // A record built in this transaction is only cached once it is committed
+    private <T> void remember(Map<Long, Versioned<T>> cache, Long id, long version, T features) {
+        TransactionHooks.afterCommit(() -> cache.put(id, new Versioned<>(version, features)));
+    }
+
+    private static boolean canWrite() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Run work on the rebuild thread in its own transaction; dropped when the queue is full,
+     * the next lookup queues it again
+     */
+    private void rebuildLater(String key, Runnable work) {
+        if (!pendingRebuilds.add(key)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                pendingRebuilds.remove(key);
+                try {
+                    transaction.executeWithoutResult(status -> work.run());
+                } catch (RuntimeException e) {
+                    log.warn("Rebuilding feature record {} failed", key, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRebuilds.remove(key);
+            log.debug("Feature rebuild queue full, skipped {}", key);
+        }
+    }
+
+    // ==================== SKILL SCAN ====================
+
+    private void scanLater() {
+        if (!pendingRebuilds.add("skill-scan")) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                pendingRebuilds.remove("skill-scan");
+                try {
+                    scanResumesForNewSkills();
+                } catch (RuntimeException e) {
+                    log.warn("Scanning resumes for new skills failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRebuilds.remove("skill-scan");
+            log.debug("Feature rebuild queue full, skipped the skill scan");
+        }
+    }
+
+    /**
+     * Match the resume text behind every record that was parsed before the newest skills against
+     * those skills only, one batch per transaction. Records that gain a skill are saved and their
+     * candidate's profile version moves, so cached copies here and on other instances are dropped;
+     * the rest only note how far they were scanned.
+     */
+    void scanResumesForNewSkills() {
+        ensureTermsLoaded();
+        long afterId = 0;
+        while (true) {
+            int through = maxSkillId.get();
+            long from = afterId;
+            List<CandidateFeatures> batch = transaction.execute(status -> scanBatch(from, through));
+            if (batch.isEmpty()) {
+                return;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    private List<CandidateFeatures> scanBatch(long afterId, int through) {
+        List<CandidateFeatures> records = candidateFeaturesRepository.findScannedBefore(through, afterId,
+                PageRequest.of(0, scanBatchSize));
+        Map<Long, String> texts = storedTextService.getAll(StoredText.Kind.RESUME_TEXT,
+                records.stream().map(CandidateFeatures::getResumeId).toList());
+
+        List<Long> changed = new ArrayList<>();
+        for (CandidateFeatures record : records) {
+            SortedSet<Integer> skills = new TreeSet<>();
+            for (int id : record.getSkillIds()) {
+                skills.add(id);
+            }
+            if (skills.addAll(knownSkillIdsIn(texts.get(record.getResumeId()), record.getSkillScan()))) {
+                record.setSkillIds(toArray(skills));
+                record.setComputedAt(LocalDateTime.now());
+                changed.add(record.getCandidateId());
+            }
+            record.setSkillScan(through);
+        }
+        if (!changed.isEmpty()) {
+            userRepository.incrementProfileVersions(changed);
+            TransactionHooks.afterCommit(() -> changed.forEach(candidateCache::remove));
+        }
+        return records;
+    }
+
+    // ==================== PARSING ====================
+
+    /**
+     * Parse into the given record; when it is not stored, terms the dictionary does not know yet
+     * get a placeholder id instead of being inserted
+     */
+    private JobFeatures buildJobFeatures(Job job, long hash, JobFeatures features, boolean store) {
+        features.setJobId(job.getId());
+        features.setSourceHash(hash);
+
+        SortedSet<Integer> required = skillIds(job.getRequiredSkills(), store);
+        SortedSet<Integer> preferred = skillIds(job.getPreferredSkills(), store);
+        preferred.removeAll(required);
+        features.setRequiredSkillIds(toArray(required));
+        features.setPreferredSkillIds(toArray(preferred));
+
+        int[] experience = parseExperienceRequirement(job.getExperienceRequired());
+        features.setMinExperience(experience != null ? experience[0] : null);
+        features.setMaxExperience(experience != null ? experience[1] : null);
+
+        Set<EducationLevel> levels = EducationLevel.mentionedIn(job.getEducationRequirement());
+        features.setEducationLevel(levels.isEmpty() ? null : Collections.min(levels));
+
+        features.setCertificationIds(toArray(certificationIds(String.join("\n",
+                Objects.toString(job.getDescription(), ""),
+                Objects.toString(job.getRequiredSkills(), ""),
+                Objects.toString(job.getPreferredSkills(), ""),
+                Objects.toString(job.getEducationRequirement(), "")), store)));
+        features.setComputedAt(LocalDateTime.now());
+        return store ? jobFeaturesRepository.save(features) : features;
+    }
+
+    private CandidateFeatures buildCandidateFeatures(User candidate, Resume resume, long hash,
+                                                     CandidateFeatures features, boolean store) {
+        features.setCandidateId(candidate.getId());
+        features.setResumeId(resume != null ? resume.getId() : null);
+        features.setSourceHash(hash);
+
+        String resumeText = resume != null
+                ? storedTextService.get(StoredText.Kind.RESUME_TEXT, resume.getId()).orElse(null)
+                : null;
+
+        // Terms added while the text is matched are picked up again by the next skill scan
+        syncSkillDictionary();
+        int through = maxSkillId.get();
+        SortedSet<Integer> skills = skillIds(candidate.getSkills(), store);
+        skills.addAll(knownSkillIdsIn(resumeText, 0));
+        features.setSkillIds(toArray(skills));
+        features.setSkillScan(through);
+
+        features.setExperienceYears(candidate.getExperienceYears() != null
+                ? candidate.getExperienceYears() : yearsMentioned(resumeText));
+
+        Set<EducationLevel> levels = EducationLevel.mentionedIn(candidate.getEducation());
+        levels.addAll(EducationLevel.mentionedIn(resumeText));
+        features.setEducationLevel(levels.isEmpty() ? null : Collections.max(levels));
+
+        features.setCertificationIds(toArray(certificationIds(resumeText, store)));
+        features.setComputedAt(LocalDateTime.now());
+        return store ? candidateFeaturesRepository.save(features) : features;
+    }
+
+    /**
+     * "3-5 years" = [3, 5], "2+ years" = [2, 20], "5 years" = [5, 7]; null when nothing is required
+     */
+    static int[] parseExperienceRequirement(String requirement) {
+        if (requirement == null || requirement.isBlank()) {
+            return null;
+        }
+        String text = requirement.toLowerCase(Locale.ROOT);
+        Matcher range = EXPERIENCE_RANGE.matcher(text);
+        if (range.find()) {
+            return new int[]{Integer.parseInt(range.group(1)), Integer.parseInt(range.group(2))};
+        }
+        Matcher atLeast = EXPERIENCE_MIN.matcher(text);
+        if (atLeast.find()) {
+            return new int[]{Integer.parseInt(atLeast.group(1)), 20};
+        }
+        Matcher exact = EXPERIENCE_EXACT.matcher(text);
+        if (exact.find()) {
+            int years = Integer.parseInt(exact.group(1));
+            return new int[]{years, years + 2};
+        }
+        // Stated but unparseable, e.g. "Entry level"
+        return new int[]{0, 10};
+    }
+
+    private static Integer yearsMentioned(String text) {
+        if (text == null) {
+            return null;
+        }
+        Integer max = null;
+        Matcher matcher = YEARS_MENTIONED.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            int years = Integer.parseInt(matcher.group(1));
+            if (years <= MAX_PLAUSIBLE_YEARS && (max == null || years > max)) {
+                max = years;
+            }
+        }
+        return max;
+    }
+
+    private SortedSet<Integer> skillIds(String skills, boolean store) {
+        SortedSet<Integer> ids = new TreeSet<>();
+        for (String skill : skillMatchingEngine.splitSkills(skills)) {
+            ids.add(termId(FeatureTerm.Kind.SKILL, skillMatchingEngine.canonicalize(skill), store));
+        }
+        return ids;
+    }
+
+    /**
+     * Ids above {@code newerThan} of already known skills (up to three words) that appear in free text
+     */
+    private Set<Integer> knownSkillIdsIn(String text, int newerThan) {
+        Set<Integer> ids = new HashSet<>();
+        if (text == null || text.isBlank()) {
+            return ids;
+        }
+        ensureTermsLoaded();
+        Map<String, Integer> known = termIds.get(FeatureTerm.Kind.SKILL);
+        String[] words = WORDS.split(text.toLowerCase(Locale.ROOT));
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder phrase = new StringBuilder();
+            for (int n = 0; n < MAX_SKILL_WORDS && i + n < words.length; n++) {
+                String word = stripTrailingDots(words[i + n]);
+                if (word.isEmpty()) {
+                    break;
+                }
+                if (n > 0) {
+                    phrase.append(' ');
+                }
+                phrase.append(word);
+                Integer id = known.get(skillMatchingEngine.canonicalize(phrase.toString()));
+                if (id != null && id > newerThan) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private SortedSet<Integer> certificationIds(String text, boolean store) {
+        SortedSet<Integer> ids = new TreeSet<>();
+        if (text == null || text.isBlank()) {
+            return ids;
+        }
+        String normalized = " " + normalizeCertification(text) + " ";
+        for (Map.Entry<String, String> alias : certificationAliases.entrySet()) {
+            if (normalized.contains(" " + alias.getKey() + " ")) {
+                ids.add(termId(FeatureTerm.Kind.CERTIFICATION, alias.getValue(), store));
+            }
+        }
+        return ids;
+    }
+
+    private static String normalizeCertification(String text) {
+        return CERTIFICATION_SEPARATORS.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String stripTrailingDots(String word) {
+        int end = word.length();
+        while (end > 0 && word.charAt(end - 1) == '.') end--;
+        return word.substring(0, end);
+    }
+
+    // ==================== TERM DICTIONARY ====================
+
+    private int termId(FeatureTerm.Kind kind, String name, boolean store) {
+        ensureTermsLoaded();
+        Integer id = termIds.get(kind).get(name);
+        if (id != null) {
+            return id;
+        }
+        // Stable per name, so an unsaved job and candidate record still agree on it
+        return store ? createTerm(kind, name) : -1 - (name.hashCode() & Integer.MAX_VALUE);
+    }
+
+    /**
+     * Insert a term in the caller's transaction; no lock is held, the unique key settles
+     * concurrent inserts. The id only enters the in-memory dictionary once that transaction has
+     * committed, so a rolled-back record never leaves a dangling id behind. A new skill starts a
+     * scan of the stored resume texts for it.
+     */
+    private int createTerm(FeatureTerm.Kind kind, String name) {
+        featureTermRepository.insertIfAbsent(kind.name(), name);
+        FeatureTerm term = featureTermRepository.findCurrent(kind, name)
+                .orElseThrow(() -> new IllegalStateException("Feature term not stored: " + name));
+        TransactionHooks.afterCommit(() -> {
+            register(term);
+            if (kind == FeatureTerm.Kind.SKILL) {
+                scanLater();
+            }
+        });
+        return term.getId();
+    }
+
+    private void ensureTermsLoaded() {
+        if (termsLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!termsLoaded) {
+                for (FeatureTerm term : featureTermRepository.findAll()) {
+                    register(term);
+                }
+                termsLoaded = true;
+            }
+        }
+    }
+
+    /**
+     * Reload the skills when terms were added since the last load, here or on another instance,
+     * so a record is matched against all of them before it is marked as scanned
+     */
+    private void syncSkillDictionary() {
+        ensureTermsLoaded();
+        if (featureTermRepository.countByKind(FeatureTerm.Kind.SKILL) != termIds.get(FeatureTerm.Kind.SKILL).size()) {
+            featureTermRepository.findByKind(FeatureTerm.Kind.SKILL).forEach(this::register);
+        }
+    }
+
+    private void register(FeatureTerm term) {
+        termIds.get(term.getKind()).put(term.getName(), term.getId());
+        termNames.put(term.getId(), term.getName());
+        if (term.getKind() == FeatureTerm.Kind.SKILL) {
+            maxSkillId.accumulateAndGet(term.getId(), Math::max);
+        }
+    }
+
+    // ==================== HASHING ====================
+
+    private static long jobHash(Job job) {
+        return Fingerprint.of(job.getRequiredSkills(), job.getPreferredSkills(), job.getExperienceRequired(),
+                job.getEducationRequirement(), job.getDescription());
+    }
+
+    // The resume text enters through its stored fingerprint, so checking never reads the text
+    static long candidateHash(User candidate, Resume resume, Long textFingerprint) {
+        return Fingerprint.of(candidate.getSkills(), Objects.toString(candidate.getExperienceYears(), null),
+                candidate.getEducation(),
+                resume != null ? String.valueOf(resume.getId()) : null,
+                Objects.toString(textFingerprint, null));
+    }
+
+    private static int[] toArray(Collection<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
@@ -0,0 +1,167 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.repository.CandidateRankingHistoryRepository;
+import com.cv.aiml_project.repository.CandidateRankingRepository;
+import com.cv.aiml_project.repository.SkillMatchResultHistoryRepository;
+import com.cv.aiml_project.repository.SkillMatchResultRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keeps candidate_rankings and skill_match_results down to the rows in use.
+ * Every recalculation leaves the previous rows behind flagged not-current / not-latest; the
+ * compactor moves them in batches to the append-only history tables (copy and delete in one
+ * transaction per batch), then drops history older than the retention period.
+ * Rankings go first, so match results they referenced become free to move on the same pass.
+ */
+@Service
+public class MatchHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchHistoryService.class);
+
+    @Autowired
+    private CandidateRankingRepository rankingRepository;
+
+    @Autowired
+    private SkillMatchResultRepository skillMatchResultRepository;
+
+    @Autowired
+    private CandidateRankingHistoryRepository rankingHistoryRepository;
+
+    @Autowired
+    private SkillMatchResultHistoryRepository resultHistoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.history.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.history.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound per run so one pass never holds the scheduler for long; the next run continues
+    @Value("${app.history.max-batches:200}")
+    private int maxBatches;
+
+    // Days archived rows are kept; 0 keeps them forever
+    @Value("${app.history.retention-days:365}")
+    private int retentionDays;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== COMPACTION ====================
+
+    @Scheduled(initialDelayString = "${app.history.initial-delay-ms:60000}",
+            fixedDelayString = "${app.history.interval-ms:900000}")
+    public void scheduledCompaction() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (Exception e) {
+            log.warn("History compaction failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move superseded rankings and match results to history and apply retention
+     */
+    public void compact() {
+        int rankings = moveBatches("candidate_rankings",
+                page -> rankingRepository.findSupersededIds(page),
+                ids -> {
+                    rankingHistoryRepository.archive(ids, LocalDateTime.now());
+                    rankingRepository.deleteAllByIdInBatch(ids);
+                });
+        int results = moveBatches("skill_match_results",
+                page -> skillMatchResultRepository.findSupersededIds(page),
+                ids -> {
+                    resultHistoryRepository.archive(ids, LocalDateTime.now());
+                    skillMatchResultRepository.deleteAllByIdInBatch(ids);
+                });
+        int purged = purgeExpired();
+        if (rankings + results + purged > 0) {
+            log.info("History compaction: archived {} rankings and {} match results, purged {} expired rows",
+                    rankings, results, purged);
+        }
+    }
+
+    private int moveBatches(String table, Function<PageRequest, List<Long>> superseded,
+                            Consumer<List<Long>> move) {
+        int moved = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = transaction.execute(status -> {
+                List<Long> ids = superseded.apply(PageRequest.of(0, batchSize));
+                if (!ids.isEmpty()) {
+                    move.accept(ids);
+                }
+                return ids.size();
+            });
+            moved += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            counter(AppMetrics.HISTORY_ARCHIVED, table).increment(moved);
+        }
+        return moved;
+    }
+
+    private int purgeExpired() {
+        if (retentionDays <= 0) {
+            return 0;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int rankings = transaction.execute(status -> rankingHistoryRepository.deleteArchivedBefore(cutoff));
+        int results = transaction.execute(status -> resultHistoryRepository.deleteArchivedBefore(cutoff));
+        counter(AppMetrics.HISTORY_PURGED, "candidate_ranking_history").increment(rankings);
+        counter(AppMetrics.HISTORY_PURGED, "skill_match_result_history").increment(results);
+        return rankings + results;
+    }
+
+    private Counter counter(String name, String table) {
+        return Counter.builder(name)
+                .description("Rows moved or removed by history compaction")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    // ==================== DELETE OPERATIONS ====================
+
+    /**
+     * Drop a candidate's archived rankings and match results along with their live rows
+     */
+    @Transactional
+    public void deleteCandidate(Long candidateId) {
+        rankingHistoryRepository.deleteByCandidateId(candidateId);
+        resultHistoryRepository.deleteByCandidateId(candidateId);
+    }
+}
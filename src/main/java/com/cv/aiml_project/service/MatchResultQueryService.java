@@ -0,0 +1,64 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.MatchResultView;
+import com.cv.aiml_project.entity.SkillMatchResult;
+import com.cv.aiml_project.repository.SkillMatchResultRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read models for the skill match pages: results with the candidates or jobs the page lists
+ */
+@Service
+@Transactional(readOnly = true)
+public class MatchResultQueryService {
+
+    @Autowired
+    private SkillMatchResultRepository skillMatchResultRepository;
+
+    @Autowired
+    private SkillMatchResultService skillMatchResultService;
+
+    /**
+     * A job's latest results, best first, with candidates
+     */
+    public List<SkillMatchResult> getLatestResultsForJob(Long jobId) {
+        List<SkillMatchResult> results = skillMatchResultService.getLatestMatchResultsForJob(jobId);
+        results.forEach(result -> Hibernate.initialize(result.getCandidate()));
+        return results;
+    }
+
+    /**
+     * A candidate's results, newest first, with jobs
+     */
+    public List<SkillMatchResult> getResultsForCandidate(Long candidateId) {
+        List<SkillMatchResult> results = skillMatchResultService.getMatchResultsForCandidate(candidateId);
+        results.forEach(result -> Hibernate.initialize(result.getJob()));
+        return results;
+    }
+
+    public Optional<MatchResultView> getResult(Long resultId) {
+        return skillMatchResultRepository.findWithJobAndCandidateById(resultId).map(this::toView);
+    }
+
+    /**
+     * The latest result for a job and candidate
+     */
+    public Optional<MatchResultView> getResult(Long jobId, Long candidateId) {
+        return skillMatchResultService.getLatestMatchForJobAndCandidate(jobId, candidateId).map(result -> {
+            Hibernate.initialize(result.getJob());
+            Hibernate.initialize(result.getCandidate());
+            return toView(result);
+        });
+    }
+
+    private MatchResultView toView(SkillMatchResult result) {
+        return new MatchResultView(result, result.getJob(), result.getCandidate(),
+                skillMatchResultService.getRawExtractedData(result.getId()).orElse(null));
+    }
+}
@@ -0,0 +1,40 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobFeatures;
+import com.cv.aiml_project.entity.User;
+
+import java.util.Map;
+
+/**
+ * A versioned way of scoring a candidate against a job.
+ * Scorers are registered with {@link MatchScorerRegistry}; the active one serves every
+ * scoring call, and another one can score the same inputs in shadow for comparison.
+ */
+public interface MatchScorer {
+
+    /**
+     * Unique version, stamped on every result it produces (e.g. "heuristic-1.0.0")
+     */
+    String getVersion();
+
+    /**
+     * Score one candidate against one job. Must be thread-safe: shadow scoring calls it
+     * from a background thread.
+     */
+    Score score(Input input);
+
+    /**
+     * What a scorer gets: the entities plus their parsed feature records
+     */
+    record Input(Job job, User candidate, JobFeatures jobFeatures, CandidateFeatures candidateFeatures) {
+    }
+
+    /**
+     * Overall 0-100 score, the "skills", "experience" and "education" component scores,
+     * and the version of the scorer that produced them
+     */
+    record Score(String version, double overall, Map<String, Double> components) {
+    }
+}
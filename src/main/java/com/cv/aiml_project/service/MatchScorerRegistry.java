@@ -0,0 +1,291 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds every known {@link MatchScorer} by version and decides which one scores.
+ * The active scorer is swapped atomically: a scoring call picks it up once, so its overall
+ * score, components and version always come from the same model. An optional shadow scorer
+ * re-scores the same inputs on a small background pool; its latency and its difference from
+ * the active score are recorded, its result is never returned.
+ * Built-in scorers are Spring beans; models trained offline are loaded from {@code *.model}
+ * files in {@code app.scoring.model-dir} at startup or on reload.
+ * Scores are memoized by (job, job features hash, candidate, candidate features hash, model
+ * version): the feature hashes cover the job requirements, the profile and the current resume,
+ * and {@link MatchFeatureService} rebuilds a record whose entity version moved before handing it
+ * out, so a hit means nothing the model reads has changed.
+ */
+@Service
+public class MatchScorerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchScorerRegistry.class);
+
+    @Autowired
+    private List<MatchScorer> builtInScorers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.scoring.active:" + HeuristicMatchScorer.VERSION + "}")
+    private String initialActive;
+
+    @Value("${app.scoring.shadow:}")
+    private String initialShadow;
+
+    @Value("${app.scoring.model-dir:./models}")
+    private String modelDir;
+
+    @Value("${app.scoring.cache-size:20000}")
+    private int cacheSize;
+
+    // Skills found by a later scan of the resume text change a candidate record without changing its hash
+    private record ScoreKey(Long jobId, long jobHash, Long candidateId, long candidateHash, int candidateSkills,
+                            String version) {
+    }
+
+    private final Map<String, MatchScorer> scorers = new ConcurrentHashMap<>();
+    private final AtomicReference<MatchScorer> active = new AtomicReference<>();
+    private final AtomicReference<MatchScorer> shadow = new AtomicReference<>();
+    private final ThreadPoolExecutor shadowExecutor;
+
+    private Map<ScoreKey, MatchScorer.Score> scoreCache;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    public MatchScorerRegistry(@Value("${app.scoring.shadow-workers:1}") int workers,
+                               @Value("${app.scoring.shadow-queue-capacity:200}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.shadowExecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shadow-scoring-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 2);
+                    return thread;
+                });
+        this.shadowExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PostConstruct
+    void init() {
+        scoreCache = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScoreKey, MatchScorer.Score> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        cacheHits = cacheCounter("hit");
+        cacheMisses = cacheCounter("miss");
+
+        builtInScorers.forEach(this::register);
+        reloadModels();
+
+        if (scorers.containsKey(initialActive)) {
+            activate(initialActive);
+        } else {
+            log.warn("Scoring model {} not found, using {}", initialActive, HeuristicMatchScorer.VERSION);
+            activate(HeuristicMatchScorer.VERSION);
+        }
+        if (!initialShadow.isBlank()) {
+            setShadow(initialShadow);
+        }
+    }
+
+    // ==================== SCORING ====================
+
+    /**
+     * Score with the active model, and hand the same input to the shadow model if one is set.
+     * Unchanged inputs are answered from the cache without calling either model.
+     */
+    public MatchScorer.Score score(MatchScorer.Input input) {
+        MatchScorer primary = active.get();
+        ScoreKey key = new ScoreKey(input.jobFeatures().getJobId(), input.jobFeatures().getSourceHash(),
+                input.candidateFeatures().getCandidateId(), input.candidateFeatures().getSourceHash(),
+                Arrays.hashCode(input.candidateFeatures().getSkillIds()),
+                primary.getVersion());
+        MatchScorer.Score cached = scoreCache.get(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+
+        MatchScorer.Score score = timed(primary, "primary", input);
+        scoreCache.put(key, score);
+
+        MatchScorer challenger = shadow.get();
+        if (challenger != null && challenger != primary) {
+            try {
+                shadowExecutor.execute(() -> scoreInShadow(challenger, input, score));
+            } catch (RejectedExecutionException e) {
+                shadowSkipped(challenger, "queue_full");
+            }
+        }
+        return score;
+    }
+
+    private void scoreInShadow(MatchScorer challenger, MatchScorer.Input input, MatchScorer.Score primary) {
+        try {
+            MatchScorer.Score score = timed(challenger, "shadow", input);
+            DistributionSummary.builder(AppMetrics.SHADOW_SCORE_DELTA)
+                    .description("Absolute difference between shadow and active overall scores")
+                    .tag("version", challenger.getVersion())
+                    .tag("against", primary.version())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Math.abs(score.overall() - primary.overall()));
+        } catch (RuntimeException e) {
+            shadowSkipped(challenger, "error");
+            log.debug("Shadow scorer {} failed: {}", challenger.getVersion(), e.getMessage());
+        }
+    }
+
+    private MatchScorer.Score timed(MatchScorer scorer, String role, MatchScorer.Input input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = AppMetrics.OUTCOME_FAILURE;
+        try {
+            MatchScorer.Score score = scorer.score(input);
+            outcome = AppMetrics.OUTCOME_SUCCESS;
+            return score;
+        } finally {
+            sample.stop(Timer.builder(AppMetrics.MATCH_SCORER)
+                    .description("Time taken by a scoring model")
+                    .tag("version", scorer.getVersion())
+                    .tag("role", role)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private Counter cacheCounter(String cache) {
+        return Counter.builder(AppMetrics.MATCH_SCORE_CACHE)
+                .description("Scoring calls by cache outcome")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    private void shadowSkipped(MatchScorer challenger, String reason) {
+        Counter.builder(AppMetrics.SHADOW_SCORE_SKIPPED)
+                .description("Shadow scoring calls dropped or failed")
+                .tag("version", challenger.getVersion())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // ==================== MODELS ====================
+
+    /**
+     * Add or replace a scorer; replacing the active or shadow version takes effect immediately
+     */
+    public void register(MatchScorer scorer) {
+        if (scorers.put(scorer.getVersion(), scorer) != null) {
+            // Same version, new model: its cached scores no longer hold
+            synchronized (scoreCache) {
+                scoreCache.keySet().removeIf(key -> key.version().equals(scorer.getVersion()));
+            }
+        }
+        active.updateAndGet(current -> current != null && current.getVersion().equals(scorer.getVersion()) ? scorer : current);
+        shadow.updateAndGet(current -> current != null && current.getVersion().equals(scorer.getVersion()) ? scorer : current);
+    }
+
+    /**
+     * (Re)load every model file in the model directory; a malformed file is logged and skipped
+     */
+    public synchronized int reloadModels() {
+        Path dir = Paths.get(modelDir);
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        int loaded = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.model")) {
+            for (Path file : files) {
+                try {
+                    register(FileModelScorer.load(file));
+                    loaded++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping scoring model {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read model directory: " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    /**
+     * Make a version the one that serves scoring calls
+     */
+    public void activate(String version) {
+        MatchScorer scorer = find(version);
+        active.set(scorer);
+        // A model never shadows itself
+        shadow.compareAndSet(scorer, null);
+        log.info("Scoring model {} is now active", version);
+    }
+
+    /**
+     * Score in shadow with a version; null or blank stops shadow scoring
+     */
+    public void setShadow(String version) {
+        if (version == null || version.isBlank()) {
+            shadow.set(null);
+            return;
+        }
+        MatchScorer scorer = find(version);
+        if (scorer == active.get()) {
+            throw new RuntimeException("Scoring model " + version + " is already active");
+        }
+        shadow.set(scorer);
+    }
+
+    private MatchScorer find(String version) {
+        MatchScorer scorer = scorers.get(version);
+        if (scorer == null) {
+            throw new RuntimeException("Unknown scoring model: " + version);
+        }
+        return scorer;
+    }
+
+    public String getActiveVersion() {
+        return active.get().getVersion();
+    }
+
+    public String getShadowVersion() {
+        MatchScorer scorer = shadow.get();
+        return scorer != null ? scorer.getVersion() : null;
+    }
+
+    public List<String> getVersions() {
+        List<String> versions = new ArrayList<>(scorers.keySet());
+        versions.sort(null);
+        return versions;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+}
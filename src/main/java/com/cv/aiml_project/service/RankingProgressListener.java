@@ -0,0 +1,12 @@
+package com.cv.aiml_project.service;
+
+/**
+ * Receives progress while candidates are being ranked for a job
+ */
+@FunctionalInterface
+public interface RankingProgressListener {
+
+    RankingProgressListener NONE = (processed, total) -> {};
+
+    void onProgress(int processed, int total);
+}
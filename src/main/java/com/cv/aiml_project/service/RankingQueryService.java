@@ -0,0 +1,51 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.RankingDetailsView;
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.repository.CandidateRankingRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read models for the ranking pages: rankings with the candidates or jobs the page lists
+ */
+@Service
+@Transactional(readOnly = true)
+public class RankingQueryService {
+
+    @Autowired
+    private CandidateRankingRepository rankingRepository;
+
+    @Autowired
+    private CandidateRankingService rankingService;
+
+    /**
+     * A job's current rankings, optionally narrowed by a search keyword, with candidates
+     */
+    public List<CandidateRanking> getRankingsForJob(Long jobId, String search) {
+        List<CandidateRanking> rankings = rankingService.searchRankings(jobId, search);
+        rankings.forEach(ranking -> Hibernate.initialize(ranking.getCandidate()));
+        return rankings;
+    }
+
+    /**
+     * A candidate's current rankings across jobs, with jobs
+     */
+    public List<CandidateRanking> getRankingsForCandidate(Long candidateId) {
+        List<CandidateRanking> rankings = rankingService.getCurrentRankingsForCandidate(candidateId);
+        rankings.forEach(ranking -> Hibernate.initialize(ranking.getJob()));
+        return rankings;
+    }
+
+    public Optional<RankingDetailsView> getRankingDetails(Long rankingId) {
+        return rankingRepository.findWithDetailsById(rankingId)
+                .map(ranking -> new RankingDetailsView(ranking, ranking.getJob(), ranking.getCandidate(),
+                        rankingService.getRankingHistoryForCandidate(ranking.getJob().getId(),
+                                ranking.getCandidate().getId())));
+    }
+}
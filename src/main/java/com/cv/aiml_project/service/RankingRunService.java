@@ -0,0 +1,299 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.RankingRunStatus;
+import com.cv.aiml_project.dto.RankingRunStatus.State;
+import com.cv.aiml_project.dto.RankingWeightConfig;
+import com.cv.aiml_project.entity.CandidateRanking;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ranking generation and recalculation in the background.
+ * Runs execute on a small bounded pool, report progress for polling and SSE, and one job has
+ * at most one run in flight. A request for the same operation and weights as a queued or running
+ * run joins it; a different one waits until the current run is done, and replaces any request
+ * that was already waiting, since its ranking would be overwritten anyway.
+ */
+@Service
+public class RankingRunService {
+
+    public enum Operation { GENERATE, RECALCULATE }
+
+    @Autowired
+    private CandidateRankingService rankingService;
+
+    @Value("${app.ranking.runs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Value("${app.ranking.runs.sse-timeout-ms:600000}")
+    private long sseTimeoutMillis;
+
+    private final ThreadPoolExecutor executor;
+
+    // All known runs by id, the run queued or running for each job, and the request waiting
+    // behind it; the per-job maps change together under this
+    private final Map<String, RankingRun> runs = new ConcurrentHashMap<>();
+    private final Map<Long, RankingRun> activeByJob = new ConcurrentHashMap<>();
+    private final Map<Long, RankingRun> nextByJob = new ConcurrentHashMap<>();
+
+    public RankingRunService(@Value("${app.ranking.runs.workers:2}") int workers,
+                             @Value("${app.ranking.runs.queue-capacity:20}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ranking-run-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // ==================== SUBMISSION ====================
+
+    /**
+     * Submit a ranking run for a job, join an identical one, or queue behind the run in flight
+     */
+    public RankingRunStatus submit(Long jobId, Operation operation, RankingWeightConfig weights, String requestedBy) {
+        if (weights != null && !weights.isValid()) {
+            throw new RuntimeException("Invalid weight configuration: " + weights.getValidationMessage());
+        }
+        if (operation == Operation.RECALCULATE && weights == null) {
+            throw new RuntimeException("Invalid weight configuration");
+        }
+
+        purgeExpiredRuns();
+
+        RankingRun run;
+        synchronized (this) {
+            RankingRun active = activeByJob.get(jobId);
+            if (active != null && active.isFor(operation, weights)) {
+                return active.snapshot(true);
+            }
+            RankingRun next = nextByJob.get(jobId);
+            if (next != null && next.isFor(operation, weights)) {
+                return next.snapshot(true);
+            }
+
+            run = new RankingRun(jobId, operation, weights, requestedBy);
+            runs.put(run.id, run);
+            if (active != null) {
+                nextByJob.put(jobId, run);
+                if (next != null) {
+                    next.fail("Superseded by a newer ranking request from " + requestedBy);
+                }
+                return run.snapshot(false);
+            }
+            activeByJob.put(jobId, run);
+            if (!dispatch(run)) {
+                throw new RuntimeException(run.message);
+            }
+        }
+        return run.snapshot(false);
+    }
+
+    // Caller holds this; false when the pool is full and the run has been failed
+    private boolean dispatch(RankingRun run) {
+        try {
+            executor.execute(() -> execute(run));
+            return true;
+        } catch (RejectedExecutionException e) {
+            run.fail("Too many ranking runs queued, please try again shortly");
+            activeByJob.remove(run.jobId, run);
+            return false;
+        }
+    }
+
+    private void execute(RankingRun run) {
+        run.start();
+        try {
+            List<CandidateRanking> rankings = run.operation == Operation.GENERATE
+                    ? rankingService.generateRankingForJob(run.jobId, run.weights, run::progress)
+                    : rankingService.recalculateRankingWithWeights(run.jobId, run.weights, run::progress);
+            run.complete(rankings.size());
+        } catch (Exception e) {
+            run.fail(e.getMessage());
+        } finally {
+            synchronized (this) {
+                activeByJob.remove(run.jobId, run);
+                RankingRun next = nextByJob.remove(run.jobId);
+                if (next != null) {
+                    activeByJob.put(next.jobId, next);
+                    dispatch(next);
+                }
+            }
+        }
+    }
+
+    // ==================== STATUS ====================
+
+    /**
+     * Current status of a run
+     */
+    public Optional<RankingRunStatus> getStatus(String runId) {
+        RankingRun run = runs.get(runId);
+        return run != null ? Optional.of(run.snapshot(false)) : Optional.empty();
+    }
+
+    /**
+     * The run currently queued or running for a job, if any
+     */
+    public Optional<RankingRunStatus> getActiveRunForJob(Long jobId) {
+        RankingRun run = activeByJob.get(jobId);
+        return run != null ? Optional.of(run.snapshot(false)) : Optional.empty();
+    }
+
+    /**
+     * Stream progress events for a run until it finishes
+     */
+    public SseEmitter subscribe(String runId) {
+        RankingRun run = runs.get(runId);
+        if (run == null) {
+            throw new RuntimeException("Ranking run not found: " + runId);
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> run.emitters.remove(emitter));
+        emitter.onTimeout(() -> run.emitters.remove(emitter));
+        emitter.onError(e -> run.emitters.remove(emitter));
+        run.emitters.add(emitter);
+
+        // Send the current state straight away; completes the stream if the run is already done
+        run.publish(emitter, run.snapshot(false));
+        return emitter;
+    }
+
+    private void purgeExpiredRuns() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        runs.values().removeIf(run -> run.isFinished() && run.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ==================== RUN STATE ====================
+
+    private static final class RankingRun {
+
+        private static final long PUBLISH_INTERVAL_NANOS = Duration.ofMillis(250).toNanos();
+
+        private final String id = UUID.randomUUID().toString();
+        private final Long jobId;
+        private final Operation operation;
+        private final RankingWeightConfig weights;
+        private final String requestedBy;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile State state = State.QUEUED;
+        private volatile int processed;
+        private volatile int total;
+        private volatile long startNanos;
+        private volatile long lastPublishNanos;
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private RankingRun(Long jobId, Operation operation, RankingWeightConfig weights, String requestedBy) {
+            this.jobId = jobId;
+            this.operation = operation;
+            this.weights = weights;
+            this.requestedBy = requestedBy;
+        }
+
+        boolean isFinished() {
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+
+        boolean isFor(Operation operation, RankingWeightConfig weights) {
+            return this.operation == operation
+                    && (this.weights == null ? weights == null : this.weights.hasSameWeights(weights));
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            state = State.RUNNING;
+            publishAll();
+        }
+
+        void progress(int processed, int total) {
+            this.processed = processed;
+            this.total = total;
+            long now = System.nanoTime();
+            if (now - lastPublishNanos >= PUBLISH_INTERVAL_NANOS || processed == total) {
+                lastPublishNanos = now;
+                publishAll();
+            }
+        }
+
+        void complete(int ranked) {
+            processed = ranked;
+            total = ranked;
+            message = (operation == Operation.GENERATE ? "Rankings generated for " : "Rankings recalculated for ")
+                    + ranked + " candidates";
+            finishedAt = LocalDateTime.now();
+            state = State.COMPLETED;
+            publishAll();
+        }
+
+        void fail(String reason) {
+            message = reason != null ? reason : "Ranking failed";
+            finishedAt = LocalDateTime.now();
+            state = State.FAILED;
+            publishAll();
+        }
+
+        private void publishAll() {
+            RankingRunStatus status = snapshot(false);
+            for (SseEmitter emitter : emitters) {
+                publish(emitter, status);
+            }
+        }
+
+        private void publish(SseEmitter emitter, RankingRunStatus status) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(status));
+                if (status.isFinished()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+
+        RankingRunStatus snapshot(boolean coalesced) {
+            RankingRunStatus status = new RankingRunStatus();
+            status.setRunId(id);
+            status.setJobId(jobId);
+            status.setOperation(operation.name());
+            status.setState(state);
+            status.setProcessed(processed);
+            status.setTotal(total);
+            status.setMessage(message);
+            status.setRequestedBy(requestedBy);
+            status.setCoalesced(coalesced);
+            status.setSubmittedAt(submittedAt);
+            status.setFinishedAt(finishedAt);
+
+            if (state == State.RUNNING && processed > 0 && total > processed) {
+                long elapsed = System.nanoTime() - startNanos;
+                long remainingNanos = elapsed / processed * (total - processed);
+                status.setEtaSeconds(TimeUnit.NANOSECONDS.toSeconds(remainingNanos));
+            }
+            return status;
+        }
+    }
+}
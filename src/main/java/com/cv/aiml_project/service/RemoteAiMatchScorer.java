@@ -0,0 +1,53 @@
+package com.cv.aiml_project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scores through the external AI service's /match endpoint.
+ * Component scores come from the response when it has them, otherwise from the heuristic.
+ */
+@Component
+public class RemoteAiMatchScorer implements MatchScorer {
+
+    @Autowired
+    private AIMLIntegrationService aimlIntegrationService;
+
+    @Value("${ai.api.match-version:remote-ai-1}")
+    private String version;
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public Score score(Input input) {
+        Long resumeId = input.candidateFeatures().getResumeId();
+        if (resumeId == null) {
+            throw new RuntimeException("Candidate has no resume to score");
+        }
+        Map<String, Object> response = aimlIntegrationService.matchResumeWithJob(
+                resumeId, input.job().getId(), input.job().getDescription());
+
+        Object score = response.getOrDefault("score", response.get("match_score"));
+        if (!(score instanceof Number)) {
+            throw new RuntimeException("AI service returned no match score");
+        }
+
+        Map<String, Double> components = new HashMap<>(
+                HeuristicMatchScorer.componentScores(input.jobFeatures(), input.candidateFeatures()));
+        if (response.get("components") instanceof Map<?, ?> returned) {
+            for (String component : components.keySet()) {
+                if (returned.get(component) instanceof Number value) {
+                    components.put(component, value.doubleValue());
+                }
+            }
+        }
+        return new Score(version, Math.min(100.0, Math.max(0.0, ((Number) score).doubleValue())), components);
+    }
+}
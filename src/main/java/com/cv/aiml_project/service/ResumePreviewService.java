@@ -0,0 +1,462 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.dto.ResumePreview;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.rendering.PageDrawer;
+import org.apache.pdfbox.rendering.PageDrawerParameters;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * First-page previews of stored resumes (a PNG thumbnail for PDFs and a short text snippet)
+ * so list and compare pages can show a candidate without opening the document.
+ * Previews are rendered after upload on a small low-priority pool and kept on disk under the
+ * resume's content hash, in an LRU bounded by total size. PDFs are rendered a few at a time with
+ * an operator budget for the first page and given up on after the timeout; a render stuck past
+ * it is abandoned so the next one gets a fresh thread, and only a finished render is written to
+ * disk. A page asking for a preview that is missing or was evicted gets nothing this time and
+ * queues a render for the next.
+ */
+@Service
+public class ResumePreviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumePreviewService.class);
+
+    private static final String IMAGE = ".png";
+    private static final String SNIPPET = ".txt";
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private TextExtractionService textExtractionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.preview.dir:./uploads/previews}")
+    private String previewDir;
+
+    @Value("${app.preview.cache-max-mb:256}")
+    private long cacheMaxMb;
+
+    @Value("${app.preview.width:240}")
+    private int width;
+
+    @Value("${app.preview.snippet-chars:300}")
+    private int snippetChars;
+
+    @Value("${app.preview.max-memory-mb:16}")
+    private long maxMemoryMb;
+
+    @Value("${app.preview.timeout-seconds:20}")
+    private long timeoutSeconds;
+
+    // Content stream operators read from the first page, for the snippet and for the thumbnail
+    @Value("${app.preview.max-operators:200000}")
+    private int maxOperators;
+
+    // Abandoned renders still running before new ones are refused
+    @Value("${app.preview.max-abandoned:2}")
+    private int maxAbandoned;
+
+    private final ThreadPoolExecutor executor;
+    // PDF parsing and rasterising, waited on by the preview workers for at most the timeout
+    private final TimeLimitedPool renderer;
+
+    // Content hash -> bytes on disk, least recently used first; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+    // Content hash -> renders in flight, and those removed meanwhile whose output must not be kept; guarded by this
+    private final Map<String, Integer> rendering = new HashMap<>();
+    private final Set<String> removedWhileRendering = new HashSet<>();
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private Path dir;
+    private Counter hits;
+    private Counter misses;
+
+    public ResumePreviewService(@Value("${app.preview.workers:1}") int workers,
+                                @Value("${app.preview.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "resume-preview-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 2);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.renderer = new TimeLimitedPool("Preview rendering", "preview-renderer-", workers);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        dir = Paths.get(previewDir).toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        hits = Counter.builder(AppMetrics.PREVIEW_CACHE).tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder(AppMetrics.PREVIEW_CACHE).tag("result", "miss").register(meterRegistry);
+        loadEntries();
+        storageService.onDelete(this::remove);
+    }
+
+    // ==================== SUBMISSION ====================
+
+    /**
+     * Render a preview of a newly stored file once the current transaction commits
+     */
+    public void generateAfterCommit(String key, String contentType, String fileName) {
+        TransactionHooks.afterCommit(() -> submit(key, contentType, fileName));
+    }
+
+    private void submit(String key, String contentType, String fileName) {
+        if (!BlobStore.isContentKey(key)) {
+            return;
+        }
+        String hash = BlobStore.hashOf(key);
+        if (isCached(hash) || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(key, contentType, fileName);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            record("rejected", Timer.start(meterRegistry));
+        }
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * The cached preview of a stored file; a miss queues one and returns empty
+     */
+    public Optional<ResumePreview> preview(String key, String contentType, String fileName) {
+        if (!BlobStore.isContentKey(key)) {
+            return Optional.empty();
+        }
+        String hash = BlobStore.hashOf(key);
+        if (touch(hash)) {
+            try {
+                String snippet = Files.readString(dir.resolve(hash + SNIPPET), StandardCharsets.UTF_8);
+                hits.increment();
+                return Optional.of(new ResumePreview(snippet, Files.exists(dir.resolve(hash + IMAGE))));
+            } catch (IOException e) {
+                // Removed underneath us; render again
+                forget(hash);
+            }
+        }
+        misses.increment();
+        submit(key, contentType, fileName);
+        return Optional.empty();
+    }
+
+    /**
+     * The thumbnail of a stored file, if one has been rendered
+     */
+    public Optional<Path> image(String key) {
+        if (!BlobStore.isContentKey(key)) {
+            return Optional.empty();
+        }
+        String hash = BlobStore.hashOf(key);
+        Path image = dir.resolve(hash + IMAGE);
+        return touch(hash) && Files.isReadable(image) ? Optional.of(image) : Optional.empty();
+    }
+
+    // ==================== GENERATION ====================
+
+    void generate(String key, String contentType, String fileName) {
+        String hash = BlobStore.hashOf(key);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        startRendering(hash);
+        try {
+            boolean pdf = "application/pdf".equals(contentType)
+                    || key.endsWith(".pdf") || (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".pdf"));
+            long bytes = storageService.withLocalFile(key, file -> pdf ? renderPdf(file, hash) : renderText(file, hash,
+                    contentType, fileName));
+            if (bytes < 0) {
+                finishRendering(hash, -1);
+                record("unsupported", sample);
+                return;
+            }
+            if (!finishRendering(hash, bytes)) {
+                deleteFiles(hash);
+                record("removed", sample);
+                return;
+            }
+            record(AppMetrics.OUTCOME_SUCCESS, sample);
+        } catch (Exception e) {
+            finishRendering(hash, -1);
+            record(AppMetrics.OUTCOME_FAILURE, sample);
+            log.warn("Preview generation failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    private record Rendered(BufferedImage image, String snippet) {
+    }
+
+    private long renderPdf(Path file, String hash) throws IOException {
+        Rendered rendered = renderWithTimeout(file);
+        if (rendered == null) {
+            return -1;
+        }
+        long bytes = write(hash + IMAGE, out -> ImageIO.write(rendered.image(), "png", out));
+        return bytes + write(hash + SNIPPET, out -> out.write(rendered.snippet().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Render on the renderer pool and wait at most the timeout; a render that takes longer is
+     * abandoned and its result, should it still finish, is thrown away
+     */
+    private Rendered renderWithTimeout(Path file) throws IOException {
+        return renderer.call(() -> renderFirstPage(file), timeoutSeconds, maxAbandoned);
+    }
+
+    private Rendered renderFirstPage(Path file) throws IOException {
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(maxMemoryMb * 1024 * 1024);
+        try (PDDocument document = PDDocument.load(file.toFile(), memory)) {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDFTextStripper stripper = new PDFTextStripper() {
+                private final OperatorBudget budget = new OperatorBudget();
+
+                @Override
+                protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+                    if (budget.allows()) {
+                        super.processOperator(operator, operands);
+                    }
+                }
+            };
+            stripper.setSortByPosition(true);
+            stripper.setStartPage(1);
+            stripper.setEndPage(1);
+            String snippet = snippetOf(stripper.getText(document));
+
+            PDRectangle box = document.getPage(0).getCropBox();
+            float scale = box.getWidth() > 0 ? width / box.getWidth() : 1f;
+            PDFRenderer pageRenderer = new PDFRenderer(document) {
+                @Override
+                protected PageDrawer createPageDrawer(PageDrawerParameters parameters) throws IOException {
+                    return new PageDrawer(parameters) {
+                        private final OperatorBudget budget = new OperatorBudget();
+
+                        @Override
+                        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+                            if (budget.allows()) {
+                                super.processOperator(operator, operands);
+                            }
+                        }
+                    };
+                }
+            };
+            BufferedImage image = pageRenderer.renderImage(0, scale, ImageType.RGB);
+            return new Rendered(image, snippet);
+        }
+    }
+
+    /**
+     * Caps the operators read from one page, keeping what was drawn or stripped so far, and
+     * stops the render once it has been cancelled
+     */
+    private final class OperatorBudget {
+
+        private int operators;
+
+        boolean allows() throws IOException {
+            if ((++operators & 0xFF) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new IOException("Preview cancelled");
+            }
+            return operators <= maxOperators;
+        }
+    }
+
+    private long renderText(Path file, String hash, String contentType, String fileName) throws IOException {
+        TextExtractionService.Result result = textExtractionService.extract(file, contentType, fileName);
+        if (result == null) {
+            return -1;
+        }
+        int[] pages = result.pageOffsets();
+        String firstPage = pages.length > 1 ? result.text().substring(0, pages[1]) : result.text();
+        String snippet = snippetOf(firstPage);
+        return write(hash + SNIPPET, out -> out.write(snippet.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String snippetOf(String text) {
+        String collapsed = text.replaceAll("\\s+", " ").trim();
+        return collapsed.length() > snippetChars ? collapsed.substring(0, snippetChars).trim() + "…" : collapsed;
+    }
+
+    private interface Writer {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Write next to the target and rename, so readers never see a partial file
+     */
+    private long write(String name, Writer writer) throws IOException {
+        Path part = Files.createTempFile(dir, name, ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(part)) {
+                writer.writeTo(out);
+            }
+            long size = Files.size(part);
+            Files.move(part, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    private void record(String outcome, Timer.Sample sample) {
+        sample.stop(Timer.builder(AppMetrics.PREVIEW_GENERATION)
+                .description("Time taken to render a resume preview")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    // ==================== CACHE ====================
+
+    private synchronized boolean isCached(String hash) {
+        return entries.containsKey(hash);
+    }
+
+    private synchronized boolean touch(String hash) {
+        return entries.get(hash) != null;
+    }
+
+    private synchronized void register(String hash, long bytes) {
+        Long previous = entries.put(hash, bytes);
+        cachedBytes += bytes - (previous != null ? previous : 0);
+        long maxBytes = cacheMaxMb * 1024 * 1024;
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(hash)) {
+                continue;
+            }
+            cachedBytes -= entry.getValue();
+            eldest.remove();
+            deleteFiles(entry.getKey());
+        }
+    }
+
+    private synchronized void startRendering(String hash) {
+        rendering.merge(hash, 1, Integer::sum);
+    }
+
+    /**
+     * Register a finished render of the given size, or none if negative; false if its blob
+     * was removed while it was rendering, so the files just written are stale
+     */
+    private synchronized boolean finishRendering(String hash, long bytes) {
+        boolean removed = removedWhileRendering.contains(hash);
+        if (rendering.merge(hash, -1, Integer::sum) == 0) {
+            rendering.remove(hash);
+            removedWhileRendering.remove(hash);
+        }
+        if (bytes >= 0 && !removed) {
+            register(hash, bytes);
+        }
+        return !removed;
+    }
+
+    private synchronized void forget(String hash) {
+        Long bytes = entries.remove(hash);
+        if (bytes != null) {
+            cachedBytes -= bytes;
+        }
+    }
+
+    /**
+     * Drop the preview of a blob that has been deleted
+     */
+    public void remove(String key) {
+        if (BlobStore.isContentKey(key)) {
+            String hash = BlobStore.hashOf(key);
+            synchronized (this) {
+                forget(hash);
+                if (rendering.containsKey(hash)) {
+                    removedWhileRendering.add(hash);
+                }
+            }
+            deleteFiles(hash);
+        }
+    }
+
+    private void deleteFiles(String hash) {
+        try {
+            Files.deleteIfExists(dir.resolve(hash + IMAGE));
+            Files.deleteIfExists(dir.resolve(hash + SNIPPET));
+        } catch (IOException e) {
+            log.warn("Could not delete preview {}: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the LRU from the directory, oldest file first, and clear out unfinished writes
+     */
+    private void loadEntries() throws IOException {
+        List<Path> snippets = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".part")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SNIPPET)) {
+                    snippets.add(file);
+                }
+            }
+        }
+        snippets.sort(Comparator.comparing(file -> file.toFile().lastModified()));
+        for (Path snippet : snippets) {
+            String hash = snippet.getFileName().toString();
+            hash = hash.substring(0, hash.length() - SNIPPET.length());
+            Path image = dir.resolve(hash + IMAGE);
+            register(hash, Files.size(snippet) + (Files.exists(image) ? Files.size(image) : 0));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        renderer.shutdownNow();
+    }
+}
@@ -1,41 +1,54 @@
 package com.cv.aiml_project.service;
 
 import com.cv.aiml_project.entity.Resume;
+import com.cv.aiml_project.entity.StoredText;
 import com.cv.aiml_project.entity.User;
 import com.cv.aiml_project.repository.ResumeRepository;
 import com.cv.aiml_project.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
 public class ResumeService {
 
-    @Value("${file.upload.resume-dir:./uploads/resumes}")
-    private String uploadDir;
-
     @Autowired
     private ResumeRepository resumeRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private MatchFeatureService matchFeatureService;
+
+    @Autowired
+    private TextExtractionService textExtractionService;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private ResumePreviewService previewService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
 
     /**
      * Upload a new resume for a user
@@ -44,20 +57,10 @@ public class ResumeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Create upload directory if not exists
-        Path uploadPath = Paths.get(uploadDir, user.getUsername());
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        // Generate unique filename
+        // Save file under its content key
         String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-
-        // Save file
-        Path filePath = uploadPath.resolve(uniqueFileName);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        String storageKey = storageService.store(file, "resume");
+        String uniqueFileName = storageKey.substring(storageKey.lastIndexOf('/') + 1);
 
         // Create new resume entity
         Resume resume = new Resume();
@@ -66,7 +69,7 @@ public class ResumeService {
         resume.setOriginalName(originalFilename);
         resume.setContentType(file.getContentType());
         resume.setFileSize(file.getSize());
-        resume.setFilePath(filePath.toString());
+        resume.setFilePath(storageKey);
         resume.setUploadDate(LocalDateTime.now());
         resume.setCurrent(true); // This becomes the current resume
         resume.setVersion(getNextVersionNumber(userId));
@@ -76,11 +79,40 @@ public class ResumeService {
 
         // Save the new resume
         Resume savedResume = resumeRepository.save(resume);
+        user.currentResumeChanged(savedResume, null);
+        vectorIndexService.indexResume(savedResume);
+        jobFeedService.evictCandidate(savedResume.getUser().getId());
+        matchFeatureService.refreshCandidate(savedResume.getUser().getId());
 
+        Long resumeId = savedResume.getId();
+        textExtractionService.extractAfterCommit(storageKey, file.getContentType(), originalFilename,
+                result -> applyExtractedText(resumeId, result));
+        previewService.generateAfterCommit(storageKey, file.getContentType(), originalFilename);
 
         return savedResume;
     }
 
+    /**
+     * Store locally extracted text unless the AI service has already provided some
+     */
+    private void applyExtractedText(Long resumeId, TextExtractionService.Result result) {
+        resumeRepository.findById(resumeId).ifPresent(resume -> {
+            if (storedTextService.fingerprint(StoredText.Kind.RESUME_TEXT, resumeId).isPresent()) {
+                return;
+            }
+            storedTextService.put(StoredText.Kind.RESUME_TEXT, resumeId, result.text());
+            resume.setExtractedPageOffsets(result.pageOffsetsAsString());
+            resumeRepository.save(resume);
+
+            if (resume.isCurrent()) {
+                resume.getUser().currentResumeChanged(resume, result.text());
+                vectorIndexService.indexResume(resume);
+                jobFeedService.evictCandidate(resume.getUser().getId());
+                matchFeatureService.refreshCandidate(resume.getUser().getId());
+            }
+        });
+    }
+
     /**
      * Get the next version number for a user's resume
      */
@@ -118,18 +150,11 @@ public class ResumeService {
     /**
      * Get resume file as Resource
      */
-    public Resource getResumeFile(Long resumeId) throws MalformedURLException {
+    public Resource getResumeFile(Long resumeId) {
         Resume resume = resumeRepository.findById(resumeId)
                 .orElseThrow(() -> new RuntimeException("Resume not found"));
 
-        Path filePath = Paths.get(resume.getFilePath());
-        Resource resource = new UrlResource(filePath.toUri());
-
-        if (resource.exists() && resource.isReadable()) {
-            return resource;
-        } else {
-            throw new RuntimeException("Could not read the file!");
-        }
+        return storageService.load(resume.getFilePath());
     }
 
     /**
@@ -141,21 +166,31 @@ public class ResumeService {
 
         Long userId = resume.getUser().getId();
 
-        // Delete file from storage
-        Path filePath = Paths.get(resume.getFilePath());
-        Files.deleteIfExists(filePath);
+        // Delete file from storage once no other row shares its content
+        storageService.deleteAfterCommit(resume.getFilePath());
+        storageService.evictResume(resumeId);
 
         // Delete from database
+        storedTextService.delete(StoredText.Kind.RESUME_TEXT, resumeId);
+        storedTextService.delete(StoredText.Kind.RESUME_AI_RESPONSE, resumeId);
         resumeRepository.delete(resume);
+        vectorIndexService.removeResume(resumeId);
+        jobFeedService.evictCandidate(resume.getUser().getId());
+        matchFeatureService.refreshCandidate(resume.getUser().getId());
 
         // If this was the current resume, set another resume as current
         if (resume.isCurrent()) {
             List<Resume> remainingResumes = resumeRepository.findAllByUserIdOrderByUploadDateDesc(userId);
+            Resume newCurrent = null;
+            String newCurrentText = null;
             if (!remainingResumes.isEmpty()) {
-                Resume newCurrent = remainingResumes.get(0);
+                newCurrent = remainingResumes.get(0);
                 newCurrent.setCurrent(true);
                 resumeRepository.save(newCurrent);
+                vectorIndexService.indexResume(newCurrent);
+                newCurrentText = storedTextService.get(StoredText.Kind.RESUME_TEXT, newCurrent.getId()).orElse(null);
             }
+            resume.getUser().currentResumeChanged(newCurrent, newCurrentText);
         }
     }
 
@@ -173,11 +208,18 @@ public class ResumeService {
         resume.setMlProcessedDate(LocalDateTime.now());
 
         if (extractedText != null) {
-            resume.setExtractedText(extractedText);
+            storedTextService.put(StoredText.Kind.RESUME_TEXT, resumeId, extractedText);
+            resume.setExtractedPageOffsets(null);
+            if (resume.isCurrent()) {
+                resume.getUser().currentResumeChanged(resume, extractedText);
+                vectorIndexService.indexResume(resume);
+                jobFeedService.evictCandidate(resume.getUser().getId());
+                matchFeatureService.refreshCandidate(resume.getUser().getId());
+            }
         }
 
         if (rawResponse != null) {
-            resume.setMlRawResponse(rawResponse);
+            storedTextService.put(StoredText.Kind.RESUME_AI_RESPONSE, resumeId, rawResponse);
         }
 
         return resumeRepository.save(resume);
@@ -198,6 +240,20 @@ public class ResumeService {
         return resumeRepository.countProcessedResumes();
     }
 
+    /**
+     * Text extracted from the resume, read from stored_texts
+     */
+    public Optional<String> getExtractedText(Long resumeId) {
+        return storedTextService.get(StoredText.Kind.RESUME_TEXT, resumeId);
+    }
+
+    /**
+     * Extracted texts of many resumes, by resume id
+     */
+    public Map<Long, String> getExtractedTexts(Collection<Long> resumeIds) {
+        return storedTextService.getAll(StoredText.Kind.RESUME_TEXT, resumeIds);
+    }
+
     /**
      * Get all unprocessed resumes
      */
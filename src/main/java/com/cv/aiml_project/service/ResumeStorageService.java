@@ -0,0 +1,394 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.dto.StoredFile;
+import com.cv.aiml_project.entity.StoredBlob;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import com.cv.aiml_project.repository.StoredBlobRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Stores and reads resume files through the configured {@link BlobStore}.
+ * Rows keep the blob key in their path column. Paths written before the blob store existed
+ * are still read (and deleted) as plain files, so no migration is needed.
+ * Download metadata is cached by resume and application id; stored files never change in
+ * place, so entries only have to go when a row is deleted.
+ * Identical content shares one blob, and the store may be shared by several instances, so
+ * references are settled in the database: an upload claims its key in a stored_blobs row, locked
+ * until the upload's transaction ends, and a delete is only queued on that row. A sweeper deletes
+ * queued files after a grace period, under the same row lock and only if no resume or
+ * application points at them by then.
+ */
+@Service
+public class ResumeStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumeStorageService.class);
+
+    /**
+     * Work that needs the file on local disk
+     */
+    @FunctionalInterface
+    public interface LocalFileTask<T> {
+        T apply(Path file) throws IOException;
+    }
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JobApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobApplicationArchiveRepository applicationArchiveRepository;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.storage.file-cache-size:5000}")
+    private int fileCacheSize;
+
+    // How long a dropped file is kept, for references written without a claim (e.g. archiving)
+    @Value("${app.storage.delete-grace-minutes:10}")
+    private long deleteGraceMinutes;
+
+    @Value("${app.storage.delete-batch-size:100}")
+    private int deleteBatchSize;
+
+    private Map<String, StoredFile> files;
+    private TransactionTemplate transaction;
+
+    private final List<Consumer<String>> deleteListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        files = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredFile> eldest) {
+                return size() > fileCacheSize;
+            }
+        });
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Store an uploaded file and return its key; {@code target} tags the upload metrics
+     */
+    public String store(MultipartFile file, String target) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String extension = extensionOf(file.getOriginalFilename());
+        String key;
+        try {
+            try (InputStream in = file.getInputStream()) {
+                key = blobStore.put(in, extension);
+            }
+            // Waits for a delete of the same content in progress; the claim then keeps this copy
+            storedBlobRepository.claim(key, LocalDateTime.now());
+            if (!blobStore.exists(key)) {
+                // An earlier copy was deleted between the put and the claim
+                try (InputStream in = file.getInputStream()) {
+                    blobStore.put(in, extension);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            record("write", AppMetrics.OUTCOME_FAILURE, sample);
+            throw e;
+        }
+        record("write", AppMetrics.OUTCOME_SUCCESS, sample);
+        recordBytes("write", file.getSize());
+        AppMetrics.recordUpload(meterRegistry, target, sample, file.getSize());
+        return key;
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * The stored file as a resource for download
+     */
+    public Resource load(String key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Resource resource = resolve(key);
+            record("read", AppMetrics.OUTCOME_SUCCESS, sample);
+            return resource;
+        } catch (IOException | RuntimeException e) {
+            record("read", AppMetrics.OUTCOME_FAILURE, sample);
+            throw new RuntimeException("Could not read the file!", e);
+        }
+    }
+
+    private Resource resolve(String key) throws IOException {
+        if (!BlobStore.isContentKey(key)) {
+            Resource legacy = new FileSystemResource(Paths.get(key));
+            if (!legacy.isReadable()) {
+                throw new IOException("Missing file " + key);
+            }
+            recordBytes("read", legacy.contentLength());
+            return legacy;
+        }
+
+        Optional<Path> local = blobStore.localPath(key);
+        if (local.isPresent()) {
+            Resource resource = new FileSystemResource(local.get());
+            if (!resource.isReadable()) {
+                throw new IOException("Missing blob " + key);
+            }
+            recordBytes("read", resource.contentLength());
+            return resource;
+        }
+
+        long size = blobStore.size(key);
+        recordBytes("read", size);
+        InputStream in = blobStore.open(key);
+        return new InputStreamResource(in) {
+            @Override
+            public long contentLength() {
+                return size;
+            }
+
+            @Override
+            public String getFilename() {
+                return key.substring(key.lastIndexOf('/') + 1);
+            }
+        };
+    }
+
+    /**
+     * The file on this machine, if the store keeps one (legacy paths always are)
+     */
+    public Optional<Path> localFile(String key) {
+        return BlobStore.isContentKey(key) ? blobStore.localPath(key) : Optional.of(Paths.get(key));
+    }
+
+    public long size(String key) throws IOException {
+        return BlobStore.isContentKey(key) ? blobStore.size(key) : Files.size(Paths.get(key));
+    }
+
+    /**
+     * Stream part of a blob that has no local file
+     */
+    public InputStream openRange(String key, long offset, long length) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            InputStream in = blobStore.openRange(key, offset, length);
+            record("read", AppMetrics.OUTCOME_SUCCESS, sample);
+            return in;
+        } catch (IOException | RuntimeException e) {
+            record("read", AppMetrics.OUTCOME_FAILURE, sample);
+            throw e;
+        }
+    }
+
+    /**
+     * Count bytes sent to a client straight from a local file
+     */
+    public void recordServed(long bytes) {
+        recordBytes("read", bytes);
+    }
+
+    /**
+     * Run {@code task} against a local copy of the file; remote blobs are downloaded to a temp
+     * file that is removed afterwards
+     */
+    public <T> T withLocalFile(String key, LocalFileTask<T> task) throws IOException {
+        if (!BlobStore.isContentKey(key)) {
+            return task.apply(Paths.get(key));
+        }
+        Optional<Path> local = blobStore.localPath(key);
+        if (local.isPresent()) {
+            return task.apply(local.get());
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Path copy = Files.createTempFile("resume-", BlobStore.normalizeExtension(extensionOf(key)));
+        try {
+            try (InputStream in = blobStore.open(key)) {
+                Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                record("read", AppMetrics.OUTCOME_FAILURE, sample);
+                throw e;
+            }
+            record("read", AppMetrics.OUTCOME_SUCCESS, sample);
+            recordBytes("read", Files.size(copy));
+            return task.apply(copy);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    // ==================== DOWNLOAD METADATA ====================
+
+    public Optional<StoredFile> resumeFile(Long resumeId) {
+        return cached("resume:" + resumeId, () -> resumeRepository.findStoredFileById(resumeId));
+    }
+
+    public Optional<StoredFile> applicationResumeFile(Long applicationId) {
+        return cached("application:" + applicationId, () -> applicationRepository.findStoredResumeById(applicationId));
+    }
+
+    public Optional<Long> currentResumeId(Long userId) {
+        return resumeRepository.findCurrentResumeIds(userId).stream().findFirst();
+    }
+
+    public Optional<Long> currentResumeId(String username) {
+        return resumeRepository.findCurrentResumeIdsByUsername(username).stream().findFirst();
+    }
+
+    public void evictResume(Long resumeId) {
+        TransactionHooks.afterCommit(() -> files.remove("resume:" + resumeId));
+    }
+
+    public void evictApplication(Long applicationId) {
+        TransactionHooks.afterCommit(() -> files.remove("application:" + applicationId));
+    }
+
+    private Optional<StoredFile> cached(String cacheKey, Supplier<Optional<StoredFile>> loader) {
+        StoredFile file = files.get(cacheKey);
+        if (file != null) {
+            return Optional.of(file);
+        }
+        Optional<StoredFile> loaded = loader.get();
+        loaded.ifPresent(found -> files.put(cacheKey, found));
+        return loaded;
+    }
+
+    // ==================== DELETE ====================
+
+    /**
+     * Called with the key of every blob removed from the store, e.g. to drop derived files
+     */
+    public void onDelete(Consumer<String> listener) {
+        deleteListeners.add(listener);
+    }
+
+    /**
+     * Queue a file for deletion with the current transaction; the sweeper removes it after the
+     * grace period unless a resume or application still points at the same content by then
+     */
+    public void deleteAfterCommit(String key) {
+        if (key == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        storedBlobRepository.queueDelete(key, now, now.plusMinutes(deleteGraceMinutes));
+    }
+
+    @Scheduled(initialDelayString = "${app.storage.delete-initial-delay-ms:60000}",
+            fixedDelayString = "${app.storage.delete-interval-ms:60000}")
+    public void deleteQueuedFiles() {
+        List<String> due = storedBlobRepository.findDueForDelete(LocalDateTime.now(), PageRequest.of(0, deleteBatchSize));
+        due.forEach(this::deleteIfUnreferenced);
+    }
+
+    /**
+     * Delete one queued file while holding its row, so an upload of the same content on any
+     * instance either commits its reference first or claims the key after the file is gone
+     */
+    void deleteIfUnreferenced(String key) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            boolean deleted = Boolean.TRUE.equals(transaction.execute(status -> {
+                StoredBlob blob = storedBlobRepository.findLocked(key).orElse(null);
+                if (blob == null || blob.getDeleteAfter() == null || blob.getDeleteAfter().isAfter(LocalDateTime.now())) {
+                    return false;
+                }
+                if (resumeRepository.countByFilePath(key) > 0
+                        || applicationRepository.countByResumePath(key) > 0
+                        || applicationArchiveRepository.countByResumePath(key) > 0) {
+                    blob.setDeleteAfter(null);
+                    return false;
+                }
+                try {
+                    if (BlobStore.isContentKey(key)) {
+                        blobStore.delete(key);
+                    } else {
+                        Files.deleteIfExists(Paths.get(key));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                storedBlobRepository.delete(blob);
+                return true;
+            }));
+            if (deleted && BlobStore.isContentKey(key)) {
+                deleteListeners.forEach(listener -> listener.accept(key));
+            }
+            record("delete", AppMetrics.OUTCOME_SUCCESS, sample);
+        } catch (Exception e) {
+            record("delete", AppMetrics.OUTCOME_FAILURE, sample);
+            log.warn("Could not delete stored file {}: {}", key, e.getMessage());
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return "";
+        }
+        return fileName.substring(fileName.lastIndexOf('.'));
+    }
+
+    private void record(String operation, String outcome, Timer.Sample sample) {
+        sample.stop(Timer.builder(AppMetrics.STORAGE_OPERATION)
+                .description("Time taken by resume storage operations")
+                .tag("operation", operation)
+                .tag("store", blobStore.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private void recordBytes(String operation, long bytes) {
+        DistributionSummary.builder(AppMetrics.STORAGE_BYTES)
+                .description("Bytes read from and written to resume storage")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .tag("store", blobStore.getName())
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
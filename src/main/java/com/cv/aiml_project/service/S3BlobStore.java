@@ -0,0 +1,242 @@
+package com.cv.aiml_project.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link BlobStore} on any S3-compatible object store (AWS S3, MinIO, Ceph ...), spoken to over
+ * plain HTTP with path-style URLs ({@code endpoint/bucket/key}) and Signature Version 4.
+ * Uploads are spooled to a temp file first: the content hash is both the key and the signed
+ * payload hash, so the body has to be read once before the request is made.
+ */
+public class S3BlobStore implements BlobStore {
+
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private final URI endpoint;
+    private final String bucket;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+    private final HttpClient httpClient;
+
+    public S3BlobStore(String endpoint, String bucket, String region, String accessKey, String secretKey) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public String put(InputStream content, String extension) throws IOException {
+        Path spool = Files.createTempFile("blob-", ".part");
+        try {
+            MessageDigest digest = LocalBlobStore.sha256();
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(spool)) {
+                in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = BlobStore.contentKey(hash, extension);
+            if (exists(key)) {
+                return key;
+            }
+            HttpResponse<InputStream> response = send("PUT", key, Map.of(), hash,
+                    HttpRequest.BodyPublishers.ofFile(spool));
+            expectSuccess(response, key);
+            response.body().close();
+            return key;
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", key, Map.of(), EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        expectSuccess(response, key);
+        return response.body();
+    }
+
+    @Override
+    public InputStream openRange(String key, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return InputStream.nullInputStream();
+        }
+        String range = "bytes=" + offset + "-" + (offset + length - 1);
+        HttpResponse<InputStream> response = send("GET", key, Map.of("range", range), EMPTY_SHA256,
+                HttpRequest.BodyPublishers.noBody());
+        expectSuccess(response, key);
+        return response.body();
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        HttpResponse<InputStream> response = head(key);
+        expectSuccess(response, key);
+        return response.headers().firstValueAsLong("content-length").orElse(0);
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpResponse<InputStream> response = head(key);
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        expectSuccess(response, key);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        if (!exists(key)) {
+            return false;
+        }
+        HttpResponse<InputStream> response = send("DELETE", key, Map.of(), EMPTY_SHA256,
+                HttpRequest.BodyPublishers.noBody());
+        expectSuccess(response, key);
+        response.body().close();
+        return true;
+    }
+
+    // ==================== HTTP ====================
+
+    private HttpResponse<InputStream> head(String key) throws IOException {
+        HttpResponse<InputStream> response = send("HEAD", key, Map.of(), EMPTY_SHA256, HttpRequest.BodyPublishers.noBody());
+        response.body().close();
+        return response;
+    }
+
+    private HttpResponse<InputStream> send(String method, String key, Map<String, String> extraHeaders,
+                                           String payloadHash, HttpRequest.BodyPublisher body) throws IOException {
+        if (!BlobStore.isContentKey(key)) {
+            throw new IllegalArgumentException("Not a blob key: " + key);
+        }
+        String path = endpoint.getRawPath() + "/" + bucket + "/" + key;
+        String amzDate = ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+
+        Map<String, String> headers = new TreeMap<>(extraHeaders);
+        headers.put("host", hostHeader());
+        headers.put("x-amz-content-sha256", payloadHash);
+        headers.put("x-amz-date", amzDate);
+        String authorization = authorization(method, path, headers, payloadHash, amzDate);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint + "/" + bucket + "/" + key))
+                .timeout(Duration.ofSeconds(60))
+                .method(method, body)
+                .header("Authorization", authorization);
+        headers.forEach((name, value) -> {
+            if (!name.equals("host")) {
+                request.header(name, value);
+            }
+        });
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted talking to object store", e);
+        }
+    }
+
+    private void expectSuccess(HttpResponse<InputStream> response, String key) throws IOException {
+        int status = response.statusCode();
+        if (status / 100 == 2) {
+            return;
+        }
+        response.body().close();
+        if (status == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("Object store returned " + status + " for " + key);
+    }
+
+    private String hostHeader() {
+        int port = endpoint.getPort();
+        return port == -1 ? endpoint.getHost() : endpoint.getHost() + ":" + port;
+    }
+
+    // ==================== SIGNATURE V4 ====================
+
+    /**
+     * Authorization header for a request; headers must be keyed by lower-case name
+     */
+    String authorization(String method, String path, Map<String, String> headers, String payloadHash, String amzDate) {
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        String signedHeaders = String.join(";", new TreeMap<>(headers).keySet());
+        String signature = signature(method, path, headers, payloadHash, amzDate);
+        return "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    String signature(String method, String path, Map<String, String> headers, String payloadHash, String amzDate) {
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/s3/aws4_request";
+        TreeMap<String, String> sorted = new TreeMap<>(headers);
+
+        StringBuilder canonicalHeaders = new StringBuilder();
+        sorted.forEach((name, value) -> canonicalHeaders.append(name).append(':').append(value.trim()).append('\n'));
+        String canonicalRequest = method + "\n"
+                + path + "\n"
+                + "\n"
+                + canonicalHeaders + "\n"
+                + String.join(";", sorted.keySet()) + "\n"
+                + payloadHash;
+
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmac(key, region);
+        key = hmac(key, "s3");
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(LocalBlobStore.sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] hmac(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "S3BlobStore[" + endpoint + "/" + bucket + "]";
+    }
+}
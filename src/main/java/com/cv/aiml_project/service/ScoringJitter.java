@@ -0,0 +1,55 @@
+package com.cv.aiml_project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reproducible pseudo-random values for demo scoring.
+ * Every value is derived from the seed and the (job, candidate) pair, so the same inputs always
+ * give the same output and scores can be cached. Jitter on the overall score is off unless
+ * {@code app.scoring.jitter.enabled} is set.
+ */
+@Component
+public class ScoringJitter {
+
+    @Value("${app.scoring.jitter.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.scoring.jitter.seed:42}")
+    private long seed;
+
+    /**
+     * Multiplier for an overall score: 1 when jitter is off, otherwise 0.9 to 1.1
+     */
+    public double factor(Long jobId, Long candidateId) {
+        return enabled ? 0.9 + 0.2 * uniform(jobId, candidateId, "overall") : 1.0;
+    }
+
+    /**
+     * A stand-in for a signal no model produces yet, from {@code min} to {@code min + range}
+     */
+    public double simulated(Long jobId, Long candidateId, String signal, double min, double range) {
+        return min + range * uniform(jobId, candidateId, signal);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Uniform value in [0, 1) from a SplitMix64 hash of the seed, ids and signal name
+     */
+    double uniform(Long jobId, Long candidateId, String signal) {
+        long h = mix(seed ^ signal.hashCode());
+        h = mix(h ^ (jobId != null ? jobId : 0L));
+        h = mix(h ^ (candidateId != null ? candidateId : 0L));
+        return (h >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z += 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,11 +1,21 @@
 package com.cv.aiml_project.service;
 
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.MatchResultRow;
+import com.cv.aiml_project.dto.PageCursor;
 import com.cv.aiml_project.entity.*;
 import com.cv.aiml_project.repository.JobRepository;
 import com.cv.aiml_project.repository.ResumeRepository;
+import com.cv.aiml_project.repository.SkillMatchResultHistoryRepository;
 import com.cv.aiml_project.repository.SkillMatchResultRepository;
 import com.cv.aiml_project.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +30,12 @@ public class SkillMatchResultService {
     @Autowired
     private SkillMatchResultRepository skillMatchResultRepository;
 
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private SkillMatchResultHistoryRepository resultHistoryRepository;
+
     @Autowired
     private JobRepository jobRepository;
 
@@ -32,6 +48,24 @@ public class SkillMatchResultService {
     @Autowired
     private AIMatchingService aiMatchingService;
 
+    @Autowired
+    private SkillMatchingEngine skillMatchingEngine;
+
+    @Autowired
+    private MatchFeatureService matchFeatureService;
+
+    @Autowired
+    private ScoringJitter scoringJitter;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.api.page.max-limit:1000}")
+    private int maxPageSize;
+
     // ==================== CREATE/UPDATE OPERATIONS ====================
 
     /**
@@ -74,65 +108,59 @@ public class SkillMatchResultService {
 
         // Set AI processing status
         result.setAiProcessed(true);
-        result.setAiModelVersion("1.0.0");
-        result.setAiConfidence(85.0 + (Math.random() * 10)); // Simulated confidence
+        result.setAiConfidence(scoringJitter.simulated(jobId, candidateId, "confidence", 85.0, 10.0)); // Simulated confidence
 
-        return skillMatchResultRepository.save(result);
+        SkillMatchResult saved = skillMatchResultRepository.save(result);
+
+        // Keep the start of the resume text with the result
+        storedTextService.get(StoredText.Kind.RESUME_TEXT, currentResume.getId()).ifPresent(text ->
+                storedTextService.put(StoredText.Kind.MATCH_RAW_DATA, saved.getId(),
+                        text.substring(0, Math.min(500, text.length()))));
+        return saved;
     }
 
     /**
      * Calculate match scores for the result
      */
     private void calculateMatchScores(SkillMatchResult result, Job job, User candidate, Resume resume) {
-        // Get overall score from AIMatchingService
-        Double overallScore = aiMatchingService.calculateJobMatchScore(job, candidate);
-        result.setOverallScore(overallScore);
-
-        // Get component scores
-        Map<String, Double> componentScores = aiMatchingService.calculateComponentScores(job, candidate);
-        result.setSkillsScore(componentScores.get("skills"));
-        result.setExperienceScore(componentScores.get("experience"));
-        result.setEducationScore(componentScores.get("education"));
-
-        // Simulate additional scores (personality, cultural fit)
-        result.setPersonalityScore(70.0 + (Math.random() * 25));
-        result.setCulturalFitScore(65.0 + (Math.random() * 30));
+        // Overall and component scores from the active scoring model
+        MatchScorer.Score score = aiMatchingService.score(job, candidate);
+        result.setOverallScore(score.overall());
+        result.setSkillsScore(score.components().get("skills"));
+        result.setExperienceScore(score.components().get("experience"));
+        result.setEducationScore(score.components().get("education"));
+        result.setAiModelVersion(score.version());
+
+        // Simulate additional scores (personality, cultural fit), stable per job and candidate
+        result.setPersonalityScore(scoringJitter.simulated(job.getId(), candidate.getId(), "personality", 70.0, 25.0));
+        result.setCulturalFitScore(scoringJitter.simulated(job.getId(), candidate.getId(), "cultural_fit", 65.0, 30.0));
     }
 
     /**
      * Extract structured data from resume
      */
     private void extractStructuredData(SkillMatchResult result, Resume resume) {
-        // In a real implementation, this would parse the extracted text
-        // For now, use existing candidate profile data or simulated data
         User candidate = result.getCandidate();
+        CandidateFeatures features = matchFeatureService.getCandidateFeatures(candidate);
 
-        // Extract skills (from candidate profile)
-        result.setExtractedSkills(candidate.getSkills());
+        // Profile skills plus known skills found in the resume text
+        result.setExtractedSkills(String.join(", ", matchFeatureService.termNames(features.getSkillIds())));
 
-        // Extract experience
-        if (candidate.getExperienceYears() != null) {
-            result.setExtractedExperience(candidate.getExperienceYears() + " years of experience");
+        if (features.getExperienceYears() != null) {
+            result.setExtractedExperience(features.getExperienceYears() + " years of experience");
         } else {
             result.setExtractedExperience("Experience not specified");
         }
 
-        // Extract education
-        result.setExtractedEducation(candidate.getEducation());
-
-        // Extract certifications (simulated)
-        result.setExtractedCertifications("AWS Certified Developer, Scrum Master");
-
-        // Extract languages (simulated)
-        result.setExtractedLanguages("English (Fluent), Spanish (Conversational)");
+        result.setExtractedEducation(features.getEducationLevel() != null
+                ? features.getEducationLevel().getDisplayName() : candidate.getEducation());
 
-        // Extract projects (simulated)
-        result.setExtractedProjects("E-commerce Platform, Mobile App Development, Data Analytics Dashboard");
+        List<String> certifications = matchFeatureService.termNames(features.getCertificationIds());
+        result.setExtractedCertifications(certifications.isEmpty() ? null : String.join(", ", certifications));
 
-        // Set raw extracted data
-        if (resume.getExtractedText() != null) {
-            result.setRawExtractedData(resume.getExtractedText().substring(0, Math.min(500, resume.getExtractedText().length())));
-        }
+        // Languages and projects are not parsed yet
+        result.setExtractedLanguages(null);
+        result.setExtractedProjects(null);
     }
 
     /**
@@ -146,45 +174,11 @@ public class SkillMatchResultService {
             return;
         }
 
-        Set<String> requiredSkills = Arrays.stream(job.getRequiredSkills().split(","))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        Set<String> candidateSkills = Arrays.stream(candidate.getSkills().split(","))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
-
-        Set<String> matched = new HashSet<>();
-        Set<String> missing = new HashSet<>();
-        Set<String> partial = new HashSet<>();
-
-        for (String required : requiredSkills) {
-            boolean found = false;
-            boolean partialFound = false;
-
-            for (String candidateSkill : candidateSkills) {
-                if (candidateSkill.equals(required)) {
-                    found = true;
-                    break;
-                } else if (candidateSkill.contains(required) || required.contains(candidateSkill)) {
-                    partialFound = true;
-                }
-            }
-
-            if (found) {
-                matched.add(required);
-            } else if (partialFound) {
-                partial.add(required);
-            } else {
-                missing.add(required);
-            }
-        }
+        SkillMatcher.Result match = skillMatchingEngine.match(job.getRequiredSkills(), candidate.getSkills());
 
-        result.setMatchedSkills(String.join(", ", matched));
-        result.setMissingSkills(String.join(", ", missing));
-        result.setPartialSkills(String.join(", ", partial));
+        result.setMatchedSkills(String.join(", ", match.matched()));
+        result.setMissingSkills(String.join(", ", match.missing()));
+        result.setPartialSkills(String.join(", ", match.partial()));
     }
 
     /**
@@ -210,7 +204,7 @@ public class SkillMatchResultService {
 
         // Update AI processing info
         result.setAiProcessed(true);
-        result.setAiConfidence(85.0 + (Math.random() * 10));
+        result.setAiConfidence(scoringJitter.simulated(job.getId(), candidate.getId(), "confidence", 85.0, 10.0));
 
         return skillMatchResultRepository.save(result);
     }
@@ -224,9 +218,17 @@ public class SkillMatchResultService {
         return skillMatchResultRepository.findById(id);
     }
 
+    /**
+     * Resume text excerpt saved with a match result
+     */
+    public Optional<String> getRawExtractedData(Long resultId) {
+        return storedTextService.get(StoredText.Kind.MATCH_RAW_DATA, resultId);
+    }
+
     /**
      * Get all match results for a job
      */
+    @Transactional(readOnly = true)
     public List<SkillMatchResult> getMatchResultsForJob(Long jobId) {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found"));
@@ -264,6 +266,7 @@ public class SkillMatchResultService {
     /**
      * Get top N matches for a job
      */
+    @Transactional(readOnly = true)
     public List<SkillMatchResult> getTopMatchesForJob(Long jobId, int limit, Double minScore) {
         List<SkillMatchResult> allMatches = skillMatchResultRepository.findTopMatchesForJob(jobId, minScore != null ? minScore : 0.0);
         return allMatches.stream().limit(limit).collect(Collectors.toList());
@@ -272,6 +275,7 @@ public class SkillMatchResultService {
     /**
      * Get match statistics for a job
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getMatchStatisticsForJob(Long jobId) {
         Map<String, Object> stats = new HashMap<>();
 
@@ -315,6 +319,7 @@ public class SkillMatchResultService {
     public void deleteMatchResult(Long resultId) {
         SkillMatchResult result = skillMatchResultRepository.findById(resultId)
                 .orElseThrow(() -> new RuntimeException("Match result not found"));
+        storedTextService.delete(StoredText.Kind.MATCH_RAW_DATA, resultId);
         skillMatchResultRepository.delete(result);
     }
 
@@ -324,6 +329,7 @@ public class SkillMatchResultService {
     @Transactional
     public void deactivateAllForJob(Long jobId) {
         skillMatchResultRepository.deactivateAllForJob(jobId);
+        dataVersionService.jobDataChanged(DataVersionService.Channel.MATCH_RESULTS, jobId);
     }
 
     /**
@@ -332,6 +338,8 @@ public class SkillMatchResultService {
     @Transactional
     public void deleteAllForJob(Long jobId) {
         skillMatchResultRepository.deleteByJobId(jobId);
+        resultHistoryRepository.deleteByJobId(jobId);
+        dataVersionService.jobDataChanged(DataVersionService.Channel.MATCH_RESULTS, jobId);
     }
 
     /**
@@ -355,8 +363,10 @@ public class SkillMatchResultService {
         Job job = jobRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found"));
 
+        Timer.Sample sample = Timer.start(meterRegistry);
         List<User> candidates = userRepository.findByRole(Role.CANDIDATE);
         int processed = 0;
+        int failed = 0;
 
         for (User candidate : candidates) {
             if (candidate.hasResume()) {
@@ -365,11 +375,13 @@ public class SkillMatchResultService {
                     processed++;
                 } catch (Exception e) {
                     // Log error but continue processing others
+                    failed++;
                     System.err.println("Failed to process candidate " + candidate.getId() + ": " + e.getMessage());
                 }
             }
         }
 
+        recordBatch("process-all", sample, processed, failed);
         return processed;
     }
 
@@ -378,25 +390,53 @@ public class SkillMatchResultService {
      */
     @Transactional
     public int batchRecalculateForJob(Long jobId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         List<SkillMatchResult> results = skillMatchResultRepository.findLatestByJobOrderByScoreDesc(jobId);
         int recalculated = 0;
+        int failed = 0;
 
         for (SkillMatchResult result : results) {
             try {
                 recalculateScore(result.getId());
                 recalculated++;
             } catch (Exception e) {
+                failed++;
                 System.err.println("Failed to recalculate result " + result.getId() + ": " + e.getMessage());
             }
         }
 
+        recordBatch("recalculate", sample, recalculated, failed);
         return recalculated;
     }
 
+    /**
+     * Record duration and per-candidate outcomes of a batch run
+     */
+    private void recordBatch(String operation, Timer.Sample sample, int succeeded, int failed) {
+        sample.stop(Timer.builder(AppMetrics.SKILL_MATCH_BATCH)
+                .description("Duration of skill match batch runs")
+                .tag("operation", operation)
+                .register(meterRegistry));
+
+        Counter.builder(AppMetrics.SKILL_MATCH_BATCH_CANDIDATES)
+                .description("Candidates handled by skill match batch runs")
+                .tag("operation", operation)
+                .tag("outcome", AppMetrics.OUTCOME_SUCCESS)
+                .register(meterRegistry)
+                .increment(succeeded);
+        Counter.builder(AppMetrics.SKILL_MATCH_BATCH_CANDIDATES)
+                .description("Candidates handled by skill match batch runs")
+                .tag("operation", operation)
+                .tag("outcome", AppMetrics.OUTCOME_FAILURE)
+                .register(meterRegistry)
+                .increment(failed);
+    }
+
     // ==================== RANKING OPERATIONS ====================
 
     /**
-     * Update ranking positions for a job
+     * Update ranking positions for a job. Only rows whose position changed are dirty; they are
+     * written at flush as batched updates.
      */
     @Transactional
     public void updateRankingForJob(Long jobId) {
@@ -419,33 +459,30 @@ public class SkillMatchResultService {
 
 
     /**
-     * Get ranked candidates for a job
+     * One keyset page of a job's latest results, best score first. The cursor is the opaque
+     * token from the previous page (null for the first); ranks continue across pages.
      */
-    public List<Map<String, Object>> getRankedCandidatesForJob(Long jobId) {
-        List<SkillMatchResult> results = skillMatchResultRepository.findLatestByJobOrderByScoreDesc(jobId);
-        List<Map<String, Object>> rankedList = new ArrayList<>();
-
-        for (int i = 0; i < results.size(); i++) {
-            SkillMatchResult result = results.get(i);
-            User candidate = result.getCandidate();
-
-            Map<String, Object> rankedCandidate = new HashMap<>();
-            rankedCandidate.put("rank", i + 1);
-            rankedCandidate.put("candidateId", candidate.getId());
-            rankedCandidate.put("candidateName", candidate.getFullName());
-            rankedCandidate.put("candidateEmail", candidate.getEmail());
-            rankedCandidate.put("overallScore", result.getOverallScore());
-            rankedCandidate.put("skillsScore", result.getSkillsScore());
-            rankedCandidate.put("experienceScore", result.getExperienceScore());
-            rankedCandidate.put("educationScore", result.getEducationScore());
-            rankedCandidate.put("matchedSkills", result.getMatchedSkills());
-            rankedCandidate.put("missingSkills", result.getMissingSkills());
-            rankedCandidate.put("matchLevel", result.getMatchLevel());
-            rankedCandidate.put("percentile", result.getPercentile());
-
-            rankedList.add(rankedCandidate);
+    @Transactional(readOnly = true)
+    public CursorPage<MatchResultRow> getRankedCandidatesPage(Long jobId, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor, new PageCursor(Double.MAX_VALUE, 0, 0));
+        int size = Math.max(1, Math.min(limit, maxPageSize));
+
+        // One extra row tells whether another page follows
+        List<MatchResultRow> rows = skillMatchResultRepository.findLatestResultRowsAfter(
+                jobId, after.sortKey(), after.id(), PageRequest.of(0, size + 1));
+        boolean more = rows.size() > size;
+
+        List<MatchResultRow> page = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            page.add(rows.get(i).withRank(after.rank() + i + 1));
         }
 
-        return rankedList;
+        String next = null;
+        if (more) {
+            MatchResultRow last = page.get(page.size() - 1);
+            double score = last.overallScore() != null ? last.overallScore() : -1.0;
+            next = new PageCursor(score, last.resultId(), last.rank()).encode();
+        }
+        return new CursorPage<>(page, next);
     }
 }
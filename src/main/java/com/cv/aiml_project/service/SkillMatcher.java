@@ -0,0 +1,227 @@
+package com.cv.aiml_project.service;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * A job's required skills compiled for matching against candidate skill lists.
+ * Built once per distinct requirement list; each candidate is then classified in one
+ * pass over their skills, linear in the total length of the candidate's skill text:
+ * <ul>
+ *     <li>exact matches come from a hash lookup on the canonical (alias-resolved) name,</li>
+ *     <li>required skills contained in a candidate skill come from an Aho–Corasick scan,</li>
+ *     <li>candidate skills contained in a required skill come from a walk of a suffix trie.</li>
+ * </ul>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class SkillMatcher {
+
+    private final List<String> requiredSkills;   // display form, in job order
+    private final UnaryOperator<String> canonicalizer;
+    private final Map<String, int[]> exactIndex;  // canonical name -> required skill indices
+    private final Node automaton;                 // Aho–Corasick over canonical required skills
+    private final Node suffixTrie;                // every suffix of every canonical required skill
+
+    SkillMatcher(List<String> requiredSkills, UnaryOperator<String> canonicalizer) {
+        this.requiredSkills = List.copyOf(requiredSkills);
+        this.canonicalizer = canonicalizer;
+
+        List<String> canonical = new ArrayList<>(requiredSkills.size());
+        for (String skill : requiredSkills) {
+            canonical.add(canonicalizer.apply(skill));
+        }
+
+        Map<String, List<Integer>> exact = new HashMap<>();
+        for (int i = 0; i < canonical.size(); i++) {
+            exact.computeIfAbsent(canonical.get(i), k -> new ArrayList<>()).add(i);
+        }
+        this.exactIndex = new HashMap<>();
+        exact.forEach((name, indices) -> exactIndex.put(name, indices.stream().mapToInt(Integer::intValue).toArray()));
+
+        this.automaton = buildAutomaton(canonical);
+        this.suffixTrie = buildSuffixTrie(canonical);
+    }
+
+    public List<String> getRequiredSkills() {
+        return requiredSkills;
+    }
+
+    /**
+     * Classify each required skill as matched, partial or missing for the given candidate skills
+     */
+    public Result match(Collection<String> candidateSkills) {
+        int n = requiredSkills.size();
+        boolean[] matched = new boolean[n];
+        boolean[] partial = new boolean[n];
+
+        for (String skill : candidateSkills) {
+            String candidate = canonicalizer.apply(skill);
+            if (candidate.isEmpty()) {
+                continue;
+            }
+
+            int[] exact = exactIndex.get(candidate);
+            if (exact != null) {
+                for (int i : exact) {
+                    matched[i] = true;
+                }
+            }
+
+            // Required skills that occur inside this candidate skill
+            Node state = automaton;
+            for (int p = 0; p < candidate.length(); p++) {
+                state = step(state, candidate.charAt(p));
+                for (int i : state.output) {
+                    partial[i] = true;
+                }
+            }
+
+            // Required skills that contain this candidate skill
+            Node node = suffixTrie;
+            for (int p = 0; p < candidate.length() && node != null; p++) {
+                node = node.child(candidate.charAt(p));
+            }
+            if (node != null) {
+                for (int i = node.skills.nextSetBit(0); i >= 0; i = node.skills.nextSetBit(i + 1)) {
+                    partial[i] = true;
+                }
+            }
+        }
+
+        List<String> matchedSkills = new ArrayList<>();
+        List<String> partialSkills = new ArrayList<>();
+        List<String> missingSkills = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (matched[i]) {
+                matchedSkills.add(requiredSkills.get(i));
+            } else if (partial[i]) {
+                partialSkills.add(requiredSkills.get(i));
+            } else {
+                missingSkills.add(requiredSkills.get(i));
+            }
+        }
+        return new Result(matchedSkills, partialSkills, missingSkills);
+    }
+
+    /**
+     * Matched, partial and missing required skills, each in job order
+     */
+    public record Result(List<String> matched, List<String> partial, List<String> missing) {
+
+        public double matchedPercentage() {
+            int total = matched.size() + partial.size() + missing.size();
+            return total == 0 ? 100.0 : (matched.size() * 100.0) / total;
+        }
+    }
+
+    // ==================== AUTOMATON CONSTRUCTION ====================
+
+    private static Node step(Node state, char c) {
+        while (true) {
+            Node next = state.child(c);
+            if (next != null) {
+                return next;
+            }
+            if (state.fail == null) {
+                return state; // root
+            }
+            state = state.fail;
+        }
+    }
+
+    private static Node buildAutomaton(List<String> patterns) {
+        Builder root = new Builder();
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) continue;
+            Builder node = root;
+            for (int p = 0; p < pattern.length(); p++) {
+                node = node.children.computeIfAbsent(pattern.charAt(p), k -> new Builder());
+            }
+            node.output.add(i);
+        }
+
+        Node frozenRoot = root.freeze();
+
+        // Breadth-first failure links; outputs inherit those of their failure target
+        Deque<Node> queue = new ArrayDeque<>();
+        for (Node child : frozenRoot.next) {
+            child.fail = frozenRoot;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int k = 0; k < node.labels.length; k++) {
+                Node child = node.next[k];
+                Node fail = node.fail;
+                Node target;
+                while ((target = fail.child(node.labels[k])) == null && fail.fail != null) {
+                    fail = fail.fail;
+                }
+                child.fail = target != null ? target : frozenRoot;
+                if (child.fail.output.length > 0) {
+                    int[] merged = Arrays.copyOf(child.output, child.output.length + child.fail.output.length);
+                    System.arraycopy(child.fail.output, 0, merged, child.output.length, child.fail.output.length);
+                    child.output = merged;
+                }
+                queue.add(child);
+            }
+        }
+        return frozenRoot;
+    }
+
+    private static Node buildSuffixTrie(List<String> patterns) {
+        Builder root = new Builder();
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            for (int start = 0; start < pattern.length(); start++) {
+                Builder node = root;
+                for (int p = start; p < pattern.length(); p++) {
+                    node = node.children.computeIfAbsent(pattern.charAt(p), k -> new Builder());
+                    node.skills.set(i);
+                }
+            }
+        }
+        return root.freeze();
+    }
+
+    /**
+     * Mutable trie node used while building
+     */
+    private static final class Builder {
+        final TreeMap<Character, Builder> children = new TreeMap<>();
+        final List<Integer> output = new ArrayList<>();
+        final BitSet skills = new BitSet();
+
+        Node freeze() {
+            Node node = new Node();
+            node.labels = new char[children.size()];
+            node.next = new Node[children.size()];
+            int k = 0;
+            for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+                node.labels[k] = entry.getKey();
+                node.next[k] = entry.getValue().freeze();
+                k++;
+            }
+            node.output = output.stream().mapToInt(Integer::intValue).toArray();
+            node.skills = skills;
+            return node;
+        }
+    }
+
+    /**
+     * Compact trie node with children sorted by label for binary search
+     */
+    private static final class Node {
+        char[] labels;
+        Node[] next;
+        Node fail;
+        int[] output;
+        BitSet skills;
+
+        Node child(char c) {
+            int k = Arrays.binarySearch(labels, c);
+            return k >= 0 ? next[k] : null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.cv.aiml_project.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Matches candidate skills against job requirements, resolving aliases ("JS" = "JavaScript").
+ * Each distinct requirement list is compiled into a {@link SkillMatcher} once and cached.
+ */
+@Service
+public class SkillMatchingEngine {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${app.skills.aliases-file:classpath:skill-aliases.txt}")
+    private Resource aliasesFile;
+
+    @Value("${app.skills.matcher-cache-size:500}")
+    private int cacheSize;
+
+    private final Map<String, String> aliases = new HashMap<>();
+
+    private Map<String, SkillMatcher> matchers;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (aliasesFile.exists()) {
+            loadAliases();
+        }
+        matchers = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SkillMatcher> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    private void loadAliases() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(aliasesFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int colon = line.indexOf(':');
+                if (line.isEmpty() || line.startsWith("#") || colon < 0) {
+                    continue;
+                }
+                String canonical = normalize(line.substring(0, colon));
+                for (String alias : line.substring(colon + 1).split(",")) {
+                    String normalized = normalize(alias);
+                    if (!normalized.isEmpty()) {
+                        aliases.put(normalized, canonical);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Match a comma-separated candidate skill list against a comma-separated requirement list
+     */
+    public SkillMatcher.Result match(String requiredSkills, String candidateSkills) {
+        return compile(requiredSkills).match(splitSkills(candidateSkills));
+    }
+
+    /**
+     * Compiled matcher for a comma-separated requirement list, shared across candidates
+     */
+    public SkillMatcher compile(String requiredSkills) {
+        String key = requiredSkills != null ? requiredSkills : "";
+        SkillMatcher matcher = matchers.get(key);
+        if (matcher == null) {
+            matcher = new SkillMatcher(splitSkills(key), this::canonicalize);
+            matchers.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * Lower-cased, trimmed, de-duplicated skills in their original order
+     */
+    public List<String> splitSkills(String skills) {
+        if (skills == null || skills.isBlank()) {
+            return List.of();
+        }
+        Set<String> result = new LinkedHashSet<>();
+        for (String skill : skills.split(",")) {
+            String normalized = normalize(skill);
+            if (!normalized.isEmpty()) {
+                result.add(normalized);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Canonical name for a skill, resolving known aliases
+     */
+    public String canonicalize(String skill) {
+        String normalized = normalize(skill);
+        return aliases.getOrDefault(normalized, normalized);
+    }
+
+    private static String normalize(String skill) {
+        return WHITESPACE.matcher(skill.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
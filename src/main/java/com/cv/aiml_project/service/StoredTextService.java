@@ -0,0 +1,334 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.entity.Fingerprint;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.repository.StoredTextRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Explicit access to large texts kept in stored_texts instead of on their owning rows.
+ * Nothing is loaded with a resume, application or match result; callers that need the text ask
+ * for it here, in bulk where they handle many owners. Owners are deleted in many places (also in
+ * bulk by job or candidate), so texts left without an owner are swept up in the background.
+ */
+@Service
+public class StoredTextService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoredTextService.class);
+
+    // Below this many bytes compression rarely pays for its header
+    private static final int MIN_COMPRESS_BYTES = 128;
+
+    @Autowired
+    private StoredTextRepository storedTextRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stored-text.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${app.stored-text.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.stored-text.max-batches:200}")
+    private int maxBatches;
+
+    private TransactionTemplate transaction;
+
+    // Tables whose old inline columns are empty (or absent)
+    private final Set<String> legacyDone = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== READ ====================
+
+    public Optional<String> get(StoredText.Kind kind, Long ownerId) {
+        if (ownerId == null) {
+            return Optional.empty();
+        }
+        return storedTextRepository.findByKindAndOwnerId(kind, ownerId).map(StoredTextService::decode);
+    }
+
+    /**
+     * Texts of many owners in one query; owners without one are left out
+     */
+    public Map<Long, String> getAll(StoredText.Kind kind, Collection<Long> ownerIds) {
+        Map<Long, String> texts = new HashMap<>();
+        if (ownerIds.isEmpty()) {
+            return texts;
+        }
+        for (StoredText text : storedTextRepository.findByKindAndOwnerIdIn(kind, ownerIds)) {
+            texts.put(text.getOwnerId(), decode(text));
+        }
+        return texts;
+    }
+
+    /**
+     * {@link Fingerprint#of} the text without reading it, to tell whether it changed
+     */
+    public Optional<Long> fingerprint(StoredText.Kind kind, Long ownerId) {
+        return ownerId == null ? Optional.empty() : storedTextRepository.findFingerprint(kind, ownerId);
+    }
+
+    public Set<Long> ownersWithText(StoredText.Kind kind, Collection<Long> ownerIds) {
+        return ownerIds.isEmpty() ? Set.of() : new HashSet<>(storedTextRepository.findOwnerIds(kind, ownerIds));
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Store or replace the owner's text; null removes it. Joins the caller's transaction.
+     */
+    public void put(StoredText.Kind kind, Long ownerId, String text) {
+        if (text == null) {
+            delete(kind, ownerId);
+            return;
+        }
+        long fingerprint = Fingerprint.of(text);
+        StoredText stored = storedTextRepository.findByKindAndOwnerId(kind, ownerId)
+                .orElseGet(() -> new StoredText(kind, ownerId));
+        if (stored.getId() != null && stored.getFingerprint() == fingerprint
+                && stored.getTextLength() == text.length()) {
+            return;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] packed = raw.length >= MIN_COMPRESS_BYTES ? compress(raw, compressionLevel) : null;
+        boolean compressed = packed != null && packed.length < raw.length;
+        stored.setCompressed(compressed);
+        stored.setContent(compressed ? packed : raw);
+        stored.setTextLength(text.length());
+        stored.setFingerprint(fingerprint);
+        stored.setUpdatedAt(LocalDateTime.now());
+        storedTextRepository.save(stored);
+        recordBytes(kind, "raw", raw.length);
+        recordBytes(kind, "stored", stored.getContent().length);
+    }
+
+    public void delete(StoredText.Kind kind, Long ownerId) {
+        if (ownerId != null) {
+            deleteAll(kind, List.of(ownerId));
+        }
+    }
+
+    public void deleteAll(StoredText.Kind kind, Collection<Long> ownerIds) {
+        if (!ownerIds.isEmpty()) {
+            storedTextRepository.deleteByOwnerIds(kind, ownerIds);
+        }
+    }
+
+    // ==================== MAINTENANCE ====================
+
+    @Scheduled(initialDelayString = "${app.stored-text.initial-delay-ms:30000}",
+            fixedDelayString = "${app.stored-text.interval-ms:3600000}")
+    public void scheduledMaintenance() {
+        try {
+            int moved = moveLegacyColumns();
+            int orphans = deleteOrphans();
+            if (moved + orphans > 0) {
+                log.info("Stored texts: moved {} inline texts, removed {} without an owner", moved, orphans);
+            }
+        } catch (Exception e) {
+            log.warn("Stored text maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Move text still held in the owning tables' old columns into stored_texts
+     */
+    public int moveLegacyColumns() {
+        int moved = moveLegacy("resumes", storedTextRepository::findLegacyResumeTexts, rows -> {
+            List<Long> ids = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long id = ((Number) row[0]).longValue();
+                putLegacy(StoredText.Kind.RESUME_TEXT, id, (String) row[1]);
+                putLegacy(StoredText.Kind.RESUME_AI_RESPONSE, id, (String) row[2]);
+                ids.add(id);
+            }
+            storedTextRepository.clearLegacyResumeTexts(ids);
+        });
+        moved += moveLegacy("job_applications", storedTextRepository::findLegacyApplicationTexts, rows -> {
+            List<Long> ids = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long id = ((Number) row[0]).longValue();
+                putLegacy(StoredText.Kind.APPLICATION_RESUME_TEXT, id, (String) row[1]);
+                ids.add(id);
+            }
+            storedTextRepository.clearLegacyApplicationTexts(ids);
+        });
+        moved += moveLegacy("skill_match_results", storedTextRepository::findLegacyMatchTexts, rows -> {
+            List<Long> ids = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long id = ((Number) row[0]).longValue();
+                putLegacy(StoredText.Kind.MATCH_RAW_DATA, id, (String) row[1]);
+                ids.add(id);
+            }
+            storedTextRepository.clearLegacyMatchTexts(ids);
+        });
+        return moved;
+    }
+
+    private int moveLegacy(String table, IntFunction<List<Object[]>> next, Consumer<List<Object[]>> move) {
+        if (legacyDone.contains(table)) {
+            return 0;
+        }
+        int moved = 0;
+        try {
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer count = transaction.execute(status -> {
+                    List<Object[]> rows = next.apply(batchSize);
+                    if (!rows.isEmpty()) {
+                        move.accept(rows);
+                    }
+                    return rows.size();
+                });
+                moved += count;
+                if (count < batchSize) {
+                    legacyDone.add(table);
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            if (moved > 0 || !isMissingColumn(e)) {
+                throw e;
+            }
+            // Schema created after the move: the old columns were never there
+            log.debug("No inline texts to move from {}: {}", table, e.getMessage());
+            legacyDone.add(table);
+        }
+        return moved;
+    }
+
+    /**
+     * Whether the database rejected the query for naming a column the table does not have
+     * (SQLSTATE 42S22 on MySQL, 42703 elsewhere)
+     */
+    static boolean isMissingColumn(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql
+                    && ("42S22".equals(sql.getSQLState()) || "42703".equals(sql.getSQLState()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A text written since the upgrade is newer than the inline one
+    private void putLegacy(StoredText.Kind kind, Long ownerId, String text) {
+        if (text != null && storedTextRepository.findFingerprint(kind, ownerId).isEmpty()) {
+            put(kind, ownerId, text);
+        }
+    }
+
+    /**
+     * Remove texts whose resume, application or match result no longer exists
+     */
+    public int deleteOrphans() {
+        return deleteOrphanBatches(storedTextRepository::deleteOrphanedResumeTexts)
+                + deleteOrphanBatches(storedTextRepository::deleteOrphanedApplicationTexts)
+                + deleteOrphanBatches(storedTextRepository::deleteOrphanedMatchTexts);
+    }
+
+    private int deleteOrphanBatches(IntFunction<Integer> delete) {
+        int deleted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer count = transaction.execute(status -> delete.apply(batchSize));
+            deleted += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    // ==================== ENCODING ====================
+
+    private static String decode(StoredText text) {
+        byte[] raw = text.isCompressed() ? decompress(text.getContent()) : text.getContent();
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    static byte[] compress(byte[] raw, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static byte[] decompress(byte[] packed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(packed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new RuntimeException("Truncated stored text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Corrupt stored text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void recordBytes(StoredText.Kind kind, String form, long bytes) {
+        DistributionSummary.builder(AppMetrics.STORED_TEXT_BYTES)
+                .description("Size of stored texts before and after compression")
+                .baseUnit("bytes")
+                .tag("kind", kind.name())
+                .tag("form", form)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+}
@@ -0,0 +1,18 @@
+package com.cv.aiml_project.service;
+
+/**
+ * Turns resume and job text into fixed-size vectors for the candidate vector index.
+ * Vectors must be L2-normalised so that a dot product is the cosine similarity.
+ * Provide another bean of this type to replace the default hashing embedder.
+ */
+public interface TextEmbedder {
+
+    /**
+     * Name stored with the index; changing it rebuilds the index
+     */
+    String name();
+
+    int dimension();
+
+    float[] embed(String text);
+}
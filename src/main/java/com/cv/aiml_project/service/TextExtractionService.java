@@ -0,0 +1,439 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts plain text from uploaded resumes (PDF, DOCX, TXT) off the request path.
+ * Documents are parsed a page at a time on parser threads, a few at once; the caller waits at
+ * most the timeout for the result. A parse that outlives it is interrupted and its thread is
+ * abandoned: it no longer counts against the parser limit, so one document that hangs inside
+ * PDFBox cannot starve later uploads. Each PDF page has an operator budget, each document a
+ * character cap and a main-memory cap for PDF parsing (the rest spills to a temp file). The
+ * result is normalised text plus the offset at which each page starts.
+ */
+@Service
+public class TextExtractionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TextExtractionService.class);
+
+    private static final String PDF = "application/pdf";
+    private static final String DOCX = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    private static final String TEXT = "text/plain";
+
+    private static final String WORD_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\x0B\\f\\u00A0\\u2000-\\u200B\\u3000 ]+");
+    private static final Pattern CONTROL = Pattern.compile("[\\p{Cc}&&[^\\n]]");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    /**
+     * Normalised document text; {@code pageOffsets[i]} is where page {@code i + 1} starts
+     */
+    public record Result(String text, int[] pageOffsets, boolean truncated) {
+
+        public String pageOffsetsAsString() {
+            StringBuilder offsets = new StringBuilder();
+            for (int offset : pageOffsets) {
+                if (!offsets.isEmpty()) {
+                    offsets.append(',');
+                }
+                offsets.append(offset);
+            }
+            return offsets.toString();
+        }
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Value("${app.extraction.max-chars:100000}")
+    private int maxChars;
+
+    @Value("${app.extraction.max-pages:50}")
+    private int maxPages;
+
+    @Value("${app.extraction.max-memory-mb:32}")
+    private long maxMemoryMb;
+
+    @Value("${app.extraction.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    // Content stream operators read per PDF page before the rest of the page is skipped
+    @Value("${app.extraction.max-operators-per-page:200000}")
+    private int maxOperatorsPerPage;
+
+    // Abandoned parses still running before new documents are refused
+    @Value("${app.extraction.max-abandoned:4}")
+    private int maxAbandoned;
+
+    // Background jobs queued after commit; each waits for a parser slot for its document
+    private final ThreadPoolExecutor executor;
+    // Where documents are actually parsed, for background jobs and synchronous callers alike
+    private final TimeLimitedPool parser;
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+    private TransactionTemplate transactionTemplate;
+
+    public TextExtractionService(@Value("${app.extraction.workers:2}") int workers,
+                                 @Value("${app.extraction.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "text-extraction-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 2);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.parser = new TimeLimitedPool("Text extraction", "text-parser-", workers);
+
+        // DOCX parts are untrusted input
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // ==================== SUBMISSION ====================
+
+    /**
+     * Extract a stored file (by storage key) in the background once the current transaction commits, then hand
+     * the result to {@code onExtracted} inside a new transaction. Nothing is called back if the
+     * format is unsupported, extraction fails, or the queue is full.
+     */
+    public void extractAfterCommit(String key, String contentType, String fileName, Consumer<Result> onExtracted) {
+        Runnable submit = () -> {
+            try {
+                executor.execute(() -> extractAndApply(key, contentType, fileName, onExtracted));
+            } catch (RejectedExecutionException e) {
+                record("rejected", Timer.start(meterRegistry), formatOf(contentType, fileName));
+                log.warn("Text extraction queue full, skipping {}", fileName);
+            }
+        };
+
+        TransactionHooks.afterCommit(submit);
+    }
+
+    private void extractAndApply(String key, String contentType, String fileName, Consumer<Result> onExtracted) {
+        String format = formatOf(contentType, fileName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Result result = storageService.withLocalFile(key, file -> extractWithTimeout(file, format));
+            if (result == null) {
+                record("unsupported", sample, format);
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> onExtracted.accept(result));
+            record(result.truncated() ? "truncated" : AppMetrics.OUTCOME_SUCCESS, sample, format);
+        } catch (Exception e) {
+            record(AppMetrics.OUTCOME_FAILURE, sample, format);
+            log.warn("Text extraction failed for {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private void record(String outcome, Timer.Sample sample, String format) {
+        sample.stop(Timer.builder(AppMetrics.TEXT_EXTRACTION)
+                .description("Time taken to extract text from an uploaded document")
+                .tag("format", format)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    // ==================== EXTRACTION ====================
+
+    /**
+     * Extract on the parser pool and wait for it, at most the timeout; {@code null} if the format
+     * is not supported
+     */
+    public Result extract(Path file, String contentType, String fileName) throws IOException {
+        return extractWithTimeout(file, formatOf(contentType, fileName));
+    }
+
+    private Result extractWithTimeout(Path file, String format) throws IOException {
+        if ("other".equals(format)) {
+            return null;
+        }
+        return parser.call(() -> extract(file, format), timeoutSeconds, maxAbandoned);
+    }
+
+    private Result extract(Path file, String format) throws IOException {
+        PageCollector pages = new PageCollector();
+        switch (format) {
+            case "pdf" -> extractPdf(file, pages);
+            case "docx" -> extractDocx(file, pages);
+            case "txt" -> extractText(file, pages);
+            default -> {
+                return null;
+            }
+        }
+        return pages.result();
+    }
+
+    private void extractPdf(Path file, PageCollector pages) throws IOException {
+        MemoryUsageSetting memory = MemoryUsageSetting.setupMixed(maxMemoryMb * 1024 * 1024);
+        try (PDDocument document = PDDocument.load(file.toFile(), memory)) {
+            BoundedStripper stripper = new BoundedStripper(pages);
+            stripper.setSortByPosition(true);
+            int pageCount = Math.min(document.getNumberOfPages(), maxPages);
+            for (int page = 1; page <= pageCount && !pages.isFull(); page++) {
+                pages.checkCancelled();
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                pages.addPage(stripper.getText(document));
+                if (stripper.pageCut) {
+                    pages.truncated = true;
+                }
+            }
+            if (document.getNumberOfPages() > pageCount) {
+                pages.truncated = true;
+            }
+        }
+    }
+
+    /**
+     * Stops reading a page's content stream after the operator budget, keeping the text so far,
+     * and checks for cancellation between operators so an interrupted parse stops mid-page
+     */
+    private final class BoundedStripper extends PDFTextStripper {
+
+        private final PageCollector pages;
+        private int operators;
+        private boolean pageCut;
+
+        BoundedStripper(PageCollector pages) throws IOException {
+            this.pages = pages;
+        }
+
+        @Override
+        public void processPage(PDPage page) throws IOException {
+            operators = 0;
+            pageCut = false;
+            super.processPage(page);
+        }
+
+        @Override
+        protected void processOperator(Operator operator, List<COSBase> operands) throws IOException {
+            if (pageCut) {
+                return;
+            }
+            if (++operators > maxOperatorsPerPage) {
+                pageCut = true;
+                return;
+            }
+            if ((operators & 0xFF) == 0) {
+                pages.checkCancelled();
+            }
+            super.processOperator(operator, operands);
+        }
+    }
+
+    /**
+     * Streams word/document.xml out of the zip; pages are split at explicit and last-rendered page breaks
+     */
+    private void extractDocx(Path file, PageCollector pages) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(file))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if ("word/document.xml".equals(entry.getName())) {
+                    readDocumentXml(zip, pages);
+                    return;
+                }
+            }
+            throw new IOException("Not a Word document: word/document.xml missing");
+        }
+    }
+
+    private void readDocumentXml(InputStream in, PageCollector pages) throws IOException {
+        StringBuilder page = new StringBuilder();
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(in);
+            boolean inText = false;
+            int events = 0;
+            while (reader.hasNext() && !pages.isFull(page)) {
+                int event = reader.next();
+                if ((++events & 0xFFF) == 0) {
+                    pages.checkCancelled();
+                }
+                if (event == XMLStreamConstants.START_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = true;
+                        case "tab" -> page.append('\t');
+                        case "br", "cr" -> {
+                            if ("page".equals(reader.getAttributeValue(WORD_NS, "type"))) {
+                                pages.addPage(page.toString());
+                                page.setLength(0);
+                            } else {
+                                page.append('\n');
+                            }
+                        }
+                        case "lastRenderedPageBreak" -> {
+                            pages.addPage(page.toString());
+                            page.setLength(0);
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && WORD_NS.equals(reader.getNamespaceURI())) {
+                    switch (reader.getLocalName()) {
+                        case "t" -> inText = false;
+                        case "p" -> page.append('\n');
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    page.append(reader.getText());
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed Word document: " + e.getMessage(), e);
+        }
+        pages.addPage(page.toString());
+    }
+
+    private void extractText(Path file, PageCollector pages) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) > 0 && !pages.isFull(text)) {
+                text.append(buffer, 0, read);
+            }
+        }
+        pages.addPage(text.toString());
+    }
+
+    private static String formatOf(String contentType, String fileName) {
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (PDF.equals(contentType) || name.endsWith(".pdf")) {
+            return "pdf";
+        }
+        if (DOCX.equals(contentType) || name.endsWith(".docx")) {
+            return "docx";
+        }
+        if (TEXT.equals(contentType) || name.endsWith(".txt")) {
+            return "txt";
+        }
+        return "other";
+    }
+
+    /**
+     * Normalises pages as they arrive and enforces the character cap; stops once the parse is cancelled
+     */
+    private final class PageCollector {
+
+        private final StringBuilder text = new StringBuilder();
+        private final List<Integer> offsets = new ArrayList<>();
+        private boolean truncated;
+
+        void addPage(String raw) {
+            if (isFull()) {
+                truncated = true;
+                return;
+            }
+            String page = normalize(raw);
+            if (page.isEmpty() && !offsets.isEmpty()) {
+                return;
+            }
+            if (!text.isEmpty()) {
+                text.append("\n\n");
+            }
+            offsets.add(text.length());
+            int room = maxChars - text.length();
+            if (page.length() > room) {
+                text.append(page, 0, room);
+                truncated = true;
+            } else {
+                text.append(page);
+            }
+        }
+
+        boolean isFull() {
+            return text.length() >= maxChars;
+        }
+
+        boolean isFull(StringBuilder pending) {
+            return text.length() + pending.length() >= maxChars;
+        }
+
+        void checkCancelled() throws IOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("Extraction cancelled");
+            }
+        }
+
+        Result result() {
+            return new Result(text.toString(), offsets.stream().mapToInt(Integer::intValue).toArray(), truncated);
+        }
+    }
+
+    /**
+     * NFKC, no control characters, single spaces, trimmed lines, at most one blank line in a row
+     */
+    static String normalize(String raw) {
+        String text = Normalizer.normalize(raw, Normalizer.Form.NFKC)
+                .replace("\r\n", "\n")
+                .replace('\r', '\n');
+        text = CONTROL.matcher(text).replaceAll(" ");
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String line : text.split("\n", -1)) {
+            normalized.append(HORIZONTAL_SPACE.matcher(line).replaceAll(" ").trim()).append('\n');
+        }
+        return BLANK_LINES.matcher(normalized).replaceAll("\n\n").strip();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        parser.shutdownNow();
+    }
+}
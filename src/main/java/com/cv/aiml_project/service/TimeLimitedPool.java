@@ -0,0 +1,122 @@
+package com.cv.aiml_project.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs library work that may hang and ignore interrupts (PDF parsing and rendering) with a cap
+ * on how many calls run at once and a time limit per call. A call that outlives the limit is
+ * interrupted and its thread abandoned: the slot goes to the next caller and a fresh thread is
+ * started, so one stuck document cannot starve the rest. Callers are refused once too many
+ * abandoned threads are still running.
+ */
+final class TimeLimitedPool {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeLimitedPool.class);
+
+    private final String name;
+    // Unbounded, so an abandoned thread is replaced; the slots cap the calls that count
+    private final ThreadPoolExecutor threads;
+    private final Semaphore slots;
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    TimeLimitedPool(String name, String threadPrefix, int slots) {
+        this.name = name;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.threads = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 2);
+                    return thread;
+                });
+        this.slots = new Semaphore(slots);
+    }
+
+    /**
+     * Run the work and wait for it, for a slot and then for the result, at most the timeout each
+     */
+    <T> T call(Callable<T> work, long timeoutSeconds, int maxAbandoned) throws IOException {
+        if (abandoned.get() >= maxAbandoned) {
+            throw new IOException(name + " is busy, try again later");
+        }
+        try {
+            if (!slots.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IOException(name + " is busy, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(name + " interrupted");
+        }
+
+        // Whoever settles the call first, the work finishing or the caller giving up, frees its slot
+        AtomicBoolean settled = new AtomicBoolean();
+        Future<T> result;
+        try {
+            result = threads.submit(() -> {
+                try {
+                    return work.call();
+                } finally {
+                    if (settled.compareAndSet(false, true)) {
+                        slots.release();
+                    } else {
+                        abandoned.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw new IOException(name + " is busy, try again later");
+        }
+        try {
+            return result.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            abandon(result, settled, timeoutSeconds);
+            throw new IOException(name + " timed out after " + timeoutSeconds + "s");
+        } catch (InterruptedException e) {
+            abandon(result, settled, timeoutSeconds);
+            Thread.currentThread().interrupt();
+            throw new IOException(name + " interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Interrupt the work, which gives up at its next check, and stop waiting for its thread;
+     * the thread counts as abandoned until it returns
+     */
+    private void abandon(Future<?> result, AtomicBoolean settled, long timeoutSeconds) {
+        result.cancel(true);
+        if (settled.compareAndSet(false, true)) {
+            abandoned.incrementAndGet();
+            slots.release();
+            log.warn("{} abandoned after {}s; {} abandoned thread(s) still running", name, timeoutSeconds, abandoned.get());
+        }
+    }
+
+    int abandoned() {
+        return abandoned.get();
+    }
+
+    void shutdownNow() {
+        threads.shutdownNow();
+    }
+}
@@ -3,6 +3,7 @@ package com.cv.aiml_project.service;
 import com.cv.aiml_project.entity.JobApplication;
 import com.cv.aiml_project.entity.Resume;
 import com.cv.aiml_project.entity.Role;
+import com.cv.aiml_project.entity.StoredText;
 import com.cv.aiml_project.entity.User;
 import com.cv.aiml_project.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +33,15 @@ public class UserService {
     @Autowired
     private ResumeRepository resumeRepository;
 
+    @Autowired
+    private VectorIndexService vectorIndexService;
+
+    @Autowired
+    private JobFeedService jobFeedService;
+
+    @Autowired
+    private MatchFeatureService matchFeatureService;
+
     @Autowired
     private JobApplicationRepository jobApplicationRepository;
 
@@ -43,6 +51,21 @@ public class UserService {
     @Autowired
     private SkillMatchResultRepository skillMatchResultRepository;
 
+    @Autowired
+    private MatchHistoryService matchHistoryService;
+
+    @Autowired
+    private JobApplicationArchiveRepository applicationArchiveRepository;
+
+    @Autowired
+    private ResumeStorageService storageService;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private ApplicationEventService eventService;
+
     // ==================== USER CRUD OPERATIONS ====================
 
     public User registerUser(User user) {
@@ -79,6 +102,7 @@ public class UserService {
         return userRepository.findByIsActive(true);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getCandidates() {
         return userRepository.findByRole(Role.CANDIDATE);
     }
@@ -114,7 +138,15 @@ public class UserService {
             existingUser.setEducation(updatedUser.getEducation());
         }
 
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+
+        // Skills, education and experience are part of the candidate's resume embedding
+        if (savedUser.isCandidate()) {
+            resumeService.getCurrentResume(id).ifPresent(vectorIndexService::indexResume);
+            jobFeedService.evictCandidate(id);
+            matchFeatureService.refreshCandidate(id);
+        }
+        return savedUser;
     }
 
     public User updatePassword(Long userId, String newPassword) {
@@ -156,33 +188,38 @@ public class UserService {
                 // 1. Delete candidate rankings first
                 candidateRankingRepository.deleteByCandidateId(userId);
 
-                // 2. Delete skill match results
+                // 2. Delete skill match results and parsed features
                 skillMatchResultRepository.deleteByCandidateId(userId);
+                matchHistoryService.deleteCandidate(userId);
+                matchFeatureService.deleteCandidate(userId);
 
                 // 3. Handle job applications
                 List<JobApplication> applications = jobApplicationRepository.findByCandidate(user);
                 for (JobApplication app : applications) {
-                    // Delete resume file if exists
-                    if (app.getResumePath() != null) {
-                        try {
-                            Files.deleteIfExists(Paths.get(app.getResumePath()));
-                        } catch (IOException e) {
-                            System.err.println("Could not delete application resume file: " + app.getResumePath());
-                        }
-                    }
+                    // Delete resume file once no other row shares its content
+                    storageService.deleteAfterCommit(app.getResumePath());
+                    storageService.evictApplication(app.getId());
                 }
+                List<Long> applicationIds = applications.stream().map(JobApplication::getId).toList();
+                storedTextService.deleteAll(StoredText.Kind.APPLICATION_RESUME_TEXT, applicationIds);
+                eventService.deleteForApplications(applicationIds);
                 jobApplicationRepository.deleteAll(applications);
+                applicationArchiveRepository.findResumePathsByCandidateId(userId)
+                        .forEach(storageService::deleteAfterCommit);
+                // Archived applications keep their id, and with it their timeline
+                eventService.deleteForApplications(applicationArchiveRepository.findIdsByCandidateId(userId));
+                applicationArchiveRepository.deleteByCandidateId(userId);
 
                 // 4. Handle resumes last (since skill_match_results references them)
                 List<Resume> resumes = resumeRepository.findByUser(user);
                 for (Resume resume : resumes) {
-                    // Delete the physical file
-                    try {
-                        Files.deleteIfExists(Paths.get(resume.getFilePath()));
-                    } catch (IOException e) {
-                        System.err.println("Could not delete resume file: " + resume.getFilePath());
-                    }
+                    // Delete the stored file after commit
+                    storageService.deleteAfterCommit(resume.getFilePath());
+                    storageService.evictResume(resume.getId());
                 }
+                List<Long> resumeIds = resumes.stream().map(Resume::getId).toList();
+                storedTextService.deleteAll(StoredText.Kind.RESUME_TEXT, resumeIds);
+                storedTextService.deleteAll(StoredText.Kind.RESUME_AI_RESPONSE, resumeIds);
                 resumeRepository.deleteAll(resumes);
             }
 
@@ -229,22 +266,27 @@ public class UserService {
 
     // ==================== STATISTICS ====================
 
+    @Transactional(readOnly = true)
     public long getTotalUsers() {
         return userRepository.count();
     }
 
+    @Transactional(readOnly = true)
     public long getTotalCandidates() {
         return userRepository.countByRole(Role.CANDIDATE);
     }
 
+    @Transactional(readOnly = true)
     public long getTotalHR() {
         return userRepository.countByRole(Role.HR);
     }
 
+    @Transactional(readOnly = true)
     public long getActiveCandidates() {
         return userRepository.countByRoleAndIsActive(Role.CANDIDATE, true);
     }
 
+    @Transactional(readOnly = true)
     public long getMLProcessedUsers() {
         return resumeService.getProcessedResumeCount();
     }
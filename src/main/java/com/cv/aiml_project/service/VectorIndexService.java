@@ -0,0 +1,285 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.Resume;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.JobRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps an embedding per current resume and per job in local vector indexes.
+ * Resume vectors are owned by the candidate, so a candidate has at most one.
+ * Index files live under {@code app.vector.index-dir} and survive restarts; on startup only the
+ * difference from the database is applied in the background (rows indexed while the application
+ * was down or lost to a crash are added, deleted or replaced ones are dropped), which covers the
+ * whole table when the files are new or the embedder changed. Changes made by a transaction
+ * reach the index once it commits, so a rollback never leaves a vector behind.
+ */
+@Service
+public class VectorIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorIndexService.class);
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    @Autowired
+    private TextEmbedder embedder;
+
+    @Autowired
+    private ResumeRepository resumeRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Value("${app.vector.index-dir:./data/vector-index}")
+    private String indexDir;
+
+    @Value("${app.vector.nprobe:8}")
+    private int nprobe;
+
+    @Value("${app.vector.min-train-size:1000}")
+    private int minTrainSize;
+
+    private IvfVectorIndex resumeIndex;
+    private IvfVectorIndex jobIndex;
+
+    // Training and rebuilds run off the request path, one at a time
+    private final ExecutorService maintenance = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vector-index");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final AtomicBoolean trainingQueued = new AtomicBoolean();
+
+    @PostConstruct
+    void open() throws IOException {
+        Path dir = Paths.get(indexDir);
+        resumeIndex = new IvfVectorIndex(dir.resolve("resumes.vec"), embedder.name(), embedder.dimension(), nprobe, minTrainSize);
+        jobIndex = new IvfVectorIndex(dir.resolve("jobs.vec"), embedder.name(), embedder.dimension(), nprobe, minTrainSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStart() {
+        maintenance.execute(this::catchUp);
+    }
+
+    // ==================== INDEXING ====================
+
+    /**
+     * Index a candidate's current resume, replacing their previous one, once the current
+     * transaction commits
+     */
+    public void indexResume(Resume resume) {
+        Long resumeId = resume.getId();
+        Long candidateId = resume.getUser().getId();
+        String text = resumeText(storedTextService.get(StoredText.Kind.RESUME_TEXT, resumeId).orElse(null),
+                resume.getUser());
+        TransactionHooks.afterCommit(() -> indexResume(resumeId, candidateId, text));
+    }
+
+    private void indexResume(Long resumeId, Long candidateId, String text) {
+        try {
+            resumeIndex.upsert(resumeId, candidateId, embedder.embed(text), true);
+            scheduleTraining();
+        } catch (IOException e) {
+            log.warn("Could not index resume {}: {}", resumeId, e.getMessage());
+        }
+    }
+
+    public void removeResume(Long resumeId) {
+        TransactionHooks.afterCommit(() -> resumeIndex.remove(resumeId));
+    }
+
+    /**
+     * Index a job once the current transaction commits
+     */
+    public void indexJob(Job job) {
+        Long jobId = job.getId();
+        String text = jobText(job);
+        TransactionHooks.afterCommit(() -> indexJob(jobId, text));
+    }
+
+    private float[] indexJob(Long jobId, String text) {
+        float[] vector = embedder.embed(text);
+        try {
+            jobIndex.upsert(jobId, jobId, vector, false);
+        } catch (IOException e) {
+            log.warn("Could not index job {}: {}", jobId, e.getMessage());
+        }
+        return vector;
+    }
+
+    public void removeJob(Long jobId) {
+        TransactionHooks.afterCommit(() -> jobIndex.remove(jobId));
+    }
+
+    /**
+     * Apply the difference between the indexes and the database: index current resumes and
+     * jobs that have no vector, drop vectors whose row is gone or no longer current
+     */
+    public synchronized void catchUp() {
+        long start = System.currentTimeMillis();
+
+        Set<Long> staleResumes = resumeIndex.keys();
+        List<Long> missingResumes = new ArrayList<>();
+        for (Long id : resumeRepository.findAllCurrentResumeIds()) {
+            if (!staleResumes.remove(id)) {
+                missingResumes.add(id);
+            }
+        }
+        staleResumes.forEach(resumeIndex::remove);
+        for (List<Long> ids : batches(missingResumes)) {
+            Map<Long, String> texts = storedTextService.getAll(StoredText.Kind.RESUME_TEXT, ids);
+            resumeRepository.findWithUserByIdIn(ids).forEach(resume -> indexResume(resume.getId(),
+                    resume.getUser().getId(), resumeText(texts.get(resume.getId()), resume.getUser())));
+        }
+
+        Set<Long> staleJobs = jobIndex.keys();
+        List<Long> missingJobs = new ArrayList<>();
+        for (Long id : jobRepository.findAllIds()) {
+            if (!staleJobs.remove(id)) {
+                missingJobs.add(id);
+            }
+        }
+        staleJobs.forEach(jobIndex::remove);
+        for (List<Long> ids : batches(missingJobs)) {
+            jobRepository.findAllById(ids).forEach(job -> indexJob(job.getId(), jobText(job)));
+        }
+
+        // Centroids are not persisted: a restarted index trains again once it is large enough
+        if (resumeIndex.needsTraining()) {
+            resumeIndex.train();
+        }
+        resumeIndex.force();
+        jobIndex.force();
+        log.info("Vector index caught up: {} resumes added, {} removed, {} jobs added, {} removed in {} ms",
+                missingResumes.size(), staleResumes.size(), missingJobs.size(), staleJobs.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Re-embed every current resume and every job
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        resumeIndex.clear();
+        jobIndex.clear();
+
+        int page = 0;
+        Page<Resume> resumes;
+        do {
+            resumes = resumeRepository.findCurrentResumesWithUser(PageRequest.of(page++, REBUILD_PAGE_SIZE));
+            Map<Long, String> texts = storedTextService.getAll(StoredText.Kind.RESUME_TEXT,
+                    resumes.map(Resume::getId).toList());
+            resumes.forEach(resume -> indexResume(resume.getId(), resume.getUser().getId(),
+                    resumeText(texts.get(resume.getId()), resume.getUser())));
+        } while (resumes.hasNext());
+
+        jobRepository.findAll().forEach(job -> indexJob(job.getId(), jobText(job)));
+
+        if (resumeIndex.needsTraining()) {
+            resumeIndex.train();
+        }
+        resumeIndex.force();
+        jobIndex.force();
+        log.info("Vector index rebuilt: {} resumes, {} jobs in {} ms",
+                resumeIndex.size(), jobIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    private void scheduleTraining() {
+        if (resumeIndex.needsTraining() && trainingQueued.compareAndSet(false, true)) {
+            maintenance.execute(() -> {
+                trainingQueued.set(false);
+                resumeIndex.train();
+            });
+        }
+    }
+
+    // ==================== SEARCH ====================
+
+    /**
+     * Candidates whose current resume is most similar to the job, best first
+     */
+    public List<IvfVectorIndex.Hit> findSimilarCandidates(Job job, int limit) {
+        float[] query = jobIndex.get(job.getId()).orElseGet(() -> indexJob(job.getId(), jobText(job)));
+        return resumeIndex.search(query, limit);
+    }
+
+    public int getIndexedResumeCount() {
+        return resumeIndex.size();
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static List<List<Long>> batches(List<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += REBUILD_PAGE_SIZE) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + REBUILD_PAGE_SIZE)));
+        }
+        return batches;
+    }
+
+    // ==================== TEXT ====================
+
+    private String resumeText(String extractedText, User candidate) {
+        StringBuilder text = new StringBuilder();
+        append(text, candidate.getSkills());
+        append(text, candidate.getEducation());
+        if (candidate.getExperienceYears() != null) {
+            append(text, candidate.getExperienceYears() + " years");
+        }
+        append(text, extractedText);
+        return text.toString();
+    }
+
+    private String jobText(Job job) {
+        StringBuilder text = new StringBuilder();
+        append(text, job.getTitle());
+        append(text, job.getRequiredSkills());
+        append(text, job.getPreferredSkills());
+        append(text, job.getEducationRequirement());
+        append(text, job.getExperienceRequired());
+        append(text, job.getDescription());
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, String part) {
+        if (part != null && !part.isBlank()) {
+            text.append(part).append('\n');
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        maintenance.shutdownNow();
+        resumeIndex.close();
+        jobIndex.close();
+    }
+}
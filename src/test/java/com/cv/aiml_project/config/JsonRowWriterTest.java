@@ -0,0 +1,45 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.dto.CursorPage;
+import com.cv.aiml_project.dto.MatchResultRow;
+import com.cv.aiml_project.dto.PageCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRowWriterTest {
+
+    @Test
+    void streamsSelectedFieldsAndCursor() throws Exception {
+        JsonRowWriter writer = new JsonRowWriter();
+        ReflectionTestUtils.setField(writer, "jsonMapper", JsonMapper.builder().build());
+
+        MatchResultRow row = new MatchResultRow(7L, 3L, "Jane Doe", "jane@example.com",
+                72.5, 80.0, 60.0, 50.0, "java", "go", 90.0).withRank(1);
+        String cursor = new PageCursor(72.5, 7L, 1).encode();
+        Set<String> fields = writer.parseFields("rank, candidateName,matchLevel", MatchResultRow.class);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.page("rankings", new CursorPage<>(List.of(row), cursor), fields).writeTo(out);
+
+        assertEquals("{\"success\":true,\"rankings\":[{\"rank\":1,\"candidateName\":\"Jane Doe\","
+                        + "\"matchLevel\":\"Good Match\"}],\"nextCursor\":\"" + cursor + "\"}",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(new PageCursor(72.5, 7L, 1), PageCursor.decode(cursor, null));
+    }
+
+    @Test
+    void rejectsUnknownFieldsAndBadCursors() {
+        JsonRowWriter writer = new JsonRowWriter();
+        assertNull(writer.parseFields(" ", MatchResultRow.class));
+        assertThrows(IllegalArgumentException.class, () -> writer.parseFields("rank,salary", MatchResultRow.class));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not-a-cursor", null));
+    }
+}
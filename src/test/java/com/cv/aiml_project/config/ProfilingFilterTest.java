@@ -0,0 +1,64 @@
+package com.cv.aiml_project.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilingFilterTest {
+
+    private ProfilingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ProfilingFilter();
+        ReflectionTestUtils.setField(filter, "addHeaders", true);
+        ReflectionTestUtils.setField(filter, "statementThreshold", 50L);
+        ReflectionTestUtils.setField(filter, "jdbcMillisThreshold", 500L);
+        ReflectionTestUtils.setField(filter, "allocatedMbThreshold", 64L);
+    }
+
+    @Test
+    void addsHeadersBeforeTheBodyWithoutBufferingIt() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean[] flushedThrough = new boolean[1];
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/jobs"), response, (req, res) -> {
+            res.getWriter().write("first chunk");
+            res.flushBuffer();
+            // Reached the real response: nothing held back until the end of the request
+            flushedThrough[0] = response.isCommitted();
+            res.getWriter().write(", second chunk");
+        });
+
+        assertTrue(flushedThrough[0]);
+        assertEquals("first chunk, second chunk", response.getContentAsString());
+        assertNotNull(response.getHeader("X-Profile-Sql-Statements"));
+        assertNotNull(response.getHeader("Server-Timing"));
+    }
+
+    @Test
+    void addsHeadersToResponsesWithoutBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/jobs/1/delete"), response,
+                (req, res) -> ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_NO_CONTENT));
+
+        assertEquals("0", response.getHeader("X-Profile-Sql-Statements"));
+    }
+
+    @Test
+    void leavesEventStreamsAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/live");
+        request.addHeader("Accept", "text/event-stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> assertSame(response, res));
+
+        assertNull(response.getHeader("X-Profile-Sql-Statements"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.cv.aiml_project.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaFallbackDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaLagMonitor lagMonitor;
+    private ReplicaFallbackDataSource readOnly;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        readOnly = new ReplicaFallbackDataSource(replica, primary, lagMonitor);
+    }
+
+    @Test
+    void readsGoToReplicaOnlyWhileItIsCurrent() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        assertSame(replicaConnection, reporting(this::readOnlyConnection));
+
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        assertSame(primaryConnection, reporting(this::readOnlyConnection));
+    }
+
+    @Test
+    void readOnlyWorkOutsideReportingStaysOnPrimary() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertSame(primaryConnection, readOnly.getConnection());
+    }
+
+    @Test
+    void refusedReplicaConnectionFallsBackToPrimary() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primaryConnection, reporting(this::readOnlyConnection));
+        verify(lagMonitor).connectionFailed(any(SQLException.class));
+    }
+
+    @Test
+    void primaryRequiredOverridesReplica() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        Connection connection = reporting(() -> ReplicaRouting.fromPrimary(this::readOnlyConnection));
+
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void lazyProxyRoutesByReadOnlyFlag() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(primaryConnection.getAutoCommit()).thenReturn(true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+
+        // What the transaction manager does for @Transactional(readOnly = true) before the first statement
+        reporting(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setReadOnly(true);
+                connection.createStatement();
+                return null;
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        verify(replicaConnection).createStatement();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+        verify(primaryConnection).createStatement();
+    }
+
+    @Test
+    void readOnlyAndWriteTransactionsSharingAConnectionStayOnPrimary() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(primaryConnection.getAutoCommit()).thenReturn(true);
+        when(replicaConnection.getAutoCommit()).thenReturn(true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        // A connection held for the whole request, as an open EntityManager keeps its first one
+        TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(dataSource.getConnection()));
+        try {
+            reporting(() -> readOnlyTx.execute(status -> statement(dataSource)));
+            writeTx.execute(status -> statement(dataSource));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(dataSource);
+        }
+
+        verify(replicaConnection, never()).createStatement();
+        verify(primaryConnection, times(2)).createStatement();
+    }
+
+    @Test
+    void reportingTransactionUsesReplicaAndNextWriteThePrimary() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        when(primaryConnection.getAutoCommit()).thenReturn(true);
+        when(replicaConnection.getAutoCommit()).thenReturn(true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        TransactionTemplate writeTx = new TransactionTemplate(transactionManager);
+
+        reporting(() -> readOnlyTx.execute(status -> statement(dataSource)));
+        writeTx.execute(status -> statement(dataSource));
+
+        verify(replicaConnection).createStatement();
+        verify(primaryConnection).createStatement();
+    }
+
+    private <T> T reporting(java.util.function.Supplier<T> read) {
+        return ReplicaRouting.fromReplica(read);
+    }
+
+    private Connection readOnlyConnection() {
+        try {
+            return readOnly.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object statement(DataSource dataSource) {
+        try {
+            return DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.dto.StoredFile;
+import com.cv.aiml_project.service.ResumeStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.CacheControl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StoredFileWriterTest {
+
+    private static final String KEY = "ab/cd/abcd" + "0".repeat(60) + ".pdf";
+
+    @TempDir
+    Path dir;
+
+    private StoredFileWriter writer;
+    private StoredFile file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path blob = dir.resolve("resume.pdf");
+        Files.writeString(blob, "0123456789", StandardCharsets.UTF_8);
+
+        ResumeStorageService storageService = mock(ResumeStorageService.class);
+        when(storageService.localFile(KEY)).thenReturn(Optional.of(blob));
+
+        writer = new StoredFileWriter();
+        ReflectionTestUtils.setField(writer, "storageService", storageService);
+        ReflectionTestUtils.setField(writer, "sendfileEnabled", true);
+        file = new StoredFile(KEY, "cv.pdf", "application/pdf", 10L, LocalDateTime.of(2024, 1, 2, 3, 4), 1L, "jane");
+    }
+
+    @Test
+    void servesRangesAndRevalidates() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/candidate/resume/view");
+        request.addHeader("Range", "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, true, CacheControl.noCache(), request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("\"abcd" + "0".repeat(60) + "\"", response.getHeader("ETag"));
+
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/candidate/resume/view");
+        again.addHeader("If-None-Match", response.getHeader("ETag"));
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        writer.write(file, true, CacheControl.noCache(), again, notModified);
+        assertEquals(304, notModified.getStatus());
+        assertEquals(0, notModified.getContentAsByteArray().length);
+
+        MockHttpServletRequest outOfRange = new MockHttpServletRequest("GET", "/candidate/resume/view");
+        outOfRange.addHeader("Range", "bytes=20-");
+        MockHttpServletResponse unsatisfiable = new MockHttpServletResponse();
+        writer.write(file, true, CacheControl.noCache(), outOfRange, unsatisfiable);
+        assertEquals(416, unsatisfiable.getStatus());
+        assertEquals("bytes */10", unsatisfiable.getHeader("Content-Range"));
+    }
+
+    @Test
+    void handsLocalFilesToSendfile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/candidate/resume/download");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(file, false, CacheControl.noCache(), request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals(dir.resolve("resume.pdf").toAbsolutePath().toString(),
+                request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(10L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
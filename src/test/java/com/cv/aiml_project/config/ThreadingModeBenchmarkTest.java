@@ -0,0 +1,101 @@
+package com.cv.aiml_project.config;
+
+import com.cv.aiml_project.AimlProjectApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the application once per threading mode and sends a burst of concurrent HTTP requests
+ * through Tomcat, the security filters and a handler that blocks on the database
+ * ({@code /actuator/health} pings it by default; pick another public path with
+ * {@code -Dbenchmark.path}). Virtual threads only run on a Java 21+ JVM; on older JVMs that mode
+ * is reported as skipped, since Spring Boot falls back to the platform pool there.
+ * Run with {@code mvn test -Dtest=ThreadingModeBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadingModeBenchmarkTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int IN_FLIGHT = 1_000;
+
+    @Test
+    void compareRequestBurst() throws Exception {
+        String path = System.getProperty("benchmark.path", "/actuator/health");
+
+        System.out.println("platform(200)      " + run(false, path));
+        if (Runtime.version().feature() >= 21) {
+            System.out.println("virtual            " + run(true, path));
+        } else {
+            System.out.println("virtual            skipped: Java " + Runtime.version().feature() + " < 21");
+        }
+    }
+
+    private Result run(boolean virtual, String path) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AimlProjectApplication.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtual)
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + path);
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            // Warm up the handler, pools and JIT before measuring
+            for (int i = 0; i < 200; i++) {
+                client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+            }
+            return burst(client, uri);
+        }
+    }
+
+    private Result burst(HttpClient client, URI uri) throws Exception {
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        AtomicInteger failed = new AtomicInteger();
+        long[] latencies = new long[REQUESTS];
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            requests[i] = client.sendAsync(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        CompletableFuture.allOf(requests).exceptionally(error -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(0, failed.get(), "failed requests");
+        Arrays.sort(latencies);
+        return new Result(elapsed, latencies[REQUESTS / 2], latencies[(int) (REQUESTS * 0.99)]);
+    }
+
+    private record Result(long elapsedNanos, long p50Nanos, long p99Nanos) {
+        @Override
+        public String toString() {
+            return String.format("total=%d ms, throughput=%.0f req/s, p50=%d ms, p99=%d ms",
+                    elapsedNanos / 1_000_000, REQUESTS / (elapsedNanos / 1e9),
+                    p50Nanos / 1_000_000, p99Nanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.ArchivalReport;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.entity.ArchivalCheckpoint;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.repository.ArchivalCheckpointRepository;
+import com.cv.aiml_project.repository.CandidateRankingRepository;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ApplicationArchivalService} over an in-memory job_applications table that answers the
+ * repository queries the way their JPQL does
+ */
+class ApplicationArchivalServiceTest {
+
+    private static final String ARCHIVE_30D = ApplicationArchivalService.checkpointKey(ApplicationArchivalService.ARCHIVE_STEP, 30);
+    private static final String MOVE_180D = ApplicationArchivalService.checkpointKey(ApplicationArchivalService.MOVE_STEP, 180);
+
+    private final ApplicationArchivalService service = new ApplicationArchivalService();
+    private final List<Row> applications = new ArrayList<>();
+    private final Map<String, ArchivalCheckpoint> checkpoints = new HashMap<>();
+    private final LocalDateTime now = LocalDateTime.now();
+    private JobApplicationRepository applicationRepository;
+    private JobApplicationArchiveRepository archiveRepository;
+    private CandidateRankingRepository rankingRepository;
+    private ArchivalCheckpointRepository checkpointRepository;
+    private ResumeStorageService storageService;
+    private StoredTextService storedTextService;
+    private DataVersionService dataVersionService;
+
+    private static final class Row {
+        final long id;
+        final long jobId;
+        final ApplicationStatus status;
+        final LocalDateTime closedAt;
+        boolean archived;
+        LocalDateTime archiveDate;
+
+        Row(long id, long jobId, ApplicationStatus status, LocalDateTime closedAt) {
+            this.id = id;
+            this.jobId = jobId;
+            this.status = status;
+            this.closedAt = closedAt;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(JobApplicationRepository.class);
+        archiveRepository = mock(JobApplicationArchiveRepository.class);
+        rankingRepository = mock(CandidateRankingRepository.class);
+        checkpointRepository = mock(ArchivalCheckpointRepository.class);
+        storageService = mock(ResumeStorageService.class);
+        storedTextService = mock(StoredTextService.class);
+        dataVersionService = mock(DataVersionService.class);
+        stubApplications();
+        when(checkpointRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> {
+            ArchivalCheckpoint checkpoint = invocation.getArgument(0);
+            checkpoints.put(checkpoint.getStep(), checkpoint);
+            return checkpoint;
+        });
+        TransactionTemplate transaction = mock(TransactionTemplate.class);
+        when(transaction.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        ReflectionTestUtils.setField(service, "applicationRepository", applicationRepository);
+        ReflectionTestUtils.setField(service, "archiveRepository", archiveRepository);
+        ReflectionTestUtils.setField(service, "rankingRepository", rankingRepository);
+        ReflectionTestUtils.setField(service, "checkpointRepository", checkpointRepository);
+        ReflectionTestUtils.setField(service, "storageService", storageService);
+        ReflectionTestUtils.setField(service, "storedTextService", storedTextService);
+        ReflectionTestUtils.setField(service, "dataVersionService", dataVersionService);
+        ReflectionTestUtils.setField(service, "transaction", transaction);
+        ReflectionTestUtils.setField(service, "moveAfterDays", 180);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxChunks", 10);
+        ReflectionTestUtils.setField(service, "pauseMillis", 0L);
+    }
+
+    @Test
+    void resumesFromTheStepCheckpoint() {
+        for (long id = 1; id <= 5; id++) {
+            closed(id, ApplicationStatus.REJECTED, 60);
+        }
+        checkpoint(ARCHIVE_30D, 2);
+
+        ArchivalReport report = service.run(30, false);
+
+        assertEquals(3, report.getArchived());
+        verify(applicationRepository).findArchivableIds(eq(2L), any(), any(), any());
+        assertEquals(List.of(3L, 4L, 5L), ids(row -> row.archived));
+    }
+
+    @Test
+    void stopsAtTheChunkLimitAndStartsOverAfterAShortChunk() {
+        ReflectionTestUtils.setField(service, "maxChunks", 1);
+        for (long id = 1; id <= 3; id++) {
+            closed(id, ApplicationStatus.WITHDRAWN, 60);
+        }
+
+        ArchivalReport first = service.run(30, false);
+
+        assertEquals(2, first.getArchived());
+        assertFalse(first.isComplete());
+        assertEquals(2, checkpoints.get(ARCHIVE_30D).getLastId());
+
+        ArchivalReport second = service.run(30, false);
+
+        assertEquals(1, second.getArchived());
+        assertTrue(second.isComplete());
+        // The pass reached the end, so the next one starts from the first id again
+        assertEquals(0, checkpoints.get(ARCHIVE_30D).getLastId());
+        assertEquals(List.of(1L, 2L, 3L), ids(row -> row.archived));
+    }
+
+    @Test
+    void checkpointsAreKeptPerThreshold() {
+        closed(1, ApplicationStatus.REJECTED, 60);
+        checkpoint(ApplicationArchivalService.checkpointKey(ApplicationArchivalService.ARCHIVE_STEP, 7), 5);
+
+        assertEquals(1, service.run(30, false).getArchived());
+        assertEquals(5, checkpoints.get(ApplicationArchivalService.checkpointKey(ApplicationArchivalService.ARCHIVE_STEP, 7)).getLastId());
+    }
+
+    @Test
+    void moveCopiesDetachesRankingsAndDropsStoredTextsBeforeDeleting() {
+        archivedRow(7, 11, 200);
+        archivedRow(8, 12, 200);
+        archivedRow(9, 11, 10);
+
+        ArchivalReport report = service.run(30, false);
+
+        assertEquals(2, report.getMoved());
+        InOrder order = inOrder(archiveRepository, rankingRepository, applicationRepository);
+        order.verify(archiveRepository).copyFrom(eq(List.of(7L, 8L)), any());
+        order.verify(rankingRepository).detachApplications(List.of(7L, 8L));
+        order.verify(applicationRepository).deleteAllByIdInBatch(List.of(7L, 8L));
+        verify(storedTextService).deleteAll(StoredText.Kind.APPLICATION_RESUME_TEXT, List.of(7L, 8L));
+        verify(storageService).evictApplication(7L);
+        verify(storageService).evictApplication(8L);
+        verify(dataVersionService).jobDataChanged(DataVersionService.Channel.APPLICATIONS, 11L);
+        verify(dataVersionService).jobDataChanged(DataVersionService.Channel.APPLICATIONS, 12L);
+        assertEquals(List.of(9L), ids(row -> true));
+        assertEquals(0, checkpoints.get(MOVE_180D).getLastId());
+    }
+
+    @Test
+    void dryRunCountsWhatARealRunTouchesAndWritesNothing() {
+        closed(1, ApplicationStatus.REJECTED, 60);
+        closed(2, ApplicationStatus.HIRED, 45);
+        closed(3, ApplicationStatus.REJECTED, 90);
+        closed(4, ApplicationStatus.WITHDRAWN, 5);
+        closed(5, ApplicationStatus.PENDING, 120);
+        closed(6, ApplicationStatus.WITHDRAWN, 31);
+        archivedRow(7, 11, 200);
+        archivedRow(8, 11, 181);
+        archivedRow(9, 11, 179);
+
+        ArchivalReport preview = service.run(30, true);
+
+        verify(applicationRepository, never()).archiveByIds(any(), any());
+        verify(archiveRepository, never()).copyFrom(any(), any());
+        verify(checkpointRepository, never()).save(any());
+        assertEquals(Map.of("REJECTED", 2L, "HIRED", 1L, "WITHDRAWN", 1L), preview.getArchivableByStatus());
+
+        ArchivalReport real = service.run(30, false);
+
+        assertEquals(preview.getArchivable(), real.getArchived());
+        assertEquals(preview.getMovable(), real.getMoved());
+        assertEquals(4, real.getArchived());
+        assertEquals(2, real.getMoved());
+    }
+
+    // ==================== IN-MEMORY TABLE ====================
+
+    private void stubApplications() {
+        when(applicationRepository.findArchivableIds(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Collection<ApplicationStatus> statuses = invocation.getArgument(1);
+            LocalDateTime threshold = invocation.getArgument(2);
+            Pageable page = invocation.getArgument(3);
+            return archivable(statuses, threshold).filter(row -> row.id > afterId)
+                    .limit(page.getPageSize()).map(row -> row.id).toList();
+        });
+        when(applicationRepository.countArchivableByStatus(any(), any())).thenAnswer(invocation ->
+                archivable(invocation.getArgument(0), invocation.getArgument(1))
+                        .collect(Collectors.groupingBy(row -> row.status, Collectors.counting()))
+                        .entrySet().stream().map(entry -> new Object[] {entry.getKey(), entry.getValue()}).toList());
+        when(applicationRepository.findMovableIds(anyLong(), any(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(2);
+            return movable(invocation.getArgument(1)).filter(row -> row.id > afterId)
+                    .limit(page.getPageSize()).map(row -> row.id).toList();
+        });
+        when(applicationRepository.countMovable(any()))
+                .thenAnswer(invocation -> movable(invocation.getArgument(0)).count());
+        when(applicationRepository.findJobIdsByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return applications.stream().filter(row -> ids.contains(row.id)).map(row -> row.jobId).distinct().toList();
+        });
+        when(applicationRepository.archiveByIds(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            LocalDateTime at = invocation.getArgument(1);
+            List<Row> rows = applications.stream().filter(row -> ids.contains(row.id)).toList();
+            rows.forEach(row -> {
+                row.archived = true;
+                row.archiveDate = at;
+            });
+            return rows.size();
+        });
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            applications.removeIf(row -> ids.contains(row.id));
+            return null;
+        }).when(applicationRepository).deleteAllByIdInBatch(any());
+    }
+
+    private Stream<Row> archivable(Collection<ApplicationStatus> statuses, LocalDateTime threshold) {
+        return applications.stream()
+                .filter(row -> !row.archived && statuses.contains(row.status) && row.closedAt.isBefore(threshold));
+    }
+
+    private Stream<Row> movable(LocalDateTime threshold) {
+        return applications.stream().filter(row -> row.archived && row.archiveDate.isBefore(threshold));
+    }
+
+    private void closed(long id, ApplicationStatus status, int daysAgo) {
+        applications.add(new Row(id, 10, status, now.minusDays(daysAgo)));
+    }
+
+    private void archivedRow(long id, long jobId, int daysAgo) {
+        Row row = new Row(id, jobId, ApplicationStatus.REJECTED, now.minusDays(daysAgo + 30));
+        row.archived = true;
+        row.archiveDate = now.minusDays(daysAgo);
+        applications.add(row);
+    }
+
+    private void checkpoint(String step, long lastId) {
+        ArchivalCheckpoint checkpoint = new ArchivalCheckpoint(step);
+        checkpoint.setLastId(lastId);
+        checkpoints.put(step, checkpoint);
+    }
+
+    private List<Long> ids(Predicate<Row> filter) {
+        return applications.stream().filter(filter).map(row -> row.id).sorted().toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.AimlProjectApplication;
+import com.cv.aiml_project.dto.ArchivalReport;
+import com.cv.aiml_project.entity.ApplicationStatus;
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobApplication;
+import com.cv.aiml_project.entity.JobType;
+import com.cv.aiml_project.entity.Role;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.ArchivalCheckpointRepository;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ApplicationArchivalService} and its set-based queries on the configured database.
+ * The run joins the test's transaction, which is rolled back at the end, so other rows it
+ * picks up and the checkpoints are left as they were.
+ * Run with {@code mvn test -Dtest=ApplicationArchivalTest -Ddatabase=true}.
+ */
+@SpringBootTest(classes = AimlProjectApplication.class)
+@EnabledIfSystemProperty(named = "database", matches = "true")
+class ApplicationArchivalTest {
+
+    @Autowired
+    private ApplicationArchivalService archivalService;
+
+    @Autowired
+    private JobApplicationArchiveRepository archiveRepository;
+
+    @Autowired
+    private ArchivalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private StoredTextService storedTextService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void dryRunCountsWhatTheRunArchivesAndMoves() {
+        Object maxChunks = ReflectionTestUtils.getField(archivalService, "maxChunks");
+        Object pauseMillis = ReflectionTestUtils.getField(archivalService, "pauseMillis");
+        // One pass over everything due, so the counts cover the whole table like the dry run
+        ReflectionTestUtils.setField(archivalService, "maxChunks", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(archivalService, "pauseMillis", 0L);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                run();
+            });
+        } finally {
+            ReflectionTestUtils.setField(archivalService, "maxChunks", maxChunks);
+            ReflectionTestUtils.setField(archivalService, "pauseMillis", pauseMillis);
+        }
+    }
+
+    private void run() {
+        // Start every step from the first id, as the dry run counts from there
+        checkpointRepository.deleteAll();
+        User hr = persist(new User("archival-hr", "archival-hr@example.com", "x", "Archival", "Hr", null, Role.HR));
+        Job job = persist(new Job("Archival", "Archival test", "Engineering", "Remote", JobType.FULL_TIME,
+                "3 years", "java", "Bachelor", 1, 2, LocalDateTime.now().plusDays(30), 1, hr));
+        LocalDateTime now = LocalDateTime.now();
+
+        JobApplication rejected = application(job, "rejected", ApplicationStatus.REJECTED, now.minusDays(60));
+        JobApplication pending = application(job, "pending", ApplicationStatus.PENDING, now.minusDays(60));
+        JobApplication recent = application(job, "recent", ApplicationStatus.WITHDRAWN, now.minusDays(5));
+        JobApplication longArchived = application(job, "moved", ApplicationStatus.HIRED, now.minusDays(400));
+        longArchived.setArchived(true);
+        longArchived.setArchiveDate(now.minusDays(365));
+        CandidateRanking ranking = new CandidateRanking(job, longArchived.getCandidate());
+        ranking.setJobApplication(longArchived);
+        ranking.setCurrentRanking(true);
+        persist(ranking);
+        entityManager.flush();
+        storedTextService.put(StoredText.Kind.APPLICATION_RESUME_TEXT, longArchived.getId(), "resume text");
+        entityManager.flush();
+        entityManager.clear();
+
+        ArchivalReport preview = archivalService.run(30, true);
+        ArchivalReport report = archivalService.run(30, false);
+        entityManager.clear();
+
+        assertEquals(preview.getArchivable(), report.getArchived());
+        assertEquals(preview.getMovable(), report.getMoved());
+        assertTrue(report.isComplete());
+
+        assertEquals(Boolean.TRUE, entityManager.find(JobApplication.class, rejected.getId()).isArchived());
+        assertNotEquals(Boolean.TRUE, entityManager.find(JobApplication.class, pending.getId()).isArchived());
+        assertNotEquals(Boolean.TRUE, entityManager.find(JobApplication.class, recent.getId()).isArchived());
+
+        // Moved: copied to the archive table, gone from the live one, nothing left pointing at it
+        assertNull(entityManager.find(JobApplication.class, longArchived.getId()));
+        assertTrue(archiveRepository.existsById(longArchived.getId()));
+        assertNull(entityManager.find(CandidateRanking.class, ranking.getId()).getJobApplication());
+        assertTrue(storedTextService.get(StoredText.Kind.APPLICATION_RESUME_TEXT, longArchived.getId()).isEmpty());
+    }
+
+    private JobApplication application(Job job, String name, ApplicationStatus status, LocalDateTime closedAt) {
+        User candidate = persist(new User("archival-" + name, "archival-" + name + "@example.com", "x", "Archival",
+                name, null, Role.CANDIDATE));
+        JobApplication application = new JobApplication(job, candidate);
+        application.setStatus(status);
+        // Taken before the status and update dates, which persisting resets to now
+        application.setHiringDecisionDate(closedAt);
+        return persist(application);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
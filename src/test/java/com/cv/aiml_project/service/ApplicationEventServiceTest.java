@@ -0,0 +1,29 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ApplicationEventServiceTest {
+
+    @Test
+    void cursorTimestampRoundTripsAtMicrosecondPrecision() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000);
+
+        String token = new PageCursor(ApplicationEventService.toMicros(createdAt), 42L, 0).encode();
+        PageCursor decoded = PageCursor.decode(token, null);
+
+        assertEquals(createdAt, ApplicationEventService.fromMicros((long) decoded.sortKey()));
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void timestampsBeforeTheEpochRoundTrip() {
+        LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000);
+
+        assertEquals(time, ApplicationEventService.fromMicros(ApplicationEventService.toMicros(time)));
+    }
+}
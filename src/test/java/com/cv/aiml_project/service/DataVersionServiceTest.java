@@ -0,0 +1,127 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.repository.JobDataVersionRepository;
+import com.cv.aiml_project.service.DataVersionService.Channel;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks.BeforeCompletionCallback;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DataVersionServiceTest {
+
+    private final DataVersionService service = new DataVersionService();
+    private JobDataVersionRepository versionRepository;
+    private TransactionTemplate transaction;
+    private TransactionCompletionCallbacks callbacks;
+
+    @BeforeEach
+    void setUp() {
+        versionRepository = mock(JobDataVersionRepository.class);
+        when(versionRepository.findVersion(anyLong(), any())).thenReturn(Optional.empty());
+        transaction = mock(TransactionTemplate.class);
+        callbacks = mock(TransactionCompletionCallbacks.class);
+        SessionImplementor session = mock(SessionImplementor.class);
+        when(session.getTransactionCompletionCallbacks()).thenReturn(callbacks);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        ReflectionTestUtils.setField(service, "versionRepository", versionRepository);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "transaction", transaction);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+    }
+
+    @Test
+    void etagCarriesThePersistedVersion() {
+        when(versionRepository.findVersion(1L, Channel.RANKINGS)).thenReturn(Optional.of(3L));
+
+        assertEquals("\"rankings-1-3\"", service.etag(Channel.RANKINGS, 1L));
+        assertEquals("\"applications-1-0\"", service.etag(Channel.APPLICATIONS, 1L));
+    }
+
+    @Test
+    void oneTransactionWritesEachRowOnceBeforeItCommits() throws Exception {
+        beginTransaction();
+        for (int i = 0; i < 100; i++) {
+            service.jobDataChanged(Channel.APPLICATIONS, 1L);
+            service.personChanged(7L);
+        }
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        ArgumentCaptor<BeforeCompletionCallback> callback = ArgumentCaptor.forClass(BeforeCompletionCallback.class);
+        verify(callbacks, times(1)).registerCallback(callback.capture());
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+        doAnswer(inv -> {
+            inv.<Work>getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any());
+        callback.getValue().doBeforeTransactionCompletion(session);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection, times(4)).prepareStatement(sql.capture());
+        assertTrue(sql.getAllValues().get(0).startsWith("INSERT INTO job_data_versions"));
+        assertTrue(sql.getAllValues().get(1).contains("FROM job_applications WHERE candidate_id IN (?)"));
+        assertTrue(sql.getAllValues().get(2).contains("FROM candidate_rankings"));
+        assertTrue(sql.getAllValues().get(3).contains("FROM skill_match_results"));
+        verify(statement, times(1)).addBatch();
+        verify(statement).setString(2, "APPLICATIONS");
+        verify(statement, times(3)).setLong(1, 7L);
+        verify(statement, times(3)).executeUpdate();
+    }
+
+    @Test
+    void changesOutsideATransactionAreWrittenInTheirOwn() {
+        doAnswer(inv -> {
+            beginTransaction();
+            try {
+                inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            } finally {
+                endTransaction();
+            }
+            return null;
+        }).when(transaction).executeWithoutResult(any());
+
+        service.jobChanged(2L);
+        service.personChanged(null);
+
+        verify(transaction, times(3)).executeWithoutResult(any());
+        verify(callbacks, times(3)).registerCallback(any(BeforeCompletionCallback.class));
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    private static void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+}
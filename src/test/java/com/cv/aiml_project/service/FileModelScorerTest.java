@@ -0,0 +1,76 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.EducationLevel;
+import com.cv.aiml_project.entity.JobFeatures;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileModelScorerTest {
+
+    @Test
+    void scoresWithLinearModel() throws IOException {
+        FileModelScorer scorer = FileModelScorer.parse(model("""
+                version=linear-test
+                type=linear
+                bias=0.1
+                weight.skills=0.5
+                weight.education=0.4
+                """), "linear.model");
+
+        MatchScorer.Score score = scorer.score(input());
+
+        assertEquals("linear-test", score.version());
+        // 100 * (0.1 + 0.5 * 0.5 + 0.4 * 1.0)
+        assertEquals(75.0, score.overall(), 1e-9);
+        assertEquals(50.0, score.components().get("skills"));
+    }
+
+    @Test
+    void scoresWithTreeEnsemble() throws IOException {
+        FileModelScorer scorer = FileModelScorer.parse(model("""
+                version=gbdt-test
+                type=gbdt
+                base=50
+                trees=2
+                tree.0=skills:0.6:1:2,leaf:-10,leaf:15
+                tree.1=years:0.2:1:2,leaf:0,education:0.9:3:4,leaf:5,leaf:20
+                """), "gbdt.model");
+
+        // skills 0.5 -> -10; years 6/20 = 0.3, education 1.0 -> +20
+        assertEquals(60.0, scorer.score(input()).overall(), 1e-9);
+    }
+
+    @Test
+    void rejectsMalformedTrees() {
+        assertThrows(IllegalArgumentException.class, () -> FileModelScorer.parse(model("""
+                version=bad
+                type=gbdt
+                trees=1
+                tree.0=skills:0.5:0:1,leaf:1
+                """), "bad.model"));
+    }
+
+    private static Properties model(String text) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(text));
+        return properties;
+    }
+
+    private static MatchScorer.Input input() {
+        JobFeatures job = new JobFeatures();
+        job.setRequiredSkillIds(new int[]{1, 2});
+        job.setEducationLevel(EducationLevel.BACHELOR);
+
+        CandidateFeatures candidate = new CandidateFeatures();
+        candidate.setSkillIds(new int[]{2, 5});
+        candidate.setExperienceYears(6);
+        candidate.setEducationLevel(EducationLevel.BACHELOR);
+        return new MatchScorer.Input(null, null, job, candidate);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cv.aiml_project.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IvfVectorIndexTest {
+
+    private static final int DIMENSION = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsNearestNeighbourBeforeAndAfterTraining() throws Exception {
+        Random random = new Random(7);
+        try (IvfVectorIndex index = new IvfVectorIndex(dir.resolve("test.vec"), "test", DIMENSION, 4, 100)) {
+            float[][] vectors = new float[400][];
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i] = randomUnit(random);
+                index.upsert(i, i, vectors[i], false);
+            }
+
+            assertEquals(7L, index.search(vectors[7], 1).get(0).key());
+
+            assertTrue(index.needsTraining());
+            index.train();
+            assertFalse(index.needsTraining());
+
+            assertEquals(7L, index.search(vectors[7], 1).get(0).key());
+            assertEquals(5, index.search(vectors[7], 5).size());
+        }
+    }
+
+    @Test
+    void replacesPreviousVectorOfSameOwnerAndSurvivesReopen() throws Exception {
+        Random random = new Random(11);
+        Path file = dir.resolve("owners.vec");
+        float[] newer = randomUnit(random);
+        try (IvfVectorIndex index = new IvfVectorIndex(file, "test", DIMENSION, 4, 100)) {
+            index.upsert(1, 42, randomUnit(random), true);
+            index.upsert(2, 42, newer, true);
+            assertEquals(1, index.size());
+        }
+
+        try (IvfVectorIndex reopened = new IvfVectorIndex(file, "test", DIMENSION, 4, 100)) {
+            List<IvfVectorIndex.Hit> hits = reopened.search(newer, 10);
+            assertEquals(1, hits.size());
+            assertEquals(2L, hits.get(0).key());
+            assertEquals(42L, hits.get(0).owner());
+        }
+
+        try (IvfVectorIndex otherEmbedder = new IvfVectorIndex(file, "other", DIMENSION, 4, 100)) {
+            assertEquals(0, otherEmbedder.size());
+        }
+    }
+
+    private static float[] randomUnit(Random random) {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return HashingTextEmbedder.normalize(vector);
+    }
+}
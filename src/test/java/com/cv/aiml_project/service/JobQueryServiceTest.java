@@ -0,0 +1,53 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.JobApplicationCounts;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JobQueryServiceTest {
+
+    private JobApplicationRepository applicationRepository;
+    private JobQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(JobApplicationRepository.class);
+        service = new JobQueryService();
+        ReflectionTestUtils.setField(service, "applicationRepository", applicationRepository);
+    }
+
+    @Test
+    void countsEveryJobInOneQuery() {
+        when(applicationRepository.countByJobIds(Set.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 5L, 2L}));
+
+        Map<Long, JobApplicationCounts> counts = service.getApplicationCounts(List.of(job(1L), job(2L)));
+
+        assertEquals(new JobApplicationCounts(5, 2), counts.get(1L));
+        assertEquals(JobApplicationCounts.NONE, counts.get(2L));
+        verify(applicationRepository, times(1)).countByJobIds(any());
+    }
+
+    @Test
+    void noJobsNoQuery() {
+        assertTrue(service.getApplicationCounts(List.of()).isEmpty());
+        verifyNoInteractions(applicationRepository);
+    }
+
+    private static Job job(Long id) {
+        Job job = new Job();
+        job.setId(id);
+        return job;
+    }
+}
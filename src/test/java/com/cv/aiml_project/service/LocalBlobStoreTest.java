@@ -0,0 +1,43 @@
+package com.cv.aiml_project.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesContentAddressedShardsAndReadsRanges() throws Exception {
+        LocalBlobStore store = new LocalBlobStore(dir);
+        byte[] content = "resume body".getBytes(StandardCharsets.UTF_8);
+
+        String key = store.put(new ByteArrayInputStream(content), ".pdf");
+
+        // sha256("resume body") shards as xx/yy/<hash>.pdf
+        String hash = key.substring(6, 70);
+        assertEquals(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".pdf", key);
+        assertArrayEquals(content, Files.readAllBytes(dir.resolve(key)));
+        assertEquals(key, store.put(new ByteArrayInputStream(content), ".pdf"));
+        try (var leftovers = Files.list(dir.resolve("tmp"))) {
+            assertEquals(0, leftovers.count());
+        }
+
+        try (InputStream in = store.openRange(key, 7, 100)) {
+            assertEquals("body", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(11, store.size(key));
+        assertTrue(store.delete(key));
+        assertFalse(store.exists(key));
+        assertThrows(IllegalArgumentException.class, () -> store.open("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.EducationLevel;
+import com.cv.aiml_project.entity.FeatureTerm;
+import com.cv.aiml_project.entity.IntArrayConverter;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.CandidateFeaturesRepository;
+import com.cv.aiml_project.repository.FeatureTermRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import com.cv.aiml_project.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MatchFeatureServiceTest {
+
+    @Test
+    void parsesExperienceRequirements() {
+        assertArrayEquals(new int[]{3, 5}, MatchFeatureService.parseExperienceRequirement("3-5 years"));
+        assertArrayEquals(new int[]{2, 20}, MatchFeatureService.parseExperienceRequirement("2+ years"));
+        assertArrayEquals(new int[]{5, 7}, MatchFeatureService.parseExperienceRequirement("5 years"));
+        assertArrayEquals(new int[]{0, 10}, MatchFeatureService.parseExperienceRequirement("Entry level"));
+        assertNull(MatchFeatureService.parseExperienceRequirement(" "));
+    }
+
+    @Test
+    void detectsEducationLevels() {
+        assertEquals(Set.of(EducationLevel.BACHELOR, EducationLevel.MASTER),
+                EducationLevel.mentionedIn("B.Sc. in Computer Science, M.Sc. preferred"));
+        assertTrue(EducationLevel.mentionedIn(null).isEmpty());
+    }
+
+    @Test
+    void cachedCandidateRecordIsReloadedOnceTheProfileVersionMoves() {
+        MatchFeatureService service = new MatchFeatureService();
+        ReflectionTestUtils.setField(service, "cacheSize", 10);
+        ReflectionTestUtils.setField(service, "candidateCache", ReflectionTestUtils.invokeMethod(service, "lruCache"));
+        ResumeRepository resumes = mock(ResumeRepository.class);
+        CandidateFeaturesRepository records = mock(CandidateFeaturesRepository.class);
+        ReflectionTestUtils.setField(service, "resumeRepository", resumes);
+        ReflectionTestUtils.setField(service, "candidateFeaturesRepository", records);
+
+        User candidate = new User();
+        candidate.setId(7L);
+        candidate.setSkills("java");
+        ReflectionTestUtils.setField(candidate, "profileVersion", 1L);
+        CandidateFeatures stored = new CandidateFeatures();
+        stored.setSourceHash(MatchFeatureService.candidateHash(candidate, null, null));
+        when(resumes.findCurrentResumeByUserId(7L)).thenReturn(Optional.empty());
+        when(records.findByCandidateId(7L)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, service.getCandidateFeatures(candidate));
+        assertSame(stored, service.getCandidateFeatures(candidate));
+        verify(records, times(1)).findByCandidateId(7L);
+
+        // Edited on another instance: this one never saw the refresh
+        ReflectionTestUtils.setField(candidate, "profileVersion", 2L);
+        assertSame(stored, service.getCandidateFeatures(candidate));
+        verify(records, times(2)).findByCandidateId(7L);
+    }
+
+    @Test
+    void newSkillOnlyUpdatesRecordsWhoseResumeMentionsIt() {
+        MatchFeatureService service = new MatchFeatureService();
+        ReflectionTestUtils.setField(service, "cacheSize", 10);
+        ReflectionTestUtils.setField(service, "scanBatchSize", 10);
+        ReflectionTestUtils.setField(service, "candidateCache", ReflectionTestUtils.invokeMethod(service, "lruCache"));
+        FeatureTermRepository terms = mock(FeatureTermRepository.class);
+        CandidateFeaturesRepository records = mock(CandidateFeaturesRepository.class);
+        StoredTextService texts = mock(StoredTextService.class);
+        UserRepository users = mock(UserRepository.class);
+        SkillMatchingEngine engine = mock(SkillMatchingEngine.class);
+        TransactionTemplate transaction = mock(TransactionTemplate.class);
+        ReflectionTestUtils.setField(service, "featureTermRepository", terms);
+        ReflectionTestUtils.setField(service, "candidateFeaturesRepository", records);
+        ReflectionTestUtils.setField(service, "storedTextService", texts);
+        ReflectionTestUtils.setField(service, "userRepository", users);
+        ReflectionTestUtils.setField(service, "skillMatchingEngine", engine);
+        ReflectionTestUtils.setField(service, "transaction", transaction);
+        when(transaction.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(engine.canonicalize(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        for (FeatureTerm.Kind kind : FeatureTerm.Kind.values()) {
+            ((Map<FeatureTerm.Kind, Map<String, Integer>>) ReflectionTestUtils.getField(service, "termIds"))
+                    .put(kind, new ConcurrentHashMap<>());
+        }
+
+        FeatureTerm java = new FeatureTerm(FeatureTerm.Kind.SKILL, "java");
+        java.setId(1);
+        FeatureTerm kubernetes = new FeatureTerm(FeatureTerm.Kind.SKILL, "kubernetes");
+        kubernetes.setId(2);
+        when(terms.findAll()).thenReturn(List.of(java, kubernetes));
+
+        CandidateFeatures mentions = record(10L, 100L, 1000L, new int[]{1});
+        CandidateFeatures silent = record(11L, 101L, 1001L, new int[]{1});
+        when(records.findScannedBefore(eq(2), eq(0L), any())).thenReturn(List.of(mentions, silent));
+        when(records.findScannedBefore(eq(2), eq(11L), any())).thenReturn(List.of());
+        when(texts.getAll(eq(StoredText.Kind.RESUME_TEXT), any())).thenReturn(Map.of(
+                1000L, "Java and Kubernetes in production",
+                1001L, "Java only"));
+
+        service.scanResumesForNewSkills();
+
+        assertArrayEquals(new int[]{1, 2}, mentions.getSkillIds());
+        assertArrayEquals(new int[]{1}, silent.getSkillIds());
+        assertEquals(2, mentions.getSkillScan());
+        assertEquals(2, silent.getSkillScan());
+        verify(users).incrementProfileVersions(List.of(100L));
+    }
+
+    private static CandidateFeatures record(Long id, Long candidateId, Long resumeId, int[] skillIds) {
+        CandidateFeatures record = new CandidateFeatures();
+        record.setId(id);
+        record.setCandidateId(candidateId);
+        record.setResumeId(resumeId);
+        record.setSkillIds(skillIds);
+        record.setSkillScan(1);
+        return record;
+    }
+
+    @Test
+    void packsIdArraysAsDeltaVarints() {
+        IntArrayConverter converter = new IntArrayConverter();
+        int[] ids = {300, 1, 7, 100000};
+
+        byte[] packed = converter.convertToDatabaseColumn(ids);
+
+        assertEquals(7, packed.length);
+        assertArrayEquals(new int[]{1, 7, 300, 100000}, converter.convertToEntityAttribute(packed));
+        assertArrayEquals(new int[0], converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,145 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.AimlProjectApplication;
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.CandidateRankingHistory;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobType;
+import com.cv.aiml_project.entity.Role;
+import com.cv.aiml_project.entity.SkillMatchResult;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.CandidateRankingHistoryRepository;
+import com.cv.aiml_project.repository.SkillMatchResultHistoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link MatchHistoryService#compact()} and the native archive queries on the configured
+ * database. The compaction joins the test's transaction, which is rolled back at the end,
+ * so other rows it picks up are left as they were.
+ * Run with {@code mvn test -Dtest=MatchHistoryCompactionTest -Ddatabase=true}.
+ */
+@SpringBootTest(classes = AimlProjectApplication.class)
+@EnabledIfSystemProperty(named = "database", matches = "true")
+class MatchHistoryCompactionTest {
+
+    @Autowired
+    private MatchHistoryService historyService;
+
+    @Autowired
+    private CandidateRankingService rankingService;
+
+    @Autowired
+    private CandidateRankingHistoryRepository rankingHistoryRepository;
+
+    @Autowired
+    private SkillMatchResultHistoryRepository resultHistoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void movesSupersededRowsToHistoryAndPurgesExpiredOnes() {
+        Object maxBatches = ReflectionTestUtils.getField(historyService, "maxBatches");
+        // Rows left by earlier runs must not use up the batches before ours are reached
+        ReflectionTestUtils.setField(historyService, "maxBatches", Integer.MAX_VALUE);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                run();
+            });
+        } finally {
+            ReflectionTestUtils.setField(historyService, "maxBatches", maxBatches);
+        }
+    }
+
+    private void run() {
+        User hr = persist(new User("history-hr", "history-hr@example.com", "x", "History", "Hr", null, Role.HR));
+        User candidate = persist(new User("history-candidate", "history-candidate@example.com", "x", "History",
+                "Candidate", null, Role.CANDIDATE));
+        Job job = persist(new Job("History", "Compaction test", "Engineering", "Remote", JobType.FULL_TIME,
+                "3 years", "java", "Bachelor", 1, 2, LocalDateTime.now().plusDays(30), 1, hr));
+        LocalDateTime now = LocalDateTime.now();
+
+        // An old match result the current ranking still points at, one nothing points at, and the latest
+        SkillMatchResult referenced = persist(match(job, candidate, false, now.minusDays(2)));
+        SkillMatchResult unreferenced = persist(match(job, candidate, false, now.minusDays(3)));
+        SkillMatchResult latest = persist(match(job, candidate, true, now));
+        CandidateRanking superseded = persist(ranking(job, candidate, referenced, false, now.minusDays(1), 2));
+        CandidateRanking current = persist(ranking(job, candidate, referenced, true, now, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        historyService.compact();
+        entityManager.clear();
+
+        // Only the superseded ranking moved, with its columns intact
+        assertNull(entityManager.find(CandidateRanking.class, superseded.getId()));
+        assertNotNull(entityManager.find(CandidateRanking.class, current.getId()));
+        CandidateRankingHistory archived = rankingHistoryRepository.findById(superseded.getId()).orElseThrow();
+        assertEquals(2, archived.getRankPosition());
+        assertEquals(referenced.getId(), archived.getSkillMatchResultId());
+        assertNotNull(archived.getArchivedAt());
+        assertFalse(rankingHistoryRepository.existsById(current.getId()));
+
+        // A superseded match result a ranking still points at stays in the hot table
+        assertNotNull(entityManager.find(SkillMatchResult.class, referenced.getId()));
+        assertNull(entityManager.find(SkillMatchResult.class, unreferenced.getId()));
+        assertTrue(resultHistoryRepository.existsById(unreferenced.getId()));
+        assertNotNull(entityManager.find(SkillMatchResult.class, latest.getId()));
+        assertFalse(resultHistoryRepository.existsById(latest.getId()));
+
+        // History pages read both tiers
+        assertEquals(List.of(current.getId(), superseded.getId()),
+                rankingService.getRankingHistoryForCandidate(job.getId(), candidate.getId()).stream()
+                        .map(CandidateRankingHistory::getId).toList());
+
+        // Age the archived ranking past retention; the recently archived match result stays
+        entityManager.createNativeQuery("UPDATE candidate_ranking_history SET archived_at = :archivedAt WHERE id = :id")
+                .setParameter("archivedAt", now.minusDays(400))
+                .setParameter("id", superseded.getId())
+                .executeUpdate();
+        historyService.compact();
+
+        assertFalse(rankingHistoryRepository.existsById(superseded.getId()));
+        assertTrue(resultHistoryRepository.existsById(unreferenced.getId()));
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private static SkillMatchResult match(Job job, User candidate, boolean latest, LocalDateTime matchDate) {
+        SkillMatchResult match = new SkillMatchResult(job, candidate);
+        match.setOverallScore(50.0);
+        match.setLatest(latest);
+        match.setMatchDate(matchDate);
+        return match;
+    }
+
+    private static CandidateRanking ranking(Job job, User candidate, SkillMatchResult match, boolean current,
+                                            LocalDateTime rankingDate, int position) {
+        CandidateRanking ranking = new CandidateRanking(job, candidate);
+        ranking.setSkillMatchResult(match);
+        ranking.setCurrentRanking(current);
+        ranking.setRankingDate(rankingDate);
+        ranking.setRankPosition(position);
+        ranking.setRankingScore(50.0);
+        return ranking;
+    }
+}
@@ -0,0 +1,165 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.config.AppMetrics;
+import com.cv.aiml_project.entity.CandidateRanking;
+import com.cv.aiml_project.entity.CandidateRankingHistory;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.CandidateRankingHistoryRepository;
+import com.cv.aiml_project.repository.CandidateRankingRepository;
+import com.cv.aiml_project.repository.SkillMatchResultHistoryRepository;
+import com.cv.aiml_project.repository.SkillMatchResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Batching, ordering and retention of {@link MatchHistoryService}; which rows qualify is decided
+ * by the repository queries, covered against the database by {@link MatchHistoryCompactionTest}
+ */
+class MatchHistoryServiceTest {
+
+    private final MatchHistoryService service = new MatchHistoryService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CandidateRankingRepository rankingRepository;
+    private SkillMatchResultRepository skillMatchResultRepository;
+    private CandidateRankingHistoryRepository rankingHistoryRepository;
+    private SkillMatchResultHistoryRepository resultHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        rankingRepository = mock(CandidateRankingRepository.class);
+        skillMatchResultRepository = mock(SkillMatchResultRepository.class);
+        rankingHistoryRepository = mock(CandidateRankingHistoryRepository.class);
+        resultHistoryRepository = mock(SkillMatchResultHistoryRepository.class);
+        when(rankingRepository.findSupersededIds(any())).thenReturn(List.of());
+        when(skillMatchResultRepository.findSupersededIds(any())).thenReturn(List.of());
+        TransactionTemplate transaction = mock(TransactionTemplate.class);
+        when(transaction.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        ReflectionTestUtils.setField(service, "rankingRepository", rankingRepository);
+        ReflectionTestUtils.setField(service, "skillMatchResultRepository", skillMatchResultRepository);
+        ReflectionTestUtils.setField(service, "rankingHistoryRepository", rankingHistoryRepository);
+        ReflectionTestUtils.setField(service, "resultHistoryRepository", resultHistoryRepository);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "transaction", transaction);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxBatches", 10);
+        ReflectionTestUtils.setField(service, "retentionDays", 30);
+    }
+
+    @Test
+    void copiesEachBatchToHistoryBeforeDeletingItAndMovesRankingsFirst() {
+        when(rankingRepository.findSupersededIds(any())).thenReturn(List.of(1L, 2L), List.of(3L));
+        when(skillMatchResultRepository.findSupersededIds(any())).thenReturn(List.of(10L));
+
+        service.compact();
+
+        InOrder order = inOrder(rankingHistoryRepository, rankingRepository, skillMatchResultRepository,
+                resultHistoryRepository);
+        order.verify(rankingHistoryRepository).archive(eq(List.of(1L, 2L)), any());
+        order.verify(rankingRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        order.verify(rankingHistoryRepository).archive(eq(List.of(3L)), any());
+        order.verify(rankingRepository).deleteAllByIdInBatch(List.of(3L));
+        // Match results are picked only once the rankings that pointed at them are gone
+        order.verify(skillMatchResultRepository).findSupersededIds(any());
+        order.verify(resultHistoryRepository).archive(eq(List.of(10L)), any());
+        order.verify(skillMatchResultRepository).deleteAllByIdInBatch(List.of(10L));
+
+        // A short batch means nothing is left
+        verify(rankingRepository, times(2)).findSupersededIds(any());
+        assertEquals(3, meterRegistry.counter(AppMetrics.HISTORY_ARCHIVED, "table", "candidate_rankings").count());
+        assertEquals(1, meterRegistry.counter(AppMetrics.HISTORY_ARCHIVED, "table", "skill_match_results").count());
+    }
+
+    @Test
+    void stopsAfterMaxBatchesAndLeavesTheRestForTheNextRun() {
+        ReflectionTestUtils.setField(service, "maxBatches", 3);
+        when(rankingRepository.findSupersededIds(any())).thenReturn(List.of(1L, 2L));
+
+        service.compact();
+
+        verify(rankingRepository, times(3)).findSupersededIds(any());
+        verify(rankingRepository, times(3)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void nothingSupersededTouchesNoRows() {
+        service.compact();
+
+        verify(rankingHistoryRepository, never()).archive(any(), any());
+        verify(rankingRepository, never()).deleteAllByIdInBatch(any());
+        verify(resultHistoryRepository, never()).archive(any(), any());
+        verify(skillMatchResultRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void purgesHistoryArchivedBeforeTheRetentionPeriod() {
+        when(rankingHistoryRepository.deleteArchivedBefore(any())).thenReturn(4);
+        when(resultHistoryRepository.deleteArchivedBefore(any())).thenReturn(5);
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        service.compact();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(rankingHistoryRepository).deleteArchivedBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+        verify(resultHistoryRepository).deleteArchivedBefore(any());
+        assertEquals(4, meterRegistry.counter(AppMetrics.HISTORY_PURGED, "table", "candidate_ranking_history").count());
+        assertEquals(5, meterRegistry.counter(AppMetrics.HISTORY_PURGED, "table", "skill_match_result_history").count());
+    }
+
+    @Test
+    void zeroRetentionKeepsHistoryForever() {
+        ReflectionTestUtils.setField(service, "retentionDays", 0);
+
+        service.compact();
+
+        verify(rankingHistoryRepository, never()).deleteArchivedBefore(any());
+        verify(resultHistoryRepository, never()).deleteArchivedBefore(any());
+    }
+
+    @Test
+    void rankingHistoryReadDuringACompactionListsEachRankingOnce() {
+        CandidateRankingService rankingService = new CandidateRankingService();
+        ReflectionTestUtils.setField(rankingService, "rankingRepository", rankingRepository);
+        ReflectionTestUtils.setField(rankingService, "rankingHistoryRepository", rankingHistoryRepository);
+        LocalDateTime now = LocalDateTime.now();
+        CandidateRanking current = ranking(3L, now);
+        CandidateRanking superseded = ranking(2L, now.minusDays(1));
+        // Ranking 2 was archived between the two reads, so it shows up in both tiers
+        when(rankingRepository.findRankingHistoryForCandidate(7L, 1L)).thenReturn(List.of(current, superseded));
+        when(rankingHistoryRepository.findByJobIdAndCandidateIdOrderByRankingDateDesc(1L, 7L))
+                .thenReturn(List.of(CandidateRankingHistory.of(superseded), CandidateRankingHistory.of(ranking(1L, now.minusDays(2)))));
+
+        List<CandidateRankingHistory> history = rankingService.getRankingHistoryForCandidate(1L, 7L);
+
+        assertEquals(List.of(3L, 2L, 1L), history.stream().map(CandidateRankingHistory::getId).toList());
+    }
+
+    private static CandidateRanking ranking(Long id, LocalDateTime rankingDate) {
+        Job job = new Job();
+        job.setId(1L);
+        User candidate = new User();
+        candidate.setId(7L);
+        CandidateRanking ranking = new CandidateRanking(job, candidate);
+        ranking.setId(id);
+        ranking.setRankingDate(rankingDate);
+        return ranking;
+    }
+}
@@ -0,0 +1,111 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.CandidateFeatures;
+import com.cv.aiml_project.entity.JobFeatures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchScorerRegistryTest {
+
+    @TempDir
+    Path modelDir;
+
+    private final CountingScorer first = new CountingScorer("first");
+    private final CountingScorer second = new CountingScorer("second");
+    private MatchScorerRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MatchScorerRegistry(1, 10);
+        ReflectionTestUtils.setField(registry, "builtInScorers", List.of(first, second));
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "initialActive", "first");
+        ReflectionTestUtils.setField(registry, "initialShadow", "");
+        ReflectionTestUtils.setField(registry, "modelDir", modelDir.toString());
+        ReflectionTestUtils.setField(registry, "cacheSize", 100);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void unchangedInputsAreAnsweredFromTheMemo() {
+        registry.score(input(1L, 10L, 2L, 20L));
+        registry.score(input(1L, 10L, 2L, 20L));
+
+        assertEquals(1, first.calls.get());
+    }
+
+    @Test
+    void everyKeyComponentMissesTheMemo() {
+        registry.score(input(1L, 10L, 2L, 20L));
+
+        registry.score(input(3L, 10L, 2L, 20L));  // job
+        registry.score(input(1L, 11L, 2L, 20L));  // job features
+        registry.score(input(1L, 10L, 4L, 20L));  // candidate
+        registry.score(input(1L, 10L, 2L, 21L));  // candidate features
+        assertEquals(5, first.calls.get());
+
+        registry.activate("second");              // model version
+        MatchScorer.Score score = registry.score(input(1L, 10L, 2L, 20L));
+        assertEquals("second", score.version());
+        assertEquals(1, second.calls.get());
+    }
+
+    @Test
+    void reregisteringAVersionDropsItsScores() {
+        registry.score(input(1L, 10L, 2L, 20L));
+
+        CountingScorer retrained = new CountingScorer("first");
+        registry.register(retrained);
+        registry.score(input(1L, 10L, 2L, 20L));
+
+        assertEquals(1, first.calls.get());
+        assertEquals(1, retrained.calls.get());
+    }
+
+    private static MatchScorer.Input input(Long jobId, long jobHash, Long candidateId, long candidateHash) {
+        JobFeatures job = new JobFeatures();
+        job.setJobId(jobId);
+        job.setSourceHash(jobHash);
+        CandidateFeatures candidate = new CandidateFeatures();
+        candidate.setCandidateId(candidateId);
+        candidate.setSourceHash(candidateHash);
+        return new MatchScorer.Input(null, null, job, candidate);
+    }
+
+    private static class CountingScorer implements MatchScorer {
+
+        private final String version;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingScorer(String version) {
+            this.version = version;
+        }
+
+        @Override
+        public String getVersion() {
+            return version;
+        }
+
+        @Override
+        public Score score(Input input) {
+            calls.incrementAndGet();
+            return new Score(version, 50.0, Map.of());
+        }
+    }
+}
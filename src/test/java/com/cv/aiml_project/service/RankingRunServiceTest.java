@@ -0,0 +1,112 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.dto.RankingRunStatus;
+import com.cv.aiml_project.dto.RankingRunStatus.State;
+import com.cv.aiml_project.dto.RankingWeightConfig;
+import com.cv.aiml_project.service.RankingRunService.Operation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RankingRunServiceTest {
+
+    private CandidateRankingService rankingService;
+    private RankingRunService service;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        rankingService = mock(CandidateRankingService.class);
+        // The first run holds the job until the test lets it go
+        when(rankingService.generateRankingForJob(eq(1L), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(rankingService.recalculateRankingWithWeights(eq(1L), any(), any())).thenReturn(List.of());
+
+        service = new RankingRunService(2, 10);
+        ReflectionTestUtils.setField(service, "rankingService", rankingService);
+        ReflectionTestUtils.setField(service, "retentionMinutes", 30L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void identicalRequestJoinsTheRunInFlight() {
+        RankingRunStatus first = service.submit(1L, Operation.GENERATE, weights(50, 30, 20), "hr1");
+        RankingRunStatus second = service.submit(1L, Operation.GENERATE, weights(50, 30, 20), "hr2");
+
+        assertEquals(first.getRunId(), second.getRunId());
+        assertTrue(second.isCoalesced());
+    }
+
+    @Test
+    void differentWeightsWaitForTheRunInFlightInsteadOfJoiningIt() throws Exception {
+        RankingRunStatus first = service.submit(1L, Operation.GENERATE, weights(50, 30, 20), "hr1");
+        RankingRunStatus second = service.submit(1L, Operation.RECALCULATE, weights(20, 30, 50), "hr2");
+
+        assertNotEquals(first.getRunId(), second.getRunId());
+        assertFalse(second.isCoalesced());
+        verify(rankingService, never()).recalculateRankingWithWeights(any(), any(), any());
+
+        release.countDown();
+        RankingRunStatus done = awaitFinished(second.getRunId());
+
+        assertEquals(State.COMPLETED, done.getState());
+        assertTrue(done.getMessage().startsWith("Rankings recalculated"));
+        verify(rankingService).recalculateRankingWithWeights(eq(1L),
+                argThat(w -> w.getSkillsWeight() == 20.0), any());
+        assertTrue(awaitFinished(first.getRunId()).getMessage().startsWith("Rankings generated"));
+    }
+
+    @Test
+    void newerWaitingRequestReplacesTheOlderOne() throws Exception {
+        service.submit(1L, Operation.GENERATE, weights(50, 30, 20), "hr1");
+        RankingRunStatus older = service.submit(1L, Operation.RECALCULATE, weights(20, 30, 50), "hr2");
+        RankingRunStatus joined = service.submit(1L, Operation.RECALCULATE, weights(20, 30, 50), "hr3");
+        RankingRunStatus newer = service.submit(1L, Operation.RECALCULATE, weights(40, 40, 20), "hr4");
+
+        assertEquals(older.getRunId(), joined.getRunId());
+        RankingRunStatus superseded = service.getStatus(older.getRunId()).orElseThrow();
+        assertEquals(State.FAILED, superseded.getState());
+        assertTrue(superseded.getMessage().contains("Superseded"));
+
+        release.countDown();
+        assertEquals(State.COMPLETED, awaitFinished(newer.getRunId()).getState());
+        verify(rankingService, times(1)).recalculateRankingWithWeights(any(), any(), any());
+    }
+
+    private RankingRunStatus awaitFinished(String runId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            RankingRunStatus status = service.getStatus(runId).orElseThrow();
+            if (status.isFinished()) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Run " + runId + " did not finish");
+        return null;
+    }
+
+    private static RankingWeightConfig weights(double skills, double experience, double education) {
+        RankingWeightConfig weights = new RankingWeightConfig();
+        weights.setSkillsWeight(skills);
+        weights.setExperienceWeight(experience);
+        weights.setEducationWeight(education);
+        return weights;
+    }
+}
@@ -0,0 +1,141 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.AimlProjectApplication;
+import com.cv.aiml_project.config.RequestJdbcStats;
+import com.cv.aiml_project.dto.RankingWeightConfig;
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.JobType;
+import com.cv.aiml_project.entity.Role;
+import com.cv.aiml_project.entity.SkillMatchResult;
+import com.cv.aiml_project.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statements Hibernate sends to persist one ranking run through {@link CandidateRankingService}
+ * on the real entities, counted by Hibernate statistics and the per-thread JDBC counter
+ * (a batch is one round trip). Seeds a job with candidates and match results on the configured
+ * database and rolls everything back at the end.
+ * Run with {@code mvn test -Dtest=RankingWriteBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest(classes = AimlProjectApplication.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RankingWriteBenchmarkTest {
+
+    private static final int CANDIDATES = 10_000;
+
+    @Autowired
+    private CandidateRankingService rankingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void countRankingWrites() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            Long jobId = seed();
+
+            Result generated = measure(statistics,
+                    () -> rankingService.generateRankingForJob(jobId, weights(50, 30, 20)).size());
+            System.out.println("generate         " + generated);
+
+            Result recalculated = measure(statistics,
+                    () -> rankingService.recalculateRankingWithWeights(jobId, weights(20, 30, 50)).size());
+            System.out.println("recalculate      " + recalculated);
+
+            assertEquals(CANDIDATES, generated.inserts());
+            assertEquals(CANDIDATES, recalculated.inserts());
+            // Rows go out in JDBC batches with their final rank, never one statement per ranking
+            assertTrue(generated.roundTrips() < CANDIDATES / 10, generated.toString());
+            assertTrue(recalculated.roundTrips() < CANDIDATES / 10, recalculated.toString());
+            assertEquals(0, generated.updates());
+        });
+    }
+
+    private Long seed() {
+        User hr = new User("bench-hr", "bench-hr@example.com", "x", "Bench", "Hr", null, Role.HR);
+        entityManager.persist(hr);
+        Job job = new Job("Benchmark", "Ranking write benchmark", "Engineering", "Remote", JobType.FULL_TIME,
+                "3 years", "java, spring", "Bachelor", 1, 2, LocalDateTime.now().plusDays(30), 1, hr);
+        entityManager.persist(job);
+
+        for (int i = 0; i < CANDIDATES; i++) {
+            User candidate = new User("bench-" + i, "bench-" + i + "@example.com", "x", "Bench", "Candidate" + i,
+                    null, Role.CANDIDATE);
+            entityManager.persist(candidate);
+            SkillMatchResult match = new SkillMatchResult(job, candidate);
+            double score = 100.0 - i * 100.0 / CANDIDATES;
+            match.setSkillsScore(score);
+            match.setExperienceScore(100.0 - score);
+            match.setEducationScore(score / 2);
+            match.setOverallScore(score);
+            entityManager.persist(match);
+            if ((i + 1) % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                job = entityManager.getReference(Job.class, job.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return job.getId();
+    }
+
+    // Counts from the service call through the flush that writes its rows
+    private Result measure(Statistics statistics, Supplier<Integer> run) {
+        statistics.clear();
+        RequestJdbcStats jdbc = RequestJdbcStats.begin();
+        long start = System.nanoTime();
+        try {
+            int rankings = run.get();
+            entityManager.flush();
+            return new Result(rankings, System.nanoTime() - start, jdbc.getStatementCount(),
+                    statistics.getPrepareStatementCount(), statistics.getEntityInsertCount(),
+                    statistics.getEntityUpdateCount());
+        } finally {
+            RequestJdbcStats.end();
+            entityManager.clear();
+        }
+    }
+
+    private static RankingWeightConfig weights(double skills, double experience, double education) {
+        RankingWeightConfig weights = new RankingWeightConfig();
+        weights.setSkillsWeight(skills);
+        weights.setExperienceWeight(experience);
+        weights.setEducationWeight(education);
+        return weights;
+    }
+
+    private record Result(int rankings, long elapsedNanos, long roundTrips, long prepared, long inserts,
+                          long updates) {
+        @Override
+        public String toString() {
+            return String.format("%d rankings: %d round trips, %d prepared statements, %d inserts, %d updates, %d ms",
+                    rankings, roundTrips, prepared, inserts, updates, elapsedNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.cv.aiml_project.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResumePreviewServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalBlobStore blobs;
+    private ResumePreviewService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobs = new LocalBlobStore(dir.resolve("blobs"));
+        ResumeStorageService storage = mock(ResumeStorageService.class);
+        when(storage.withLocalFile(anyString(), any())).thenAnswer(invocation -> {
+            ResumeStorageService.LocalFileTask<?> task = invocation.getArgument(1);
+            return task.apply(blobs.localPath(invocation.getArgument(0)).orElseThrow());
+        });
+
+        TextExtractionService extraction = new TextExtractionService(1, 1);
+        ReflectionTestUtils.setField(extraction, "maxChars", 1000);
+        ReflectionTestUtils.setField(extraction, "maxPages", 10);
+        ReflectionTestUtils.setField(extraction, "timeoutSeconds", 10L);
+        ReflectionTestUtils.setField(extraction, "maxOperatorsPerPage", 10000);
+        ReflectionTestUtils.setField(extraction, "maxAbandoned", 2);
+
+        service = new ResumePreviewService(1, 1);
+        ReflectionTestUtils.setField(service, "storageService", storage);
+        ReflectionTestUtils.setField(service, "textExtractionService", extraction);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "previewDir", dir.resolve("previews").toString());
+        ReflectionTestUtils.setField(service, "cacheMaxMb", 1L);
+        ReflectionTestUtils.setField(service, "width", 120);
+        ReflectionTestUtils.setField(service, "snippetChars", 20);
+        ReflectionTestUtils.setField(service, "maxMemoryMb", 4L);
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 10L);
+        ReflectionTestUtils.setField(service, "maxOperators", 10000);
+        ReflectionTestUtils.setField(service, "maxAbandoned", 2);
+        service.init();
+    }
+
+    @Test
+    void rendersThumbnailAndSnippetOfFirstPage() throws Exception {
+        String key = store(pdf("Jane Doe   Senior Java Developer", "Second page"), ".pdf");
+
+        assertTrue(service.preview(key, "application/pdf", "cv.pdf").isEmpty());
+        service.generate(key, "application/pdf", "cv.pdf");
+
+        var preview = service.preview(key, "application/pdf", "cv.pdf").orElseThrow();
+        assertEquals("Jane Doe Senior Java…", preview.getSnippet());
+        assertTrue(preview.isHasImage());
+        assertTrue(service.image(key).isPresent());
+
+        service.remove(key);
+        assertTrue(service.image(key).isEmpty());
+    }
+
+    @Test
+    void discardsARenderWhoseBlobIsRemovedWhileItRuns() throws Exception {
+        String key = store(pdf("Jane Doe"), ".pdf");
+        ResumeStorageService storage = (ResumeStorageService) ReflectionTestUtils.getField(service, "storageService");
+        doAnswer(invocation -> {
+            ResumeStorageService.LocalFileTask<?> task = invocation.getArgument(1);
+            Object bytes = task.apply(blobs.localPath(invocation.getArgument(0)).orElseThrow());
+            service.remove(key);
+            return bytes;
+        }).when(storage).withLocalFile(anyString(), any());
+
+        service.generate(key, "application/pdf", "cv.pdf");
+
+        assertTrue(service.image(key).isEmpty());
+        assertFalse(Files.exists(dir.resolve("previews").resolve(BlobStore.hashOf(key) + ".png")));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondSizeLimit() throws Exception {
+        String first = store("first resume".getBytes(StandardCharsets.UTF_8), ".txt");
+        String second = store("second resume".getBytes(StandardCharsets.UTF_8), ".txt");
+        service.generate(first, "text/plain", "a.txt");
+        service.generate(second, "text/plain", "b.txt");
+        assertTrue(service.preview(first, "text/plain", "a.txt").isPresent());
+
+        // Just over a megabyte pushes out the entry used longest ago: "second"
+        ReflectionTestUtils.invokeMethod(service, "register", "f".repeat(64), 1024L * 1024 - 20);
+
+        assertTrue(service.preview(first, "text/plain", "a.txt").isPresent());
+        assertFalse(Files.exists(dir.resolve("previews").resolve(BlobStore.hashOf(second) + ".txt")));
+    }
+
+    @Test
+    void abandonsRendersThatOutliveTheTimeoutAndKeepsRendering() throws Exception {
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 1L);
+        String key = store(pdf("Jane Doe"), ".pdf");
+        TimeLimitedPool renderer = (TimeLimitedPool) ReflectionTestUtils.getField(service, "renderer");
+
+        // Holds the only slot and ignores interrupts, like a render stuck inside PDFBox
+        CountDownLatch release = new CountDownLatch(1);
+        IOException timedOut = assertThrows(IOException.class, () -> renderer.call(() -> {
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // keep waiting
+                }
+            }
+            return null;
+        }, 1L, 2));
+        assertTrue(timedOut.getMessage().contains("timed out"));
+
+        try {
+            service.generate(key, "application/pdf", "cv.pdf");
+            assertTrue(service.image(key).isPresent());
+            assertEquals(1, renderer.abandoned());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private String store(byte[] content, String extension) throws Exception {
+        return blobs.put(new ByteArrayInputStream(content), extension);
+    }
+
+    private static byte[] pdf(String... pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (String line : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText(line);
+                    content.endText();
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.StoredBlob;
+import com.cv.aiml_project.repository.JobApplicationArchiveRepository;
+import com.cv.aiml_project.repository.JobApplicationRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import com.cv.aiml_project.repository.StoredBlobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ResumeStorageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalBlobStore blobStore;
+    private ResumeRepository resumeRepository;
+    private StoredBlobRepository storedBlobRepository;
+    private ResumeStorageService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStore = new LocalBlobStore(dir);
+        resumeRepository = mock(ResumeRepository.class);
+        storedBlobRepository = mock(StoredBlobRepository.class);
+        TransactionTemplate transaction = mock(TransactionTemplate.class);
+        when(transaction.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        service = new ResumeStorageService();
+        ReflectionTestUtils.setField(service, "blobStore", blobStore);
+        ReflectionTestUtils.setField(service, "resumeRepository", resumeRepository);
+        ReflectionTestUtils.setField(service, "applicationRepository", mock(JobApplicationRepository.class));
+        ReflectionTestUtils.setField(service, "applicationArchiveRepository", mock(JobApplicationArchiveRepository.class));
+        ReflectionTestUtils.setField(service, "storedBlobRepository", storedBlobRepository);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "fileCacheSize", 10);
+        ReflectionTestUtils.setField(service, "deleteGraceMinutes", 10L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        ReflectionTestUtils.setField(service, "transaction", transaction);
+    }
+
+    @Test
+    void deleteIsOnlyQueuedForAfterTheGracePeriod() throws Exception {
+        String key = service.store(resume(), "resume");
+
+        service.deleteAfterCommit(key);
+
+        assertTrue(blobStore.exists(key));
+        verify(storedBlobRepository).queueDelete(eq(key), any(), argThat(after -> after.isAfter(LocalDateTime.now())));
+    }
+
+    @Test
+    void sweeperKeepsContentThatIsReferencedAgain() throws Exception {
+        String key = service.store(resume(), "resume");
+        StoredBlob blob = due(key);
+        when(resumeRepository.countByFilePath(key)).thenReturn(1L);
+
+        service.deleteIfUnreferenced(key);
+
+        assertTrue(blobStore.exists(key));
+        assertNull(blob.getDeleteAfter());
+        verify(storedBlobRepository, never()).delete(any());
+    }
+
+    @Test
+    void sweeperDeletesUnreferencedContentAndTellsListeners() throws Exception {
+        String key = service.store(resume(), "resume");
+        StoredBlob blob = due(key);
+        List<String> removed = new ArrayList<>();
+        service.onDelete(removed::add);
+
+        service.deleteIfUnreferenced(key);
+
+        assertFalse(blobStore.exists(key));
+        verify(storedBlobRepository).delete(blob);
+        assertEquals(List.of(key), removed);
+    }
+
+    @Test
+    void sweeperLeavesContentAnUploadClaimedMeanwhile() throws Exception {
+        String key = service.store(resume(), "resume");
+        StoredBlob blob = due(key);
+        // The claim of a concurrent upload cleared the queued delete before the sweeper got the row
+        blob.setDeleteAfter(null);
+
+        service.deleteIfUnreferenced(key);
+
+        assertTrue(blobStore.exists(key));
+        verify(storedBlobRepository, never()).delete(any());
+    }
+
+    @Test
+    void uploadRewritesContentDeletedBeforeItsClaim() throws Exception {
+        String key = service.store(resume(), "resume");
+        blobStore.delete(key);
+
+        assertEquals(key, service.store(resume(), "resume"));
+        assertTrue(blobStore.exists(key));
+        verify(storedBlobRepository, times(2)).claim(eq(key), any());
+    }
+
+    private StoredBlob due(String key) {
+        StoredBlob blob = new StoredBlob();
+        blob.setKey(key);
+        blob.setClaimedAt(LocalDateTime.now().minusHours(1));
+        blob.setDeleteAfter(LocalDateTime.now().minusMinutes(1));
+        when(storedBlobRepository.findLocked(key)).thenReturn(Optional.of(blob));
+        return blob;
+    }
+
+    private static MockMultipartFile resume() {
+        return new MockMultipartFile("file", "cv.pdf", "application/pdf",
+                "resume body".getBytes(StandardCharsets.UTF_8));
+    }
+}
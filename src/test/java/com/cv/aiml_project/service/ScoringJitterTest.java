@@ -0,0 +1,42 @@
+package com.cv.aiml_project.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringJitterTest {
+
+    @Test
+    void sameSeedAndPairGiveTheSameValues() {
+        ScoringJitter one = jitter(42L, true);
+        ScoringJitter other = jitter(42L, true);
+
+        assertEquals(one.factor(1L, 2L), other.factor(1L, 2L));
+        assertEquals(one.simulated(1L, 2L, "personality", 60, 30), other.simulated(1L, 2L, "personality", 60, 30));
+        assertNotEquals(one.factor(1L, 2L), one.factor(1L, 3L));
+        assertNotEquals(one.simulated(1L, 2L, "personality", 60, 30), one.simulated(1L, 2L, "culture", 60, 30));
+    }
+
+    @Test
+    void seedChangesTheValues() {
+        assertNotEquals(jitter(42L, true).factor(1L, 2L), jitter(7L, true).factor(1L, 2L));
+    }
+
+    @Test
+    void factorStaysInRangeAndIsOneWhenDisabled() {
+        ScoringJitter jitter = jitter(42L, true);
+        for (long candidate = 0; candidate < 1000; candidate++) {
+            double factor = jitter.factor(5L, candidate);
+            assertTrue(factor >= 0.9 && factor < 1.1, String.valueOf(factor));
+        }
+        assertEquals(1.0, jitter(42L, false).factor(5L, 6L));
+    }
+
+    private static ScoringJitter jitter(long seed, boolean enabled) {
+        ScoringJitter jitter = new ScoringJitter();
+        ReflectionTestUtils.setField(jitter, "seed", seed);
+        ReflectionTestUtils.setField(jitter, "enabled", enabled);
+        return jitter;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cv.aiml_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SkillMatcherTest {
+
+    private static final Map<String, String> ALIASES = Map.of("js", "javascript", "k8s", "kubernetes");
+    private static final UnaryOperator<String> CANONICAL = s -> {
+        String normalized = s.trim().toLowerCase(Locale.ROOT);
+        return ALIASES.getOrDefault(normalized, normalized);
+    };
+
+    @Test
+    void classifiesMatchedPartialAndMissing() {
+        SkillMatcher matcher = new SkillMatcher(List.of("java", "spring boot", "sql", "docker"), CANONICAL);
+
+        SkillMatcher.Result result = matcher.match(List.of("Java", "Spring", "PostgreSQL"));
+
+        assertEquals(List.of("java"), result.matched());
+        assertEquals(List.of("spring boot", "sql"), result.partial());
+        assertEquals(List.of("docker"), result.missing());
+    }
+
+    @Test
+    void resolvesAliasesOnBothSides() {
+        SkillMatcher matcher = new SkillMatcher(List.of("javascript", "k8s"), CANONICAL);
+
+        SkillMatcher.Result result = matcher.match(List.of("JS", "Kubernetes"));
+
+        assertEquals(List.of("javascript", "k8s"), result.matched());
+        assertEquals(100.0, result.matchedPercentage());
+    }
+
+    @Test
+    void ignoresBlankCandidateSkills() {
+        SkillMatcher matcher = new SkillMatcher(List.of("python"), CANONICAL);
+
+        SkillMatcher.Result result = matcher.match(List.of("", "  "));
+
+        assertEquals(List.of("python"), result.missing());
+    }
+
+    @Test
+    void agreesWithPairwiseContainsCheck() {
+        Random random = new Random(42);
+        String alphabet = "abc ";
+        for (int round = 0; round < 500; round++) {
+            List<String> required = randomSkills(random, alphabet, 1 + random.nextInt(8));
+            List<String> candidate = randomSkills(random, alphabet, random.nextInt(12));
+
+            SkillMatcher.Result result = new SkillMatcher(required, String::trim).match(candidate);
+
+            List<String> matched = new ArrayList<>();
+            List<String> partial = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (String r : required) {
+                boolean found = false;
+                boolean partialFound = false;
+                for (String c : candidate) {
+                    String skill = c.trim();
+                    if (skill.isEmpty()) continue;
+                    if (skill.equals(r)) found = true;
+                    else if (skill.contains(r) || r.contains(skill)) partialFound = true;
+                }
+                (found ? matched : partialFound ? partial : missing).add(r);
+            }
+
+            assertEquals(matched, result.matched());
+            assertEquals(partial, result.partial());
+            assertEquals(missing, result.missing());
+        }
+    }
+
+    private static List<String> randomSkills(Random random, String alphabet, int count) {
+        Set<String> skills = new LinkedHashSet<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder skill = new StringBuilder();
+            int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                skill.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String trimmed = skill.toString().trim();
+            if (!trimmed.isEmpty()) {
+                skills.add(trimmed);
+            }
+        }
+        return new ArrayList<>(skills);
+    }
+}
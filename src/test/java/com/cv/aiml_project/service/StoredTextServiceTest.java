@@ -0,0 +1,46 @@
+package com.cv.aiml_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoredTextServiceTest {
+
+    @Test
+    void compressedTextRoundTrips() {
+        String text = "Senior Java developer. Spring Boot, Hibernate, MySQL, Kafka. Café — naïve résumé.\n".repeat(200);
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+
+        byte[] packed = StoredTextService.compress(raw, Deflater.DEFAULT_COMPRESSION);
+
+        assertTrue(packed.length < raw.length / 10);
+        assertArrayEquals(raw, StoredTextService.decompress(packed));
+    }
+
+    @Test
+    void truncatedContentIsRejected() {
+        byte[] packed = StoredTextService.compress("x".repeat(10_000).getBytes(StandardCharsets.UTF_8), Deflater.BEST_SPEED);
+        byte[] truncated = Arrays.copyOf(packed, packed.length / 2);
+
+        assertThrows(RuntimeException.class, () -> StoredTextService.decompress(truncated));
+    }
+
+    @Test
+    void onlyMissingColumnsCountAsMovedAlready() {
+        SQLException unknownColumn = new SQLSyntaxErrorException("Unknown column 'resume_text'", "42S22", 1054);
+        SQLException lockTimeout = new SQLException("Lock wait timeout exceeded", "40001", 1205);
+
+        assertTrue(StoredTextService.isMissingColumn(new RuntimeException("could not prepare", unknownColumn)));
+        assertFalse(StoredTextService.isMissingColumn(new RuntimeException("could not execute", lockTimeout)));
+        assertFalse(StoredTextService.isMissingColumn(new IllegalStateException("no connection")));
+    }
+}
@@ -0,0 +1,125 @@
+package com.cv.aiml_project.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextExtractionServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private TextExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TextExtractionService(1, 1);
+        ReflectionTestUtils.setField(service, "maxChars", 1000);
+        ReflectionTestUtils.setField(service, "maxPages", 10);
+        ReflectionTestUtils.setField(service, "maxMemoryMb", 4L);
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 10L);
+        ReflectionTestUtils.setField(service, "maxOperatorsPerPage", 10000);
+        ReflectionTestUtils.setField(service, "maxAbandoned", 4);
+    }
+
+    @Test
+    void extractsPdfPageByPage() throws Exception {
+        Path file = dir.resolve("resume.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (String line : new String[]{"Java   Developer", "Spring Boot"}) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(50, 700);
+                    content.showText(line);
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+
+        TextExtractionService.Result result = service.extract(file, "application/pdf", "resume.pdf");
+
+        assertEquals("Java Developer\n\nSpring Boot", result.text());
+        assertArrayEquals(new int[]{0, 16}, result.pageOffsets());
+        assertFalse(result.truncated());
+    }
+
+    @Test
+    void extractsDocxParagraphsAndPageBreaks() throws Exception {
+        Path file = dir.resolve("resume.docx");
+        String xml = "<?xml version=\"1.0\"?>"
+                + "<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"><w:body>"
+                + "<w:p><w:r><w:t>Jane Doe</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:t xml:space=\"preserve\">Skills: </w:t><w:t>Python</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:br w:type=\"page\"/><w:t>Education</w:t></w:r></w:p>"
+                + "</w:body></w:document>";
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(xml.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        TextExtractionService.Result result = service.extract(file, null, "resume.docx");
+
+        assertEquals("Jane Doe\nSkills: Python\n\nEducation", result.text());
+        assertArrayEquals(new int[]{0, 25}, result.pageOffsets());
+    }
+
+    @Test
+    void capsCharactersAndSkipsUnsupportedFormats() throws Exception {
+        Path text = dir.resolve("resume.txt");
+        try (OutputStream out = Files.newOutputStream(text)) {
+            out.write("word ".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        }
+
+        TextExtractionService.Result result = service.extract(text, "text/plain", "resume.txt");
+        assertEquals(1000, result.text().length());
+        assertTrue(result.truncated());
+
+        assertNull(service.extract(text, "image/png", "photo.png"));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void abandonsAStuckParseAndFreesItsSlot() throws Exception {
+        ReflectionTestUtils.setField(service, "timeoutSeconds", 1L);
+        Path text = dir.resolve("resume.txt");
+        Files.writeString(text, "Java developer");
+
+        // Opening a pipe nobody writes to blocks and ignores interrupts, like a parse stuck in a library
+        Path stuck = dir.resolve("stuck.txt");
+        assertEquals(0, new ProcessBuilder("mkfifo", stuck.toString()).start().waitFor());
+
+        try {
+            IOException timedOut = assertThrows(IOException.class,
+                    () -> service.extract(stuck, "text/plain", "stuck.txt"));
+            assertTrue(timedOut.getMessage().contains("timed out"));
+
+            // The only slot was taken by the stuck parse; the next document still gets one
+            assertEquals("Java developer", service.extract(text, "text/plain", "resume.txt").text());
+            assertEquals(1, ((TimeLimitedPool) ReflectionTestUtils.getField(service, "parser")).abandoned());
+        } finally {
+            Files.writeString(stuck, "");
+        }
+    }
+}
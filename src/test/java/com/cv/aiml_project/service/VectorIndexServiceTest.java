@@ -0,0 +1,155 @@
+package com.cv.aiml_project.service;
+
+import com.cv.aiml_project.entity.Job;
+import com.cv.aiml_project.entity.Resume;
+import com.cv.aiml_project.entity.StoredText;
+import com.cv.aiml_project.entity.User;
+import com.cv.aiml_project.repository.JobRepository;
+import com.cv.aiml_project.repository.ResumeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VectorIndexServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ResumeRepository resumeRepository;
+    private JobRepository jobRepository;
+    private StoredTextService storedTextService;
+    private VectorIndexService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        resumeRepository = mock(ResumeRepository.class);
+        jobRepository = mock(JobRepository.class);
+        storedTextService = mock(StoredTextService.class);
+        when(storedTextService.get(any(), any())).thenReturn(Optional.empty());
+        when(storedTextService.getAll(eq(StoredText.Kind.RESUME_TEXT), any())).thenReturn(Map.of());
+        service = open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.close();
+    }
+
+    @Test
+    void indexChangesWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.indexResume(resume(1L, user(10L)));
+        assertEquals(0, service.getIndexedResumeCount());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, service.getIndexedResumeCount());
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.indexResume(resume(1L, user(10L)));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(0, service.getIndexedResumeCount());
+    }
+
+    @Test
+    void startupOnlyAppliesTheDifferenceFromTheDatabase() throws Exception {
+        service.indexResume(resume(1L, user(10L)));
+        service.indexResume(resume(2L, user(20L)));
+        service.indexJob(job(5L));
+        service.close();
+
+        // Reopened from disk: resume 2 was deleted and resume 3 added while it was down
+        service = open();
+        assertEquals(2, service.getIndexedResumeCount());
+        when(resumeRepository.findAllCurrentResumeIds()).thenReturn(List.of(1L, 3L));
+        when(resumeRepository.findWithUserByIdIn(List.of(3L))).thenReturn(List.of(resume(3L, user(30L))));
+        when(jobRepository.findAllIds()).thenReturn(List.of(5L));
+
+        service.catchUp();
+
+        assertEquals(2, service.getIndexedResumeCount());
+        verify(resumeRepository).findWithUserByIdIn(List.of(3L));
+        verify(jobRepository, never()).findAllById(any());
+        verify(resumeRepository, never()).findCurrentResumesWithUser(any());
+    }
+
+    private VectorIndexService open() throws Exception {
+        VectorIndexService opened = new VectorIndexService();
+        ReflectionTestUtils.setField(opened, "embedder", new OneHotEmbedder());
+        ReflectionTestUtils.setField(opened, "resumeRepository", resumeRepository);
+        ReflectionTestUtils.setField(opened, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(opened, "storedTextService", storedTextService);
+        ReflectionTestUtils.setField(opened, "indexDir", dir.toString());
+        ReflectionTestUtils.setField(opened, "nprobe", 4);
+        ReflectionTestUtils.setField(opened, "minTrainSize", 1000);
+        ReflectionTestUtils.invokeMethod(opened, "open");
+        return opened;
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setSkills("java, spring " + id);
+        return user;
+    }
+
+    private static Resume resume(Long id, User user) {
+        Resume resume = new Resume();
+        resume.setId(id);
+        resume.setUser(user);
+        return resume;
+    }
+
+    private static Job job(Long id) {
+        Job job = new Job();
+        job.setId(id);
+        job.setTitle("Developer " + id);
+        return job;
+    }
+
+    // One dimension per text hash bucket, normalised
+    private static class OneHotEmbedder implements TextEmbedder {
+
+        @Override
+        public String name() {
+            return "one-hot";
+        }
+
+        @Override
+        public int dimension() {
+            return 8;
+        }
+
+        @Override
+        public float[] embed(String text) {
+            float[] vector = new float[dimension()];
+            vector[Math.floorMod(text.hashCode(), dimension())] = 1f;
+            return vector;
+        }
+    }
+}